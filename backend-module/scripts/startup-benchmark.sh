@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+# Benchmark de inicializacao do backend-module.
+#
+# Compara o jar padrao com o modo fast-start (AOT + CDS + aquecimento) medindo,
+# em cada execucao:
+#   - tempo ate a primeira resposta 200 de POST /api/v1/beneficios/transferir
+#   - RSS do processo quando /actuator/health/readiness fica UP
+#
+# Uso: scripts/startup-benchmark.sh [execucoes]   (padrao: 5)
+# Requer: JDK 17+, curl. Executar a partir de backend-module/.
+set -euo pipefail
+
+EXECUCOES="${1:-5}"
+PORTA="${PORTA:-18080}"
+DIR="target/startup-benchmark"
+BASE="http://localhost:${PORTA}"
+
+cd "$(dirname "$0")/.."
+rm -rf "$DIR"
+mkdir -p "$DIR"
+
+echo "==> Build padrao"
+sh ./mvnw -q -DskipTests clean package
+cp target/backend-module-*.jar "$DIR/padrao.jar"
+
+echo "==> Build fast-start (AOT)"
+sh ./mvnw -q -DskipTests -Pfast-start clean package
+java -Djarmode=tools -jar target/backend-module-*.jar extract --destination "$DIR/fast-start" > /dev/null
+JAR_FAST="$(ls "$DIR"/fast-start/backend-module-*.jar)"
+OPCOES_FAST=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-start)
+
+echo "==> Treino do arquivo CDS"
+java -XX:ArchiveClassesAtExit="$DIR/app.jsa" "${OPCOES_FAST[@]}" \
+     -Dspring.context.exit=onRefresh -jar "$JAR_FAST" > "$DIR/treino-cds.log" 2>&1
+
+agora_ms() {
+    date +%s%3N
+}
+
+# Executa uma inicializacao e imprime "<ms ate transferir> <rss kB>"
+medir() {
+    local inicio pid rss="" fim=""
+    inicio=$(agora_ms)
+    "$@" --server.port="$PORTA" --management.endpoint.health.probes.enabled=true \
+        > "$DIR/execucao.log" 2>&1 &
+    pid=$!
+    while kill -0 "$pid" 2> /dev/null; do
+        if [[ -z "$rss" ]] && curl -sf "$BASE/actuator/health/readiness" > /dev/null 2>&1; then
+            rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+        fi
+        # Benefícios 1 e 2 vêm do DataInitializer (ativos, com saldo)
+        if curl -sf -o /dev/null -X POST "$BASE/api/v1/beneficios/transferir?fromId=1&toId=2&amount=1.00"; then
+            fim=$(agora_ms)
+            break
+        fi
+        sleep 0.01
+    done
+    if [[ -z "$rss" ]]; then
+        rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    fi
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    if [[ -z "$fim" ]]; then
+        echo "Falha na inicializacao; ver $DIR/execucao.log" >&2
+        exit 1
+    fi
+    echo "$((fim - inicio)) $rss"
+}
+
+resumo() {
+    local nome="$1" arquivo="$2"
+    sort -n -k1 "$arquivo" | awk -v nome="$nome" '
+        { t[NR] = $1; r[NR] = $2; soma_r += $2 }
+        END {
+            printf "%-12s execucoes=%d  transferir(ms): min=%d mediana=%d max=%d  rss_ready(MB): media=%.1f\n",
+                nome, NR, t[1], t[int((NR + 1) / 2)], t[NR], soma_r / NR / 1024
+        }'
+}
+
+: > "$DIR/padrao.txt"
+: > "$DIR/fast-start.txt"
+for ((i = 1; i <= EXECUCOES; i++)); do
+    echo "==> Execucao $i/$EXECUCOES"
+    medir java -jar "$DIR/padrao.jar" >> "$DIR/padrao.txt"
+    medir java -XX:SharedArchiveFile="$DIR/app.jsa" "${OPCOES_FAST[@]}" -jar "$JAR_FAST" >> "$DIR/fast-start.txt"
+done
+
+echo
+resumo "padrao" "$DIR/padrao.txt"
+resumo "fast-start" "$DIR/fast-start.txt"
@@ -0,0 +1,115 @@
+package com.exemple.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.service.BeneficioService;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Aquecimento dos caminhos de transferência e saldo no perfil fast-start.
+ *
+ * Roda como ApplicationRunner, ou seja, antes do ApplicationReadyEvent: a instância
+ * só passa a aceitar tráfego (readiness) depois que Hibernate, proxies transacionais,
+ * Jackson e o DispatcherServlet já foram exercitados. As transferências são feitas
+ * em benefícios temporários dentro de uma transação desfeita ao final, então nenhum
+ * evento é publicado e nenhum dado permanece.
+ */
+@Component
+@Profile("fast-start")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AquecimentoInicializacao implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoInicializacao.class);
+
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+
+    @Autowired
+    private BeneficioService beneficioService;
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${beneficio.aquecimento.iteracoes:200}")
+    private int iteracoes;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        aquecerServico();
+        aquecerHttp();
+        log.info("Aquecimento concluído em {} ms ({} iterações)",
+                (System.nanoTime() - inicio) / 1_000_000, iteracoes);
+    }
+
+    private void aquecerServico() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long origem = beneficioRepository.saveAndFlush(
+                    new Beneficio("Aquecimento origem", null, new BigDecimal("1000000.00"))).getId();
+            Long destino = beneficioRepository.saveAndFlush(
+                    new Beneficio("Aquecimento destino", null, new BigDecimal("1000000.00"))).getId();
+
+            for (int i = 0; i < iteracoes; i++) {
+                beneficioService.transfer(origem, destino, VALOR);
+                beneficioService.transferWithPessimisticLock(destino, origem, VALOR);
+                beneficioService.transferWithMixedLock(origem, destino, VALOR);
+                beneficioService.consultarSaldo(origem);
+                beneficioService.consultarSaldoEVersao(destino);
+                beneficioService.isTransferenciaPossivel(origem, VALOR);
+            }
+
+            // Nada do aquecimento é confirmado
+            status.setRollbackOnly();
+        });
+    }
+
+    private void aquecerHttp() {
+        String porta = environment.getProperty("local.server.port");
+        if (porta == null) {
+            return;
+        }
+        // Requisições que passam por Tomcat, DispatcherServlet, conversão de parâmetros e
+        // Jackson sem alterar dados: transferência rejeitada na validação e saldo inexistente
+        String base = "http://localhost:" + porta + "/api/v1/beneficios";
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest transferir = HttpRequest.newBuilder(URI.create(base + "/transferir?fromId=-1&toId=-1&amount=1"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpRequest saldo = HttpRequest.newBuilder(URI.create(base + "/-1/saldo")).GET().build();
+        try {
+            for (int i = 0; i < iteracoes; i++) {
+                client.send(transferir, HttpResponse.BodyHandlers.discarding());
+                client.send(saldo, HttpResponse.BodyHandlers.discarding());
+            }
+        } catch (Exception e) {
+            log.warn("Aquecimento HTTP interrompido: {}", e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.exemple.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.exemple.backend.service.SqlRastreamento;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource que mede o tempo de cada execução de Statement e repassa ao
+ * SqlRastreamento. Conexões e statements são envolvidos por proxies JDK; unwrap()
+ * continua chegando ao pool original (métricas do Hikari no actuator).
+ */
+public class RastreamentoDataSource extends DelegatingDataSource {
+
+    private final SqlRastreamento rastreamento;
+
+    public RastreamentoDataSource(DataSource alvo, SqlRastreamento rastreamento) {
+        super(alvo);
+        this.rastreamento = rastreamento;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return rastrearConexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return rastrearConexao(super.getConnection(username, password));
+    }
+
+    private Connection rastrearConexao(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    Object resultado = invocar(conexao, method, args);
+                    if (resultado instanceof Statement statement) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return rastrearStatement(statement, sql);
+                    }
+                    return resultado;
+                });
+    }
+
+    private Statement rastrearStatement(Statement statement, String sqlPreparado) {
+        Class<?> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {tipo},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invocar(statement, method, args);
+                    }
+                    String sql = sqlPreparado != null ? sqlPreparado
+                            : args != null && args.length > 0 && args[0] instanceof String texto ? texto
+                            : "batch";
+                    SQLException erro = null;
+                    long inicio = System.nanoTime();
+                    try {
+                        return invocar(statement, method, args);
+                    } catch (SQLException e) {
+                        erro = e;
+                        throw e;
+                    } finally {
+                        rastreamento.registrar(sql, System.nanoTime() - inicio, erro);
+                    }
+                });
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.exemple.backend.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Infraestrutura do perfil reativo: pool R2DBC, DatabaseClient e o TransactionalOperator
+ * das transferências.
+ *
+ * O R2dbcTransactionManager não é registrado como bean: com dois TransactionManager no
+ * contexto, os @Transactional do BeneficioService (JPA) deixariam de ter um padrão único.
+ * As transações reativas passam apenas pelo TransactionalOperator.
+ */
+@Configuration
+@Profile("reativo")
+public class ReativoConfig implements WebFluxConfigurer {
+
+    @Value("${beneficio.reativo.url:r2dbc:h2:mem:///testdb}")
+    private String url;
+
+    @Value("${beneficio.reativo.pool-inicial:4}")
+    private int poolInicial;
+
+    @Value("${beneficio.reativo.pool-maximo:10}")
+    private int poolMaximo;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory() {
+        ConnectionFactory conexoes = ConnectionFactories.get(url);
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(conexoes)
+                .initialSize(poolInicial)
+                .maxSize(poolMaximo)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperatorReativo(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    // Mesma política de CorsConfig (que só se aplica ao Spring MVC)
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins("http://localhost:4200") // URL do Angular
+                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedHeaders("*")
+                .exposedHeaders("ETag")
+                .allowCredentials(true);
+    }
+}
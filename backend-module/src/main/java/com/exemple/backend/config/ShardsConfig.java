@@ -0,0 +1,76 @@
+package com.exemple.backend.config;
+
+import com.exemple.backend.repository.BeneficioShardRepository;
+import com.exemple.backend.repository.CoordenadorShardsRepository;
+import com.exemple.backend.service.MapaShards;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Infraestrutura do perfil shards: um pool por shard, o mapa de hash consistente e o
+ * log de recuperação no banco principal.
+ *
+ * Os DataSources dos shards não são beans: um segundo DataSource no contexto desligaria
+ * a configuração automática do DataSource principal, que continua servindo o JPA e o
+ * log do coordenador.
+ */
+@Configuration
+@Profile("shards")
+public class ShardsConfig {
+
+    @Value("${beneficio.shards.quantidade:4}")
+    private int quantidade;
+
+    // %d é substituído pelo número do shard
+    @Value("${beneficio.shards.url-padrao:jdbc:h2:mem:shard%d}")
+    private String urlPadrao;
+
+    @Value("${beneficio.shards.usuario:sa}")
+    private String usuario;
+
+    @Value("${beneficio.shards.senha:}")
+    private String senha;
+
+    @Value("${beneficio.shards.pool-maximo:10}")
+    private int poolMaximo;
+
+    @Value("${beneficio.shards.nos-virtuais:160}")
+    private int nosVirtuais;
+
+    @Bean
+    public MapaShards mapaShards() {
+        return new MapaShards(quantidade, nosVirtuais);
+    }
+
+    @Bean(destroyMethod = "close")
+    public BeneficioShardRepository beneficioShardRepository() {
+        List<HikariDataSource> dataSources = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setJdbcUrl(String.format(urlPadrao, shard));
+            dataSource.setUsername(usuario);
+            dataSource.setPassword(senha);
+            dataSource.setMaximumPoolSize(poolMaximo);
+            dataSources.add(dataSource);
+        }
+        BeneficioShardRepository repository = new BeneficioShardRepository(dataSources);
+        repository.criarSchema();
+        return repository;
+    }
+
+    @Bean
+    public CoordenadorShardsRepository coordenadorShardsRepository(DataSource dataSource) {
+        CoordenadorShardsRepository repository = new CoordenadorShardsRepository(new JdbcTemplate(dataSource));
+        repository.criarSchema();
+        return repository;
+    }
+}
@@ -0,0 +1,33 @@
+package com.exemple.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.exemple.backend.service.SqlRastreamento;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação com o RastreamentoDataSource.
+ * Desligável com beneficio.sql-rastreamento.habilitado=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "beneficio.sql-rastreamento.habilitado", havingValue = "true", matchIfMissing = true)
+public class SqlRastreamentoConfig {
+
+    @Bean
+    static BeanPostProcessor rastreamentoDataSourcePostProcessor(ObjectProvider<SqlRastreamento> rastreamento) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof RastreamentoDataSource)) {
+                    return new RastreamentoDataSource(dataSource, rastreamento.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,10 +1,22 @@
 package com.exemple.backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.exemple.backend.dto.SaldoVersaoView;
 import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.service.BeneficioAlteracaoContador;
+import com.exemple.backend.service.BeneficioEstatisticasService;
+import com.exemple.backend.service.BeneficioEventoPublisher;
+import com.exemple.backend.service.BeneficioLeituraCoalescida;
+import com.exemple.backend.service.BeneficioReconciliacaoService;
 import com.exemple.backend.service.BeneficioService;
 
 import java.math.BigDecimal;
@@ -17,21 +29,195 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 @RestController
+// No perfil reativo os endpoints de saldo e transferência são do BeneficioReativoController
+@Profile("!reativo")
 @RequestMapping("/api/v1/beneficios")
 @Tag(name = "Benefícios", description = "API para gerenciamento de benefícios financeiros")
 public class BeneficioController {
+
+    // Máximo de ids por consulta de saldos em lote (GET e POST /saldos)
+    private static final int MAXIMO_IDS_SALDOS = 10_000;
     
     @Autowired
     private BeneficioService beneficioService;
 
-    @Operation(summary = "Listar todos os benefícios", description = "Retorna uma lista com todos os benefícios cadastrados")
+    @Autowired
+    private BeneficioEstatisticasService estatisticasService;
+
+    @Autowired
+    private BeneficioReconciliacaoService reconciliacaoService;
+
+    @Autowired
+    private BeneficioAlteracaoContador alteracaoContador;
+
+    @Autowired
+    private BeneficioEventoPublisher eventoPublisher;
+
+    // Consultas de saldo e versão por id, coalescidas entre chamadas simultâneas
+    @Autowired
+    private BeneficioLeituraCoalescida leituraCoalescida;
+
+    @Operation(summary = "Listar todos os benefícios", description = "Retorna uma lista com todos os benefícios cadastrados. Suporta If-None-Match (ETag)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de benefícios retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Lista não mudou desde o ETag informado"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @GetMapping
-    public ResponseEntity<List<Beneficio>> listarTodos() {
-        return ResponseEntity.ok(beneficioService.listarTodos());
+    public ResponseEntity<List<Beneficio>> listarTodos(WebRequest request) {
+        // Lido antes da consulta: uma alteração concorrente gera um ETag novo no próximo pedido
+        String etag = alteracaoContador.getEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(beneficioService.listarTodos());
+    }
+
+    @Operation(summary = "Buscar benefícios por nome", description = "Busca sem distinção de caixa ou acentos. Modos: contem (padrão), prefixo ou exato")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    })
+    @GetMapping("/buscar")
+    public ResponseEntity<List<Beneficio>> buscarPorNome(
+            @Parameter(description = "Nome ou trecho do nome", example = "vale", required = true)
+            @RequestParam String nome,
+            
+            @Parameter(description = "Modo de busca: contem, prefixo ou exato", example = "contem")
+            @RequestParam(defaultValue = "contem") String modo,
+            
+            @Parameter(description = "Quantidade máxima de resultados", example = "20")
+            @RequestParam(defaultValue = "20") int limite) {
+        
+        if (limite < 1 || limite > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        switch (modo) {
+            case "exato":
+                return ResponseEntity.ok(beneficioService.buscarPorNomeExato(nome, limite));
+            case "prefixo":
+                return ResponseEntity.ok(beneficioService.buscarPorNome(nome, true, limite));
+            case "contem":
+                return ResponseEntity.ok(beneficioService.buscarPorNome(nome, false, limite));
+            default:
+                return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Listar ativos por faixa de valor", description = "Retorna benefícios ativos com valor entre minValor e maxValor, paginados em ordem de valor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    })
+    @GetMapping("/faixa-valor")
+    public ResponseEntity<List<Beneficio>> listarPorFaixaDeValor(
+            @Parameter(description = "Valor mínimo (inclusive)", example = "100.00", required = true)
+            @RequestParam BigDecimal minValor,
+            
+            @Parameter(description = "Valor máximo (inclusive)", example = "1000.00", required = true)
+            @RequestParam BigDecimal maxValor,
+            
+            @Parameter(description = "Página, começando em 0", example = "0")
+            @RequestParam(defaultValue = "0") int pagina,
+            
+            @Parameter(description = "Tamanho da página", example = "50")
+            @RequestParam(defaultValue = "50") int tamanho) {
+        
+        if (pagina < 0 || tamanho < 1 || tamanho > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(beneficioService.listarAtivosComValorEntre(minValor, maxValor, pagina, tamanho));
+    }
+
+    @Operation(summary = "Listar por valor mínimo", description = "Retorna benefícios com valor maior que o informado, paginados em ordem de valor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    })
+    @GetMapping("/valor-acima")
+    public ResponseEntity<List<Beneficio>> listarComValorAcimaDe(
+            @Parameter(description = "Valor de corte (exclusivo)", example = "500.00", required = true)
+            @RequestParam BigDecimal valor,
+            
+            @Parameter(description = "Página, começando em 0", example = "0")
+            @RequestParam(defaultValue = "0") int pagina,
+            
+            @Parameter(description = "Tamanho da página", example = "50")
+            @RequestParam(defaultValue = "50") int tamanho) {
+        
+        if (pagina < 0 || tamanho < 1 || tamanho > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(beneficioService.listarComValorAcimaDe(valor, pagina, tamanho));
+    }
+
+    @Operation(summary = "Stream de alterações de saldo", description = "Server-Sent Events com (beneficioId, saldo, versao) a cada transferência confirmada. Aceita filtro por ids e retomada via Last-Event-ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream aberto com sucesso")
+    })
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(
+            @Parameter(description = "IDs dos benefícios de interesse (vazio = todos)", example = "1,2")
+            @RequestParam(required = false) List<Long> ids,
+            
+            @Parameter(description = "Último evento recebido, enviado automaticamente pelo EventSource na reconexão")
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        
+        return eventoPublisher.assinar(ids, ultimoEventoId);
+    }
+
+    @Operation(summary = "Estatísticas dos benefícios", description = "Retorna soma, quantidade, ativos, mínimo, máximo e histograma de saldos mantidos em memória")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas obtidas com sucesso"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/estatisticas")
+    public ResponseEntity<Map<String, Object>> obterEstatisticas() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.putAll(estatisticasService.obterEstatisticas());
+        response.put("timestamp", new Date());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Relatório de reconciliação", description = "Retorna o resultado da última verificação de conservação dos saldos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Relatório obtido com sucesso")
+    })
+    @GetMapping("/reconciliacao")
+    public ResponseEntity<Map<String, Object>> obterReconciliacao() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.putAll(reconciliacaoService.obterUltimoRelatorio());
+        response.put("timestamp", new Date());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Executar reconciliação", description = "Verifica a conservação dos saldos imediatamente (incremental ou completa)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reconciliação executada"),
+        @ApiResponse(responseCode = "409", description = "Reconciliação já em andamento")
+    })
+    @PostMapping("/reconciliacao")
+    public ResponseEntity<Map<String, Object>> executarReconciliacao(
+            @Parameter(description = "Relê todas as faixas de id, não só as alteradas", example = "false")
+            @RequestParam(defaultValue = "false") boolean completa) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        Optional<Map<String, Object>> relatorio = reconciliacaoService.executar(completa);
+        if (relatorio.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Reconciliação já em andamento");
+            response.put("timestamp", new Date());
+            return ResponseEntity.status(409).body(response); // 409 Conflict
+        }
+        response.put("success", true);
+        response.putAll(relatorio.get());
+        response.put("timestamp", new Date());
+        return ResponseEntity.ok(response);
     }
     
     @Operation(summary = "Transferir valor entre benefícios", description = "Realiza transferência usando OPTIMISTIC LOCKING (padrão)")
@@ -102,6 +288,28 @@ public class BeneficioController {
                                    fromId, toId, amount, "mixed");
     }
 
+    @Operation(summary = "Transferir com CRÉDITO DIFERIDO", description = "Debita a origem com uma atualização condicional e grava o crédito do destino como pendente, sem lock no destino. O crédito é consolidado em background e já aparece nas consultas de saldo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transferência realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "422", description = "Erro de negócio (saldo disponível insuficiente, benefício inativo)"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/transferir/credito-diferido")
+    public ResponseEntity<Map<String, Object>> transferirComCreditoDiferido(
+            @Parameter(description = "ID do benefício de origem", example = "1", required = true)
+            @RequestParam Long fromId,
+            
+            @Parameter(description = "ID do benefício de destino", example = "2", required = true)
+            @RequestParam Long toId,
+            
+            @Parameter(description = "Valor da transferência", example = "100.00", required = true)
+            @RequestParam BigDecimal amount) {
+        
+        return executarTransferencia(() -> beneficioService.transferWithDeferredCredit(fromId, toId, amount), 
+                                   fromId, toId, amount, "deferred-credit");
+    }
+
     // Método auxiliar para executar transferências
     private ResponseEntity<Map<String, Object>> executarTransferencia(
             Runnable transferenciaMethod, Long fromId, Long toId, BigDecimal amount, String lockType) {
@@ -121,6 +329,10 @@ public class BeneficioController {
 
             return ResponseEntity.ok(response);
 
+        } catch (BeneficioBusinessException e) {
+            // Rejeições esperadas (400, 409, 422): status pelo tipo, no BeneficioErroHandler
+            throw e;
+
         } catch (IllegalArgumentException e) {
             response.put("success", false);
             response.put("message", "Erro de validação: " + e.getMessage());
@@ -136,15 +348,6 @@ public class BeneficioController {
             return ResponseEntity.unprocessableEntity().body(response);
 
         } catch (RuntimeException e) {
-            // Captura exceções de concorrência
-            if (e.getMessage().contains("concorrência") || e.getMessage().contains("conflito")) {
-                response.put("success", false);
-                response.put("message", "Conflito de concorrência: " + e.getMessage());
-                response.put("lockType", lockType);
-                response.put("timestamp", new Date());
-                return ResponseEntity.status(409).body(response); // 409 Conflict
-            }
-            
             response.put("success", false);
             response.put("message", "Erro interno: " + e.getMessage());
             response.put("lockType", lockType);
@@ -153,25 +356,29 @@ public class BeneficioController {
         }
     }
 
-    @Operation(summary = "Obter versão do benefício", description = "Retorna a versão atual do benefício para controle de concorrência")
+    @Operation(summary = "Obter versão do benefício", description = "Retorna a versão atual do benefício para controle de concorrência. Suporta If-None-Match (ETag)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Versão obtida com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Não modificado desde o ETag informado"),
         @ApiResponse(responseCode = "400", description = "Benefício não encontrado"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @GetMapping("/{id}/versao")
-    public ResponseEntity<Map<String, Object>> obterVersao(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> obterVersao(@PathVariable Long id, WebRequest request) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Long versao = beneficioService.obterVersaoAtual(id);
+            Long versao = leituraCoalescida.obterVersaoAtual(id);
+            if (request.checkNotModified(etagVersao(versao))) {
+                return null;
+            }
             
             response.put("success", true);
             response.put("beneficioId", id);
             response.put("versao", versao);
             response.put("timestamp", new Date());
             
-            return ResponseEntity.ok(response);
+            return comEtagVersao(versao, response);
             
         } catch (Exception e) {
             response.put("success", false);
@@ -216,25 +423,71 @@ public class BeneficioController {
         }
     }
 
-    @Operation(summary = "Consultar saldo", description = "Retorna o saldo atual de um benefício")
+    @Operation(summary = "Consultar saldo", description = "Retorna o saldo atual de um benefício. Suporta If-None-Match (ETag)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Saldo obtido com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Não modificado desde o ETag informado"),
         @ApiResponse(responseCode = "400", description = "Benefício não encontrado"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @GetMapping("/{id}/saldo")
-    public ResponseEntity<Map<String, Object>> consultarSaldo(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> consultarSaldo(@PathVariable Long id, WebRequest request) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            BigDecimal saldo = beneficioService.consultarSaldo(id);
+            SaldoVersaoView saldoVersao = leituraCoalescida.consultarSaldoEVersao(id);
+            if (request.checkNotModified(etagSaldo(saldoVersao))) {
+                return null;
+            }
             
             response.put("success", true);
             response.put("beneficioId", id);
-            response.put("saldo", saldo);
+            response.put("saldo", saldoVersao.getValor());
             response.put("timestamp", new Date());
             
-            return ResponseEntity.ok(response);
+            return comEtagSaldo(saldoVersao, response);
+            
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "Erro: " + e.getMessage());
+            response.put("beneficioId", id);
+            response.put("timestamp", new Date());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Erro interno: " + e.getMessage());
+            response.put("beneficioId", id);
+            response.put("timestamp", new Date());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    @Operation(summary = "Consultar saldo e versão", description = "Retorna saldo, versão e status do benefício em uma única chamada. Suporta If-None-Match (ETag)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldo e versão obtidos com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Não modificado desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Benefício não encontrado"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{id}/saldo-versao")
+    public ResponseEntity<Map<String, Object>> consultarSaldoEVersao(@PathVariable Long id, WebRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            SaldoVersaoView saldoVersao = leituraCoalescida.consultarSaldoEVersao(id);
+            if (request.checkNotModified(etagSaldo(saldoVersao))) {
+                return null;
+            }
+            
+            response.put("success", true);
+            response.put("beneficioId", id);
+            response.put("saldo", saldoVersao.getValor());
+            response.put("versao", saldoVersao.getVersao());
+            response.put("ativo", saldoVersao.getAtivo());
+            response.put("creditoPendente", saldoVersao.getCreditoPendente());
+            response.put("timestamp", new Date());
+            
+            return comEtagSaldo(saldoVersao, response);
             
         } catch (IllegalArgumentException e) {
             response.put("success", false);
@@ -251,6 +504,99 @@ public class BeneficioController {
         }
     }
 
+    @Operation(summary = "Consultar saldos em lote", description = "Retorna saldo, versão e status de vários benefícios com uma consulta IN; ids inexistentes vêm em 'ausentes'. Suporta If-None-Match (ETag)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldos obtidos com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nenhum saldo mudou desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Lista de ids vazia, com nulos ou acima do limite"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/saldos")
+    public ResponseEntity<Map<String, Object>> consultarSaldos(
+            @Parameter(description = "IDs dos benefícios separados por vírgula", example = "1,2,3", required = true)
+            @RequestParam List<Long> ids,
+            WebRequest request) {
+        return responderSaldos(ids, request);
+    }
+
+    @Operation(summary = "Consultar saldos em lote (POST)", description = "Mesma consulta de GET /saldos com os ids no corpo (array JSON), para listas grandes. Sem ETag: respostas condicionais só no GET")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldos obtidos com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Lista de ids vazia, com nulos ou acima do limite"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/saldos")
+    public ResponseEntity<Map<String, Object>> consultarSaldosPost(@RequestBody List<Long> ids) {
+        // Em método não seguro, checkNotModified trata If-None-Match como pré-condição (412, não 304)
+        return responderSaldos(ids, null);
+    }
+
+    // request nulo (POST): resposta sem ETag e sem avaliação condicional
+    private ResponseEntity<Map<String, Object>> responderSaldos(List<Long> ids, WebRequest request) {
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        if (ids == null || ids.isEmpty() || ids.size() > MAXIMO_IDS_SALDOS) {
+            response.put("success", false);
+            response.put("message", "Informe entre 1 e " + MAXIMO_IDS_SALDOS + " ids");
+            response.put("timestamp", new Date());
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            Map<Long, SaldoVersaoView> saldos = beneficioService.consultarSaldos(ids);
+
+            Map<Long, Map<String, Object>> encontrados = new LinkedHashMap<>();
+            List<Long> ausentes = new ArrayList<>();
+            long hash = 17;
+            for (Long id : new LinkedHashSet<>(ids)) {
+                SaldoVersaoView saldo = saldos.get(id);
+                hash = 31 * hash + id;
+                if (saldo == null) {
+                    ausentes.add(id);
+                    continue;
+                }
+                hash = 31 * hash + saldo.getVersao();
+                if (saldo.getUltimoCreditoPendente() != null) {
+                    hash = 31 * hash + saldo.getUltimoCreditoPendente();
+                }
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("saldo", saldo.getValor());
+                item.put("versao", saldo.getVersao());
+                item.put("ativo", saldo.getAtivo());
+                encontrados.put(id, item);
+            }
+
+            // ETag derivado dos pares (id, versão) e dos créditos pendentes: muda se qualquer saldo do lote mudar
+            String etag = "s" + Long.toHexString(hash) + "-" + encontrados.size();
+            if (request != null && request.checkNotModified(etag)) {
+                return null;
+            }
+
+            response.put("success", true);
+            response.put("saldos", encontrados);
+            response.put("ausentes", ausentes);
+            response.put("timestamp", new Date());
+            if (request == null) {
+                return ResponseEntity.ok(response);
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .body(response);
+
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "Erro: " + e.getMessage());
+            response.put("timestamp", new Date());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "Erro interno: " + e.getMessage());
+            response.put("timestamp", new Date());
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     @Operation(summary = "Verificar transferência possível", description = "Verifica se uma transferência é possível sem executá-la")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Verificação realizada com sucesso"),
@@ -284,4 +630,32 @@ public class BeneficioController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
\ No newline at end of file
+
+    // ETag forte derivado do @Version do benefício
+    private static String etagVersao(Long versao) {
+        return "v" + versao;
+    }
+
+    private static ResponseEntity<Map<String, Object>> comEtagVersao(Long versao, Map<String, Object> response) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etagVersao(versao))
+                .body(response);
+    }
+
+    /**
+     * ETag de saldo: a versão muda a cada alteração de VALOR, e o último crédito
+     * pendente muda a cada crédito diferido ainda não consolidado
+     */
+    private static String etagSaldo(SaldoVersaoView saldo) {
+        Long ultimoCredito = saldo.getUltimoCreditoPendente();
+        return ultimoCredito == null ? etagVersao(saldo.getVersao()) : etagVersao(saldo.getVersao()) + "-c" + ultimoCredito;
+    }
+
+    private static ResponseEntity<Map<String, Object>> comEtagSaldo(SaldoVersaoView saldo, Map<String, Object> response) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etagSaldo(saldo))
+                .body(response);
+    }
+}
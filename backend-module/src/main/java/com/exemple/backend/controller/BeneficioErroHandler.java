@@ -0,0 +1,59 @@
+package com.exemple.backend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.exception.ConflitoConcorrenciaException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.exception.SnapshotConflitanteException;
+
+import java.util.*;
+
+/**
+ * Converte as rejeições de negócio (BeneficioBusinessException) em respostas HTTP.
+ * O status é escolhido pelo tipo da exceção, sem inspecionar a mensagem.
+ * Usado tanto pelos controllers MVC quanto pelo BeneficioReativoController.
+ */
+@RestControllerAdvice(assignableTypes = {
+        BeneficioController.class, BeneficioReservaController.class, BeneficioReativoController.class,
+        BeneficioShardController.class, BeneficioSnapshotController.class})
+public class BeneficioErroHandler {
+
+    @ExceptionHandler(DadosInvalidosException.class)
+    public ResponseEntity<Map<String, Object>> dadosInvalidos(DadosInvalidosException e) {
+        return resposta(HttpStatus.BAD_REQUEST, "Erro de validação: " + e.getMessage());
+    }
+
+    @ExceptionHandler(OperacaoRecusadaException.class)
+    public ResponseEntity<Map<String, Object>> operacaoRecusada(OperacaoRecusadaException e) {
+        return resposta(HttpStatus.UNPROCESSABLE_ENTITY, "Erro de negócio: " + e.getMessage());
+    }
+
+    @ExceptionHandler(ConflitoConcorrenciaException.class)
+    public ResponseEntity<Map<String, Object>> conflito(ConflitoConcorrenciaException e) {
+        return resposta(HttpStatus.CONFLICT, "Conflito de concorrência: " + e.getMessage());
+    }
+
+    @ExceptionHandler(SnapshotConflitanteException.class)
+    public ResponseEntity<Map<String, Object>> snapshotConflitante(SnapshotConflitanteException e) {
+        return resposta(HttpStatus.CONFLICT, "Erro: " + e.getMessage());
+    }
+
+    // Subclasses futuras sem handler próprio são tratadas como erro de negócio
+    @ExceptionHandler(BeneficioBusinessException.class)
+    public ResponseEntity<Map<String, Object>> negocio(BeneficioBusinessException e) {
+        return resposta(HttpStatus.UNPROCESSABLE_ENTITY, "Erro de negócio: " + e.getMessage());
+    }
+
+    private static ResponseEntity<Map<String, Object>> resposta(HttpStatus status, String mensagem) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", mensagem);
+        response.put("timestamp", new Date());
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,299 @@
+package com.exemple.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.service.BeneficioAlteracaoContador;
+import com.exemple.backend.service.BeneficioReativoService;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Edição reativa (WebFlux + R2DBC) dos endpoints de listagem, saldo, verificação e
+ * transferência do BeneficioController, ativa no perfil reativo.
+ *
+ * Mesmos caminhos, parâmetros, formato de resposta, ETags e códigos de status da
+ * versão bloqueante, para que os clientes troquem de pilha sem alteração.
+ */
+@RestController
+@Profile("reativo")
+@RequestMapping("/api/v1/beneficios")
+@Tag(name = "Benefícios (reativo)", description = "Transferências e consultas de saldo sem bloqueio de threads")
+public class BeneficioReativoController {
+
+    @Autowired
+    private BeneficioReativoService beneficioService;
+
+    @Autowired
+    private BeneficioAlteracaoContador alteracaoContador;
+
+    @Operation(summary = "Listar todos os benefícios", description = "Retorna uma lista com todos os benefícios cadastrados. Suporta If-None-Match (ETag)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de benefícios retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Lista não mudou desde o ETag informado"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping
+    public Mono<ResponseEntity<Flux<Beneficio>>> listarTodos(ServerWebExchange exchange) {
+        // Lido antes da consulta: uma alteração concorrente gera um ETag novo no próximo pedido
+        String etag = alteracaoContador.getEtag();
+        if (exchange.checkNotModified(etag)) {
+            return Mono.empty();
+        }
+        return Mono.just(ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(beneficioService.listarTodos()));
+    }
+
+    @Operation(summary = "Transferir valor entre benefícios", description = "Atualizações condicionadas à versão lida, com novas tentativas (backoff) em conflito")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transferência realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "409", description = "Conflito de concorrência"),
+        @ApiResponse(responseCode = "422", description = "Erro de negócio (saldo insuficiente, benefício inativo)"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/transferir")
+    public Mono<ResponseEntity<Map<String, Object>>> transferir(
+            @Parameter(description = "ID do benefício de origem", example = "1", required = true)
+            @RequestParam Long fromId,
+
+            @Parameter(description = "ID do benefício de destino", example = "2", required = true)
+            @RequestParam Long toId,
+
+            @Parameter(description = "Valor da transferência", example = "100.00", required = true)
+            @RequestParam BigDecimal amount) {
+
+        String lockType = "reactive-optimistic";
+        return beneficioService.transferir(fromId, toId, amount)
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Transferência realizada com sucesso usando " + lockType + " locking");
+                    response.put("fromId", fromId);
+                    response.put("toId", toId);
+                    response.put("amount", amount);
+                    response.put("lockType", lockType);
+                    response.put("timestamp", new Date());
+                    return ResponseEntity.ok(response);
+                }))
+                // Rejeições (BeneficioBusinessException) seguem para o BeneficioErroHandler
+                .onErrorResume(e -> !(e instanceof BeneficioBusinessException),
+                        e -> Mono.just(falhaTransferencia(e, lockType)));
+    }
+
+    @Operation(summary = "Obter versão do benefício", description = "Retorna a versão atual do benefício para controle de concorrência. Suporta If-None-Match (ETag)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Versão obtida com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Não modificado desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Benefício não encontrado"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{id}/versao")
+    public Mono<ResponseEntity<Map<String, Object>>> obterVersao(@PathVariable Long id, ServerWebExchange exchange) {
+        return beneficioService.obterVersaoAtual(id)
+                .flatMap(versao -> {
+                    if (exchange.checkNotModified(etagVersao(versao))) {
+                        return Mono.<ResponseEntity<Map<String, Object>>>empty();
+                    }
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("beneficioId", id);
+                    response.put("versao", versao);
+                    response.put("timestamp", new Date());
+                    return Mono.just(comEtag(etagVersao(versao), response));
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "Erro: " + e.getMessage());
+                    response.put("beneficioId", id);
+                    response.put("timestamp", new Date());
+                    return Mono.just(ResponseEntity.badRequest().body(response));
+                });
+    }
+
+    @Operation(summary = "Verificar conflito de versão", description = "Verifica se há conflito entre a versão informada e a versão atual")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Verificação realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/verificar-conflito")
+    public Mono<ResponseEntity<Map<String, Object>>> verificarConflito(
+            @RequestParam Long beneficioId,
+            @RequestParam Long versao) {
+
+        return beneficioService.verificarConflitoVersao(beneficioId, versao)
+                .map(temConflito -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("beneficioId", beneficioId);
+                    response.put("versaoInformada", versao);
+                    response.put("temConflito", temConflito);
+                    response.put("timestamp", new Date());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "Erro: " + e.getMessage());
+                    response.put("beneficioId", beneficioId);
+                    response.put("versaoInformada", versao);
+                    response.put("timestamp", new Date());
+                    return Mono.just(ResponseEntity.badRequest().body(response));
+                });
+    }
+
+    @Operation(summary = "Consultar saldo", description = "Retorna o saldo atual de um benefício. Suporta If-None-Match (ETag)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldo obtido com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Não modificado desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Benefício não encontrado"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{id}/saldo")
+    public Mono<ResponseEntity<Map<String, Object>>> consultarSaldo(@PathVariable Long id, ServerWebExchange exchange) {
+        return consultarSaldo(id, exchange, (saldoVersao, response) ->
+                response.put("saldo", saldoVersao.getValor()));
+    }
+
+    @Operation(summary = "Consultar saldo e versão", description = "Retorna saldo, versão e status do benefício em uma única chamada. Suporta If-None-Match (ETag)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldo e versão obtidos com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Não modificado desde o ETag informado"),
+        @ApiResponse(responseCode = "400", description = "Benefício não encontrado"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/{id}/saldo-versao")
+    public Mono<ResponseEntity<Map<String, Object>>> consultarSaldoEVersao(@PathVariable Long id, ServerWebExchange exchange) {
+        return consultarSaldo(id, exchange, (saldoVersao, response) -> {
+            response.put("saldo", saldoVersao.getValor());
+            response.put("versao", saldoVersao.getVersao());
+            response.put("ativo", saldoVersao.getAtivo());
+            response.put("creditoPendente", saldoVersao.getCreditoPendente());
+        });
+    }
+
+    @Operation(summary = "Verificar transferência possível", description = "Verifica se uma transferência é possível sem executá-la")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Verificação realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/verificar-transferencia")
+    public Mono<ResponseEntity<Map<String, Object>>> verificarTransferencia(
+            @RequestParam Long fromId,
+            @RequestParam BigDecimal amount) {
+
+        return beneficioService.isTransferenciaPossivel(fromId, amount)
+                .map(isPossivel -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("fromId", fromId);
+                    response.put("amount", amount);
+                    response.put("transferenciaPossivel", isPossivel);
+                    response.put("timestamp", new Date());
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("message", "Erro na verificação: " + e.getMessage());
+                    response.put("fromId", fromId);
+                    response.put("amount", amount);
+                    response.put("timestamp", new Date());
+                    return Mono.just(ResponseEntity.badRequest().body(response));
+                });
+    }
+
+    interface CamposSaldo {
+        void preencher(SaldoVersaoView saldoVersao, Map<String, Object> response);
+    }
+
+    // Consulta comum de /saldo e /saldo-versao: ETag, 400 para benefício inexistente e 500 para o resto
+    private Mono<ResponseEntity<Map<String, Object>>> consultarSaldo(Long id, ServerWebExchange exchange,
+                                                                     CamposSaldo campos) {
+        return beneficioService.consultarSaldoEVersao(id)
+                .flatMap(saldoVersao -> {
+                    if (exchange.checkNotModified(etagSaldo(saldoVersao))) {
+                        return Mono.<ResponseEntity<Map<String, Object>>>empty();
+                    }
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("beneficioId", id);
+                    campos.preencher(saldoVersao, response);
+                    response.put("timestamp", new Date());
+                    return Mono.just(comEtag(etagSaldo(saldoVersao), response));
+                })
+                .onErrorResume(e -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("beneficioId", id);
+                    response.put("timestamp", new Date());
+                    if (e instanceof IllegalArgumentException) {
+                        response.put("message", "Erro: " + e.getMessage());
+                        return Mono.just(ResponseEntity.badRequest().body(response));
+                    }
+                    response.put("message", "Erro interno: " + e.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError().body(response));
+                });
+    }
+
+    // Erros que não são rejeições tipadas, como em BeneficioController.executarTransferencia
+    private static ResponseEntity<Map<String, Object>> falhaTransferencia(Throwable e, String lockType) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("lockType", lockType);
+        response.put("timestamp", new Date());
+
+        if (e instanceof IllegalArgumentException) {
+            response.put("message", "Erro de validação: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (e instanceof IllegalStateException) {
+            response.put("message", "Erro de negócio: " + e.getMessage());
+            return ResponseEntity.unprocessableEntity().body(response);
+        }
+        response.put("message", "Erro interno: " + e.getMessage());
+        return ResponseEntity.internalServerError().body(response);
+    }
+
+    // ETag forte derivado do @Version do benefício
+    private static String etagVersao(Long versao) {
+        return "v" + versao;
+    }
+
+    /**
+     * ETag de saldo: a versão muda a cada alteração de VALOR, e o último crédito
+     * pendente muda a cada crédito diferido ainda não consolidado
+     */
+    private static String etagSaldo(SaldoVersaoView saldo) {
+        Long ultimoCredito = saldo.getUltimoCreditoPendente();
+        return ultimoCredito == null ? etagVersao(saldo.getVersao()) : etagVersao(saldo.getVersao()) + "-c" + ultimoCredito;
+    }
+
+    private static ResponseEntity<Map<String, Object>> comEtag(String etag, Map<String, Object> response) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(response);
+    }
+}
@@ -0,0 +1,133 @@
+package com.exemple.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import com.exemple.backend.entity.ReservaSaldo;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.service.BeneficioReservaService;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Supplier;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Profile("!reativo")
+@RequestMapping("/api/v1/beneficios/reservas")
+@Tag(name = "Reservas", description = "Transferência em duas fases: reserva, captura e liberação de saldo")
+public class BeneficioReservaController {
+
+    @Autowired
+    private BeneficioReservaService reservaService;
+
+    @Operation(summary = "Reservar saldo", description = "Move o valor do saldo disponível da origem para reservado, com uma única atualização condicional. Retorna o id da reserva e a expiração")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reserva criada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "422", description = "Erro de negócio (saldo disponível insuficiente, benefício inativo)"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> reservar(
+            @Parameter(description = "ID do benefício de origem", example = "1", required = true)
+            @RequestParam Long fromId,
+
+            @Parameter(description = "ID do benefício de destino", example = "2", required = true)
+            @RequestParam Long toId,
+
+            @Parameter(description = "Valor reservado", example = "100.00", required = true)
+            @RequestParam BigDecimal amount,
+
+            @Parameter(description = "Validade da reserva em segundos (padrão configurável)", example = "60")
+            @RequestParam(required = false) Long expiracaoSegundos) {
+
+        return executar(() -> reservaService.reservar(fromId, toId, amount, expiracaoSegundos),
+                "Reserva criada com sucesso");
+    }
+
+    @Operation(summary = "Capturar reserva", description = "Conclui a transferência reservada: debita a origem e credita o destino")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transferência concluída"),
+        @ApiResponse(responseCode = "400", description = "Reserva não encontrada"),
+        @ApiResponse(responseCode = "422", description = "Reserva expirada, já finalizada ou destino inativo"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/{id}/capturar")
+    public ResponseEntity<Map<String, Object>> capturar(@PathVariable Long id) {
+        return executar(() -> reservaService.capturar(id), "Reserva capturada com sucesso");
+    }
+
+    @Operation(summary = "Liberar reserva", description = "Cancela a reserva e devolve o valor ao saldo disponível da origem")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reserva liberada"),
+        @ApiResponse(responseCode = "400", description = "Reserva não encontrada"),
+        @ApiResponse(responseCode = "422", description = "Reserva já finalizada"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/{id}/liberar")
+    public ResponseEntity<Map<String, Object>> liberar(@PathVariable Long id) {
+        return executar(() -> reservaService.liberar(id), "Reserva liberada com sucesso");
+    }
+
+    @Operation(summary = "Consultar reserva", description = "Retorna status, valor e expiração da reserva")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reserva encontrada"),
+        @ApiResponse(responseCode = "404", description = "Reserva não encontrada")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> buscar(@PathVariable Long id) {
+        return reservaService.buscar(id)
+                .map(reserva -> {
+                    Map<String, Object> response = paraResposta(reserva);
+                    response.put("success", true);
+                    response.put("timestamp", new Date());
+                    return ResponseEntity.ok(response);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<Map<String, Object>> executar(Supplier<ReservaSaldo> operacao,
+                                                         String mensagem) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            response.put("success", true);
+            response.put("message", mensagem);
+            response.putAll(paraResposta(operacao.get()));
+            response.put("timestamp", new Date());
+            return ResponseEntity.ok(response);
+        } catch (BeneficioBusinessException e) {
+            // Status pelo tipo, no BeneficioErroHandler
+            throw e;
+        } catch (IllegalArgumentException e) {
+            return erro(response, "Erro de validação: " + e.getMessage(), 400);
+        } catch (Exception e) {
+            // Inclui IllegalStateException: saldo reservado inconsistente é falha interna, não recusa
+            return erro(response, "Erro interno: " + e.getMessage(), 500);
+        }
+    }
+
+    private static Map<String, Object> paraResposta(ReservaSaldo reserva) {
+        Map<String, Object> dados = new LinkedHashMap<>();
+        dados.put("reservaId", reserva.getId());
+        dados.put("fromId", reserva.getOrigemId());
+        dados.put("toId", reserva.getDestinoId());
+        dados.put("amount", reserva.getValor());
+        dados.put("status", reserva.getStatus());
+        dados.put("expiraEm", reserva.getExpiraEm());
+        dados.put("finalizadaEm", reserva.getFinalizadaEm());
+        return dados;
+    }
+
+    private static ResponseEntity<Map<String, Object>> erro(Map<String, Object> response, String mensagem, int status) {
+        response.clear();
+        response.put("success", false);
+        response.put("message", mensagem);
+        response.put("timestamp", new Date());
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,164 @@
+package com.exemple.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.service.BeneficioShardService;
+import java.math.BigDecimal;
+import java.util.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Profile("shards")
+@RequestMapping("/api/v1/shards")
+@Tag(name = "Shards", description = "Benefícios particionados entre vários bancos, com transferência em duas fases entre shards")
+public class BeneficioShardController {
+
+    @Autowired
+    private BeneficioShardService shardService;
+
+    @Operation(summary = "Listar benefícios de todos os shards", description = "Consulta os shards em paralelo e retorna os benefícios ordenados por id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de benefícios retornada com sucesso"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/beneficios")
+    public ResponseEntity<List<Beneficio>> listarTodos() {
+        return ResponseEntity.ok(shardService.listarTodos());
+    }
+
+    @Operation(summary = "Criar benefício", description = "Gera o id global e grava o benefício no shard desse id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Benefício criado com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos")
+    })
+    @PostMapping("/beneficios")
+    public ResponseEntity<Map<String, Object>> criar(
+            @Parameter(description = "Nome do benefício", example = "Vale Alimentação", required = true)
+            @RequestParam String nome,
+
+            @Parameter(description = "Saldo inicial", example = "1000.00", required = true)
+            @RequestParam BigDecimal valor,
+
+            @Parameter(description = "Descrição do benefício", example = "Crédito mensal")
+            @RequestParam(required = false) String descricao) {
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (nome.isBlank() || valor.signum() < 0) {
+            return erro(response, "Erro de validação: nome obrigatório e valor não negativo", 400);
+        }
+        Beneficio beneficio = shardService.criarBeneficio(new Beneficio(nome, descricao, valor, true));
+        response.put("success", true);
+        response.put("message", "Benefício criado com sucesso");
+        response.put("beneficio", beneficio);
+        response.put("shard", shardService.shardDe(beneficio.getId()));
+        response.put("timestamp", new Date());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Buscar benefício", description = "Lê o benefício direto do shard do id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Benefício encontrado"),
+        @ApiResponse(responseCode = "404", description = "Benefício não encontrado")
+    })
+    @GetMapping("/beneficios/{id}")
+    public ResponseEntity<Map<String, Object>> buscar(@PathVariable Long id) {
+        return shardService.buscarPorId(id)
+                .map(beneficio -> {
+                    Map<String, Object> response = new LinkedHashMap<>();
+                    response.put("success", true);
+                    response.put("beneficio", beneficio);
+                    response.put("shard", shardService.shardDe(id));
+                    response.put("timestamp", new Date());
+                    return ResponseEntity.ok(response);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Consultar saldos em lote", description = "Agrupa os ids por shard e faz uma consulta por shard, em paralelo. Ids inexistentes são omitidos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Saldos retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Lista de ids vazia ou grande demais")
+    })
+    @GetMapping("/beneficios/saldos")
+    public ResponseEntity<Map<String, Object>> consultarSaldos(
+            @Parameter(description = "IDs dos benefícios", example = "1,2,3", required = true)
+            @RequestParam List<Long> ids) {
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        if (ids.isEmpty() || ids.size() > 500) {
+            return erro(response, "Erro de validação: informe de 1 a 500 ids", 400);
+        }
+        response.put("success", true);
+        response.put("beneficios", shardService.consultarSaldos(ids).values());
+        response.put("timestamp", new Date());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Transferir entre benefícios", description = "Transação local quando origem e destino estão no mesmo shard; duas fases com log de recuperação quando estão em shards diferentes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Transferência realizada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos"),
+        @ApiResponse(responseCode = "409", description = "Transação distribuída abortada por conflito; pode ser repetida"),
+        @ApiResponse(responseCode = "422", description = "Erro de negócio (saldo insuficiente, benefício inativo, limite excedido)"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/transferir")
+    public ResponseEntity<Map<String, Object>> transferir(
+            @Parameter(description = "ID do benefício de origem", example = "1", required = true)
+            @RequestParam Long fromId,
+
+            @Parameter(description = "ID do benefício de destino", example = "2", required = true)
+            @RequestParam Long toId,
+
+            @Parameter(description = "Valor da transferência", example = "100.00", required = true)
+            @RequestParam BigDecimal amount) {
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            boolean entreShards = shardService.transferir(fromId, toId, amount);
+            response.put("success", true);
+            response.put("message", "Transferência realizada com sucesso");
+            response.put("fromId", fromId);
+            response.put("toId", toId);
+            response.put("amount", amount);
+            response.put("shardOrigem", shardService.shardDe(fromId));
+            response.put("shardDestino", shardService.shardDe(toId));
+            response.put("duasFases", entreShards);
+            response.put("timestamp", new Date());
+            return ResponseEntity.ok(response);
+        } catch (BeneficioBusinessException e) {
+            // Status pelo tipo, no BeneficioErroHandler
+            throw e;
+        } catch (IllegalArgumentException e) {
+            return erro(response, "Erro de validação: " + e.getMessage(), 400);
+        } catch (Exception e) {
+            return erro(response, "Erro interno: " + e.getMessage(), 500);
+        }
+    }
+
+    @Operation(summary = "Distribuição entre shards", description = "Quantidade de benefícios por shard e transações distribuídas por estado")
+    @GetMapping("/distribuicao")
+    public ResponseEntity<Map<String, Object>> distribuicao() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.putAll(shardService.distribuicao());
+        response.put("timestamp", new Date());
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> erro(Map<String, Object> response, String mensagem, int status) {
+        response.clear();
+        response.put("success", false);
+        response.put("message", mensagem);
+        response.put("timestamp", new Date());
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,88 @@
+package com.exemple.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.service.BeneficioSnapshotService;
+import java.util.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Profile("!reativo")
+@RequestMapping("/api/v1/beneficios/snapshot")
+@Tag(name = "Snapshots", description = "Exportação e importação binária da tabela de benefícios")
+public class BeneficioSnapshotController {
+
+    @Autowired
+    private BeneficioSnapshotService snapshotService;
+
+    @Operation(summary = "Exportar snapshot", description = "Grava a tabela BENEFICIO no diretório de snapshots em formato binário colunar")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot exportado; retorna linhas, bytes e throughput"),
+        @ApiResponse(responseCode = "400", description = "Nome de arquivo inválido"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/exportar")
+    public ResponseEntity<Map<String, Object>> exportar(
+            @Parameter(description = "Nome do arquivo (sem diretório)", example = "beneficios.snap", required = true)
+            @RequestParam String arquivo) {
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            response.put("success", true);
+            response.putAll(snapshotService.exportar(arquivo));
+            response.put("timestamp", new Date());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return erro(response, e, 400);
+        } catch (Exception e) {
+            return erro(response, e, 500);
+        }
+    }
+
+    @Operation(summary = "Importar snapshot", description = "Valida os checksums e carrega o snapshot por JDBC batch, preservando ids e versões")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot importado; retorna linhas, bytes e throughput"),
+        @ApiResponse(responseCode = "400", description = "Arquivo inexistente ou inválido"),
+        @ApiResponse(responseCode = "409", description = "Tabela não está vazia e substituir = false, ou há reservas pendentes"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/importar")
+    public ResponseEntity<Map<String, Object>> importar(
+            @Parameter(description = "Nome do arquivo (sem diretório)", example = "beneficios.snap", required = true)
+            @RequestParam String arquivo,
+
+            @Parameter(description = "Apaga os benefícios existentes antes da carga", example = "false")
+            @RequestParam(defaultValue = "false") boolean substituir) {
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            response.put("success", true);
+            response.putAll(snapshotService.importar(arquivo, substituir));
+            response.put("timestamp", new Date());
+            return ResponseEntity.ok(response);
+        } catch (BeneficioBusinessException e) {
+            // Tabela ocupada (409): status pelo tipo, no BeneficioErroHandler
+            throw e;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Arquivo inexistente, inválido ou corrompido (checksum)
+            return erro(response, e, 400);
+        } catch (Exception e) {
+            return erro(response, e, 500);
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> erro(Map<String, Object> response, Exception e, int status) {
+        response.clear();
+        response.put("success", false);
+        response.put("message", "Erro: " + e.getMessage());
+        response.put("timestamp", new Date());
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,88 @@
+package com.exemple.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.exemple.backend.service.ContencaoContas;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /actuator/contasquentes[?janela=minutos&limite=n]: contas com mais espera por lock
+ * e mais conflitos de versão, em cada janela configurada (ou só na pedida).
+ * DELETE /actuator/contasquentes: descarta o perfil acumulado.
+ */
+@Component
+@Endpoint(id = "contasquentes")
+public class ContencaoContasEndpoint {
+
+    private static final int LIMITE_PADRAO = 10;
+
+    @Autowired
+    private ContencaoContas contencaoContas;
+
+    @ReadOperation
+    public Map<String, Object> contasQuentes(@Nullable Integer janela, @Nullable Integer limite) {
+        int quantidade = limite == null || limite <= 0 ? LIMITE_PADRAO : limite;
+        int[] janelas = janela == null ? contencaoContas.getJanelas() : new int[] {janela};
+
+        Map<String, Object> porJanela = new LinkedHashMap<>();
+        for (int minutos : janelas) {
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("porEspera", espera(contencaoContas.maisQuentes(ContencaoContas.Metrica.ESPERA, minutos, quantidade)));
+            dados.put("porConflito", conflitos(contencaoContas.maisQuentes(ContencaoContas.Metrica.CONFLITO, minutos, quantidade)));
+            porJanela.put(minutos + "m", dados);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("limiarEsperaMs", contencaoContas.getLimiarEsperaMs());
+        response.put("capacidadePorMinuto", contencaoContas.getCapacidade());
+        response.put("janelas", porJanela);
+        response.put("timestamp", new Date());
+        return response;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> limpar() {
+        contencaoContas.limpar();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Perfil de contenção por conta limpo");
+        response.put("timestamp", new Date());
+        return response;
+    }
+
+    private static List<Map<String, Object>> espera(List<ContencaoContas.Estimativa> estimativas) {
+        List<Map<String, Object>> contas = new ArrayList<>(estimativas.size());
+        for (ContencaoContas.Estimativa estimativa : estimativas) {
+            Map<String, Object> conta = new LinkedHashMap<>();
+            conta.put("beneficioId", estimativa.beneficioId());
+            conta.put("esperaMs", estimativa.valor() / 1000.0);
+            conta.put("erroMaximoMs", estimativa.erro() / 1000.0);
+            conta.put("esperas", estimativa.eventos());
+            contas.add(conta);
+        }
+        return contas;
+    }
+
+    private static List<Map<String, Object>> conflitos(List<ContencaoContas.Estimativa> estimativas) {
+        List<Map<String, Object>> contas = new ArrayList<>(estimativas.size());
+        for (ContencaoContas.Estimativa estimativa : estimativas) {
+            Map<String, Object> conta = new LinkedHashMap<>();
+            conta.put("beneficioId", estimativa.beneficioId());
+            conta.put("conflitos", estimativa.valor());
+            conta.put("erroMaximo", estimativa.erro());
+            contas.add(conta);
+        }
+        return contas;
+    }
+}
@@ -0,0 +1,45 @@
+package com.exemple.backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.exemple.backend.service.SqlRastreamento;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/consultaslentas: conteúdo do buffer de instruções lentas e esperas por lock.
+ * DELETE /actuator/consultaslentas: limpa o buffer.
+ */
+@Component
+@Endpoint(id = "consultaslentas")
+public class SqlRastreamentoEndpoint {
+
+    @Autowired
+    private SqlRastreamento sqlRastreamento;
+
+    @ReadOperation
+    public Map<String, Object> registros() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("resumo", sqlRastreamento.obterResumo());
+        response.put("registros", sqlRastreamento.obterRegistros());
+        response.put("timestamp", new Date());
+        return response;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> limpar() {
+        sqlRastreamento.limpar();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", "Buffer de rastreamento SQL limpo");
+        response.put("timestamp", new Date());
+        return response;
+    }
+}
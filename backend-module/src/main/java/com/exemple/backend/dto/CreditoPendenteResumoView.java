@@ -0,0 +1,17 @@
+package com.exemple.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma dos créditos pendentes de um benefício e o maior id entre eles.
+ * O id só cresce enquanto não há consolidação (que incrementa a versão do
+ * benefício), então o par (versão, ultimoId) identifica o saldo para o ETag.
+ */
+public interface CreditoPendenteResumoView {
+
+    Long getBeneficioId();
+
+    BigDecimal getTotal();
+
+    Long getUltimoId();
+}
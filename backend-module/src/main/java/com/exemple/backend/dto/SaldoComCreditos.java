@@ -0,0 +1,54 @@
+package com.exemple.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo do banco somado aos créditos pendentes ainda não consolidados
+ */
+public class SaldoComCreditos implements SaldoLoteView {
+
+    private final Long id;
+    private final SaldoVersaoView base;
+    private final CreditoPendenteResumoView creditos;
+
+    public SaldoComCreditos(Long id, SaldoVersaoView base, CreditoPendenteResumoView creditos) {
+        this.id = id;
+        this.base = base;
+        this.creditos = creditos;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public BigDecimal getValor() {
+        return base.getValor().add(creditos.getTotal());
+    }
+
+    @Override
+    public Long getVersao() {
+        return base.getVersao();
+    }
+
+    @Override
+    public Boolean getAtivo() {
+        return base.getAtivo();
+    }
+
+    @Override
+    public BigDecimal getValorReservado() {
+        return base.getValorReservado();
+    }
+
+    @Override
+    public BigDecimal getCreditoPendente() {
+        return creditos.getTotal();
+    }
+
+    @Override
+    public Long getUltimoCreditoPendente() {
+        return creditos.getUltimoId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.exemple.backend.dto;
+
+/**
+ * Saldo, versão e status com o id do benefício, para consultas em lote
+ * (BeneficioRepository.findSaldosVersaoByIdIn)
+ */
+public interface SaldoLoteView extends SaldoVersaoView {
+
+    Long getId();
+}
@@ -0,0 +1,29 @@
+package com.exemple.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção escalar de saldo, versão e status de um benefício.
+ * Evita carregar a entidade gerenciada (NOME, DESCRICAO, snapshot e dirty checking)
+ * quando só essas colunas são necessárias.
+ */
+public interface SaldoVersaoView {
+
+    BigDecimal getValor();
+
+    Long getVersao();
+
+    // Parte do saldo presa em reservas pendentes
+    BigDecimal getValorReservado();
+
+    Boolean getAtivo();
+
+    // Créditos diferidos ainda não consolidados; a projeção do banco não os tem (ver SaldoComCreditos)
+    default BigDecimal getCreditoPendente() {
+        return BigDecimal.ZERO;
+    }
+
+    default Long getUltimoCreditoPendente() {
+        return null;
+    }
+}
@@ -1,10 +1,18 @@
 package com.exemple.backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "BENEFICIO")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beneficio")
+@Table(name = "BENEFICIO", indexes = {
+    // Atende findByNome, a busca exata quando o BeneficioNomeIndex em memória ainda não tem o nome
+    @Index(name = "IDX_BENEFICIO_NOME", columnList = "NOME")
+})
 public class Beneficio {
 
     @Id
@@ -21,6 +29,11 @@ public class Beneficio {
     @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
     private BigDecimal valor;
 
+    // Parte de VALOR bloqueada por reservas pendentes (ver BeneficioReservaService)
+    @ColumnDefault("0")
+    @Column(name = "VALOR_RESERVADO", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valorReservado = BigDecimal.ZERO;
+
     @Column(name = "ATIVO")
     private Boolean ativo = true;
 
@@ -79,6 +92,22 @@ public class Beneficio {
         this.valor = valor;
     }
 
+    public BigDecimal getValorReservado() {
+        return valorReservado;
+    }
+
+    public void setValorReservado(BigDecimal valorReservado) {
+        this.valorReservado = valorReservado;
+    }
+
+    // Saldo que pode ser transferido ou reservado
+    public BigDecimal getValorDisponivel() {
+        if (valor == null || valorReservado == null) {
+            return valor;
+        }
+        return valor.subtract(valorReservado);
+    }
+
     public Boolean getAtivo() {
         return ativo;
     }
@@ -102,6 +131,7 @@ public class Beneficio {
                 ", nome='" + nome + '\'' +
                 ", descricao='" + descricao + '\'' +
                 ", valor=" + valor +
+                ", valorReservado=" + valorReservado +
                 ", ativo=" + ativo +
                 ", version=" + version +
                 '}';
@@ -0,0 +1,98 @@
+package com.exemple.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Crédito ainda não incorporado ao VALOR do benefício de destino.
+ * As linhas só são inseridas (sem lock no destino) e removidas pela consolidação,
+ * que soma os créditos de cada benefício em uma única atualização.
+ */
+@Entity
+@Table(name = "CREDITO_PENDENTE", indexes = {
+    // Soma dos créditos pendentes de um benefício nas consultas de saldo
+    @Index(name = "IDX_CREDITO_PENDENTE_BENEFICIO", columnList = "BENEFICIO_ID")
+})
+public class CreditoPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    // Benefício debitado na transferência que gerou o crédito
+    @Column(name = "ORIGEM_ID", nullable = false)
+    private Long origemId;
+
+    @Column(name = "CRIADO_EM", nullable = false)
+    private Instant criadoEm;
+
+    // Construtores
+    public CreditoPendente() {
+    }
+
+    public CreditoPendente(Long beneficioId, BigDecimal valor, Long origemId, Instant criadoEm) {
+        this.beneficioId = beneficioId;
+        this.valor = valor;
+        this.origemId = origemId;
+        this.criadoEm = criadoEm;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBeneficioId() {
+        return beneficioId;
+    }
+
+    public void setBeneficioId(Long beneficioId) {
+        this.beneficioId = beneficioId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public Long getOrigemId() {
+        return origemId;
+    }
+
+    public void setOrigemId(Long origemId) {
+        this.origemId = origemId;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(Instant criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    @Override
+    public String toString() {
+        return "CreditoPendente{" +
+                "id=" + id +
+                ", beneficioId=" + beneficioId +
+                ", valor=" + valor +
+                ", origemId=" + origemId +
+                '}';
+    }
+}
@@ -0,0 +1,163 @@
+package com.exemple.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Evento de transferência confirmada, gravado na tabela de outbox dentro da própria
+ * transação da transferência (BeneficioService, captura de reserva em
+ * BeneficioReservaService e BeneficioReativoService) e removido pelo relay depois de
+ * entregue ao destino configurado (OutboxTransferenciaService).
+ *
+ * Leva saldo e versão de origem e destino após a transferência, para que os
+ * consumidores não precisem reler a tabela BENEFICIO.
+ */
+@Entity
+@Table(name = "OUTBOX_TRANSFERENCIA")
+public class EventoTransferencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    // pessimistic, optimistic, mixed, credito-diferido, captura-reserva ou reativo
+    @Column(name = "ESTRATEGIA", nullable = false, length = 20)
+    private String estrategia;
+
+    @Column(name = "ORIGEM_ID", nullable = false)
+    private Long origemId;
+
+    @Column(name = "DESTINO_ID", nullable = false)
+    private Long destinoId;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "SALDO_ORIGEM", nullable = false, precision = 15, scale = 2)
+    private BigDecimal saldoOrigem;
+
+    @Column(name = "VERSAO_ORIGEM", nullable = false)
+    private Long versaoOrigem;
+
+    // Nulos no crédito diferido: o destino só muda na consolidação
+    @Column(name = "SALDO_DESTINO", precision = 15, scale = 2)
+    private BigDecimal saldoDestino;
+
+    @Column(name = "VERSAO_DESTINO")
+    private Long versaoDestino;
+
+    @Column(name = "CRIADO_EM", nullable = false)
+    private Instant criadoEm;
+
+    // Construtores
+    public EventoTransferencia() {
+    }
+
+    public EventoTransferencia(String estrategia, Long origemId, Long destinoId, BigDecimal valor,
+                               BigDecimal saldoOrigem, Long versaoOrigem,
+                               BigDecimal saldoDestino, Long versaoDestino, Instant criadoEm) {
+        this.estrategia = estrategia;
+        this.origemId = origemId;
+        this.destinoId = destinoId;
+        this.valor = valor;
+        this.saldoOrigem = saldoOrigem;
+        this.versaoOrigem = versaoOrigem;
+        this.saldoDestino = saldoDestino;
+        this.versaoDestino = versaoDestino;
+        this.criadoEm = criadoEm;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEstrategia() {
+        return estrategia;
+    }
+
+    public void setEstrategia(String estrategia) {
+        this.estrategia = estrategia;
+    }
+
+    public Long getOrigemId() {
+        return origemId;
+    }
+
+    public void setOrigemId(Long origemId) {
+        this.origemId = origemId;
+    }
+
+    public Long getDestinoId() {
+        return destinoId;
+    }
+
+    public void setDestinoId(Long destinoId) {
+        this.destinoId = destinoId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public BigDecimal getSaldoOrigem() {
+        return saldoOrigem;
+    }
+
+    public void setSaldoOrigem(BigDecimal saldoOrigem) {
+        this.saldoOrigem = saldoOrigem;
+    }
+
+    public Long getVersaoOrigem() {
+        return versaoOrigem;
+    }
+
+    public void setVersaoOrigem(Long versaoOrigem) {
+        this.versaoOrigem = versaoOrigem;
+    }
+
+    public BigDecimal getSaldoDestino() {
+        return saldoDestino;
+    }
+
+    public void setSaldoDestino(BigDecimal saldoDestino) {
+        this.saldoDestino = saldoDestino;
+    }
+
+    public Long getVersaoDestino() {
+        return versaoDestino;
+    }
+
+    public void setVersaoDestino(Long versaoDestino) {
+        this.versaoDestino = versaoDestino;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(Instant criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoTransferencia{" +
+                "id=" + id +
+                ", estrategia='" + estrategia + '\'' +
+                ", origemId=" + origemId +
+                ", destinoId=" + destinoId +
+                ", valor=" + valor +
+                '}';
+    }
+}
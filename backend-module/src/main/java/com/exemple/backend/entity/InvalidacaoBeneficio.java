@@ -0,0 +1,97 @@
+package com.exemple.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Registro de que um benefício mudou, lido por todas as instâncias da aplicação para
+ * invalidar o estado que mantêm em memória (BeneficioInvalidacaoService).
+ * Gravado na mesma transação da alteração; removido depois do período de retenção.
+ */
+@Entity
+@Table(name = "INVALIDACAO_BENEFICIO", indexes = {
+    // Remoção dos registros mais antigos que a retenção
+    @Index(name = "IDX_INVALIDACAO_CRIADO_EM", columnList = "CRIADO_EM")
+})
+public class InvalidacaoBeneficio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    @Column(name = "VERSAO")
+    private Long versao;
+
+    // Instância que fez a alteração; ela mesma não precisa ler o registro
+    @Column(name = "INSTANCIA", nullable = false, length = 64)
+    private String instancia;
+
+    @Column(name = "CRIADO_EM", nullable = false)
+    private Instant criadoEm;
+
+    // Construtores
+    public InvalidacaoBeneficio() {
+    }
+
+    public InvalidacaoBeneficio(Long beneficioId, Long versao, String instancia, Instant criadoEm) {
+        this.beneficioId = beneficioId;
+        this.versao = versao;
+        this.instancia = instancia;
+        this.criadoEm = criadoEm;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBeneficioId() {
+        return beneficioId;
+    }
+
+    public void setBeneficioId(Long beneficioId) {
+        this.beneficioId = beneficioId;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public void setInstancia(String instancia) {
+        this.instancia = instancia;
+    }
+
+    public Instant getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(Instant criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidacaoBeneficio{" +
+                "id=" + id +
+                ", beneficioId=" + beneficioId +
+                ", versao=" + versao +
+                ", instancia='" + instancia + '\'' +
+                '}';
+    }
+}
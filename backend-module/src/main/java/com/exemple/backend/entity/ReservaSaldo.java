@@ -0,0 +1,141 @@
+package com.exemple.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Reserva de saldo (hold) da transferência em duas fases.
+ * Enquanto PENDENTE, o valor fica em Beneficio.valorReservado da origem;
+ * a captura efetiva a transferência e a liberação ou expiração devolve o valor.
+ */
+@Entity
+@Table(name = "RESERVA_SALDO", indexes = {
+    // Atende a varredura de reservas vencidas (status + expiração)
+    @Index(name = "IDX_RESERVA_STATUS_EXPIRA", columnList = "STATUS, EXPIRA_EM")
+})
+public class ReservaSaldo {
+
+    public enum Status {
+        PENDENTE,
+        CAPTURADA,
+        LIBERADA,
+        EXPIRADA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "ORIGEM_ID", nullable = false)
+    private Long origemId;
+
+    @Column(name = "DESTINO_ID", nullable = false)
+    private Long destinoId;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 10)
+    private Status status = Status.PENDENTE;
+
+    @Column(name = "CRIADA_EM", nullable = false)
+    private Instant criadaEm;
+
+    @Column(name = "EXPIRA_EM", nullable = false)
+    private Instant expiraEm;
+
+    @Column(name = "FINALIZADA_EM")
+    private Instant finalizadaEm;
+
+    // Construtores
+    public ReservaSaldo() {
+    }
+
+    public ReservaSaldo(Long origemId, Long destinoId, BigDecimal valor, Instant criadaEm, Instant expiraEm) {
+        this.origemId = origemId;
+        this.destinoId = destinoId;
+        this.valor = valor;
+        this.criadaEm = criadaEm;
+        this.expiraEm = expiraEm;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrigemId() {
+        return origemId;
+    }
+
+    public void setOrigemId(Long origemId) {
+        this.origemId = origemId;
+    }
+
+    public Long getDestinoId() {
+        return destinoId;
+    }
+
+    public void setDestinoId(Long destinoId) {
+        this.destinoId = destinoId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Instant getCriadaEm() {
+        return criadaEm;
+    }
+
+    public void setCriadaEm(Instant criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(Instant expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
+    public Instant getFinalizadaEm() {
+        return finalizadaEm;
+    }
+
+    public void setFinalizadaEm(Instant finalizadaEm) {
+        this.finalizadaEm = finalizadaEm;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservaSaldo{" +
+                "id=" + id +
+                ", origemId=" + origemId +
+                ", destinoId=" + destinoId +
+                ", valor=" + valor +
+                ", status=" + status +
+                ", expiraEm=" + expiraEm +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+package com.exemple.backend.event;
+
+import com.exemple.backend.entity.Beneficio;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Evento publicado pelo BeneficioService a cada alteração de saldo ou cadastro.
+ * Os listeners devem usar @TransactionalEventListener(AFTER_COMMIT) para só
+ * enxergar alterações efetivamente confirmadas no banco.
+ */
+public class BeneficioAlteradoEvent {
+
+    public enum Tipo {
+        CRIACAO,
+        TRANSFERENCIA,
+        // Reserva criada, liberada ou expirada: VALOR não muda, só a versão
+        RESERVA,
+        // Débito da origem com o crédito do destino gravado em CREDITO_PENDENTE
+        TRANSFERENCIA_CREDITO_DIFERIDO,
+        // Créditos pendentes incorporados ao VALOR dos destinos
+        CONSOLIDACAO_CREDITOS
+    }
+
+    private final Tipo tipo;
+    private final List<Alteracao> alteracoes;
+    // Variação do total em CREDITO_PENDENTE; somada às alterações de VALOR, uma
+    // operação que só move dinheiro resulta em zero
+    private final BigDecimal creditoPendenteDelta;
+
+    public BeneficioAlteradoEvent(Tipo tipo, List<Alteracao> alteracoes) {
+        this(tipo, alteracoes, BigDecimal.ZERO);
+    }
+
+    public BeneficioAlteradoEvent(Tipo tipo, List<Alteracao> alteracoes, BigDecimal creditoPendenteDelta) {
+        this.tipo = tipo;
+        this.alteracoes = List.copyOf(alteracoes);
+        this.creditoPendenteDelta = creditoPendenteDelta;
+    }
+
+    public static BeneficioAlteradoEvent criacao(Beneficio beneficio) {
+        return new BeneficioAlteradoEvent(Tipo.CRIACAO, List.of(Alteracao.criacao(beneficio)));
+    }
+
+    public static BeneficioAlteradoEvent transferencia(Alteracao origem, Alteracao destino) {
+        return new BeneficioAlteradoEvent(Tipo.TRANSFERENCIA, List.of(origem, destino));
+    }
+
+    public static BeneficioAlteradoEvent reserva(List<Alteracao> alteracoes) {
+        return new BeneficioAlteradoEvent(Tipo.RESERVA, alteracoes);
+    }
+
+    public static BeneficioAlteradoEvent transferenciaComCreditoDiferido(Alteracao origem, BigDecimal valor) {
+        return new BeneficioAlteradoEvent(Tipo.TRANSFERENCIA_CREDITO_DIFERIDO, List.of(origem), valor);
+    }
+
+    public static BeneficioAlteradoEvent consolidacaoCreditos(List<Alteracao> destinos, BigDecimal consolidado) {
+        return new BeneficioAlteradoEvent(Tipo.CONSOLIDACAO_CREDITOS, destinos, consolidado.negate());
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public List<Alteracao> getAlteracoes() {
+        return alteracoes;
+    }
+
+    public BigDecimal getCreditoPendenteDelta() {
+        return creditoPendenteDelta;
+    }
+
+    /**
+     * Estado anterior e atual de um benefício afetado pela operação.
+     * Valores anteriores nulos indicam que o benefício acabou de ser criado.
+     */
+    public static class Alteracao {
+
+        private final Long beneficioId;
+        private final String nome;
+        private final BigDecimal valorAnterior;
+        private final BigDecimal valorAtual;
+        private final Boolean ativoAnterior;
+        private final Boolean ativoAtual;
+        private final Long versao;
+
+        public Alteracao(Long beneficioId, String nome, BigDecimal valorAnterior, BigDecimal valorAtual,
+                         Boolean ativoAnterior, Boolean ativoAtual, Long versao) {
+            this.beneficioId = beneficioId;
+            this.nome = nome;
+            this.valorAnterior = valorAnterior;
+            this.valorAtual = valorAtual;
+            this.ativoAnterior = ativoAnterior;
+            this.ativoAtual = ativoAtual;
+            this.versao = versao;
+        }
+
+        public static Alteracao criacao(Beneficio beneficio) {
+            return new Alteracao(beneficio.getId(), beneficio.getNome(), null, beneficio.getValor(),
+                    null, beneficio.getAtivo(), beneficio.getVersion());
+        }
+
+        public static Alteracao saldo(Beneficio beneficio, BigDecimal valorAnterior) {
+            return new Alteracao(beneficio.getId(), beneficio.getNome(), valorAnterior, beneficio.getValor(),
+                    beneficio.getAtivo(), beneficio.getAtivo(), beneficio.getVersion());
+        }
+
+        public boolean isCriacao() {
+            return valorAnterior == null;
+        }
+
+        public Long getBeneficioId() {
+            return beneficioId;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public BigDecimal getValorAnterior() {
+            return valorAnterior;
+        }
+
+        public BigDecimal getValorAtual() {
+            return valorAtual;
+        }
+
+        public Boolean getAtivoAnterior() {
+            return ativoAnterior;
+        }
+
+        public Boolean getAtivoAtual() {
+            return ativoAtual;
+        }
+
+        public Long getVersao() {
+            return versao;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.exemple.backend.event;
+
+import java.util.Set;
+
+/**
+ * Evento publicado quando outra instância da aplicação alterou benefícios
+ * (BeneficioInvalidacaoService). As alterações não passaram por este processo, então
+ * não houve BeneficioAlteradoEvent local: quem mantém estado derivado da tabela deve
+ * reler esses ids do banco. A entrada do cache de segundo nível já foi removida.
+ *
+ * Publicado fora de transação; os listeners usam @EventListener.
+ */
+public class BeneficiosInvalidadosEvent {
+
+    private final Set<Long> ids;
+
+    public BeneficiosInvalidadosEvent(Set<Long> ids) {
+        this.ids = Set.copyOf(ids);
+    }
+
+    public Set<Long> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,22 @@
+package com.exemple.backend.event;
+
+/**
+ * Evento publicado após uma carga em massa confirmada na tabela BENEFICIO
+ * (importação de snapshot), que não passa pelo BeneficioService e portanto não gera
+ * BeneficioAlteradoEvent por linha. Quem mantém estado derivado da tabela (índices,
+ * agregados, contadores, assinantes SSE) deve descartá-lo e recarregar do banco.
+ *
+ * Publicado fora de transação; os listeners usam @EventListener.
+ */
+public class BeneficiosRecarregadosEvent {
+
+    private final long quantidade;
+
+    public BeneficiosRecarregadosEvent(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+}
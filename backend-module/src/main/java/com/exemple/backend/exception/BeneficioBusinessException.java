@@ -1,5 +1,12 @@
 package com.exemple.backend.exception;
 
+/**
+ * Base das rejeições de negócio (parâmetros inválidos, saldo insuficiente, conflito).
+ *
+ * As subclasses são criadas sem stack trace: são resultados esperados, lançados a cada
+ * transferência recusada, e o status HTTP vem do tipo (BeneficioErroHandler), não da
+ * mensagem. Instâncias com mensagem fixa são pré-alocadas e compartilhadas.
+ */
 public class BeneficioBusinessException extends RuntimeException {
 
 	/**
@@ -14,4 +21,9 @@ public class BeneficioBusinessException extends RuntimeException {
     public BeneficioBusinessException(String message, Throwable cause) {
         super(message, cause);
     }
-}
\ No newline at end of file
+
+    // Sem stack trace nem exceções suprimidas, o que permite compartilhar a instância
+    protected BeneficioBusinessException(String message, Throwable cause, boolean comPilha) {
+        super(message, cause, comPilha, comPilha);
+    }
+}
@@ -0,0 +1,13 @@
+package com.exemple.backend.exception;
+
+/**
+ * Conflito de versão que persistiu após as novas tentativas (HTTP 409)
+ */
+public class ConflitoConcorrenciaException extends BeneficioBusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConflitoConcorrenciaException(String message, Throwable cause) {
+        super(message, cause, false);
+    }
+}
@@ -0,0 +1,30 @@
+package com.exemple.backend.exception;
+
+/**
+ * Requisição inválida (HTTP 400): parâmetros da transferência ou benefício inexistente
+ */
+public class DadosInvalidosException extends BeneficioBusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final DadosInvalidosException PARAMETROS_NULOS =
+            new DadosInvalidosException("Parâmetros não podem ser nulos");
+    public static final DadosInvalidosException MESMO_BENEFICIO =
+            new DadosInvalidosException("Não é possível transferir para o mesmo benefício");
+    public static final DadosInvalidosException VALOR_NAO_POSITIVO =
+            new DadosInvalidosException("Valor da transferência deve ser positivo");
+    public static final DadosInvalidosException VALOR_ACIMA_DO_MAXIMO =
+            new DadosInvalidosException("Valor da transferência excede o limite permitido de 1.000.000");
+
+    public DadosInvalidosException(String message) {
+        super(message, null, false);
+    }
+
+    public static DadosInvalidosException origemNaoEncontrada(Long id) {
+        return new DadosInvalidosException("Benefício de origem não encontrado: " + id);
+    }
+
+    public static DadosInvalidosException destinoNaoEncontrado(Long id) {
+        return new DadosInvalidosException("Benefício de destino não encontrado: " + id);
+    }
+}
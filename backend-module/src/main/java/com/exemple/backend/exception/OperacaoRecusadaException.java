@@ -0,0 +1,18 @@
+package com.exemple.backend.exception;
+
+/**
+ * Operação recusada por regra de negócio (HTTP 422): benefício inativo, limite excedido
+ */
+public class OperacaoRecusadaException extends BeneficioBusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final OperacaoRecusadaException ORIGEM_INATIVA =
+            new OperacaoRecusadaException("Benefício de origem não está ativo");
+    public static final OperacaoRecusadaException DESTINO_INATIVO =
+            new OperacaoRecusadaException("Benefício de destino não está ativo");
+
+    public OperacaoRecusadaException(String message) {
+        super(message, null, false);
+    }
+}
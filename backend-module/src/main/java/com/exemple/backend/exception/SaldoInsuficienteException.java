@@ -0,0 +1,35 @@
+package com.exemple.backend.exception;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo disponível menor que o valor solicitado (HTTP 422).
+ * A mensagem só é formatada quando lida.
+ */
+public class SaldoInsuficienteException extends OperacaoRecusadaException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BigDecimal disponivel;
+    private final BigDecimal solicitado;
+
+    public SaldoInsuficienteException(BigDecimal disponivel, BigDecimal solicitado) {
+        super(null);
+        this.disponivel = disponivel;
+        this.solicitado = solicitado;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Saldo insuficiente. Saldo disponível: %.2f, Valor solicitado: %.2f",
+                disponivel, solicitado);
+    }
+
+    public BigDecimal getDisponivel() {
+        return disponivel;
+    }
+
+    public BigDecimal getSolicitado() {
+        return solicitado;
+    }
+}
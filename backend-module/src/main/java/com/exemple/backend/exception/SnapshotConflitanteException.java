@@ -0,0 +1,14 @@
+package com.exemple.backend.exception;
+
+/**
+ * Importação de snapshot recusada pelo estado atual das tabelas (HTTP 409): benefícios
+ * existentes sem substituir = true ou reservas pendentes
+ */
+public class SnapshotConflitanteException extends BeneficioBusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SnapshotConflitanteException(String message) {
+        super(message, null, false);
+    }
+}
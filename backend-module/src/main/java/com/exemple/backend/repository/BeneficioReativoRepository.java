@@ -0,0 +1,184 @@
+package com.exemple.backend.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import com.exemple.backend.dto.CreditoPendenteResumoView;
+import com.exemple.backend.dto.SaldoComCreditos;
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.entity.EventoTransferencia;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Acesso R2DBC à tabela BENEFICIO para o perfil reativo.
+ *
+ * Escrito sobre o DatabaseClient, com o SQL explícito: as atualizações são condicionais
+ * (versão lida, status e saldo no WHERE) e incrementam VERSION como as do
+ * BeneficioRepository, de modo que os dois caminhos detectam alterações um do outro.
+ * As linhas são devolvidas como Beneficio desanexado, sem passar pelo Hibernate.
+ */
+@Repository
+@Profile("reativo")
+public class BeneficioReativoRepository {
+
+    private static final String COLUNAS = "ID, NOME, DESCRICAO, VALOR, VALOR_RESERVADO, ATIVO, VERSION";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<Beneficio> findAll() {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM BENEFICIO ORDER BY ID")
+                .map(BeneficioReativoRepository::beneficio)
+                .all();
+    }
+
+    public Mono<Beneficio> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUNAS + " FROM BENEFICIO WHERE ID = :id")
+                .bind("id", id)
+                .map(BeneficioReativoRepository::beneficio)
+                .one();
+    }
+
+    /**
+     * Saldo, versão e status com os créditos diferidos pendentes somados ao VALOR,
+     * na mesma forma de BeneficioService.consultarSaldoEVersao
+     */
+    public Mono<SaldoVersaoView> findSaldoVersaoById(Long id) {
+        return databaseClient.sql("SELECT b.VALOR, b.VERSION, b.ATIVO, b.VALOR_RESERVADO, c.TOTAL, c.ULTIMO_ID "
+                        + "FROM BENEFICIO b LEFT JOIN (SELECT BENEFICIO_ID, SUM(VALOR) AS TOTAL, MAX(ID) AS ULTIMO_ID "
+                        + "FROM CREDITO_PENDENTE WHERE BENEFICIO_ID = :id GROUP BY BENEFICIO_ID) c "
+                        + "ON c.BENEFICIO_ID = b.ID WHERE b.ID = :id")
+                .bind("id", id)
+                .map(linha -> saldo(id, linha))
+                .one();
+    }
+
+    /**
+     * Debita a origem se a versão ainda for a lida e o saldo disponível cobrir o valor
+     */
+    public Mono<Long> debitarSeVersao(Long id, Long versao, BigDecimal valor) {
+        return databaseClient.sql("UPDATE BENEFICIO SET VALOR = VALOR - :valor, VERSION = VERSION + 1 "
+                        + "WHERE ID = :id AND VERSION = :versao AND ATIVO = TRUE AND VALOR - VALOR_RESERVADO >= :valor")
+                .bind("valor", valor)
+                .bind("id", id)
+                .bind("versao", versao)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Credita o destino se a versão ainda for a lida e ele continuar ativo
+     */
+    public Mono<Long> creditarSeVersao(Long id, Long versao, BigDecimal valor) {
+        return databaseClient.sql("UPDATE BENEFICIO SET VALOR = VALOR + :valor, VERSION = VERSION + 1 "
+                        + "WHERE ID = :id AND VERSION = :versao AND ATIVO = TRUE")
+                .bind("valor", valor)
+                .bind("id", id)
+                .bind("versao", versao)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Grava o evento na outbox de transferências (OUTBOX_TRANSFERENCIA), drenada pelo
+     * OutboxTransferenciaService; deve rodar na transação da transferência
+     */
+    public Mono<Void> registrarTransferencia(EventoTransferencia evento) {
+        return databaseClient.sql("INSERT INTO OUTBOX_TRANSFERENCIA (ESTRATEGIA, ORIGEM_ID, DESTINO_ID, VALOR, "
+                        + "SALDO_ORIGEM, VERSAO_ORIGEM, SALDO_DESTINO, VERSAO_DESTINO, CRIADO_EM) "
+                        + "VALUES (:estrategia, :origem, :destino, :valor, :saldoOrigem, :versaoOrigem, "
+                        + ":saldoDestino, :versaoDestino, :criadoEm)")
+                .bind("estrategia", evento.getEstrategia())
+                .bind("origem", evento.getOrigemId())
+                .bind("destino", evento.getDestinoId())
+                .bind("valor", evento.getValor())
+                .bind("saldoOrigem", evento.getSaldoOrigem())
+                .bind("versaoOrigem", evento.getVersaoOrigem())
+                .bind("saldoDestino", evento.getSaldoDestino())
+                .bind("versaoDestino", evento.getVersaoDestino())
+                .bind("criadoEm", OffsetDateTime.ofInstant(evento.getCriadoEm(), ZoneOffset.UTC))
+                .then();
+    }
+
+    /**
+     * Grava no log INVALIDACAO_BENEFICIO que o benefício mudou, para as instâncias que o
+     * acompanham (BeneficioInvalidacaoService); deve rodar na transação da alteração
+     */
+    public Mono<Void> registrarInvalidacao(Long beneficioId, Long versao, String instancia, Instant criadoEm) {
+        return databaseClient.sql("INSERT INTO INVALIDACAO_BENEFICIO (BENEFICIO_ID, VERSAO, INSTANCIA, CRIADO_EM) "
+                        + "VALUES (:beneficio, :versao, :instancia, :criadoEm)")
+                .bind("beneficio", beneficioId)
+                .bind("versao", versao)
+                .bind("instancia", instancia)
+                .bind("criadoEm", OffsetDateTime.ofInstant(criadoEm, ZoneOffset.UTC))
+                .then();
+    }
+
+    private static Beneficio beneficio(Readable linha) {
+        Beneficio beneficio = new Beneficio(linha.get("NOME", String.class), linha.get("DESCRICAO", String.class),
+                linha.get("VALOR", BigDecimal.class), linha.get("ATIVO", Boolean.class));
+        beneficio.setId(linha.get("ID", Long.class));
+        beneficio.setValorReservado(linha.get("VALOR_RESERVADO", BigDecimal.class));
+        beneficio.setVersion(linha.get("VERSION", Long.class));
+        return beneficio;
+    }
+
+    private static SaldoVersaoView saldo(Long id, Readable linha) {
+        SaldoVersaoView base = new SaldoLinha(linha.get("VALOR", BigDecimal.class), linha.get("VERSION", Long.class),
+                linha.get("ATIVO", Boolean.class), linha.get("VALOR_RESERVADO", BigDecimal.class));
+        BigDecimal total = linha.get("TOTAL", BigDecimal.class);
+        if (total == null) {
+            return base;
+        }
+        Long ultimoId = linha.get("ULTIMO_ID", Long.class);
+        return new SaldoComCreditos(id, base, new CreditoPendenteResumoView() {
+            @Override
+            public Long getBeneficioId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return total;
+            }
+
+            @Override
+            public Long getUltimoId() {
+                return ultimoId;
+            }
+        });
+    }
+
+    private record SaldoLinha(BigDecimal valor, Long versao, Boolean ativo, BigDecimal valorReservado)
+            implements SaldoVersaoView {
+
+        @Override
+        public BigDecimal getValor() {
+            return valor;
+        }
+
+        @Override
+        public Long getVersao() {
+            return versao;
+        }
+
+        @Override
+        public Boolean getAtivo() {
+            return ativo;
+        }
+
+        @Override
+        public BigDecimal getValorReservado() {
+            return valorReservado;
+        }
+    }
+}
@@ -2,25 +2,33 @@ package com.exemple.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.exemple.backend.dto.SaldoLoteView;
+import com.exemple.backend.dto.SaldoVersaoView;
 import com.exemple.backend.entity.Beneficio;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
 
-    // Buscar benefícios ativos
+    // Buscar benefícios ativos (resultado no cache de consultas do Hibernate)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Beneficio> findByAtivoTrue();
     
-    // Buscar benefício por nome
-    Optional<Beneficio> findByNome(String nome);
+    // Buscar benefícios por nome exato (IDX_BENEFICIO_NOME); NOME não é único
+    List<Beneficio> findByNome(String nome);
     
     // Buscar benefícios com valor maior que
     List<Beneficio> findByValorGreaterThan(BigDecimal valor);
@@ -36,13 +44,113 @@ public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
     // Contar benefícios ativos
     long countByAtivoTrue();
     
+    /**
+     * Projeção de saldo, versão e status sem carregar a entidade
+     */
+    @Query("SELECT b.valor AS valor, b.version AS versao, b.ativo AS ativo, b.valorReservado AS valorReservado "
+            + "FROM Beneficio b WHERE b.id = :id")
+    Optional<SaldoVersaoView> findSaldoVersaoById(@Param("id") Long id);
+
+    /**
+     * Saldo, versão e status de vários benefícios em uma única consulta.
+     * O chamador divide listas grandes em blocos (BeneficioService.consultarSaldos).
+     */
+    @Query("SELECT b.id AS id, b.valor AS valor, b.version AS versao, b.ativo AS ativo, "
+            + "b.valorReservado AS valorReservado FROM Beneficio b WHERE b.id IN :ids")
+    List<SaldoLoteView> findSaldosVersaoByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Percorre id e nome de todos os benefícios para montar o índice de busca por nome
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT b.id, b.nome FROM Beneficio b")
+    Stream<Object[]> streamIdENome();
+    
+    /**
+     * Percorre id, valor, status e versão sem carregar entidades gerenciadas, para montar
+     * o índice ordenado por valor e as estatísticas. Deve ser consumido dentro de uma
+     * transação e fechado ao final (try-with-resources)
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT b.id, b.valor, b.ativo, b.version FROM Beneficio b")
+    Stream<Object[]> streamIdValorAtivoEVersao();
+
+    // Maior id cadastrado; delimita as faixas da reconciliação
+    @Query("SELECT MAX(b.id) FROM Beneficio b")
+    Optional<Long> findMaxId();
+
+    /**
+     * Id, valor, ativo e versão dos benefícios com id na faixa informada (inclusive),
+     * usado pela reconciliação para varrer a tabela em blocos
+     */
+    @Query("SELECT b.id, b.valor, b.ativo, b.version FROM Beneficio b WHERE b.id BETWEEN :idInicial AND :idFinal")
+    List<Object[]> findIdValorAtivoEVersaoPorFaixaDeId(@Param("idInicial") Long idInicial,
+                                                         @Param("idFinal") Long idFinal);
+    
+    // ATUALIZAÇÕES CONDICIONAIS DAS RESERVAS (BeneficioReservaService)
+    // Cada fase é uma única instrução: a condição do WHERE faz a validação e o lock
+    // de linha dura só até o commit. A versão é incrementada para que transferências
+    // otimistas concorrentes detectem a alteração.
+
+    /**
+     * Move valor do disponível para o reservado se o benefício estiver ativo e o
+     * saldo disponível bastar. Retorna 0 caso contrário.
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valorReservado = b.valorReservado + :valor, b.version = b.version + 1 "
+            + "WHERE b.id = :id AND b.ativo = true AND b.valor - b.valorReservado >= :valor")
+    int reservarSaldo(@Param("id") Long id, @Param("valor") BigDecimal valor);
+
+    /**
+     * Devolve ao disponível um valor reservado (liberação ou expiração)
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valorReservado = b.valorReservado - :valor, b.version = b.version + 1 "
+            + "WHERE b.id = :id AND b.valorReservado >= :valor")
+    int liberarSaldoReservado(@Param("id") Long id, @Param("valor") BigDecimal valor);
+
+    /**
+     * Debita da origem um valor reservado (captura)
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :valor, b.valorReservado = b.valorReservado - :valor, "
+            + "b.version = b.version + 1 WHERE b.id = :id AND b.valorReservado >= :valor")
+    int debitarSaldoReservado(@Param("id") Long id, @Param("valor") BigDecimal valor);
+
+    /**
+     * Credita o destino de uma captura, desde que continue ativo
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor + :valor, b.version = b.version + 1 "
+            + "WHERE b.id = :id AND b.ativo = true")
+    int creditarSaldo(@Param("id") Long id, @Param("valor") BigDecimal valor);
+    
+    /**
+     * Debita o saldo disponível (VALOR - VALOR_RESERVADO) de um benefício ativo;
+     * usado na transferência com crédito diferido, em que só a origem é atualizada
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :valor, b.version = b.version + 1 "
+            + "WHERE b.id = :id AND b.ativo = true AND b.valor - b.valorReservado >= :valor")
+    int debitarSaldoDisponivel(@Param("id") Long id, @Param("valor") BigDecimal valor);
+
+    /**
+     * Incorpora créditos diferidos já aceitos; não confere o status, pois o
+     * crédito foi validado quando a transferência ocorreu
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor + :valor, b.version = b.version + 1 WHERE b.id = :id")
+    int consolidarCredito(@Param("id") Long id, @Param("valor") BigDecimal valor);
+    
     // MÉTODOS COM LOCKING
+    // Todos ignoram o cache de segundo nível (retrieveMode = BYPASS) e leem a linha do banco
     
     /**
      * Busca benefício com PESSIMISTIC WRITE lock
      * Bloqueia a linha no banco até o fim da transação
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"))
     @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
     Optional<Beneficio> findByIdWithPessimisticLock(@Param("id") Long id);
     
@@ -51,6 +159,7 @@ public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
      * Permite leitura concorrente mas bloqueia escritas
      */
     @Lock(LockModeType.PESSIMISTIC_READ)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"))
     @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
     Optional<Beneficio> findByIdWithPessimisticRead(@Param("id") Long id);
     
@@ -59,6 +168,7 @@ public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
      * Usa a anotação @Version para controle de concorrência
      */
     @Lock(LockModeType.OPTIMISTIC)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"))
     @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
     Optional<Beneficio> findByIdWithOptimisticLock(@Param("id") Long id);
     
@@ -67,6 +177,7 @@ public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
      * Útil para transferências que precisam lock em vários registros
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"))
     @Query("SELECT b FROM Beneficio b WHERE b.id IN :ids")
     List<Beneficio> findAllByIdWithPessimisticLock(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.exemple.backend.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.entity.Beneficio;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Acesso JDBC à tabela BENEFICIO particionada em shards (perfil shards).
+ *
+ * Cada shard é um banco próprio com BENEFICIO e TRANSACAO_PREPARADA, e transações
+ * locais próprias (DataSourceTransactionManager que não é bean, como o
+ * R2dbcTransactionManager do ReativoConfig). As atualizações de saldo são condicionais
+ * e incrementam VERSION como as do BeneficioRepository.
+ *
+ * TRANSACAO_PREPARADA é o lado participante do protocolo em duas fases: a preparação
+ * grava a linha (XID, BENEFICIO_ID) como PREPARADA na mesma transação local que reserva
+ * o valor, e a confirmação ou o aborto só têm efeito se conseguirem tirar a linha desse
+ * estado, o que os torna idempotentes para a recuperação.
+ */
+public class BeneficioShardRepository implements AutoCloseable {
+
+    private static final String COLUNAS = "ID, NOME, DESCRICAO, VALOR, VALOR_RESERVADO, ATIVO, VERSION";
+
+    private static final RowMapper<Beneficio> BENEFICIO = (linha, numero) -> {
+        Beneficio beneficio = new Beneficio(linha.getString("NOME"), linha.getString("DESCRICAO"),
+                linha.getBigDecimal("VALOR"), linha.getBoolean("ATIVO"));
+        beneficio.setId(linha.getLong("ID"));
+        beneficio.setValorReservado(linha.getBigDecimal("VALOR_RESERVADO"));
+        beneficio.setVersion(linha.getLong("VERSION"));
+        return beneficio;
+    };
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> jdbc = new ArrayList<>();
+    private final List<NamedParameterJdbcTemplate> jdbcNomeado = new ArrayList<>();
+    private final List<TransactionTemplate> transacoes = new ArrayList<>();
+
+    public BeneficioShardRepository(List<? extends DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+        for (DataSource dataSource : this.dataSources) {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            jdbc.add(template);
+            jdbcNomeado.add(new NamedParameterJdbcTemplate(template));
+            transacoes.add(new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+    }
+
+    public void criarSchema() {
+        for (JdbcTemplate template : jdbc) {
+            template.execute("CREATE TABLE IF NOT EXISTS BENEFICIO ("
+                    + "ID BIGINT PRIMARY KEY, NOME VARCHAR(100) NOT NULL, DESCRICAO VARCHAR(255), "
+                    + "VALOR DECIMAL(15,2) NOT NULL, VALOR_RESERVADO DECIMAL(15,2) DEFAULT 0 NOT NULL, "
+                    + "ATIVO BOOLEAN DEFAULT TRUE, VERSION BIGINT DEFAULT 0)");
+            template.execute("CREATE TABLE IF NOT EXISTS TRANSACAO_PREPARADA ("
+                    + "XID VARCHAR(36) NOT NULL, BENEFICIO_ID BIGINT NOT NULL, VALOR DECIMAL(15,2) NOT NULL, "
+                    + "ESTADO VARCHAR(12) NOT NULL, CRIADA_EM TIMESTAMP WITH TIME ZONE NOT NULL, "
+                    + "PRIMARY KEY (XID, BENEFICIO_ID))");
+        }
+    }
+
+    public int getQuantidade() {
+        return jdbc.size();
+    }
+
+    /**
+     * Executa a operação em uma transação local do shard
+     */
+    public <T> T emTransacao(int shard, Supplier<T> operacao) {
+        return transacoes.get(shard).execute(status -> operacao.get());
+    }
+
+    public void inserir(int shard, Beneficio beneficio) {
+        jdbc.get(shard).update("INSERT INTO BENEFICIO (" + COLUNAS + ") VALUES (?, ?, ?, ?, 0, ?, 0)",
+                beneficio.getId(), beneficio.getNome(), beneficio.getDescricao(), beneficio.getValor(),
+                beneficio.getAtivo() == null || beneficio.getAtivo());
+    }
+
+    public Optional<Beneficio> buscar(int shard, Long id) {
+        return jdbc.get(shard).query("SELECT " + COLUNAS + " FROM BENEFICIO WHERE ID = ?", BENEFICIO, id)
+                .stream().findFirst();
+    }
+
+    public List<Beneficio> buscarVarios(int shard, Collection<Long> ids) {
+        return jdbcNomeado.get(shard).query("SELECT " + COLUNAS + " FROM BENEFICIO WHERE ID IN (:ids)",
+                new MapSqlParameterSource("ids", ids), BENEFICIO);
+    }
+
+    public List<Beneficio> listar(int shard) {
+        return jdbc.get(shard).query("SELECT " + COLUNAS + " FROM BENEFICIO ORDER BY ID", BENEFICIO);
+    }
+
+    public long contar(int shard) {
+        return jdbc.get(shard).queryForObject("SELECT COUNT(*) FROM BENEFICIO", Long.class);
+    }
+
+    /**
+     * Debita se o benefício estiver ativo e o saldo disponível cobrir o valor
+     */
+    public int debitar(int shard, Long id, BigDecimal valor) {
+        return jdbc.get(shard).update("UPDATE BENEFICIO SET VALOR = VALOR - ?, VERSION = VERSION + 1 "
+                + "WHERE ID = ? AND ATIVO = TRUE AND VALOR - VALOR_RESERVADO >= ?", valor, id, valor);
+    }
+
+    public int creditar(int shard, Long id, BigDecimal valor) {
+        return jdbc.get(shard).update("UPDATE BENEFICIO SET VALOR = VALOR + ?, VERSION = VERSION + 1 "
+                + "WHERE ID = ? AND ATIVO = TRUE", valor, id);
+    }
+
+    // LADO PARTICIPANTE DO PROTOCOLO EM DUAS FASES
+
+    /**
+     * Reserva o valor na origem e registra a preparação, em uma transação local.
+     * Retorna false se o saldo disponível não cobrir o valor ou se a transação já foi
+     * abortada neste shard (a linha de aborto impede uma preparação atrasada).
+     */
+    public boolean prepararDebito(int shard, String xid, Long id, BigDecimal valor, Instant agora) {
+        return transacoes.get(shard).execute(status -> {
+            int reservadas = jdbc.get(shard).update("UPDATE BENEFICIO SET VALOR_RESERVADO = VALOR_RESERVADO + ?, "
+                    + "VERSION = VERSION + 1 WHERE ID = ? AND ATIVO = TRUE AND VALOR - VALOR_RESERVADO >= ?",
+                    valor, id, valor);
+            if (reservadas == 0) {
+                return false;
+            }
+            if (!registrarPreparada(shard, xid, id, valor, agora)) {
+                // Já abortada pela recuperação: desfaz a reserva feita nesta transação
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Registra a preparação do crédito se o destino existir e estiver ativo.
+     * O destino não é bloqueado: o crédito não depende do saldo dele.
+     */
+    public boolean prepararCredito(int shard, String xid, Long id, BigDecimal valor, Instant agora) {
+        return emTransacao(shard, () -> {
+            List<Boolean> ativo = jdbc.get(shard).queryForList("SELECT ATIVO FROM BENEFICIO WHERE ID = ?",
+                    Boolean.class, id);
+            return !ativo.isEmpty() && Boolean.TRUE.equals(ativo.get(0))
+                    && registrarPreparada(shard, xid, id, valor, agora);
+        });
+    }
+
+    // Move o valor reservado para fora do saldo; sem efeito se já confirmada ou abortada
+    public boolean confirmarDebito(int shard, String xid, Long id, BigDecimal valor) {
+        return emTransacao(shard, () -> finalizarPreparada(shard, xid, id, "CONFIRMADA")
+                && jdbc.get(shard).update("UPDATE BENEFICIO SET VALOR = VALOR - ?, VALOR_RESERVADO = VALOR_RESERVADO - ?, "
+                        + "VERSION = VERSION + 1 WHERE ID = ?", valor, valor, id) == 1);
+    }
+
+    // Credita mesmo se o destino foi desativado depois da preparação: o crédito já foi prometido
+    public boolean confirmarCredito(int shard, String xid, Long id, BigDecimal valor) {
+        return emTransacao(shard, () -> finalizarPreparada(shard, xid, id, "CONFIRMADA")
+                && jdbc.get(shard).update("UPDATE BENEFICIO SET VALOR = VALOR + ?, VERSION = VERSION + 1 "
+                        + "WHERE ID = ?", valor, id) == 1);
+    }
+
+    // Devolve o valor reservado; sem efeito se nunca preparada, já abortada ou confirmada
+    public void abortarDebito(int shard, String xid, Long id, BigDecimal valor, Instant agora) {
+        emTransacao(shard, () -> {
+            if (abortarPreparada(shard, xid, id, valor, agora)) {
+                jdbc.get(shard).update("UPDATE BENEFICIO SET VALOR_RESERVADO = VALOR_RESERVADO - ?, "
+                        + "VERSION = VERSION + 1 WHERE ID = ?", valor, id);
+            }
+            return null;
+        });
+    }
+
+    public void abortarCredito(int shard, String xid, Long id, BigDecimal valor, Instant agora) {
+        emTransacao(shard, () -> abortarPreparada(shard, xid, id, valor, agora));
+    }
+
+    /**
+     * Remove as linhas de participação finalizadas antes de limite
+     */
+    public int removerFinalizadas(int shard, Instant limite) {
+        return jdbc.get(shard).update("DELETE FROM TRANSACAO_PREPARADA WHERE ESTADO <> 'PREPARADA' AND CRIADA_EM < ?",
+                Timestamp.from(limite));
+    }
+
+    private boolean registrarPreparada(int shard, String xid, Long id, BigDecimal valor, Instant agora) {
+        try {
+            jdbc.get(shard).update("INSERT INTO TRANSACAO_PREPARADA (XID, BENEFICIO_ID, VALOR, ESTADO, CRIADA_EM) "
+                    + "VALUES (?, ?, ?, 'PREPARADA', ?)", xid, id, valor, Timestamp.from(agora));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean finalizarPreparada(int shard, String xid, Long id, String estado) {
+        return jdbc.get(shard).update("UPDATE TRANSACAO_PREPARADA SET ESTADO = ? "
+                + "WHERE XID = ? AND BENEFICIO_ID = ? AND ESTADO = 'PREPARADA'", estado, xid, id) == 1;
+    }
+
+    /**
+     * Marca a participação como ABORTADA. Se ela ainda não existe, grava a linha já
+     * abortada, para que uma preparação que chegue depois falhe na chave primária.
+     * Retorna true só se havia uma preparação a desfazer.
+     */
+    private boolean abortarPreparada(int shard, String xid, Long id, BigDecimal valor, Instant agora) {
+        if (finalizarPreparada(shard, xid, id, "ABORTADA")) {
+            return true;
+        }
+        try {
+            jdbc.get(shard).update("INSERT INTO TRANSACAO_PREPARADA (XID, BENEFICIO_ID, VALOR, ESTADO, CRIADA_EM) "
+                    + "VALUES (?, ?, ?, 'ABORTADA', ?)", xid, id, valor, Timestamp.from(agora));
+        } catch (DuplicateKeyException e) {
+            // Uma preparação concorrente gravou a linha primeiro: aborta a preparação dela
+            return finalizarPreparada(shard, xid, id, "ABORTADA");
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+}
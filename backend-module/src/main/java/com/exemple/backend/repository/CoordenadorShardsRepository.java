@@ -0,0 +1,92 @@
+package com.exemple.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Log de recuperação das transferências entre shards e gerador de ids (perfil shards).
+ *
+ * Fica no banco principal da aplicação, fora dos shards. Cada transferência entre
+ * shards é registrada como INICIADA antes de qualquer preparação; a decisão é a troca
+ * condicional para CONFIRMADA ou ABORTADA, e CONCLUIDA indica que os participantes já
+ * aplicaram a decisão. Como toda troca de estado exige o estado anterior no WHERE, o
+ * coordenador e a recuperação (de qualquer instância) nunca decidem coisas diferentes.
+ */
+public class CoordenadorShardsRepository {
+
+    public enum Estado { INICIADA, CONFIRMADA, ABORTADA, CONCLUIDA }
+
+    public record TransacaoDistribuida(String xid, Long origemId, Long destinoId, BigDecimal valor,
+                                       Estado estado, Instant criadaEm) {
+    }
+
+    private static final RowMapper<TransacaoDistribuida> TRANSACAO = (linha, numero) -> new TransacaoDistribuida(
+            linha.getString("XID"), linha.getLong("ORIGEM_ID"), linha.getLong("DESTINO_ID"),
+            linha.getBigDecimal("VALOR"), Estado.valueOf(linha.getString("ESTADO")),
+            linha.getTimestamp("CRIADA_EM").toInstant());
+
+    private final JdbcTemplate jdbc;
+
+    public CoordenadorShardsRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void criarSchema() {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS TRANSACAO_DISTRIBUIDA ("
+                + "XID VARCHAR(36) PRIMARY KEY, ORIGEM_ID BIGINT NOT NULL, DESTINO_ID BIGINT NOT NULL, "
+                + "VALOR DECIMAL(15,2) NOT NULL, ESTADO VARCHAR(12) NOT NULL, "
+                + "CRIADA_EM TIMESTAMP WITH TIME ZONE NOT NULL, ATUALIZADA_EM TIMESTAMP WITH TIME ZONE NOT NULL)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS IDX_TRANSACAO_DISTRIBUIDA_ESTADO "
+                + "ON TRANSACAO_DISTRIBUIDA (ESTADO, CRIADA_EM)");
+        jdbc.execute("CREATE SEQUENCE IF NOT EXISTS SEQ_BENEFICIO_SHARD START WITH 1");
+    }
+
+    // Ids globais: o shard de um benefício é função do id, então o id vem antes do shard
+    public Long proximoId() {
+        return jdbc.queryForObject("SELECT NEXT VALUE FOR SEQ_BENEFICIO_SHARD", Long.class);
+    }
+
+    public void registrar(String xid, Long origemId, Long destinoId, BigDecimal valor, Instant agora) {
+        Timestamp momento = Timestamp.from(agora);
+        jdbc.update("INSERT INTO TRANSACAO_DISTRIBUIDA (XID, ORIGEM_ID, DESTINO_ID, VALOR, ESTADO, CRIADA_EM, ATUALIZADA_EM) "
+                + "VALUES (?, ?, ?, ?, 'INICIADA', ?, ?)", xid, origemId, destinoId, valor, momento, momento);
+    }
+
+    /**
+     * Troca o estado só se ele ainda for esperado; false se outro já decidiu
+     */
+    public boolean mudarEstado(String xid, Estado esperado, Estado novo, Instant agora) {
+        return jdbc.update("UPDATE TRANSACAO_DISTRIBUIDA SET ESTADO = ?, ATUALIZADA_EM = ? WHERE XID = ? AND ESTADO = ?",
+                novo.name(), Timestamp.from(agora), xid, esperado.name()) == 1;
+    }
+
+    /**
+     * Transações não concluídas criadas antes de limite, das mais antigas para as mais novas
+     */
+    public List<TransacaoDistribuida> buscarPendentes(Instant limite, int maximo) {
+        return jdbc.query("SELECT XID, ORIGEM_ID, DESTINO_ID, VALOR, ESTADO, CRIADA_EM FROM TRANSACAO_DISTRIBUIDA "
+                + "WHERE ESTADO <> 'CONCLUIDA' AND CRIADA_EM < ? ORDER BY CRIADA_EM FETCH FIRST ? ROWS ONLY",
+                TRANSACAO, Timestamp.from(limite), maximo);
+    }
+
+    public Map<Estado, Long> contarPorEstado() {
+        Map<Estado, Long> contagem = new EnumMap<>(Estado.class);
+        jdbc.query("SELECT ESTADO, COUNT(*) AS TOTAL FROM TRANSACAO_DISTRIBUIDA GROUP BY ESTADO",
+                linha -> {
+                    contagem.put(Estado.valueOf(linha.getString("ESTADO")), linha.getLong("TOTAL"));
+                });
+        return contagem;
+    }
+
+    public int removerConcluidas(Instant limite) {
+        return jdbc.update("DELETE FROM TRANSACAO_DISTRIBUIDA WHERE ESTADO = 'CONCLUIDA' AND ATUALIZADA_EM < ?",
+                Timestamp.from(limite));
+    }
+}
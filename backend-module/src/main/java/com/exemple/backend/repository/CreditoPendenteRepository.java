@@ -0,0 +1,53 @@
+package com.exemple.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.exemple.backend.dto.CreditoPendenteResumoView;
+import com.exemple.backend.entity.CreditoPendente;
+
+import jakarta.persistence.LockModeType;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CreditoPendenteRepository extends JpaRepository<CreditoPendente, Long> {
+
+    /**
+     * Soma e último id dos créditos pendentes de um benefício; vazio se não houver
+     */
+    @Query("SELECT c.beneficioId AS beneficioId, SUM(c.valor) AS total, MAX(c.id) AS ultimoId "
+            + "FROM CreditoPendente c WHERE c.beneficioId = :id GROUP BY c.beneficioId")
+    Optional<CreditoPendenteResumoView> findResumoByBeneficioId(@Param("id") Long id);
+
+    /**
+     * Mesmo resumo para vários benefícios (BeneficioService.consultarSaldos)
+     */
+    @Query("SELECT c.beneficioId AS beneficioId, SUM(c.valor) AS total, MAX(c.id) AS ultimoId "
+            + "FROM CreditoPendente c WHERE c.beneficioId IN :ids GROUP BY c.beneficioId")
+    List<CreditoPendenteResumoView> findResumoByBeneficioIdIn(@Param("ids") Collection<Long> ids);
+
+    // Total ainda não consolidado; entra na soma da reconciliação
+    @Query("SELECT COALESCE(SUM(c.valor), 0) FROM CreditoPendente c")
+    BigDecimal somarPendentes();
+
+    /**
+     * Lote mais antigo de créditos, bloqueado até o fim da transação para que duas
+     * consolidações concorrentes não apliquem o mesmo crédito
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CreditoPendente c ORDER BY c.id")
+    List<CreditoPendente> findLoteParaConsolidar(Pageable lote);
+
+    // Remove os créditos já incorporados ao VALOR
+    @Modifying
+    @Query("DELETE FROM CreditoPendente c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
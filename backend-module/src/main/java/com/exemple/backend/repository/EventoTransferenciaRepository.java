@@ -0,0 +1,37 @@
+package com.exemple.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.exemple.backend.entity.EventoTransferencia;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoTransferenciaRepository extends JpaRepository<EventoTransferencia, Long> {
+
+    /**
+     * Lote mais antigo de eventos, em ordem de id, bloqueado até o fim da transação
+     * para que dois relays (em instâncias diferentes) não entreguem o mesmo lote
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EventoTransferencia e ORDER BY e.id")
+    List<EventoTransferencia> findLoteParaEntregar(Pageable lote);
+
+    // Criação do evento pendente mais antigo; nulo com a outbox vazia
+    @Query("SELECT MIN(e.criadoEm) FROM EventoTransferencia e")
+    Instant findCriadoEmMaisAntigo();
+
+    // Remove os eventos já entregues
+    @Modifying
+    @Query("DELETE FROM EventoTransferencia e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,33 @@
+package com.exemple.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.exemple.backend.entity.InvalidacaoBeneficio;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InvalidacaoBeneficioRepository extends JpaRepository<InvalidacaoBeneficio, Long> {
+
+    /**
+     * Registros depois da marca d'água, em ordem de id (usa a chave primária)
+     */
+    @Query("SELECT i FROM InvalidacaoBeneficio i WHERE i.id > :marca ORDER BY i.id")
+    List<InvalidacaoBeneficio> findApos(@Param("marca") long marca, Pageable lote);
+
+    // Releitura das lacunas: ids pulados que podem pertencer a transações ainda abertas
+    List<InvalidacaoBeneficio> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(i.id), 0) FROM InvalidacaoBeneficio i")
+    long findMaiorId();
+
+    @Modifying
+    @Query("DELETE FROM InvalidacaoBeneficio i WHERE i.criadoEm < :limite")
+    int deleteCriadosAntesDe(@Param("limite") Instant limite);
+}
@@ -0,0 +1,50 @@
+package com.exemple.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.exemple.backend.entity.ReservaSaldo;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ReservaSaldoRepository extends JpaRepository<ReservaSaldo, Long> {
+
+    /**
+     * Marca a reserva como capturada se ainda estiver pendente e dentro do prazo.
+     * Retorna 0 quando outra operação (liberação ou varredura) chegou antes.
+     */
+    @Modifying
+    @Query("UPDATE ReservaSaldo r SET r.status = com.exemple.backend.entity.ReservaSaldo.Status.CAPTURADA, "
+            + "r.finalizadaEm = :agora WHERE r.id = :id "
+            + "AND r.status = com.exemple.backend.entity.ReservaSaldo.Status.PENDENTE AND r.expiraEm > :agora")
+    int marcarCapturada(@Param("id") Long id, @Param("agora") Instant agora);
+
+    /**
+     * Marca a reserva como liberada se ainda estiver pendente, vencida ou não:
+     * liberar antes da varredura só antecipa a devolução do valor
+     */
+    @Modifying
+    @Query("UPDATE ReservaSaldo r SET r.status = com.exemple.backend.entity.ReservaSaldo.Status.LIBERADA, "
+            + "r.finalizadaEm = :agora WHERE r.id = :id "
+            + "AND r.status = com.exemple.backend.entity.ReservaSaldo.Status.PENDENTE")
+    int marcarLiberada(@Param("id") Long id, @Param("agora") Instant agora);
+
+    /**
+     * Lote de reservas pendentes já vencidas, bloqueadas até o fim da transação
+     * para que uma captura concorrente não finalize a mesma reserva
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReservaSaldo r WHERE r.status = com.exemple.backend.entity.ReservaSaldo.Status.PENDENTE "
+            + "AND r.expiraEm <= :agora ORDER BY r.id")
+    List<ReservaSaldo> findVencidasParaExpirar(@Param("agora") Instant agora, Pageable lote);
+
+    long countByStatus(ReservaSaldo.Status status);
+}
@@ -0,0 +1,48 @@
+package com.exemple.backend.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosInvalidadosEvent;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de alterações confirmadas na tabela BENEFICIO.
+ *
+ * Serve de base barata para o ETag das listagens: qualquer criação ou transferência
+ * incrementa o contador, invalidando as cópias em cache dos clientes. O instante de
+ * inicialização compõe o ETag para que um restart nunca reaproveite um valor antigo.
+ */
+@Component
+public class BeneficioAlteracaoContador {
+
+    private final long inicializacao = System.currentTimeMillis();
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent event) {
+        alteracoes.incrementAndGet();
+    }
+
+    @EventListener
+    public void aoRecarregarBeneficios(BeneficiosRecarregadosEvent event) {
+        alteracoes.incrementAndGet();
+    }
+
+    @EventListener
+    public void aoInvalidarBeneficios(BeneficiosInvalidadosEvent event) {
+        alteracoes.incrementAndGet();
+    }
+
+    public long getAlteracoes() {
+        return alteracoes.get();
+    }
+
+    public String getEtag() {
+        return "l" + Long.toString(inicializacao, 36) + "-" + alteracoes.get();
+    }
+}
@@ -0,0 +1,117 @@
+package com.exemple.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.CreditoPendente;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.repository.CreditoPendenteRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Consolidação dos créditos diferidos (BeneficioService.transferWithDeferredCredit).
+ *
+ * Créditos são comutativos: a ordem em que entram no destino não importa, então
+ * podem ser gravados sem lock e somados depois. A cada ciclo, lotes dos créditos
+ * mais antigos são bloqueados, agrupados por destino e aplicados com uma única
+ * atualização por benefício; as linhas consolidadas são removidas na mesma transação.
+ */
+@Service
+public class BeneficioCreditoPendenteService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioCreditoPendenteService.class);
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private CreditoPendenteRepository creditoPendenteRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${beneficio.creditos.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    /**
+     * Consolida os créditos pendentes em lotes até esvaziar a fila (ou até um lote
+     * não consolidar nada). Retorna a quantidade de créditos incorporados.
+     */
+    @Scheduled(initialDelayString = "${beneficio.creditos.consolidacao-ms:1000}",
+               fixedDelayString = "${beneficio.creditos.consolidacao-ms:1000}")
+    public int consolidar() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int[] lote;
+        do {
+            lote = transacao.execute(status -> consolidarLote());
+            total += lote[1];
+        } while (lote[0] == tamanhoLote && lote[1] > 0);
+
+        if (total > 0) {
+            log.debug("Créditos consolidados: {}", total);
+        }
+        return total;
+    }
+
+    // Retorna {lidos, consolidados}
+    private int[] consolidarLote() {
+        List<CreditoPendente> creditos = creditoPendenteRepository.findLoteParaConsolidar(PageRequest.of(0, tamanhoLote));
+        if (creditos.isEmpty()) {
+            return new int[] {0, 0};
+        }
+
+        // TreeMap: os destinos são atualizados em ordem crescente de id
+        Map<Long, List<CreditoPendente>> porDestino = new TreeMap<>();
+        for (CreditoPendente credito : creditos) {
+            porDestino.computeIfAbsent(credito.getBeneficioId(), id -> new ArrayList<>()).add(credito);
+        }
+
+        List<CreditoPendente> consolidados = new ArrayList<>(creditos.size());
+        List<BeneficioAlteradoEvent.Alteracao> alteracoes = new ArrayList<>(porDestino.size());
+        BigDecimal totalConsolidado = BigDecimal.ZERO;
+        for (Map.Entry<Long, List<CreditoPendente>> destino : porDestino.entrySet()) {
+            Long id = destino.getKey();
+            BigDecimal soma = destino.getValue().stream().map(CreditoPendente::getValor)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (beneficioRepository.consolidarCredito(id, soma) == 0) {
+                // Sem o benefício não há onde aplicar; os créditos ficam para análise
+                log.error("Créditos pendentes para benefício inexistente {}: {}", id, soma);
+                continue;
+            }
+            consolidados.addAll(destino.getValue());
+            totalConsolidado = totalConsolidado.add(soma);
+
+            Optional<SaldoVersaoView> atual = beneficioRepository.findSaldoVersaoById(id);
+            if (atual.isPresent()) {
+                SaldoVersaoView saldo = atual.get();
+                alteracoes.add(new BeneficioAlteradoEvent.Alteracao(id, null, saldo.getValor().subtract(soma),
+                        saldo.getValor(), saldo.getAtivo(), saldo.getAtivo(), saldo.getVersao()));
+            }
+        }
+
+        if (!consolidados.isEmpty()) {
+            creditoPendenteRepository.deleteByIdIn(consolidados.stream().map(CreditoPendente::getId).toList());
+            eventPublisher.publishEvent(BeneficioAlteradoEvent.consolidacaoCreditos(alteracoes, totalConsolidado));
+        }
+        return new int[] {creditos.size(), consolidados.size()};
+    }
+}
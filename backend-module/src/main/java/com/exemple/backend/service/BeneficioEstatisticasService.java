@@ -0,0 +1,242 @@
+package com.exemple.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+import com.exemple.backend.repository.BeneficioRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Mantém em memória as estatísticas agregadas dos benefícios (soma, quantidade,
+ * ativos, mínimo, máximo e histograma de saldos).
+ *
+ * O agregado é montado na subida da aplicação e atualizado por deltas a cada
+ * criação ou transferência confirmada, evitando varrer a tabela a cada consulta.
+ * Uma reconciliação periódica recalcula tudo a partir do banco para corrigir desvios.
+ *
+ * Como no BeneficioValorIndex, o agregado guarda valor, status e versão (@Version) de
+ * cada benefício: uma alteração substitui o estado guardado e alterações com versão
+ * mais antiga são descartadas. Os deltas confirmados durante uma reconstrução ficam
+ * também em um buffer e são reaplicados sobre o agregado recalculado; os que a
+ * leitura já refletiu não passam da versão lida e são ignorados.
+ */
+@Service
+public class BeneficioEstatisticasService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioEstatisticasService.class);
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    private final BigDecimal[] faixas;
+
+    private final Object lock = new Object();
+
+    // Protegidos por lock
+    private Agregado agregado;
+    // Alterações confirmadas durante a reconstrução em andamento (nulo fora dela)
+    private List<BeneficioAlteradoEvent.Alteracao> alteracoesDuranteReconstrucao;
+    private Date ultimaReconciliacao;
+
+    public BeneficioEstatisticasService(
+            @Value("${beneficio.estatisticas.faixas:100,500,1000,5000,10000,100000}") BigDecimal[] faixas) {
+        this.faixas = faixas.clone();
+        Arrays.sort(this.faixas);
+        this.agregado = new Agregado(this.faixas);
+    }
+
+    /**
+     * Aplica os deltas de uma operação confirmada
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent event) {
+        synchronized (lock) {
+            for (BeneficioAlteradoEvent.Alteracao alteracao : event.getAlteracoes()) {
+                agregado.aplicar(alteracao);
+                if (alteracoesDuranteReconstrucao != null) {
+                    alteracoesDuranteReconstrucao.add(alteracao);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recalcula o agregado a partir do banco.
+     * Executado na subida da aplicação e periodicamente em background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${beneficio.estatisticas.reconciliacao-ms:300000}",
+               fixedDelayString = "${beneficio.estatisticas.reconciliacao-ms:300000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconciliar() {
+        synchronized (lock) {
+            alteracoesDuranteReconstrucao = new ArrayList<>();
+        }
+
+        Agregado recalculado = new Agregado(faixas);
+        try (Stream<Object[]> linhas = beneficioRepository.streamIdValorAtivoEVersao()) {
+            linhas.forEach(linha -> recalculado.aplicar((Long) linha[0], (BigDecimal) linha[1],
+                    (Boolean) linha[2], (Long) linha[3]));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                alteracoesDuranteReconstrucao = null;
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            // Deltas confirmados durante a varredura podem ou não estar refletidos na leitura;
+            // a versão decide, e nenhum é perdido ao trocar o agregado
+            for (BeneficioAlteradoEvent.Alteracao alteracao : alteracoesDuranteReconstrucao) {
+                recalculado.aplicar(alteracao);
+            }
+            alteracoesDuranteReconstrucao = null;
+
+            if (ultimaReconciliacao != null && !agregado.equivalente(recalculado)) {
+                log.warn("Estatísticas em memória divergiam do banco (soma {} x {}, quantidade {} x {}); corrigindo",
+                        agregado.soma, recalculado.soma, agregado.quantidade, recalculado.quantidade);
+            }
+            agregado = recalculado;
+            ultimaReconciliacao = new Date();
+        }
+    }
+
+    @EventListener
+    @Transactional(readOnly = true)
+    public void aoRecarregarBeneficios(BeneficiosRecarregadosEvent event) {
+        reconciliar();
+    }
+
+    public Map<String, Object> obterEstatisticas() {
+        synchronized (lock) {
+            Map<String, Object> estatisticas = new LinkedHashMap<>();
+            estatisticas.put("soma", agregado.soma);
+            estatisticas.put("quantidade", agregado.quantidade);
+            estatisticas.put("quantidadeAtivos", agregado.quantidadeAtivos);
+            estatisticas.put("minimo", agregado.valores.isEmpty() ? null : agregado.valores.firstKey());
+            estatisticas.put("maximo", agregado.valores.isEmpty() ? null : agregado.valores.lastKey());
+            estatisticas.put("histograma", agregado.histograma(faixas));
+            estatisticas.put("ultimaReconciliacao", ultimaReconciliacao);
+            return estatisticas;
+        }
+    }
+
+    /**
+     * Estado agregado. Não é thread-safe; o acesso é sincronizado pelo serviço.
+     */
+    private static class Agregado {
+
+        private BigDecimal soma = BigDecimal.ZERO;
+        private long quantidade;
+        private long quantidadeAtivos;
+        // Multiconjunto de valores (valor -> ocorrências) para manter mínimo e máximo sob remoções
+        private final TreeMap<BigDecimal, Long> valores = new TreeMap<>();
+        private final BigDecimal[] faixas;
+        private final long[] contagemPorFaixa;
+        // Último estado aplicado de cada benefício
+        private final Map<Long, Estado> estados = new HashMap<>();
+
+        Agregado(BigDecimal[] faixas) {
+            this.faixas = faixas;
+            this.contagemPorFaixa = new long[faixas.length + 1];
+        }
+
+        void aplicar(BeneficioAlteradoEvent.Alteracao alteracao) {
+            aplicar(alteracao.getBeneficioId(), alteracao.getValorAtual(), alteracao.getAtivoAtual(),
+                    alteracao.getVersao());
+        }
+
+        /**
+         * Substitui o estado do benefício, exceto se o já aplicado for de versão mais nova.
+         * Remove o estado guardado, e não o valor anterior do evento, para que um delta
+         * fora de ordem ou já refletido na leitura não desconte o que nunca foi somado.
+         */
+        void aplicar(Long id, BigDecimal valor, Boolean ativo, Long versao) {
+            long novaVersao = versao == null ? 0L : versao;
+            Estado atual = estados.get(id);
+            if (atual != null) {
+                if (atual.versao() > novaVersao) {
+                    return;
+                }
+                remover(atual.valor(), atual.ativo());
+            }
+            adicionar(valor, ativo);
+            estados.put(id, new Estado(valor, ativo, novaVersao));
+        }
+
+        private void adicionar(BigDecimal valor, Boolean ativo) {
+            soma = soma.add(valor);
+            quantidade++;
+            if (Boolean.TRUE.equals(ativo)) {
+                quantidadeAtivos++;
+            }
+            valores.merge(valor, 1L, Long::sum);
+            contagemPorFaixa[indiceFaixa(valor)]++;
+        }
+
+        private void remover(BigDecimal valor, Boolean ativo) {
+            soma = soma.subtract(valor);
+            quantidade--;
+            if (Boolean.TRUE.equals(ativo)) {
+                quantidadeAtivos--;
+            }
+            // TreeMap usa compareTo, então 100.0 e 100.00 caem na mesma chave
+            valores.computeIfPresent(valor, (v, ocorrencias) -> ocorrencias > 1 ? ocorrencias - 1 : null);
+            contagemPorFaixa[indiceFaixa(valor)]--;
+        }
+
+        private int indiceFaixa(BigDecimal valor) {
+            int indice = 0;
+            while (indice < faixas.length && valor.compareTo(faixas[indice]) >= 0) {
+                indice++;
+            }
+            return indice;
+        }
+
+        boolean equivalente(Agregado outro) {
+            return soma.compareTo(outro.soma) == 0
+                    && quantidade == outro.quantidade
+                    && quantidadeAtivos == outro.quantidadeAtivos
+                    && Arrays.equals(contagemPorFaixa, outro.contagemPorFaixa);
+        }
+
+        Map<String, Long> histograma(BigDecimal[] faixas) {
+            Map<String, Long> histograma = new LinkedHashMap<>();
+            for (int i = 0; i < contagemPorFaixa.length; i++) {
+                String rotulo;
+                if (i == 0) {
+                    rotulo = "< " + faixas[0].toPlainString();
+                } else if (i == faixas.length) {
+                    rotulo = ">= " + faixas[i - 1].toPlainString();
+                } else {
+                    rotulo = faixas[i - 1].toPlainString() + " - " + faixas[i].toPlainString();
+                }
+                histograma.put(rotulo, contagemPorFaixa[i]);
+            }
+            return histograma;
+        }
+    }
+
+    private record Estado(BigDecimal valor, Boolean ativo, long versao) {
+    }
+}
@@ -0,0 +1,355 @@
+package com.exemple.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publicador único dos eventos de saldo enviados por Server-Sent Events
+ * (GET /api/v1/beneficios/eventos).
+ *
+ * Cada alteração confirmada vira um evento (id, valor, versão) com número de
+ * sequência global. O id do SSE é "época-sequência", em que a época identifica esta
+ * execução da aplicação: após um reinício a sequência recomeça, e um Last-Event-ID de
+ * outra época (ou à frente da sequência atual) não é confiável para retomada.
+ *
+ * Os eventos são distribuídos para buffers limitados por assinante, e cada assinante
+ * tem no máximo uma tarefa de envio, num pool de threads-envio threads com fila de
+ * fila-envio tarefas: um cliente lento bloqueia só o próprio envio, e ocupa uma thread
+ * até a escrita terminar ou estourar o timeout de escrita do container. Se o pool e a
+ * fila estiverem tomados, o envio é recusado e o assinante encerrado. Se um cliente
+ * enche o buffer, os mais antigos são descartados e ele recebe um evento "recarregar"
+ * para buscar o estado completo; se encher de novo antes de receber esse aviso, a
+ * conexão é encerrada pela própria tarefa de envio e o EventSource reconecta.
+ * Um histórico curto permite retomar a partir do cabeçalho Last-Event-ID após uma
+ * reconexão.
+ */
+@Component
+public class BeneficioEventoPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioEventoPublisher.class);
+
+    private final int capacidadeHistorico;
+    private final int capacidadeBuffer;
+    private final long timeoutMs;
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    // Protegidos por synchronized(historico): publicação e inscrição são atômicas entre si
+    private final ArrayDeque<EventoSaldo> historico = new ArrayDeque<>();
+    private long sequencia;
+
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor envio;
+
+    public BeneficioEventoPublisher(
+            @Value("${beneficio.eventos.historico:1000}") int capacidadeHistorico,
+            @Value("${beneficio.eventos.buffer-por-assinante:256}") int capacidadeBuffer,
+            @Value("${beneficio.eventos.timeout-ms:1800000}") long timeoutMs,
+            @Value("${beneficio.eventos.threads-envio:8}") int threadsEnvio,
+            @Value("${beneficio.eventos.fila-envio:1024}") int filaEnvio) {
+        this.capacidadeHistorico = capacidadeHistorico;
+        this.capacidadeBuffer = capacidadeBuffer;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger contador = new AtomicInteger();
+        this.envio = new ThreadPoolExecutor(threadsEnvio, threadsEnvio, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(filaEnvio), r -> {
+                    Thread thread = new Thread(r, "sse-beneficios-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (tarefa, executor) -> recusar((Assinante) tarefa));
+        this.envio.allowCoreThreadTimeOut(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent event) {
+        List<Assinante> notificar = new ArrayList<>();
+        synchronized (historico) {
+            for (BeneficioAlteradoEvent.Alteracao alteracao : event.getAlteracoes()) {
+                EventoSaldo evento = new EventoSaldo(++sequencia, alteracao.getBeneficioId(),
+                        alteracao.getValorAtual(), alteracao.getVersao());
+                historico.addLast(evento);
+                if (historico.size() > capacidadeHistorico) {
+                    historico.removeFirst();
+                }
+                for (Assinante assinante : assinantes) {
+                    if (assinante.aceita(evento)) {
+                        if (assinante.enfileirar(evento)) {
+                            notificar.add(assinante);
+                        } else if (assinantes.remove(assinante)) {
+                            // O emitter só fecha depois do envio bloqueado: quem fecha é a tarefa do
+                            // assinante, sem segurar o commit nem ocupar outra thread
+                            assinante.encerrado = true;
+                            notificar.add(assinante);
+                        }
+                    }
+                }
+            }
+        }
+        notificar.forEach(this::agendarEnvio);
+    }
+
+    /**
+     * Carga em massa não gera eventos por benefício: todos os assinantes recebem "recarregar"
+     */
+    @EventListener
+    public void aoRecarregarBeneficios(BeneficiosRecarregadosEvent event) {
+        for (Assinante assinante : assinantes) {
+            assinante.precisaRecarregar = true;
+            agendarEnvio(assinante);
+        }
+    }
+
+    /**
+     * Registra um novo assinante.
+     *
+     * @param filtro ids de interesse; nulo ou vazio recebe todos os benefícios
+     * @param ultimoEventoId valor do Last-Event-ID enviado na reconexão, se houver
+     */
+    public SseEmitter assinar(Collection<Long> filtro, String ultimoEventoId) {
+        SseEmitter emitter = criarEmitter();
+        Assinante assinante = new Assinante(emitter, filtro == null || filtro.isEmpty() ? null : Set.copyOf(filtro));
+
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(e -> assinantes.remove(assinante));
+
+        synchronized (historico) {
+            if (ultimoEventoId != null) {
+                Long ultimaSequencia = sequenciaDoId(ultimoEventoId);
+                EventoSaldo maisAntigo = historico.peekFirst();
+                if (ultimaSequencia == null || ultimaSequencia > sequencia) {
+                    // Id de outra execução ou à frente da sequência: não há como saber o que foi perdido
+                    assinante.precisaRecarregar = true;
+                } else {
+                    if (ultimaSequencia < sequencia
+                            && (maisAntigo == null || maisAntigo.sequencia > ultimaSequencia + 1)) {
+                        // Eventos perdidos já saíram do histórico: o cliente precisa recarregar o estado
+                        assinante.precisaRecarregar = true;
+                    }
+                    for (EventoSaldo evento : historico) {
+                        // Buffer cheio com o aviso já pendente: o restante viria pelo recarregar
+                        if (evento.sequencia > ultimaSequencia && assinante.aceita(evento)
+                                && !assinante.enfileirar(evento)) {
+                            break;
+                        }
+                    }
+                }
+            }
+            assinantes.add(assinante);
+        }
+        agendarEnvio(assinante);
+        return emitter;
+    }
+
+    /**
+     * Comentário periódico para manter conexões abertas e detectar clientes desconectados.
+     * Enviado pela tarefa de cada assinante, para não bloquear no cliente mais lento.
+     */
+    @Scheduled(fixedRateString = "${beneficio.eventos.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Assinante assinante : assinantes) {
+            assinante.heartbeatPendente = true;
+            agendarEnvio(assinante);
+        }
+    }
+
+    public int getQuantidadeAssinantes() {
+        return assinantes.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envio.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+    }
+
+    // Ponto de extensão para os testes observarem os envios
+    SseEmitter criarEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private String idEvento(long sequencia) {
+        return epoca + "-" + sequencia;
+    }
+
+    // Sequência do Last-Event-ID, ou nulo se ele não for desta época
+    private Long sequenciaDoId(String id) {
+        int separador = id.lastIndexOf('-');
+        if (separador <= 0 || !epoca.equals(id.substring(0, separador))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void agendarEnvio(Assinante assinante) {
+        // Apenas uma tarefa de envio por assinante, preservando a ordem dos eventos
+        if (assinante.agendado.compareAndSet(false, true)) {
+            envio.execute(assinante);
+        }
+    }
+
+    // Pool e fila tomados por envios bloqueados: este assinante não tem envio em curso e fecha aqui
+    private void recusar(Assinante assinante) {
+        assinante.agendado.set(false);
+        if (!envio.isShutdown()) {
+            remover(assinante, new IOException("Fila de envio SSE esgotada"));
+        }
+    }
+
+    private void enviarPendentes(Assinante assinante) {
+        try {
+            if (assinante.encerrado) {
+                fechar(assinante, new IOException("Buffer do assinante SSE esgotado"));
+                return;
+            }
+            if (assinante.heartbeatPendente) {
+                assinante.heartbeatPendente = false;
+                assinante.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            if (assinante.precisaRecarregar) {
+                assinante.precisaRecarregar = false;
+                assinante.emitter.send(SseEmitter.event().name("recarregar").data(Map.of("sequencia", sequenciaAtual())));
+            }
+            EventoSaldo evento;
+            while (!assinante.encerrado && (evento = assinante.proximo()) != null) {
+                assinante.emitter.send(SseEmitter.event()
+                        .id(idEvento(evento.sequencia))
+                        .name("saldo")
+                        .data(evento.comoMapa()));
+            }
+        } catch (IOException | IllegalStateException e) {
+            remover(assinante, e);
+            return;
+        } finally {
+            assinante.agendado.set(false);
+        }
+        // Eventos (ou o encerramento) que chegaram entre o último poll e a liberação do flag
+        if (assinante.encerrado || ((assinante.temPendentes() || assinante.precisaRecarregar
+                || assinante.heartbeatPendente) && assinantes.contains(assinante))) {
+            agendarEnvio(assinante);
+        }
+    }
+
+    private long sequenciaAtual() {
+        synchronized (historico) {
+            return sequencia;
+        }
+    }
+
+    private void remover(Assinante assinante, Exception causa) {
+        if (assinantes.remove(assinante)) {
+            fechar(assinante, causa);
+        }
+    }
+
+    private void fechar(Assinante assinante, Exception causa) {
+        log.debug("Assinante SSE removido: {}", causa.getMessage());
+        assinante.emitter.completeWithError(causa);
+    }
+
+    // A própria tarefa de envio: cada assinante tem no máximo uma no pool (agendado)
+    private class Assinante implements Runnable {
+        private final SseEmitter emitter;
+        private final Set<Long> filtro;
+        private final ArrayDeque<EventoSaldo> buffer = new ArrayDeque<>();
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private volatile boolean precisaRecarregar;
+        private volatile boolean heartbeatPendente;
+        // Saturado e já fora da lista: a tarefa fecha o emitter quando o envio em curso terminar
+        private volatile boolean encerrado;
+
+        Assinante(SseEmitter emitter, Set<Long> filtro) {
+            this.emitter = emitter;
+            this.filtro = filtro;
+        }
+
+        @Override
+        public void run() {
+            enviarPendentes(this);
+        }
+
+        boolean aceita(EventoSaldo evento) {
+            return filtro == null || filtro.contains(evento.beneficioId);
+        }
+
+        /**
+         * Retorna falso se o buffer encheu de novo antes de o aviso "recarregar" ser
+         * enviado: o cliente não está consumindo e a conexão deve ser encerrada
+         */
+        synchronized boolean enfileirar(EventoSaldo evento) {
+            if (buffer.size() >= capacidadeBuffer) {
+                if (precisaRecarregar) {
+                    return false;
+                }
+                // Backpressure: descarta o mais antigo e avisa o cliente para recarregar o estado
+                buffer.removeFirst();
+                precisaRecarregar = true;
+            }
+            buffer.addLast(evento);
+            return true;
+        }
+
+        synchronized EventoSaldo proximo() {
+            return buffer.pollFirst();
+        }
+
+        synchronized boolean temPendentes() {
+            return !buffer.isEmpty();
+        }
+    }
+
+    private static class EventoSaldo {
+        private final long sequencia;
+        private final Long beneficioId;
+        private final BigDecimal valor;
+        private final Long versao;
+        private final Date timestamp = new Date();
+
+        EventoSaldo(long sequencia, Long beneficioId, BigDecimal valor, Long versao) {
+            this.sequencia = sequencia;
+            this.beneficioId = beneficioId;
+            this.valor = valor;
+            this.versao = versao;
+        }
+
+        Map<String, Object> comoMapa() {
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("beneficioId", beneficioId);
+            dados.put("saldo", valor);
+            dados.put("versao", versao);
+            dados.put("timestamp", timestamp);
+            return dados;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.exemple.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.entity.InvalidacaoBeneficio;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosInvalidadosEvent;
+import com.exemple.backend.repository.InvalidacaoBeneficioRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coerência do estado em memória entre instâncias da aplicação, sem broker externo.
+ *
+ * Toda alteração confirmada (BeneficioAlteradoEvent) grava, na própria transação, uma
+ * linha por benefício em INVALIDACAO_BENEFICIO com a versão e a instância de origem.
+ * No perfil reativo, sem cache L2 para invalidar, este serviço fica desligado e a
+ * transferência R2DBC grava as linhas (BeneficioReativoService.registrarInvalidacoes).
+ * Cada instância acompanha a tabela por marca d'água (ID > último lido, pela chave
+ * primária) e, para as alterações das outras instâncias, remove as entradas do cache
+ * de segundo nível e publica BeneficiosInvalidadosEvent para os índices em memória.
+ *
+ * Ids são atribuídos na inserção, mas as transações confirmam em outra ordem: um id
+ * pulado pela marca d'água fica em observação por espera-lacuna-ms e é relido a cada
+ * ciclo, para não perder uma transação longa que confirme depois das seguintes.
+ *
+ * Métricas (GET /actuator/metrics/...):
+ *   beneficio.invalidacao.atraso (da gravação até a invalidação local), atraso-ms (maior
+ *   atraso do último lote), aplicadas e lacunas.
+ */
+@Service
+@Profile("!reativo")
+@ConditionalOnProperty(name = "beneficio.invalidacao.habilitada", havingValue = "true", matchIfMissing = true)
+public class BeneficioInvalidacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioInvalidacaoService.class);
+
+    // Limite de ids pulados em observação; além dele, as lacunas são ignoradas
+    private static final int MAXIMO_LACUNAS = 1000;
+
+    private final InvalidacaoBeneficioRepository invalidacaoRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instancia;
+    private final int tamanhoLote;
+    private final Duration esperaLacuna;
+    private final Duration retencao;
+
+    private final Timer atraso;
+    private final Counter aplicadas;
+    private final AtomicLong ultimoAtrasoMs = new AtomicLong();
+
+    private long marca;
+    private final Map<Long, Instant> lacunas = new TreeMap<>();
+
+    public BeneficioInvalidacaoService(
+            InvalidacaoBeneficioRepository invalidacaoRepository,
+            EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry registry,
+            @Value("${beneficio.invalidacao.instancia:}") String instancia,
+            @Value("${beneficio.invalidacao.tamanho-lote:1000}") int tamanhoLote,
+            @Value("${beneficio.invalidacao.espera-lacuna-ms:10000}") long esperaLacunaMs,
+            @Value("${beneficio.invalidacao.retencao-ms:3600000}") long retencaoMs) {
+        this.invalidacaoRepository = invalidacaoRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.instancia = instancia.isBlank() ? UUID.randomUUID().toString() : instancia;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaLacuna = Duration.ofMillis(esperaLacunaMs);
+        this.retencao = Duration.ofMillis(retencaoMs);
+
+        this.atraso = Timer.builder("beneficio.invalidacao.atraso")
+                .description("Tempo entre a gravação da invalidação por outra instância e a invalidação local")
+                .register(registry);
+        this.aplicadas = Counter.builder("beneficio.invalidacao.aplicadas")
+                .description("Invalidações de outras instâncias aplicadas localmente")
+                .register(registry);
+        Gauge.builder("beneficio.invalidacao.atraso-ms", ultimoAtrasoMs, AtomicLong::get)
+                .description("Maior atraso de invalidação do último lote aplicado")
+                .register(registry);
+        Gauge.builder("beneficio.invalidacao.lacunas", this, BeneficioInvalidacaoService::getLacunas)
+                .description("Ids pulados aguardando a confirmação da transação que os gravou")
+                .register(registry);
+    }
+
+    /**
+     * O estado em memória é carregado do banco na subida: só interessam as alterações
+     * gravadas daqui em diante
+     */
+    @PostConstruct
+    public synchronized void iniciar() {
+        marca = invalidacaoRepository.findMaiorId();
+        log.info("Invalidação entre instâncias: instância {}, a partir do id {}", instancia, marca);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void registrar(BeneficioAlteradoEvent event) {
+        Instant agora = Instant.now();
+        List<InvalidacaoBeneficio> registros = new ArrayList<>(event.getAlteracoes().size());
+        for (BeneficioAlteradoEvent.Alteracao alteracao : event.getAlteracoes()) {
+            registros.add(new InvalidacaoBeneficio(alteracao.getBeneficioId(), alteracao.getVersao(), instancia, agora));
+        }
+        invalidacaoRepository.saveAll(registros);
+    }
+
+    /**
+     * Lê os registros novos e as lacunas em observação e invalida os benefícios
+     * alterados por outras instâncias. Retorna a quantidade de benefícios invalidados.
+     */
+    @Scheduled(initialDelayString = "${beneficio.invalidacao.poll-ms:200}",
+               fixedDelayString = "${beneficio.invalidacao.poll-ms:200}")
+    public synchronized int acompanhar() {
+        Instant agora = Instant.now();
+        List<InvalidacaoBeneficio> novos = new ArrayList<>();
+
+        if (!lacunas.isEmpty()) {
+            for (InvalidacaoBeneficio registro : invalidacaoRepository.findByIdIn(new ArrayList<>(lacunas.keySet()))) {
+                lacunas.remove(registro.getId());
+                novos.add(registro);
+            }
+            // Ids de transações desfeitas nunca aparecem
+            lacunas.values().removeIf(desde -> desde.plus(esperaLacuna).isBefore(agora));
+        }
+
+        List<InvalidacaoBeneficio> lote;
+        do {
+            lote = invalidacaoRepository.findApos(marca, PageRequest.of(0, tamanhoLote));
+            for (InvalidacaoBeneficio registro : lote) {
+                for (long pulado = marca + 1; pulado < registro.getId(); pulado++) {
+                    if (lacunas.size() >= MAXIMO_LACUNAS) {
+                        log.warn("Mais de {} lacunas em observação; ids a partir de {} ignorados", MAXIMO_LACUNAS, pulado);
+                        break;
+                    }
+                    lacunas.put(pulado, agora);
+                }
+                marca = registro.getId();
+                novos.add(registro);
+            }
+        } while (lote.size() == tamanhoLote);
+
+        return aplicar(novos, agora);
+    }
+
+    private int aplicar(List<InvalidacaoBeneficio> registros, Instant agora) {
+        Set<Long> ids = new LinkedHashSet<>();
+        long maiorAtraso = 0;
+        for (InvalidacaoBeneficio registro : registros) {
+            if (instancia.equals(registro.getInstancia())) {
+                continue;
+            }
+            ids.add(registro.getBeneficioId());
+            Duration espera = Duration.between(registro.getCriadoEm(), agora);
+            atraso.record(espera);
+            maiorAtraso = Math.max(maiorAtraso, espera.toMillis());
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        for (Long id : ids) {
+            cache.evict(Beneficio.class, id);
+        }
+        // Resultados de consultas em cache (findByAtivoTrue) podem conter esses benefícios
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        eventPublisher.publishEvent(new BeneficiosInvalidadosEvent(ids));
+
+        aplicadas.increment(ids.size());
+        ultimoAtrasoMs.set(maiorAtraso);
+        return ids.size();
+    }
+
+    @Scheduled(initialDelayString = "${beneficio.invalidacao.limpeza-ms:60000}",
+               fixedDelayString = "${beneficio.invalidacao.limpeza-ms:60000}")
+    @Transactional
+    public int limpar() {
+        return invalidacaoRepository.deleteCriadosAntesDe(Instant.now().minus(retencao));
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public synchronized int getLacunas() {
+        return lacunas.size();
+    }
+}
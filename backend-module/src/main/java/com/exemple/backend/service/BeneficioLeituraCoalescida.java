@@ -0,0 +1,69 @@
+package com.exemple.backend.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.exemple.backend.dto.SaldoVersaoView;
+
+import java.math.BigDecimal;
+
+/**
+ * Consultas de saldo e versão com coalescência (single-flight) na frente do BeneficioService.
+ *
+ * Em rajadas sobre uma conta quente, as chamadas simultâneas de /{id}/saldo,
+ * /{id}/saldo-versao e /{id}/versao para o mesmo id compartilham uma única
+ * consultarSaldoEVersao. A coalescência fica fora da transação: só o líder abre
+ * transação e ocupa conexão, os demais apenas aguardam o resultado.
+ *
+ * Métricas (GET /actuator/metrics/...):
+ *   beneficio.leitura.chamadas{resultado=banco|compartilhada}, beneficio.leitura.em-voo
+ *   e beneficio.leitura.taxa-coalescencia.
+ * Desligável com beneficio.leitura-coalescida.habilitada=false.
+ */
+@Service
+public class BeneficioLeituraCoalescida {
+
+    private final BeneficioService beneficioService;
+    private final boolean habilitada;
+    private final LeituraCompartilhada<Long, SaldoVersaoView> saldos = new LeituraCompartilhada<>();
+
+    public BeneficioLeituraCoalescida(
+            BeneficioService beneficioService,
+            MeterRegistry registry,
+            @Value("${beneficio.leitura-coalescida.habilitada:true}") boolean habilitada) {
+        this.beneficioService = beneficioService;
+        this.habilitada = habilitada;
+
+        FunctionCounter.builder("beneficio.leitura.chamadas", saldos, LeituraCompartilhada::getLeituras)
+                .tag("resultado", "banco")
+                .description("Consultas de saldo e versão executadas no banco")
+                .register(registry);
+        FunctionCounter.builder("beneficio.leitura.chamadas", saldos, LeituraCompartilhada::getCompartilhadas)
+                .tag("resultado", "compartilhada")
+                .description("Consultas de saldo e versão atendidas pela leitura de outro chamador")
+                .register(registry);
+        Gauge.builder("beneficio.leitura.em-voo", saldos, LeituraCompartilhada::getEmVoo)
+                .description("Leituras em andamento com chamadores aguardando")
+                .register(registry);
+        Gauge.builder("beneficio.leitura.taxa-coalescencia", saldos, LeituraCompartilhada::getTaxaCoalescencia)
+                .description("Fração das consultas que não foram ao banco")
+                .register(registry);
+    }
+
+    public SaldoVersaoView consultarSaldoEVersao(Long beneficioId) {
+        if (!habilitada || beneficioId == null) {
+            return beneficioService.consultarSaldoEVersao(beneficioId);
+        }
+        return saldos.executar(beneficioId, () -> beneficioService.consultarSaldoEVersao(beneficioId));
+    }
+
+    public Long obterVersaoAtual(Long beneficioId) {
+        return consultarSaldoEVersao(beneficioId).getVersao();
+    }
+
+    public BigDecimal consultarSaldo(Long beneficioId) {
+        return consultarSaldoEVersao(beneficioId).getValor();
+    }
+}
@@ -0,0 +1,237 @@
+package com.exemple.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosInvalidadosEvent;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.repository.BeneficioRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas sobre o nome normalizado dos benefícios.
+ *
+ * Substitui o LIKE '%x%' de findByNomeContainingIgnoreCase (varredura completa
+ * da tabela) nas buscas digitadas no frontend. A normalização remove acentos e
+ * caixa, então "joão" encontra "JOAO". Leituras não bloqueiam; escritas são
+ * serializadas e toda candidata é verificada contra o nome completo, de modo que
+ * estados intermediários de uma atualização nunca geram falsos positivos.
+ */
+@Component
+public class BeneficioNomeIndex {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final int TAMANHO_NGRAMA = 3;
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    // id -> nome normalizado
+    private final Map<Long, String> nomes = new ConcurrentHashMap<>();
+    // id -> nome como gravado, para descartar sem normalizar os eventos que não mudam o nome
+    private final Map<Long, String> originais = new ConcurrentHashMap<>();
+    // trigrama -> ids cujo nome contém o trigrama
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private final Object escrita = new Object();
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        try (Stream<Object[]> linhas = beneficioRepository.streamIdENome()) {
+            linhas.forEach(linha -> indexar((Long) linha[0], (String) linha[1]));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent event) {
+        for (BeneficioAlteradoEvent.Alteracao alteracao : event.getAlteracoes()) {
+            if (alteracao.getNome() != null) {
+                indexar(alteracao.getBeneficioId(), alteracao.getNome());
+            }
+        }
+    }
+
+    /**
+     * Benefícios criados ou alterados por outra instância
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void aoInvalidarBeneficios(BeneficiosInvalidadosEvent event) {
+        for (Beneficio beneficio : beneficioRepository.findAllById(event.getIds())) {
+            indexar(beneficio.getId(), beneficio.getNome());
+        }
+    }
+
+    /**
+     * Após uma carga em massa o índice é descartado e montado de novo
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void aoRecarregarBeneficios(BeneficiosRecarregadosEvent event) {
+        synchronized (escrita) {
+            nomes.clear();
+            originais.clear();
+            postings.clear();
+        }
+        carregar();
+    }
+
+    public void indexar(Long id, String nome) {
+        // Transferências repetem o nome atual: nem normaliza nem disputa o lock de escrita
+        if (nome != null && nome.equals(originais.get(id))) {
+            return;
+        }
+        String normalizado = normalizar(nome);
+        synchronized (escrita) {
+            if (nome != null) {
+                originais.put(id, nome);
+            }
+            String anterior = nomes.put(id, normalizado);
+            if (normalizado.equals(anterior)) {
+                return;
+            }
+            if (anterior != null) {
+                for (String trigrama : trigramas(anterior)) {
+                    Set<Long> ids = postings.get(trigrama);
+                    if (ids != null) {
+                        ids.remove(id);
+                        if (ids.isEmpty()) {
+                            postings.remove(trigrama);
+                        }
+                    }
+                }
+            }
+            for (String trigrama : trigramas(normalizado)) {
+                postings.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Busca ids cujo nome contém o termo (ou começa com ele, se prefixo = true),
+     * ordenados por relevância: nome igual, prefixo do nome, prefixo de palavra,
+     * demais ocorrências; empates pelo nome mais curto e depois pelo id.
+     */
+    public List<Long> buscar(String termo, boolean prefixo, int limite) {
+        String consulta = normalizar(termo);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        List<Candidato> encontrados = new ArrayList<>();
+        for (Long id : candidatos(consulta)) {
+            String nome = nomes.get(id);
+            if (nome == null) {
+                continue;
+            }
+            int rank = rank(nome, consulta);
+            if (rank < 0 || (prefixo && rank > 1)) {
+                continue;
+            }
+            encontrados.add(new Candidato(id, nome.length(), rank));
+        }
+
+        return encontrados.stream()
+                .sorted(Comparator.comparingInt((Candidato c) -> c.rank)
+                        .thenComparingInt(c -> c.tamanhoNome)
+                        .thenComparing(c -> c.id))
+                .limit(limite)
+                .map(c -> c.id)
+                .toList();
+    }
+
+    /**
+     * Busca ids cujo nome, normalizado, é igual ao termo. NOME não é único: todos os
+     * homônimos são retornados, em ordem de id.
+     */
+    public List<Long> buscarExato(String termo, int limite) {
+        String consulta = normalizar(termo);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        return candidatos(consulta).stream()
+                .filter(id -> consulta.equals(nomes.get(id)))
+                .sorted()
+                .limit(limite)
+                .toList();
+    }
+
+    private Collection<Long> candidatos(String consulta) {
+        if (consulta.length() < TAMANHO_NGRAMA) {
+            // Termos curtos não formam trigrama; a verificação em memória ainda evita o banco
+            return nomes.keySet();
+        }
+        // A lista de postings mais curta limita os candidatos; os demais trigramas são
+        // cobertos pela verificação de contains() em buscar()
+        Set<Long> menor = null;
+        for (String trigrama : trigramas(consulta)) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids == null) {
+                return List.of();
+            }
+            if (menor == null || ids.size() < menor.size()) {
+                menor = ids;
+            }
+        }
+        return menor == null ? List.of() : menor;
+    }
+
+    private static int rank(String nome, String consulta) {
+        int posicao = nome.indexOf(consulta);
+        if (posicao < 0) {
+            return -1;
+        }
+        if (posicao == 0) {
+            return nome.length() == consulta.length() ? 0 : 1;
+        }
+        return nome.charAt(posicao - 1) == ' ' ? 2 : 3;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + TAMANHO_NGRAMA));
+        }
+        return trigramas;
+    }
+
+    private static class Candidato {
+        private final Long id;
+        private final int tamanhoNome;
+        private final int rank;
+
+        Candidato(Long id, int tamanhoNome, int rank) {
+            this.id = id;
+            this.tamanhoNome = tamanhoNome;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.exemple.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.entity.EventoTransferencia;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.exception.ConflitoConcorrenciaException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.repository.BeneficioReativoRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Variante reativa das transferências e consultas do BeneficioService (perfil reativo).
+ *
+ * A transferência lê origem e destino sem lock, valida com as mesmas regras do caminho
+ * bloqueante e aplica duas atualizações condicionadas à versão lida, em ordem crescente
+ * de id, numa transação R2DBC. Se alguma não afetar a linha, outra transação alterou o
+ * benefício: a tentativa inteira (leitura, validação e atualização) é refeita pelo
+ * operador retryWhen com backoff exponencial, sem bloquear thread durante a espera.
+ *
+ * O evento BeneficioAlteradoEvent é publicado dentro da transação reativa; os listeners
+ * @TransactionalEventListener (índices, estatísticas, SSE, reconciliação) recebem-no
+ * após o commit, como no caminho JPA.
+ */
+@Service
+@Profile("reativo")
+public class BeneficioReativoService {
+
+    @Autowired
+    private BeneficioReativoRepository beneficioRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private LimiteTransferencias limiteTransferencias;
+
+    @Value("${beneficio.reativo.tentativas:3}")
+    private int tentativas;
+
+    @Value("${beneficio.reativo.backoff-ms:100}")
+    private long backoffMs;
+
+    @Value("${beneficio.invalidacao.habilitada:true}")
+    private boolean invalidacaoHabilitada;
+
+    // Origem das linhas de INVALIDACAO_BENEFICIO; este perfil não as lê, só as grava
+    @Value("${beneficio.invalidacao.instancia:}")
+    private String instancia;
+
+    @PostConstruct
+    void iniciar() {
+        if (instancia.isBlank()) {
+            instancia = UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Transferência com atualizações condicionais e nova tentativa em conflito de versão.
+     * O consumo dos limites de saída é estornado se a transferência falhar ou for cancelada.
+     */
+    public Mono<Void> transferir(Long fromId, Long toId, BigDecimal amount) {
+        return Mono.fromCallable(() -> {
+                    BeneficioService.validarParametrosTransferencia(fromId, toId, amount);
+                    return limiteTransferencias.consumir(fromId, toId, amount);
+                })
+                .flatMap(consumo -> Mono.defer(() -> tentarTransferencia(fromId, toId, amount))
+                        .retryWhen(Retry.backoff(tentativas - 1, Duration.ofMillis(backoffMs))
+                                .filter(OptimisticLockingFailureException.class::isInstance)
+                                .onRetryExhaustedThrow((especificacao, sinal) -> new ConflitoConcorrenciaException(
+                                        "Falha na transferência após " + tentativas
+                                                + " tentativas devido a conflitos de concorrência. Tente novamente.",
+                                        sinal.failure())))
+                        .doOnError(e -> limiteTransferencias.estornar(consumo))
+                        .doOnCancel(() -> limiteTransferencias.estornar(consumo)));
+    }
+
+    public Flux<Beneficio> listarTodos() {
+        return beneficioRepository.findAll();
+    }
+
+    /**
+     * Saldo, versão e status; o saldo inclui os créditos diferidos ainda não consolidados
+     */
+    public Mono<SaldoVersaoView> consultarSaldoEVersao(Long beneficioId) {
+        if (beneficioId == null) {
+            return Mono.error(new IllegalArgumentException("ID do benefício não pode ser nulo"));
+        }
+        return beneficioRepository.findSaldoVersaoById(beneficioId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Benefício não encontrado: " + beneficioId)));
+    }
+
+    public Mono<Long> obterVersaoAtual(Long beneficioId) {
+        return consultarSaldoEVersao(beneficioId).map(SaldoVersaoView::getVersao);
+    }
+
+    // Considera como conflito se o benefício não existir
+    public Mono<Boolean> verificarConflitoVersao(Long beneficioId, Long versaoAtual) {
+        return beneficioRepository.findSaldoVersaoById(beneficioId)
+                .map(saldo -> !saldo.getVersao().equals(versaoAtual))
+                .defaultIfEmpty(true);
+    }
+
+    public Mono<Boolean> isTransferenciaPossivel(Long fromId, BigDecimal amount) {
+        if (fromId == null || amount == null) {
+            return Mono.just(false);
+        }
+        return beneficioRepository.findById(fromId)
+                .map(from -> from.getAtivo()
+                        && from.getValorDisponivel().compareTo(amount) >= 0
+                        && amount.compareTo(BigDecimal.ZERO) > 0)
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Void> tentarTransferencia(Long fromId, Long toId, BigDecimal amount) {
+        Mono<Beneficio> origem = beneficioRepository.findById(fromId)
+                .switchIfEmpty(Mono.error(() -> DadosInvalidosException.origemNaoEncontrada(fromId)));
+        Mono<Beneficio> destino = beneficioRepository.findById(toId)
+                .switchIfEmpty(Mono.error(() -> DadosInvalidosException.destinoNaoEncontrado(toId)));
+
+        return Mono.zip(origem, destino).flatMap(par -> {
+            Beneficio from = par.getT1();
+            Beneficio to = par.getT2();
+            BeneficioService.validarBeneficiosParaTransferencia(from, to, amount);
+
+            Mono<Void> debito = exigirLinha(beneficioRepository.debitarSeVersao(fromId, from.getVersion(), amount), fromId);
+            Mono<Void> credito = exigirLinha(beneficioRepository.creditarSeVersao(toId, to.getVersion(), amount), toId);
+            // Mesma ordem de lock das transferências pessimistas (id crescente)
+            Mono<Void> atualizacoes = fromId < toId ? debito.then(credito) : credito.then(debito);
+
+            BeneficioAlteradoEvent.Alteracao alteracaoOrigem = alteracao(from, from.getValor().subtract(amount));
+            BeneficioAlteradoEvent.Alteracao alteracaoDestino = alteracao(to, to.getValor().add(amount));
+            // Outbox na mesma transação R2DBC, como no caminho JPA
+            Mono<Void> outbox = beneficioRepository.registrarTransferencia(new EventoTransferencia("reativo",
+                    fromId, toId, amount, alteracaoOrigem.getValorAtual(), alteracaoOrigem.getVersao(),
+                    alteracaoDestino.getValorAtual(), alteracaoDestino.getVersao(), Instant.now()));
+            BeneficioAlteradoEvent evento = BeneficioAlteradoEvent.transferencia(alteracaoOrigem, alteracaoDestino);
+            return transactionalOperator.transactional(atualizacoes.then(outbox)
+                    .then(registrarInvalidacoes(evento))
+                    .then(new TransactionalEventPublisher(eventPublisher).publishEvent(evento)));
+        });
+    }
+
+    /**
+     * Mesmo registro que BeneficioInvalidacaoService.registrar grava no caminho JPA: sem ele
+     * as instâncias servlet sobre o mesmo banco manteriam cache L2 e índices desatualizados
+     */
+    private Mono<Void> registrarInvalidacoes(BeneficioAlteradoEvent evento) {
+        if (!invalidacaoHabilitada) {
+            return Mono.empty();
+        }
+        Instant agora = Instant.now();
+        return Flux.fromIterable(evento.getAlteracoes())
+                .concatMap(alteracao -> beneficioRepository.registrarInvalidacao(
+                        alteracao.getBeneficioId(), alteracao.getVersao(), instancia, agora))
+                .then();
+    }
+
+    private static Mono<Void> exigirLinha(Mono<Long> atualizacao, Long beneficioId) {
+        return atualizacao.flatMap(linhas -> linhas == 0
+                ? Mono.<Void>error(new OptimisticLockingFailureException(
+                        "Conflito de concorrência no benefício " + beneficioId + ". Tente novamente."))
+                : Mono.<Void>empty());
+    }
+
+    // Estado após a atualização: a versão lida foi incrementada em uma unidade
+    private static BeneficioAlteradoEvent.Alteracao alteracao(Beneficio lido, BigDecimal valorAtual) {
+        return new BeneficioAlteradoEvent.Alteracao(lido.getId(), lido.getNome(), lido.getValor(), valorAtual,
+                lido.getAtivo(), lido.getAtivo(), lido.getVersion() + 1);
+    }
+}
@@ -0,0 +1,387 @@
+package com.exemple.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosInvalidadosEvent;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.repository.CreditoPendenteRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reconciliação periódica que verifica a conservação dos saldos: transferências
+ * não podem criar nem destruir dinheiro, então a soma de VALOR (mais os créditos
+ * diferidos em CREDITO_PENDENTE) só muda com criações.
+ *
+ * A tabela é varrida em faixas de id, em paralelo (fork/join) num pool pequeno e
+ * dedicado, com pausa entre faixas para não disputar conexões com as requisições.
+ * A execução é incremental: só são relidas as faixas alteradas desde a última
+ * varredura (marcadas pelos eventos confirmados), e uma passagem completa é feita a
+ * cada N execuções. Cada linha é comparada com o diário de alterações confirmadas
+ * (BeneficioValorIndex, na mesma versão) e saldos negativos ou divergentes são
+ * reportados. A soma total só é comparada com o total esperado quando nenhuma
+ * alteração ocorreu durante a execução; caso contrário o resultado é inconclusivo.
+ */
+@Service
+public class BeneficioReconciliacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioReconciliacaoService.class);
+
+    private static final int MAXIMO_CONTAS_REPORTADAS = 100;
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private CreditoPendenteRepository creditoPendenteRepository;
+
+    @Autowired
+    private BeneficioValorIndex valorIndex;
+
+    @Autowired
+    private BeneficioAlteracaoContador alteracaoContador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final long tamanhoFaixa;
+    private final long pausaMs;
+    private final int completaACada;
+    private final ForkJoinPool pool;
+
+    private TransactionTemplate leitura;
+
+    // Faixas alteradas desde a última leitura
+    private final Set<Long> faixasPendentes = ConcurrentHashMap.newKeySet();
+    // Última soma lida de cada faixa
+    private final Map<Long, ResultadoFaixa> faixasVerificadas = new ConcurrentHashMap<>();
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    private final Object lock = new Object();
+
+    // Protegidos por lock
+    private BigDecimal totalEsperado;
+    private final List<Map<String, Object>> eventosDesbalanceados = new ArrayList<>();
+    private int execucoes;
+    private Map<String, Object> ultimoRelatorio;
+
+    public BeneficioReconciliacaoService(
+            @Value("${beneficio.reconciliacao.tamanho-faixa:5000}") long tamanhoFaixa,
+            @Value("${beneficio.reconciliacao.paralelismo:2}") int paralelismo,
+            @Value("${beneficio.reconciliacao.pausa-ms:20}") long pausaMs,
+            @Value("${beneficio.reconciliacao.completa-a-cada:10}") int completaACada) {
+        this.tamanhoFaixa = tamanhoFaixa;
+        this.pausaMs = pausaMs;
+        this.completaACada = Math.max(completaACada, 1);
+        this.pool = new ForkJoinPool(paralelismo);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent event) {
+        BigDecimal delta = event.getCreditoPendenteDelta();
+        BigDecimal criado = BigDecimal.ZERO;
+        for (BeneficioAlteradoEvent.Alteracao alteracao : event.getAlteracoes()) {
+            faixasPendentes.add(faixa(alteracao.getBeneficioId()));
+            if (alteracao.isCriacao()) {
+                criado = criado.add(alteracao.getValorAtual());
+            } else {
+                delta = delta.add(alteracao.getValorAtual().subtract(alteracao.getValorAnterior()));
+            }
+        }
+        synchronized (lock) {
+            if (totalEsperado != null) {
+                totalEsperado = totalEsperado.add(criado);
+            }
+            // Uma transferência confirmada precisa somar zero entre origem, destino e créditos pendentes
+            if (delta.signum() != 0 && eventosDesbalanceados.size() < MAXIMO_CONTAS_REPORTADAS) {
+                Map<String, Object> registro = new LinkedHashMap<>();
+                registro.put("tipo", event.getTipo());
+                registro.put("beneficios", event.getAlteracoes().stream()
+                        .map(BeneficioAlteradoEvent.Alteracao::getBeneficioId).toList());
+                registro.put("delta", delta);
+                registro.put("timestamp", new Date());
+                eventosDesbalanceados.add(registro);
+                log.error("Evento de transferência não conserva saldo: delta {} em {}", delta, registro.get("beneficios"));
+            }
+        }
+    }
+
+    /**
+     * Carga em massa muda o total legitimamente: a próxima leitura consistente define a nova base
+     */
+    @EventListener
+    public void aoRecarregarBeneficios(BeneficiosRecarregadosEvent event) {
+        synchronized (lock) {
+            totalEsperado = null;
+            faixasVerificadas.clear();
+            faixasPendentes.clear();
+        }
+    }
+
+    /**
+     * Benefícios alterados por outra instância (BeneficioInvalidacaoService): as faixas
+     * precisam ser relidas, e criações remotas mudam o total sem passar por aoAlterarBeneficio,
+     * então a próxima leitura consistente define a nova base
+     */
+    @EventListener
+    public void aoInvalidarBeneficios(BeneficiosInvalidadosEvent event) {
+        synchronized (lock) {
+            totalEsperado = null;
+            for (Long id : event.getIds()) {
+                faixasPendentes.add(faixa(id));
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${beneficio.reconciliacao.intervalo-ms:60000}",
+               fixedDelayString = "${beneficio.reconciliacao.intervalo-ms:60000}")
+    public void executarAgendada() {
+        boolean completa;
+        synchronized (lock) {
+            completa = execucoes % completaACada == 0;
+        }
+        executar(completa);
+    }
+
+    /**
+     * Executa uma reconciliação. Retorna o relatório, ou vazio se já houver uma em andamento.
+     *
+     * @param completa relê todas as faixas, não só as alteradas
+     */
+    public Optional<Map<String, Object>> executar(boolean completa) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(reconciliar(completa));
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    public Map<String, Object> obterUltimoRelatorio() {
+        synchronized (lock) {
+            if (ultimoRelatorio == null) {
+                Map<String, Object> relatorio = new LinkedHashMap<>();
+                relatorio.put("situacao", "NAO_EXECUTADA");
+                return relatorio;
+            }
+            return ultimoRelatorio;
+        }
+    }
+
+    private Map<String, Object> reconciliar(boolean completa) {
+        long inicio = System.nanoTime();
+        long alteracoesNoInicio = alteracaoContador.getAlteracoes();
+
+        Long maiorId = leitura.execute(status -> beneficioRepository.findMaxId().orElse(0L));
+        long ultimaFaixa = faixa(maiorId);
+        List<Long> faixas = new ArrayList<>();
+        for (long indice = 0; indice <= ultimaFaixa; indice++) {
+            if (completa || faixasPendentes.contains(indice) || !faixasVerificadas.containsKey(indice)) {
+                faixas.add(indice);
+            }
+        }
+
+        List<ResultadoFaixa> resultados = faixas.isEmpty() ? List.of()
+                : pool.invoke(new VerificacaoFaixas(faixas, 0, faixas.size()));
+
+        long naoComparadas = 0;
+        for (ResultadoFaixa resultado : resultados) {
+            faixasVerificadas.put(resultado.indice, resultado);
+            naoComparadas += resultado.naoComparadas;
+        }
+
+        // Totais e contas inválidas consideram também as faixas não relidas nesta execução
+        List<Map<String, Object>> contasInvalidas = new ArrayList<>();
+        BigDecimal totalLido = BigDecimal.ZERO;
+        long quantidade = 0;
+        for (ResultadoFaixa resultado : faixasVerificadas.values()) {
+            totalLido = totalLido.add(resultado.soma);
+            quantidade += resultado.quantidade;
+            for (Map<String, Object> conta : resultado.contasInvalidas) {
+                if (contasInvalidas.size() < MAXIMO_CONTAS_REPORTADAS) {
+                    contasInvalidas.add(conta);
+                }
+            }
+        }
+
+        // Créditos diferidos ainda não consolidados fazem parte do total
+        BigDecimal creditosPendentes = leitura.execute(status -> creditoPendenteRepository.somarPendentes());
+        totalLido = totalLido.add(creditosPendentes);
+
+        // Sem alterações durante a execução, as faixas não relidas continuam válidas
+        // e a soma lida é um retrato consistente da tabela
+        boolean consistente = alteracaoContador.getAlteracoes() == alteracoesNoInicio && faixasPendentes.isEmpty();
+
+        synchronized (lock) {
+            execucoes++;
+            String situacao;
+            if (!consistente) {
+                situacao = contasInvalidas.isEmpty() ? "INCONCLUSIVA" : "DIVERGENTE";
+            } else if (totalEsperado == null) {
+                // Primeira leitura consistente define a base; dali em diante só criações alteram o total
+                totalEsperado = totalLido;
+                situacao = contasInvalidas.isEmpty() ? "OK" : "DIVERGENTE";
+            } else {
+                situacao = contasInvalidas.isEmpty() && totalLido.compareTo(totalEsperado) == 0 ? "OK" : "DIVERGENTE";
+            }
+            if (!eventosDesbalanceados.isEmpty()) {
+                situacao = "DIVERGENTE";
+            }
+
+            Map<String, Object> relatorio = new LinkedHashMap<>();
+            relatorio.put("situacao", situacao);
+            relatorio.put("completa", completa);
+            relatorio.put("totalLido", totalLido);
+            relatorio.put("totalEsperado", totalEsperado);
+            relatorio.put("creditosPendentes", creditosPendentes);
+            relatorio.put("quantidade", quantidade);
+            relatorio.put("faixasLidas", resultados.size());
+            relatorio.put("faixasTotais", ultimaFaixa + 1);
+            relatorio.put("contasNaoComparadas", naoComparadas);
+            relatorio.put("contasInvalidas", contasInvalidas);
+            relatorio.put("eventosDesbalanceados", List.copyOf(eventosDesbalanceados));
+            relatorio.put("duracaoMs", (System.nanoTime() - inicio) / 1_000_000);
+            relatorio.put("executadaEm", new Date());
+            ultimoRelatorio = relatorio;
+
+            if ("DIVERGENTE".equals(situacao)) {
+                log.warn("Reconciliação divergente: total lido {}, esperado {}, {} contas inválidas",
+                        totalLido, totalEsperado, contasInvalidas.size());
+            }
+            return relatorio;
+        }
+    }
+
+    private ResultadoFaixa verificarFaixa(long indice) {
+        // Removida antes da leitura: alterações durante a leitura marcam a faixa de novo
+        faixasPendentes.remove(indice);
+        long idInicial = indice * tamanhoFaixa;
+        long idFinal = idInicial + tamanhoFaixa - 1;
+
+        ResultadoFaixa resultado = new ResultadoFaixa(indice);
+        List<Object[]> linhas = leitura.execute(status ->
+                beneficioRepository.findIdValorAtivoEVersaoPorFaixaDeId(idInicial, idFinal));
+        for (Object[] linha : linhas) {
+            Long id = (Long) linha[0];
+            BigDecimal valor = (BigDecimal) linha[1];
+            Long versao = (Long) linha[3];
+            if (valor == null) {
+                resultado.invalida(id, null, "Saldo nulo");
+                continue;
+            }
+            resultado.soma = resultado.soma.add(valor);
+            resultado.quantidade++;
+            if (valor.signum() < 0) {
+                resultado.invalida(id, valor, "Saldo negativo");
+            }
+            Optional<BigDecimal> esperado = valorIndex.valorNaVersao(id, versao == null ? 0L : versao);
+            if (esperado.isEmpty()) {
+                // Versão ainda não refletida no diário (ou já superada): não há base de comparação
+                resultado.naoComparadas++;
+            } else if (esperado.get().compareTo(valor) != 0) {
+                resultado.invalida(id, valor, "Saldo difere do diário de alterações: esperado " + esperado.get());
+            }
+        }
+
+        pausar();
+        return resultado;
+    }
+
+    private void pausar() {
+        if (pausaMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pausaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long faixa(Long id) {
+        return id / tamanhoFaixa;
+    }
+
+    private class VerificacaoFaixas extends RecursiveTask<List<ResultadoFaixa>> {
+        private final List<Long> faixas;
+        private final int inicio;
+        private final int fim;
+
+        VerificacaoFaixas(List<Long> faixas, int inicio, int fim) {
+            this.faixas = faixas;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected List<ResultadoFaixa> compute() {
+            if (fim - inicio == 1) {
+                return new ArrayList<>(List.of(verificarFaixa(faixas.get(inicio))));
+            }
+            int meio = (inicio + fim) >>> 1;
+            VerificacaoFaixas esquerda = new VerificacaoFaixas(faixas, inicio, meio);
+            VerificacaoFaixas direita = new VerificacaoFaixas(faixas, meio, fim);
+            esquerda.fork();
+            List<ResultadoFaixa> resultados = direita.compute();
+            resultados.addAll(esquerda.join());
+            return resultados;
+        }
+    }
+
+    private static class ResultadoFaixa {
+        private final long indice;
+        private BigDecimal soma = BigDecimal.ZERO;
+        private long quantidade;
+        private long naoComparadas;
+        private final List<Map<String, Object>> contasInvalidas = new ArrayList<>();
+
+        ResultadoFaixa(long indice) {
+            this.indice = indice;
+        }
+
+        void invalida(Long id, BigDecimal valor, String motivo) {
+            Map<String, Object> conta = new LinkedHashMap<>();
+            conta.put("beneficioId", id);
+            conta.put("valor", valor);
+            conta.put("motivo", motivo);
+            contasInvalidas.add(conta);
+        }
+    }
+}
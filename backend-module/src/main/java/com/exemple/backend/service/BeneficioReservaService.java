@@ -0,0 +1,259 @@
+package com.exemple.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.EventoTransferencia;
+import com.exemple.backend.entity.ReservaSaldo;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.repository.EventoTransferenciaRepository;
+import com.exemple.backend.repository.ReservaSaldoRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Transferência em duas fases (reserva e captura).
+ *
+ * A reserva move o valor do saldo disponível para VALOR_RESERVADO da origem com uma
+ * única atualização condicional, e a captura ou a liberação conclui a operação com
+ * outra. As validações demoradas (destino, parâmetros) acontecem antes, fora de
+ * qualquer lock, e cada fase segura o lock de linha só pelo tempo de uma instrução.
+ * Reservas não finalizadas até expiraEm são devolvidas em lotes pela varredura.
+ *
+ * As atualizações em massa (JPQL) invalidam a região "beneficio" do cache de segundo
+ * nível; as leituras seguintes da entidade vêm do banco.
+ */
+@Service
+public class BeneficioReservaService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioReservaService.class);
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    @Autowired
+    private ReservaSaldoRepository reservaRepository;
+
+    // Outbox das transferências: a captura também é uma transferência
+    @Autowired
+    private EventoTransferenciaRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LimiteTransferencias limiteTransferencias;
+
+    @Value("${beneficio.reservas.expiracao-padrao-s:60}")
+    private long expiracaoPadraoSegundos;
+
+    @Value("${beneficio.reservas.expiracao-maxima-s:900}")
+    private long expiracaoMaximaSegundos;
+
+    @Value("${beneficio.reservas.tamanho-lote-varredura:500}")
+    private int tamanhoLoteVarredura;
+
+    /**
+     * Reserva o valor na origem para uma transferência futura a toId.
+     * Sem expiração informada usa beneficio.reservas.expiracao-padrao-s.
+     */
+    @Transactional
+    public ReservaSaldo reservar(Long fromId, Long toId, BigDecimal amount, Long expiracaoSegundos) {
+        BeneficioService.validarParametrosTransferencia(fromId, toId, amount);
+        long segundos = expiracaoSegundos == null ? expiracaoPadraoSegundos : expiracaoSegundos;
+        if (segundos < 1 || segundos > expiracaoMaximaSegundos) {
+            throw new IllegalArgumentException("Expiração deve estar entre 1 e " + expiracaoMaximaSegundos + " segundos");
+        }
+        // O limite de saída é consumido na reserva, e não na captura
+        limiteTransferencias.consumirNaTransacao(fromId, toId, amount);
+
+        // O destino é validado sem lock; a captura confere de novo que continua ativo
+        SaldoVersaoView destino = beneficioRepository.findSaldoVersaoById(toId)
+                .orElseThrow(() -> DadosInvalidosException.destinoNaoEncontrado(toId));
+        if (!Boolean.TRUE.equals(destino.getAtivo())) {
+            throw OperacaoRecusadaException.DESTINO_INATIVO;
+        }
+
+        if (beneficioRepository.reservarSaldo(fromId, amount) == 0) {
+            throw BeneficioService.falhaDeDebito(beneficioRepository.findSaldoVersaoById(fromId), fromId, amount);
+        }
+
+        Instant agora = Instant.now();
+        ReservaSaldo reserva = reservaRepository.save(
+                new ReservaSaldo(fromId, toId, amount, agora, agora.plus(Duration.ofSeconds(segundos))));
+        publicarReserva(List.of(fromId));
+        return reserva;
+    }
+
+    /**
+     * Efetiva a transferência reservada: debita a origem (do valor reservado) e credita o destino
+     */
+    @Transactional
+    public ReservaSaldo capturar(Long reservaId) {
+        Instant agora = Instant.now();
+        if (reservaId == null) {
+            throw new IllegalArgumentException("ID da reserva não pode ser nulo");
+        }
+        if (reservaRepository.marcarCapturada(reservaId, agora) == 0) {
+            throw falhaAoFinalizar(reservaId, agora);
+        }
+        ReservaSaldo reserva = reservaRepository.findById(reservaId).orElseThrow();
+        Long origem = reserva.getOrigemId();
+        Long destino = reserva.getDestinoId();
+        BigDecimal valor = reserva.getValor();
+
+        // Mesma ordem de lock das transferências pessimistas (id crescente)
+        if (origem < destino) {
+            debitar(origem, valor);
+            creditar(destino, valor);
+        } else {
+            creditar(destino, valor);
+            debitar(origem, valor);
+        }
+
+        SaldoVersaoView origemAtual = beneficioRepository.findSaldoVersaoById(origem).orElseThrow();
+        SaldoVersaoView destinoAtual = beneficioRepository.findSaldoVersaoById(destino).orElseThrow();
+        outboxRepository.save(new EventoTransferencia("captura-reserva", origem, destino, valor,
+                origemAtual.getValor(), origemAtual.getVersao(), destinoAtual.getValor(), destinoAtual.getVersao(), agora));
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.transferencia(
+                alteracao(origem, origemAtual, origemAtual.getValor().add(valor)),
+                alteracao(destino, destinoAtual, destinoAtual.getValor().subtract(valor))));
+        return reserva;
+    }
+
+    /**
+     * Cancela a reserva e devolve o valor ao saldo disponível da origem
+     */
+    @Transactional
+    public ReservaSaldo liberar(Long reservaId) {
+        Instant agora = Instant.now();
+        if (reservaId == null) {
+            throw new IllegalArgumentException("ID da reserva não pode ser nulo");
+        }
+        if (reservaRepository.marcarLiberada(reservaId, agora) == 0) {
+            throw falhaAoFinalizar(reservaId, agora);
+        }
+        ReservaSaldo reserva = reservaRepository.findById(reservaId).orElseThrow();
+        if (beneficioRepository.liberarSaldoReservado(reserva.getOrigemId(), reserva.getValor()) == 0) {
+            throw new IllegalStateException("Saldo reservado inconsistente no benefício " + reserva.getOrigemId());
+        }
+        publicarReserva(List.of(reserva.getOrigemId()));
+        return reserva;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ReservaSaldo> buscar(Long reservaId) {
+        return reservaRepository.findById(reservaId);
+    }
+
+    /**
+     * Devolve o valor das reservas vencidas, em lotes de tamanho-lote-varredura.
+     * Cada lote é uma transação: as reservas são bloqueadas (FOR UPDATE), marcadas
+     * como EXPIRADA e a origem recebe uma única atualização com a soma do lote.
+     */
+    @Scheduled(initialDelayString = "${beneficio.reservas.varredura-ms:5000}",
+               fixedDelayString = "${beneficio.reservas.varredura-ms:5000}")
+    public int expirarVencidas() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int expiradas;
+        do {
+            expiradas = transacao.execute(status -> expirarLote(Instant.now()));
+            total += expiradas;
+        } while (expiradas == tamanhoLoteVarredura);
+
+        if (total > 0) {
+            log.info("Reservas expiradas na varredura: {}", total);
+        }
+        return total;
+    }
+
+    private int expirarLote(Instant agora) {
+        List<ReservaSaldo> vencidas = reservaRepository.findVencidasParaExpirar(agora,
+                PageRequest.of(0, tamanhoLoteVarredura));
+        // TreeMap: as origens são atualizadas em ordem crescente de id
+        Map<Long, BigDecimal> porOrigem = new TreeMap<>();
+        for (ReservaSaldo reserva : vencidas) {
+            reserva.setStatus(ReservaSaldo.Status.EXPIRADA);
+            reserva.setFinalizadaEm(agora);
+            porOrigem.merge(reserva.getOrigemId(), reserva.getValor(), BigDecimal::add);
+        }
+        porOrigem.forEach((origem, valor) -> {
+            if (beneficioRepository.liberarSaldoReservado(origem, valor) == 0) {
+                throw new IllegalStateException("Saldo reservado inconsistente no benefício " + origem);
+            }
+        });
+        if (!porOrigem.isEmpty()) {
+            publicarReserva(porOrigem.keySet());
+        }
+        return vencidas.size();
+    }
+
+    private void debitar(Long origem, BigDecimal valor) {
+        if (beneficioRepository.debitarSaldoReservado(origem, valor) == 0) {
+            throw new IllegalStateException("Saldo reservado inconsistente no benefício " + origem);
+        }
+    }
+
+    private void creditar(Long destino, BigDecimal valor) {
+        if (beneficioRepository.creditarSaldo(destino, valor) == 0) {
+            // Destino desativado depois da reserva é recusa de negócio; destino ausente é inconsistência
+            if (beneficioRepository.findSaldoVersaoById(destino).isPresent()) {
+                throw OperacaoRecusadaException.DESTINO_INATIVO;
+            }
+            throw new IllegalStateException("Benefício de destino da reserva não encontrado: " + destino);
+        }
+    }
+
+    // Rejeições esperadas (400/422); as IllegalStateException acima são invariantes violadas (500)
+    private BeneficioBusinessException falhaAoFinalizar(Long reservaId, Instant agora) {
+        Optional<ReservaSaldo> reserva = reservaRepository.findById(reservaId);
+        if (reserva.isEmpty()) {
+            return new DadosInvalidosException("Reserva não encontrada: " + reservaId);
+        }
+        ReservaSaldo.Status status = reserva.get().getStatus();
+        if (status == ReservaSaldo.Status.PENDENTE && !reserva.get().getExpiraEm().isAfter(agora)) {
+            return new OperacaoRecusadaException("Reserva expirada em " + reserva.get().getExpiraEm());
+        }
+        return new OperacaoRecusadaException("Reserva já finalizada com status " + status);
+    }
+
+    // Reserva e liberação não mudam VALOR, mas incrementam a versão da origem
+    private void publicarReserva(Collection<Long> ids) {
+        List<BeneficioAlteradoEvent.Alteracao> alteracoes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            beneficioRepository.findSaldoVersaoById(id)
+                    .ifPresent(saldo -> alteracoes.add(alteracao(id, saldo, saldo.getValor())));
+        }
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.reserva(alteracoes));
+    }
+
+    private static BeneficioAlteradoEvent.Alteracao alteracao(Long id, SaldoVersaoView atual, BigDecimal valorAnterior) {
+        return new BeneficioAlteradoEvent.Alteracao(id, null, valorAnterior, atual.getValor(),
+                atual.getAtivo(), atual.getAtivo(), atual.getVersao());
+    }
+}
@@ -1,21 +1,85 @@
 package com.exemple.backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.dto.CreditoPendenteResumoView;
+import com.exemple.backend.dto.SaldoComCreditos;
+import com.exemple.backend.dto.SaldoLoteView;
+import com.exemple.backend.dto.SaldoVersaoView;
 import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.entity.CreditoPendente;
+import com.exemple.backend.entity.EventoTransferencia;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.exception.ConflitoConcorrenciaException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.exception.SaldoInsuficienteException;
 import com.exemple.backend.repository.BeneficioRepository;
-import jakarta.persistence.OptimisticLockException;
+import com.exemple.backend.repository.CreditoPendenteRepository;
+import com.exemple.backend.repository.EventoTransferenciaRepository;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class BeneficioService {
 
+    // Ids por consulta IN em consultarSaldos
+    static final int TAMANHO_BLOCO_IN = 500;
+
+    private static final BigDecimal VALOR_MAXIMO_TRANSFERENCIA = new BigDecimal("1000000");
+
+    // Tentativas de transfer() com conflito de versão antes do 409
+    static final int MAX_TENTATIVAS_OTIMISTA = 3;
+
     @Autowired
     private BeneficioRepository beneficioRepository;
 
+    @Autowired
+    private CreditoPendenteRepository creditoPendenteRepository;
+
+    // Outbox das transferências, drenada pelo OutboxTransferenciaService
+    @Autowired
+    private EventoTransferenciaRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Transação por tentativa em transfer()
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BeneficioNomeIndex nomeIndex;
+
+    @Autowired
+    private BeneficioValorIndex valorIndex;
+
+    @Autowired
+    private LimiteTransferencias limiteTransferencias;
+
+    // Espera por lock e conflitos de versão por conta (GET /actuator/contasquentes)
+    @Autowired
+    private ContencaoContas contencaoContas;
+
     /**
      * Método de transferência com PESSIMISTIC LOCKING
      * Usa lock pessimista para evitar concorrência em ambientes de alta contenção
@@ -24,12 +88,23 @@ public class BeneficioService {
     public void transferWithPessimisticLock(Long fromId, Long toId, BigDecimal amount) {
         // Validações iniciais
         validarParametrosTransferencia(fromId, toId, amount);
+        // Limites horário/diário de saída; estornado se a transação não confirmar
+        limiteTransferencias.consumirNaTransacao(fromId, toId, amount);
 
         try {
             // Busca os benefícios com PESSIMISTIC_WRITE lock
-            // Isso bloqueia as linhas no banco até o commit da transação
-            Optional<Beneficio> fromOpt = beneficioRepository.findByIdWithPessimisticLock(fromId);
-            Optional<Beneficio> toOpt = beneficioRepository.findByIdWithPessimisticLock(toId);
+            // Isso bloqueia as linhas no banco até o commit da transação.
+            // Os locks são sempre adquiridos em ordem crescente de id, evitando
+            // deadlock entre transferências A->B e B->A concorrentes
+            Optional<Beneficio> fromOpt;
+            Optional<Beneficio> toOpt;
+            if (fromId < toId) {
+                fromOpt = bloquear(fromId);
+                toOpt = bloquear(toId);
+            } else {
+                toOpt = bloquear(toId);
+                fromOpt = bloquear(fromId);
+            }
             
             validarBeneficiosEncontrados(fromOpt, toOpt, fromId, toId);
             
@@ -44,7 +119,11 @@ public class BeneficioService {
             // Save é opcional com @Transactional, mas explícito para clareza
             beneficioRepository.save(from);
             beneficioRepository.save(to);
+            publicarTransferencia(from, to, amount, "pessimistic");
             
+        } catch (BeneficioBusinessException e) {
+            // Rejeições de negócio seguem sem embrulho; o status HTTP vem do tipo
+            throw e;
         } catch (Exception e) {
             // @Transactional(rollbackFor = Exception.class) garante rollback automático
             throw new RuntimeException("Falha na transferência com locking pessimista: " + e.getMessage(), e);
@@ -53,64 +132,77 @@ public class BeneficioService {
 
     /**
      * Método de transferência com OPTIMISTIC LOCKING (Padrão com @Version)
-     * Mais performático para ambientes com média/baixa contenção
+     * Mais performático para ambientes com média/baixa contenção.
+     *
+     * Cada tentativa roda em uma transação própria: depois de um conflito de versão a
+     * transação e o contexto de persistência ficam marcados para rollback, então a nova
+     * tentativa precisa de uma transação nova, aberta depois da espera. Chamado dentro
+     * de uma transação do chamador (ex.: AquecimentoInicializacao), faz uma única
+     * tentativa nela.
      */
-    @Transactional(rollbackFor = {OptimisticLockException.class, Exception.class})
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
         // Validações iniciais
         validarParametrosTransferencia(fromId, toId, amount);
 
-        // Número máximo de tentativas para optimistic locking
-        int maxTentativas = 3;
-        int tentativa = 0;
-        
-        while (tentativa < maxTentativas) {
+        int maxTentativas = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : MAX_TENTATIVAS_OTIMISTA;
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        for (int tentativa = 1; ; tentativa++) {
             try {
-                tentativa++;
-                
-                // Busca os benefícios (sem lock explícito - usa optimistic locking via @Version)
-                Optional<Beneficio> fromOpt = beneficioRepository.findById(fromId);
-                Optional<Beneficio> toOpt = beneficioRepository.findById(toId);
-                
-                validarBeneficiosEncontrados(fromOpt, toOpt, fromId, toId);
-                
-                Beneficio from = fromOpt.get();
-                Beneficio to = toOpt.get();
-                
-                validarBeneficiosParaTransferencia(from, to, amount);
-                
-                // Executa a transferência
-                realizarTransferencia(from, to, amount);
-                
-                // Save atualizará a versão automaticamente devido à anotação @Version
-                beneficioRepository.save(from);
-                beneficioRepository.save(to);
-                
-                // Sucesso - sai do loop
+                transacao.executeWithoutResult(status -> transferirComVersao(fromId, toId, amount));
                 return;
-                
-            } catch (OptimisticLockException e) {
-                // Conflito de versão - outra transação modificou os dados
+            } catch (OptimisticLockingFailureException e) {
+                // Conflito de versão - outra transação modificou os dados (no flush ou no commit)
+                contencaoContas.registrarConflito(e, fromId, toId);
                 if (tentativa >= maxTentativas) {
-                    throw new RuntimeException(
-                        "Falha na transferência após " + maxTentativas + 
+                    throw new ConflitoConcorrenciaException(
+                        "Falha na transferência após " + maxTentativas +
                         " tentativas devido a conflitos de concorrência. Tente novamente.", e);
                 }
-                
-                // Aguarda um pouco antes de tentar novamente (exponential backoff)
+
+                // Aguarda um pouco antes de tentar novamente, já fora da transação desfeita
                 try {
-                    Thread.sleep(100 * tentativa); // 100ms, 200ms, 300ms
+                    Thread.sleep(100L * tentativa); // 100ms, 200ms
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new RuntimeException("Transferência interrompida", ie);
                 }
-                
-            } catch (Exception e) {
-                throw new RuntimeException("Falha na transferência: " + e.getMessage(), e);
             }
         }
     }
 
+    // Uma tentativa de transfer(), dentro da transação aberta por ela
+    private void transferirComVersao(Long fromId, Long toId, BigDecimal amount) {
+        // Limites consumidos por tentativa: estornados se ela for desfeita
+        limiteTransferencias.consumirNaTransacao(fromId, toId, amount);
+
+        try {
+            // Busca os benefícios (sem lock explícito - usa optimistic locking via @Version)
+            Optional<Beneficio> fromOpt = beneficioRepository.findById(fromId);
+            Optional<Beneficio> toOpt = beneficioRepository.findById(toId);
+
+            validarBeneficiosEncontrados(fromOpt, toOpt, fromId, toId);
+
+            Beneficio from = fromOpt.get();
+            Beneficio to = toOpt.get();
+
+            validarBeneficiosParaTransferencia(from, to, amount);
+
+            // Executa a transferência
+            realizarTransferencia(from, to, amount);
+
+            // Save atualizará a versão automaticamente devido à anotação @Version
+            beneficioRepository.save(from);
+            beneficioRepository.save(to);
+            publicarTransferencia(from, to, amount, "optimistic");
+
+        } catch (BeneficioBusinessException | OptimisticLockingFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Falha na transferência: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Método de transferência com LOCKING MISTO
      * Usa lock pessimista apenas no benefício de origem (mais comum ter contenção)
@@ -119,10 +211,11 @@ public class BeneficioService {
     public void transferWithMixedLock(Long fromId, Long toId, BigDecimal amount) {
         // Validações iniciais
         validarParametrosTransferencia(fromId, toId, amount);
+        limiteTransferencias.consumirNaTransacao(fromId, toId, amount);
 
         try {
             // Lock pessimista apenas no benefício de origem (onde há mais contenção)
-            Optional<Beneficio> fromOpt = beneficioRepository.findByIdWithPessimisticLock(fromId);
+            Optional<Beneficio> fromOpt = bloquear(fromId);
             // Lock otimista no benefício de destino
             Optional<Beneficio> toOpt = beneficioRepository.findById(toId);
             
@@ -138,59 +231,131 @@ public class BeneficioService {
             
             beneficioRepository.save(from);
             beneficioRepository.save(to);
+            publicarTransferencia(from, to, amount, "mixed");
             
-        } catch (OptimisticLockException e) {
-            throw new RuntimeException(
+        } catch (OptimisticLockingFailureException e) {
+            // O repositório traduz a OptimisticLockException do flush
+            contencaoContas.registrarConflito(e, fromId, toId);
+            throw new ConflitoConcorrenciaException(
                 "Conflito de concorrência no benefício de destino. Tente novamente.", e);
+        } catch (BeneficioBusinessException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Falha na transferência com locking misto: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Método de transferência com CRÉDITO DIFERIDO
+     * Só a origem é atualizada (débito condicional em uma instrução); o crédito vira uma
+     * linha em CREDITO_PENDENTE, sem ler nem bloquear o destino, e é incorporado ao VALOR
+     * depois pela consolidação (BeneficioCreditoPendenteService)
+     */
+    @Transactional(rollbackFor = {Exception.class})
+    public void transferWithDeferredCredit(Long fromId, Long toId, BigDecimal amount) {
+        // Validações iniciais
+        validarParametrosTransferencia(fromId, toId, amount);
+        limiteTransferencias.consumirNaTransacao(fromId, toId, amount);
+
+        // O destino é apenas consultado; o crédito não depende do saldo dele
+        SaldoVersaoView destino = beneficioRepository.findSaldoVersaoById(toId)
+                .orElseThrow(() -> DadosInvalidosException.destinoNaoEncontrado(toId));
+        if (!Boolean.TRUE.equals(destino.getAtivo())) {
+            throw OperacaoRecusadaException.DESTINO_INATIVO;
+        }
+
+        // O UPDATE condicional espera pelo lock da linha de origem
+        long inicioDebito = System.nanoTime();
+        int debitadas = beneficioRepository.debitarSaldoDisponivel(fromId, amount);
+        contencaoContas.registrarEspera(fromId, System.nanoTime() - inicioDebito);
+        if (debitadas == 0) {
+            throw falhaDeDebito(beneficioRepository.findSaldoVersaoById(fromId), fromId, amount);
+        }
+        Instant agora = Instant.now();
+        creditoPendenteRepository.save(new CreditoPendente(toId, amount, fromId, agora));
+
+        SaldoVersaoView origem = beneficioRepository.findSaldoVersaoById(fromId).orElseThrow();
+        outboxRepository.save(new EventoTransferencia("credito-diferido", fromId, toId, amount,
+                origem.getValor(), origem.getVersao(), null, null, agora));
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.transferenciaComCreditoDiferido(
+                new BeneficioAlteradoEvent.Alteracao(fromId, null, origem.getValor().add(amount), origem.getValor(),
+                        origem.getAtivo(), origem.getAtivo(), origem.getVersao()),
+                amount));
+    }
+
     // MÉTODOS AUXILIARES PRIVADOS
 
-    private void validarParametrosTransferencia(Long fromId, Long toId, BigDecimal amount) {
+    /**
+     * SELECT ... FOR UPDATE medido: o tempo inclui a espera pelo lock da linha,
+     * registrada mesmo quando a espera termina em timeout
+     */
+    private Optional<Beneficio> bloquear(Long id) {
+        long inicio = System.nanoTime();
+        try {
+            return beneficioRepository.findByIdWithPessimisticLock(id);
+        } finally {
+            contencaoContas.registrarEspera(id, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Explica por que um débito condicional (UPDATE ... WHERE) não afetou a linha.
+     * Também usado pelas reservas (BeneficioReservaService)
+     */
+    static BeneficioBusinessException falhaDeDebito(Optional<SaldoVersaoView> origem, Long fromId, BigDecimal amount) {
+        if (origem.isEmpty()) {
+            return DadosInvalidosException.origemNaoEncontrada(fromId);
+        }
+        if (!Boolean.TRUE.equals(origem.get().getAtivo())) {
+            return OperacaoRecusadaException.ORIGEM_INATIVA;
+        }
+        BigDecimal disponivel = origem.get().getValor().subtract(origem.get().getValorReservado());
+        return new SaldoInsuficienteException(disponivel, amount);
+    }
+
+    // Também usado pelas reservas (BeneficioReservaService)
+    static void validarParametrosTransferencia(Long fromId, Long toId, BigDecimal amount) {
         if (fromId == null || toId == null || amount == null) {
-            throw new IllegalArgumentException("Parâmetros não podem ser nulos");
+            throw DadosInvalidosException.PARAMETROS_NULOS;
         }
         
         if (fromId.equals(toId)) {
-            throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
+            throw DadosInvalidosException.MESMO_BENEFICIO;
         }
         
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Valor da transferência deve ser positivo");
+            throw DadosInvalidosException.VALOR_NAO_POSITIVO;
         }
         
-        if (amount.compareTo(new BigDecimal("1000000")) > 0) {
-            throw new IllegalArgumentException("Valor da transferência excede o limite permitido de 1.000.000");
+        if (amount.compareTo(VALOR_MAXIMO_TRANSFERENCIA) > 0) {
+            throw DadosInvalidosException.VALOR_ACIMA_DO_MAXIMO;
         }
     }
 
     private void validarBeneficiosEncontrados(Optional<Beneficio> fromOpt, Optional<Beneficio> toOpt, 
                                             Long fromId, Long toId) {
         if (fromOpt.isEmpty()) {
-            throw new IllegalArgumentException("Benefício de origem não encontrado: " + fromId);
+            throw DadosInvalidosException.origemNaoEncontrada(fromId);
         }
         if (toOpt.isEmpty()) {
-            throw new IllegalArgumentException("Benefício de destino não encontrado: " + toId);
+            throw DadosInvalidosException.destinoNaoEncontrado(toId);
         }
     }
 
-    private void validarBeneficiosParaTransferencia(Beneficio from, Beneficio to, BigDecimal amount) {
+    // Também usado pela variante reativa (BeneficioReativoService)
+    static void validarBeneficiosParaTransferencia(Beneficio from, Beneficio to, BigDecimal amount) {
         if (!from.getAtivo()) {
-            throw new IllegalStateException("Benefício de origem não está ativo");
+            throw OperacaoRecusadaException.ORIGEM_INATIVA;
         }
         
         if (!to.getAtivo()) {
-            throw new IllegalStateException("Benefício de destino não está ativo");
+            throw OperacaoRecusadaException.DESTINO_INATIVO;
         }
         
-        if (from.getValor().compareTo(amount) < 0) {
-            throw new IllegalStateException(
-                String.format("Saldo insuficiente. Saldo atual: %.2f, Valor solicitado: %.2f", 
-                            from.getValor(), amount)
-            );
+        // Valores presos em reservas pendentes não podem ser transferidos
+        BigDecimal disponivel = from.getValorDisponivel();
+        if (disponivel.compareTo(amount) < 0) {
+            throw new SaldoInsuficienteException(disponivel, amount);
         }
     }
 
@@ -203,60 +368,121 @@ public class BeneficioService {
         // automaticamente quando a entidade for persistida
     }
 
+    private void publicarTransferencia(Beneficio from, Beneficio to, BigDecimal amount, String estrategia) {
+        // Flush para que o evento carregue as versões já incrementadas pelo @Version
+        beneficioRepository.flush();
+
+        // Na mesma transação da transferência: o evento existe se e somente se ela confirmar
+        outboxRepository.save(new EventoTransferencia(estrategia, from.getId(), to.getId(), amount,
+                from.getValor(), from.getVersion(), to.getValor(), to.getVersion(), Instant.now()));
+
+        // Os listeners só são notificados após o commit (ver BeneficioAlteradoEvent)
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.transferencia(
+                BeneficioAlteradoEvent.Alteracao.saldo(from, from.getValor().add(amount)),
+                BeneficioAlteradoEvent.Alteracao.saldo(to, to.getValor().subtract(amount))));
+    }
+
     // MÉTODOS ADICIONAIS PARA CONTROLE DE CONCORRÊNCIA
+    // As consultas abaixo usam a projeção SaldoVersaoView em transações somente leitura,
+    // sem carregar a entidade gerenciada
 
     /**
      * Verifica se há conflito de versão antes da transferência
      */
+    @Transactional(readOnly = true)
     public boolean verificarConflitoVersao(Long beneficioId, Long versaoAtual) {
-        Optional<Beneficio> beneficioOpt = beneficioRepository.findById(beneficioId);
-        if (beneficioOpt.isEmpty()) {
+        Optional<SaldoVersaoView> saldoVersao = beneficioRepository.findSaldoVersaoById(beneficioId);
+        if (saldoVersao.isEmpty()) {
             return true; // Considera como conflito se não existir
         }
         
-        Beneficio beneficio = beneficioOpt.get();
-        return !beneficio.getVersion().equals(versaoAtual);
+        return !saldoVersao.get().getVersao().equals(versaoAtual);
     }
 
     /**
      * Obtém a versão atual de um benefício
      */
+    @Transactional(readOnly = true)
     public Long obterVersaoAtual(Long beneficioId) {
-        Optional<Beneficio> beneficioOpt = beneficioRepository.findById(beneficioId);
-        if (beneficioOpt.isEmpty()) {
-            throw new IllegalArgumentException("Benefício não encontrado: " + beneficioId);
-        }
-        return beneficioOpt.get().getVersion();
+        return consultarSaldoEVersao(beneficioId).getVersao();
     }
 
     // Método para consulta segura
+    @Transactional(readOnly = true)
     public BigDecimal consultarSaldo(Long beneficioId) {
+        return consultarSaldoEVersao(beneficioId).getValor();
+    }
+    
+    /**
+     * Obtém saldo, versão e status em uma única consulta.
+     * O saldo inclui os créditos diferidos ainda não consolidados.
+     */
+    @Transactional(readOnly = true)
+    public SaldoVersaoView consultarSaldoEVersao(Long beneficioId) {
         if (beneficioId == null) {
             throw new IllegalArgumentException("ID do benefício não pode ser nulo");
         }
         
-        Optional<Beneficio> beneficioOpt = beneficioRepository.findById(beneficioId);
-        if (beneficioOpt.isEmpty()) {
-            throw new IllegalArgumentException("Benefício não encontrado: " + beneficioId);
-        }
-        
-        return beneficioOpt.get().getValor();
+        SaldoVersaoView saldo = beneficioRepository.findSaldoVersaoById(beneficioId)
+                .orElseThrow(() -> new IllegalArgumentException("Benefício não encontrado: " + beneficioId));
+        return creditoPendenteRepository.findResumoByBeneficioId(beneficioId)
+                .<SaldoVersaoView>map(creditos -> new SaldoComCreditos(beneficioId, saldo, creditos))
+                .orElse(saldo);
     }
     
+    /**
+     * Saldo, versão e status de vários benefícios, em ordem de id informada.
+     * Ids repetidos são ignorados; os inexistentes simplesmente não aparecem no mapa.
+     * Como em consultarSaldoEVersao, os saldos incluem créditos diferidos pendentes.
+     * A consulta IN é dividida em blocos para limitar o número de parâmetros.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, SaldoVersaoView> consultarSaldos(Collection<Long> ids) {
+        if (ids == null || ids.contains(null)) {
+            throw new IllegalArgumentException("IDs dos benefícios não podem ser nulos");
+        }
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, SaldoVersaoView> porId = new HashMap<>(distintos.size() * 2);
+        for (int inicio = 0; inicio < distintos.size(); inicio += TAMANHO_BLOCO_IN) {
+            List<Long> bloco = distintos.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_IN, distintos.size()));
+            for (SaldoLoteView saldo : beneficioRepository.findSaldosVersaoByIdIn(bloco)) {
+                porId.put(saldo.getId(), saldo);
+            }
+            for (CreditoPendenteResumoView creditos : creditoPendenteRepository.findResumoByBeneficioIdIn(bloco)) {
+                SaldoVersaoView base = porId.get(creditos.getBeneficioId());
+                if (base != null) {
+                    porId.put(creditos.getBeneficioId(), new SaldoComCreditos(creditos.getBeneficioId(), base, creditos));
+                }
+            }
+        }
+
+        Map<Long, SaldoVersaoView> resultado = new LinkedHashMap<>();
+        for (Long id : distintos) {
+            SaldoVersaoView saldo = porId.get(id);
+            if (saldo != null) {
+                resultado.put(id, saldo);
+            }
+        }
+        return resultado;
+    }
+
     // Método para verificar se transferência é possível
+    @Transactional(readOnly = true)
     public boolean isTransferenciaPossivel(Long fromId, BigDecimal amount) {
         if (fromId == null || amount == null) {
             return false;
         }
         
-        Optional<Beneficio> fromOpt = beneficioRepository.findById(fromId);
+        Optional<SaldoVersaoView> fromOpt = beneficioRepository.findSaldoVersaoById(fromId);
         if (fromOpt.isEmpty()) {
             return false;
         }
         
-        Beneficio from = fromOpt.get();
+        SaldoVersaoView from = fromOpt.get();
+        BigDecimal disponivel = from.getValorReservado() == null
+                ? from.getValor() : from.getValor().subtract(from.getValorReservado());
         return from.getAtivo() && 
-               from.getValor().compareTo(amount) >= 0 &&
+               disponivel.compareTo(amount) >= 0 &&
                amount.compareTo(BigDecimal.ZERO) > 0;
     }
     
@@ -265,18 +491,82 @@ public class BeneficioService {
         if (beneficio == null) {
             throw new IllegalArgumentException("Benefício não pode ser nulo");
         }
-        return beneficioRepository.save(beneficio);
+        Beneficio salvo = beneficioRepository.save(beneficio);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.criacao(salvo));
+        return salvo;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Beneficio> buscarPorId(Long id) {
         return beneficioRepository.findById(id);
     }
     
-    public java.util.List<Beneficio> listarTodos() {
+    @Transactional(readOnly = true)
+    public List<Beneficio> listarTodos() {
         return beneficioRepository.findAll();
     }
     
-    public java.util.List<Beneficio> listarAtivos() {
+    @Transactional(readOnly = true)
+    public List<Beneficio> listarAtivos() {
         return beneficioRepository.findByAtivoTrue();
     }
+    
+    /**
+     * Busca por nome ignorando caixa e acentos, usando o índice de trigramas em memória.
+     * Com prefixo = true retorna apenas nomes que começam com o termo.
+     */
+    @Transactional(readOnly = true)
+    public List<Beneficio> buscarPorNome(String termo, boolean prefixo, int limite) {
+        List<Long> ids = nomeIndex.buscar(termo, prefixo, limite);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        return carregarNaOrdem(ids);
+    }
+    
+    /**
+     * Benefícios ativos com valor entre min e max, paginados em ordem de valor.
+     * Equivale a findBeneficiosAtivosComValorEntre, mas resolvido pelo índice em memória.
+     */
+    @Transactional(readOnly = true)
+    public List<Beneficio> listarAtivosComValorEntre(BigDecimal minValor, BigDecimal maxValor,
+                                                              int pagina, int tamanho) {
+        return carregarNaOrdem(valorIndex.buscarFaixa(minValor, maxValor, true, pagina, tamanho));
+    }
+    
+    /**
+     * Benefícios com valor maior que o informado, paginados em ordem de valor.
+     * Equivale a findByValorGreaterThan, mas resolvido pelo índice em memória.
+     */
+    @Transactional(readOnly = true)
+    public List<Beneficio> listarComValorAcimaDe(BigDecimal valor, int pagina, int tamanho) {
+        return carregarNaOrdem(valorIndex.buscarAcimaDe(valor, false, pagina, tamanho));
+    }
+    
+    private List<Beneficio> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // findAllById não garante ordem; reaplica a ordem do índice
+        Map<Long, Beneficio> porId = new HashMap<>();
+        beneficioRepository.findAllById(ids).forEach(b -> porId.put(b.getId(), b));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+    
+    // Busca exata com a mesma normalização (caixa e acentos) dos demais modos; todos os homônimos
+    @Transactional(readOnly = true)
+    public List<Beneficio> buscarPorNomeExato(String nome, int limite) {
+        List<Long> ids = nomeIndex.buscarExato(nome, limite);
+        if (!ids.isEmpty() || nome == null || nome.isBlank() || limite <= 0) {
+            return carregarNaOrdem(ids);
+        }
+        // Nome ainda fora do índice (antes da carga inicial ou criado por outra instância
+        // antes da invalidação chegar): igualdade literal, atendida por IDX_BENEFICIO_NOME
+        return beneficioRepository.findByNome(nome.trim()).stream()
+                .sorted(Comparator.comparing(Beneficio::getId))
+                .limit(limite)
+                .toList();
+    }
 }
\ No newline at end of file
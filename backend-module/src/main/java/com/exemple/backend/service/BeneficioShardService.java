@@ -0,0 +1,355 @@
+package com.exemple.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.exception.ConflitoConcorrenciaException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.exception.SaldoInsuficienteException;
+import com.exemple.backend.repository.BeneficioShardRepository;
+import com.exemple.backend.repository.CoordenadorShardsRepository;
+import com.exemple.backend.repository.CoordenadorShardsRepository.Estado;
+import com.exemple.backend.repository.CoordenadorShardsRepository.TransacaoDistribuida;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Benefícios particionados em shards por hash consistente do id (perfil shards).
+ *
+ * Transferência no mesmo shard: uma transação local, com débito e crédito condicionais
+ * em ordem crescente de id. Entre shards: duas fases com log de recuperação.
+ *   1. O log do coordenador registra a transação como INICIADA.
+ *   2. A origem reserva o valor e o destino registra o crédito (TRANSACAO_PREPARADA),
+ *      cada um em uma transação local do seu shard.
+ *   3. A decisão é a troca INICIADA -> CONFIRMADA (ou ABORTADA) no log.
+ *   4. Os participantes aplicam a decisão e o log passa a CONCLUIDA.
+ * Se o processo cair no meio, a recuperação periódica aborta as INICIADA antigas
+ * (aborto presumido) e reaplica a decisão das CONFIRMADA e ABORTADA; as operações dos
+ * participantes são idempotentes.
+ *
+ * Consultas por id vão ao shard do id; listagens e consultas em lote são distribuídas
+ * entre os shards em paralelo e reunidas em ordem.
+ */
+@Service
+@Profile("shards")
+public class BeneficioShardService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioShardService.class);
+
+    private static final int LOTE_RECUPERACAO = 500;
+
+    private final MapaShards mapa;
+    private final BeneficioShardRepository shards;
+    private final CoordenadorShardsRepository coordenador;
+    private final LimiteTransferencias limiteTransferencias;
+    private final Clock relogio;
+    private final Duration idadeRecuperacao;
+    private final Duration retencao;
+    private final ExecutorService consultas;
+
+    @Autowired
+    public BeneficioShardService(MapaShards mapa,
+                                 BeneficioShardRepository shards,
+                                 CoordenadorShardsRepository coordenador,
+                                 LimiteTransferencias limiteTransferencias,
+                                 @Value("${beneficio.shards.recuperacao-idade-ms:10000}") long idadeRecuperacaoMs,
+                                 @Value("${beneficio.shards.retencao-horas:24}") long retencaoHoras) {
+        this(mapa, shards, coordenador, limiteTransferencias, Clock.systemUTC(),
+                Duration.ofMillis(idadeRecuperacaoMs), Duration.ofHours(retencaoHoras));
+    }
+
+    BeneficioShardService(MapaShards mapa, BeneficioShardRepository shards, CoordenadorShardsRepository coordenador,
+                          LimiteTransferencias limiteTransferencias, Clock relogio,
+                          Duration idadeRecuperacao, Duration retencao) {
+        if (mapa.getQuantidade() != shards.getQuantidade()) {
+            throw new IllegalStateException("Mapa com " + mapa.getQuantidade() + " shards para "
+                    + shards.getQuantidade() + " bancos");
+        }
+        this.mapa = mapa;
+        this.shards = shards;
+        this.coordenador = coordenador;
+        this.limiteTransferencias = limiteTransferencias;
+        this.relogio = relogio;
+        this.idadeRecuperacao = idadeRecuperacao;
+        this.retencao = retencao;
+        AtomicInteger contador = new AtomicInteger();
+        this.consultas = Executors.newFixedThreadPool(shards.getQuantidade(), tarefa -> {
+            Thread thread = new Thread(tarefa, "shard-consulta-" + contador.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Beneficio criarBeneficio(Beneficio beneficio) {
+        if (beneficio == null) {
+            throw new IllegalArgumentException("Benefício não pode ser nulo");
+        }
+        beneficio.setId(coordenador.proximoId());
+        beneficio.setValorReservado(BigDecimal.ZERO);
+        beneficio.setVersion(0L);
+        shards.inserir(mapa.shardDe(beneficio.getId()), beneficio);
+        return beneficio;
+    }
+
+    public Optional<Beneficio> buscarPorId(Long id) {
+        return shards.buscar(mapa.shardDe(id), id);
+    }
+
+    public int shardDe(Long id) {
+        return mapa.shardDe(id);
+    }
+
+    /**
+     * Todos os benefícios, lidos dos shards em paralelo e ordenados por id
+     */
+    public List<Beneficio> listarTodos() {
+        List<Beneficio> todos = new ArrayList<>();
+        for (List<Beneficio> doShard : emCadaShard(shards::listar)) {
+            todos.addAll(doShard);
+        }
+        todos.sort(Comparator.comparing(Beneficio::getId));
+        return todos;
+    }
+
+    /**
+     * Benefícios dos ids informados, na ordem informada; uma consulta IN por shard,
+     * em paralelo. Os inexistentes não aparecem no mapa.
+     */
+    public Map<Long, Beneficio> consultarSaldos(Collection<Long> ids) {
+        if (ids == null || ids.contains(null)) {
+            throw new IllegalArgumentException("IDs dos benefícios não podem ser nulos");
+        }
+        Map<Integer, List<Long>> porShard = mapa.agruparPorShard(new LinkedHashSet<>(ids));
+        List<CompletableFuture<List<Beneficio>>> leituras = new ArrayList<>(porShard.size());
+        porShard.forEach((shard, doShard) ->
+                leituras.add(CompletableFuture.supplyAsync(() -> shards.buscarVarios(shard, doShard), consultas)));
+
+        Map<Long, Beneficio> porId = new HashMap<>();
+        for (CompletableFuture<List<Beneficio>> leitura : leituras) {
+            leitura.join().forEach(beneficio -> porId.put(beneficio.getId(), beneficio));
+        }
+        Map<Long, Beneficio> resultado = new LinkedHashMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Beneficio beneficio = porId.get(id);
+            if (beneficio != null) {
+                resultado.put(id, beneficio);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Quantidade de benefícios por shard e transações distribuídas por estado
+     */
+    public Map<String, Object> distribuicao() {
+        Map<String, Object> distribuicao = new LinkedHashMap<>();
+        List<Long> contagens = emCadaShard(shards::contar);
+        Map<Integer, Long> porShard = new LinkedHashMap<>();
+        for (int shard = 0; shard < contagens.size(); shard++) {
+            porShard.put(shard, contagens.get(shard));
+        }
+        distribuicao.put("beneficiosPorShard", porShard);
+        distribuicao.put("transacoesDistribuidas", coordenador.contarPorEstado());
+        return distribuicao;
+    }
+
+    /**
+     * Transfere entre benefícios de qualquer shard. Retorna true se a transferência
+     * atravessou shards (duas fases) e false se foi local a um shard.
+     */
+    public boolean transferir(Long fromId, Long toId, BigDecimal amount) {
+        BeneficioService.validarParametrosTransferencia(fromId, toId, amount);
+        int shardOrigem = mapa.shardDe(fromId);
+        int shardDestino = mapa.shardDe(toId);
+
+        LimiteTransferencias.Consumo consumo = limiteTransferencias.consumir(fromId, toId, amount);
+        try {
+            if (shardOrigem == shardDestino) {
+                transferirNoShard(shardOrigem, fromId, toId, amount);
+                return false;
+            }
+            transferirEntreShards(shardOrigem, shardDestino, fromId, toId, amount);
+            return true;
+        } catch (RuntimeException e) {
+            limiteTransferencias.estornar(consumo);
+            throw e;
+        }
+    }
+
+    private void transferirNoShard(int shard, Long fromId, Long toId, BigDecimal amount) {
+        shards.emTransacao(shard, () -> {
+            // Mesma ordem de lock das transferências pessimistas (id crescente)
+            if (fromId < toId) {
+                debitarNoShard(shard, fromId, amount);
+                creditarNoShard(shard, toId, amount);
+            } else {
+                creditarNoShard(shard, toId, amount);
+                debitarNoShard(shard, fromId, amount);
+            }
+            return null;
+        });
+    }
+
+    private void debitarNoShard(int shard, Long fromId, BigDecimal amount) {
+        if (shards.debitar(shard, fromId, amount) == 0) {
+            throw falhaNaOrigem(shard, fromId, amount);
+        }
+    }
+
+    private void creditarNoShard(int shard, Long toId, BigDecimal amount) {
+        if (shards.creditar(shard, toId, amount) == 0) {
+            throw falhaNoDestino(shard, toId);
+        }
+    }
+
+    private void transferirEntreShards(int shardOrigem, int shardDestino, Long fromId, Long toId, BigDecimal amount) {
+        String xid = UUID.randomUUID().toString();
+        Instant agora = relogio.instant();
+        coordenador.registrar(xid, fromId, toId, amount, agora);
+        TransacaoDistribuida transacao = new TransacaoDistribuida(xid, fromId, toId, amount, Estado.INICIADA, agora);
+
+        // Fase 1: a origem, que é onde a transferência costuma ser recusada, prepara primeiro
+        RuntimeException recusa = null;
+        if (!shards.prepararDebito(shardOrigem, xid, fromId, amount, agora)) {
+            recusa = falhaNaOrigem(shardOrigem, fromId, amount);
+        } else if (!shards.prepararCredito(shardDestino, xid, toId, amount, agora)) {
+            recusa = falhaNoDestino(shardDestino, toId);
+        }
+
+        if (recusa != null) {
+            if (coordenador.mudarEstado(xid, Estado.INICIADA, Estado.ABORTADA, relogio.instant())) {
+                aplicarDecisao(transacao, Estado.ABORTADA);
+            }
+            throw recusa;
+        }
+
+        // Fase 2: a decisão só vale se a recuperação não tiver abortado a transação antes
+        if (!coordenador.mudarEstado(xid, Estado.INICIADA, Estado.CONFIRMADA, relogio.instant())) {
+            throw new ConflitoConcorrenciaException(
+                    "Transação distribuída " + xid + " abortada pela recuperação. Tente novamente.", null);
+        }
+        aplicarDecisao(transacao, Estado.CONFIRMADA);
+    }
+
+    /**
+     * Aplica a decisão nos dois participantes e conclui a transação no log.
+     * Falhas aqui não desfazem a decisão: a recuperação tenta de novo.
+     */
+    private void aplicarDecisao(TransacaoDistribuida transacao, Estado decisao) {
+        String xid = transacao.xid();
+        int shardOrigem = mapa.shardDe(transacao.origemId());
+        int shardDestino = mapa.shardDe(transacao.destinoId());
+        try {
+            Instant agora = relogio.instant();
+            if (decisao == Estado.CONFIRMADA) {
+                shards.confirmarDebito(shardOrigem, xid, transacao.origemId(), transacao.valor());
+                shards.confirmarCredito(shardDestino, xid, transacao.destinoId(), transacao.valor());
+            } else {
+                shards.abortarDebito(shardOrigem, xid, transacao.origemId(), transacao.valor(), agora);
+                shards.abortarCredito(shardDestino, xid, transacao.destinoId(), transacao.valor(), agora);
+            }
+            coordenador.mudarEstado(xid, decisao, Estado.CONCLUIDA, relogio.instant());
+        } catch (RuntimeException e) {
+            log.warn("Transação distribuída {} {} e não concluída; fica para a recuperação", xid, decisao, e);
+        }
+    }
+
+    /**
+     * Conclui as transações distribuídas interrompidas há mais de recuperacao-idade-ms
+     * e remove do log e dos shards os registros finalizados há mais de retencao-horas.
+     */
+    @Scheduled(initialDelayString = "${beneficio.shards.recuperacao-ms:5000}",
+               fixedDelayString = "${beneficio.shards.recuperacao-ms:5000}")
+    public int recuperar() {
+        Instant agora = relogio.instant();
+        int recuperadas = 0;
+        for (TransacaoDistribuida transacao : coordenador.buscarPendentes(agora.minus(idadeRecuperacao), LOTE_RECUPERACAO)) {
+            Estado decisao = transacao.estado();
+            if (decisao == Estado.INICIADA) {
+                // Aborto presumido; se o coordenador decidiu neste meio tempo, fica para a próxima
+                if (!coordenador.mudarEstado(transacao.xid(), Estado.INICIADA, Estado.ABORTADA, relogio.instant())) {
+                    continue;
+                }
+                decisao = Estado.ABORTADA;
+            }
+            aplicarDecisao(transacao, decisao);
+            recuperadas++;
+        }
+
+        Instant limiteRetencao = agora.minus(retencao);
+        coordenador.removerConcluidas(limiteRetencao);
+        for (int shard = 0; shard < shards.getQuantidade(); shard++) {
+            shards.removerFinalizadas(shard, limiteRetencao);
+        }
+        if (recuperadas > 0) {
+            log.info("Transações distribuídas recuperadas: {}", recuperadas);
+        }
+        return recuperadas;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        consultas.shutdownNow();
+    }
+
+    private RuntimeException falhaNaOrigem(int shard, Long fromId, BigDecimal amount) {
+        Optional<Beneficio> origem = shards.buscar(shard, fromId);
+        if (origem.isEmpty()) {
+            return DadosInvalidosException.origemNaoEncontrada(fromId);
+        }
+        if (!Boolean.TRUE.equals(origem.get().getAtivo())) {
+            return OperacaoRecusadaException.ORIGEM_INATIVA;
+        }
+        BigDecimal disponivel = origem.get().getValorDisponivel();
+        if (disponivel.compareTo(amount) < 0) {
+            return new SaldoInsuficienteException(disponivel, amount);
+        }
+        // Saldo suficiente agora: a preparação encontrou a transação já abortada
+        return new ConflitoConcorrenciaException("Conflito de concorrência no benefício " + fromId
+                + ". Tente novamente.", null);
+    }
+
+    private RuntimeException falhaNoDestino(int shard, Long toId) {
+        return shards.buscar(shard, toId).isEmpty()
+                ? DadosInvalidosException.destinoNaoEncontrado(toId)
+                : OperacaoRecusadaException.DESTINO_INATIVO;
+    }
+
+    private <T> List<T> emCadaShard(IntFunction<T> leitura) {
+        List<CompletableFuture<T>> leituras = new ArrayList<>(shards.getQuantidade());
+        for (int shard = 0; shard < shards.getQuantidade(); shard++) {
+            int indice = shard;
+            leituras.add(CompletableFuture.supplyAsync(() -> leitura.apply(indice), consultas));
+        }
+        List<T> resultados = new ArrayList<>(leituras.size());
+        for (CompletableFuture<T> resultado : leituras) {
+            resultados.add(resultado.join());
+        }
+        return resultados;
+    }
+}
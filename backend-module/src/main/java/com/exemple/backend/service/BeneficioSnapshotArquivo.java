@@ -0,0 +1,306 @@
+package com.exemple.backend.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binário colunar do snapshot da tabela BENEFICIO.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   cabeçalho (256 bytes): magic, versão, quantidade de linhas, tabela de seções
+ *                          (offset, tamanho, CRC32C) e CRC32C do próprio cabeçalho
+ *   IDS         long[n]
+ *   VALORES     long[n]  valor sem escala (escala fixa 2, como DECIMAL(15,2))
+ *   VERSOES     long[n]
+ *   FLAGS       byte[n]  bit 0 = ativo, bit 1 = ativo nulo
+ *   NOMES       int[n]   índice no dicionário
+ *   DESCRICOES  int[n]   índice no dicionário, -1 para nulo
+ *   DICIONARIO  int quantidade, seguido de (int tamanho, bytes UTF-8) por entrada
+ * </pre>
+ * As colunas de tamanho fixo são gravadas e lidas por arquivos mapeados em memória,
+ * uma região por coluna. A leitura valida o cabeçalho e o checksum de todas as
+ * seções antes de expor qualquer linha.
+ *
+ * Cada região é um único MappedByteBuffer, indexado por int: um arquivo comporta no
+ * máximo MAXIMO_LINHAS linhas, para que a maior coluna (8 bytes por linha) caiba em
+ * uma região. Escritor e Leitor recusam quantidades acima disso.
+ */
+public final class BeneficioSnapshotArquivo {
+
+    static final long MAGIC = 0x424E46534E415031L; // "BNFSNAP1"
+    static final int VERSAO_FORMATO = 1;
+    static final int TAMANHO_CABECALHO = 256;
+    static final int ESCALA_VALOR = 2;
+    static final long MAXIMO_LINHAS = Integer.MAX_VALUE / 8;
+
+    private static final String[] SECOES = {"IDS", "VALORES", "VERSOES", "FLAGS", "NOMES", "DESCRICOES", "DICIONARIO"};
+    private static final int IDS = 0;
+    private static final int VALORES = 1;
+    private static final int VERSOES = 2;
+    private static final int FLAGS = 3;
+    private static final int NOMES = 4;
+    private static final int DESCRICOES = 5;
+    private static final int DICIONARIO = 6;
+
+    private static final byte ATIVO = 1;
+    private static final byte ATIVO_NULO = 2;
+
+    private BeneficioSnapshotArquivo() {
+    }
+
+    private static long[] tamanhosColunas(long quantidade) {
+        return new long[] {8 * quantidade, 8 * quantidade, 8 * quantidade, quantidade, 4 * quantidade, 4 * quantidade};
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().rewind());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Grava um snapshot com quantidade de linhas conhecida de antemão
+     */
+    public static class Escritor implements Closeable {
+
+        private final FileChannel channel;
+        private final long quantidade;
+        private final long[] offsets = new long[SECOES.length];
+        private final long[] tamanhos = new long[SECOES.length];
+        private final MappedByteBuffer[] colunas = new MappedByteBuffer[DICIONARIO];
+        private final Map<String, Integer> dicionario = new LinkedHashMap<>();
+        private long escritas;
+        private boolean fechado;
+
+        public Escritor(Path arquivo, long quantidade) throws IOException {
+            if (quantidade < 0 || quantidade > MAXIMO_LINHAS) {
+                throw new IllegalArgumentException("Snapshot limitado a " + MAXIMO_LINHAS
+                        + " linhas por arquivo: " + quantidade);
+            }
+            this.quantidade = quantidade;
+            this.channel = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                long[] tamanhosFixos = tamanhosColunas(quantidade);
+                long offset = TAMANHO_CABECALHO;
+                for (int secao = 0; secao < DICIONARIO; secao++) {
+                    offsets[secao] = offset;
+                    tamanhos[secao] = tamanhosFixos[secao];
+                    colunas[secao] = channel.map(FileChannel.MapMode.READ_WRITE, offset, tamanhosFixos[secao]);
+                    offset += tamanhosFixos[secao];
+                }
+                offsets[DICIONARIO] = offset;
+            } catch (RuntimeException | IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public void adicionar(long id, String nome, String descricao, BigDecimal valor, Boolean ativo, long versao) {
+            if (escritas == quantidade) {
+                throw new IllegalStateException("Snapshot já recebeu as " + quantidade + " linhas previstas");
+            }
+            colunas[IDS].putLong(id);
+            colunas[VALORES].putLong(valor.setScale(ESCALA_VALOR, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+            colunas[VERSOES].putLong(versao);
+            colunas[FLAGS].put(ativo == null ? ATIVO_NULO : Boolean.TRUE.equals(ativo) ? ATIVO : 0);
+            colunas[NOMES].putInt(indice(nome));
+            colunas[DESCRICOES].putInt(indice(descricao));
+            escritas++;
+        }
+
+        private int indice(String texto) {
+            return texto == null ? -1 : dicionario.computeIfAbsent(texto, t -> dicionario.size());
+        }
+
+        /**
+         * Grava dicionário, checksums e cabeçalho. Falha se o número de linhas
+         * recebidas diferir do informado na criação.
+         */
+        @Override
+        public void close() throws IOException {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            try {
+                if (escritas != quantidade) {
+                    throw new IllegalStateException("Snapshot incompleto: " + escritas + " de " + quantidade + " linhas");
+                }
+
+                List<byte[]> entradas = new ArrayList<>(dicionario.size());
+                long tamanhoDicionario = 4;
+                for (String texto : dicionario.keySet()) {
+                    byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                    entradas.add(bytes);
+                    tamanhoDicionario += 4 + bytes.length;
+                }
+                tamanhos[DICIONARIO] = tamanhoDicionario;
+                MappedByteBuffer secaoDicionario = channel.map(FileChannel.MapMode.READ_WRITE,
+                        offsets[DICIONARIO], tamanhoDicionario);
+                secaoDicionario.putInt(entradas.size());
+                for (byte[] bytes : entradas) {
+                    secaoDicionario.putInt(bytes.length);
+                    secaoDicionario.put(bytes);
+                }
+
+                MappedByteBuffer cabecalho = channel.map(FileChannel.MapMode.READ_WRITE, 0, TAMANHO_CABECALHO);
+                cabecalho.putLong(MAGIC);
+                cabecalho.putInt(VERSAO_FORMATO);
+                cabecalho.putLong(quantidade);
+                cabecalho.putInt(SECOES.length);
+                for (int secao = 0; secao < SECOES.length; secao++) {
+                    ByteBuffer conteudo = secao == DICIONARIO ? secaoDicionario : colunas[secao];
+                    cabecalho.putLong(offsets[secao]);
+                    cabecalho.putLong(tamanhos[secao]);
+                    cabecalho.putInt(crc(conteudo));
+                }
+                cabecalho.putInt(crc(cabecalho.duplicate().flip()));
+
+                for (MappedByteBuffer coluna : colunas) {
+                    coluna.force();
+                }
+                secaoDicionario.force();
+                cabecalho.force();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Lê um snapshot validando cabeçalho e checksums de todas as seções
+     */
+    public static class Leitor implements Closeable {
+
+        private final FileChannel channel;
+        private final long quantidade;
+        private final MappedByteBuffer[] colunas = new MappedByteBuffer[DICIONARIO];
+        private final String[] dicionario;
+        private final long tamanhoArquivo;
+
+        public Leitor(Path arquivo) throws IOException {
+            this.channel = FileChannel.open(arquivo, StandardOpenOption.READ);
+            try {
+                tamanhoArquivo = channel.size();
+                if (tamanhoArquivo < TAMANHO_CABECALHO) {
+                    throw new IllegalStateException("Arquivo de snapshot truncado");
+                }
+                MappedByteBuffer cabecalho = channel.map(FileChannel.MapMode.READ_ONLY, 0, TAMANHO_CABECALHO);
+                if (cabecalho.getLong() != MAGIC) {
+                    throw new IllegalStateException("Arquivo não é um snapshot de benefícios");
+                }
+                int versao = cabecalho.getInt();
+                if (versao != VERSAO_FORMATO) {
+                    throw new IllegalStateException("Versão de snapshot não suportada: " + versao);
+                }
+                quantidade = cabecalho.getLong();
+                if (cabecalho.getInt() != SECOES.length) {
+                    throw new IllegalStateException("Tabela de seções inválida");
+                }
+                long[] offsets = new long[SECOES.length];
+                long[] tamanhos = new long[SECOES.length];
+                int[] crcs = new int[SECOES.length];
+                for (int secao = 0; secao < SECOES.length; secao++) {
+                    offsets[secao] = cabecalho.getLong();
+                    tamanhos[secao] = cabecalho.getLong();
+                    crcs[secao] = cabecalho.getInt();
+                }
+                int fimCabecalho = cabecalho.position();
+                int crcCabecalho = cabecalho.getInt();
+                if (crc(cabecalho.duplicate().position(0).limit(fimCabecalho).slice()) != crcCabecalho) {
+                    throw new IllegalStateException("Checksum inválido no cabeçalho do snapshot");
+                }
+
+                if (quantidade < 0 || quantidade > MAXIMO_LINHAS) {
+                    throw new IllegalStateException("Snapshot com " + quantidade + " linhas excede o limite de "
+                            + MAXIMO_LINHAS + " por arquivo");
+                }
+
+                long[] esperados = tamanhosColunas(quantidade);
+                MappedByteBuffer secaoDicionario = null;
+                for (int secao = 0; secao < SECOES.length; secao++) {
+                    if ((secao < DICIONARIO && tamanhos[secao] != esperados[secao])
+                            || offsets[secao] < TAMANHO_CABECALHO || offsets[secao] + tamanhos[secao] > tamanhoArquivo) {
+                        throw new IllegalStateException("Seção " + SECOES[secao] + " fora dos limites do arquivo");
+                    }
+                    MappedByteBuffer conteudo = channel.map(FileChannel.MapMode.READ_ONLY, offsets[secao], tamanhos[secao]);
+                    if (crc(conteudo) != crcs[secao]) {
+                        throw new IllegalStateException("Checksum inválido na seção " + SECOES[secao]);
+                    }
+                    if (secao == DICIONARIO) {
+                        secaoDicionario = conteudo;
+                    } else {
+                        colunas[secao] = conteudo;
+                    }
+                }
+
+                dicionario = new String[secaoDicionario.getInt()];
+                for (int i = 0; i < dicionario.length; i++) {
+                    byte[] bytes = new byte[secaoDicionario.getInt()];
+                    secaoDicionario.get(bytes);
+                    dicionario[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            } catch (RuntimeException | IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public long getQuantidade() {
+            return quantidade;
+        }
+
+        public long getTamanhoArquivo() {
+            return tamanhoArquivo;
+        }
+
+        public long id(int linha) {
+            return colunas[IDS].getLong(linha * 8);
+        }
+
+        public BigDecimal valor(int linha) {
+            return BigDecimal.valueOf(colunas[VALORES].getLong(linha * 8), ESCALA_VALOR);
+        }
+
+        public long versao(int linha) {
+            return colunas[VERSOES].getLong(linha * 8);
+        }
+
+        public Boolean ativo(int linha) {
+            byte flags = colunas[FLAGS].get(linha);
+            return (flags & ATIVO_NULO) != 0 ? null : (flags & ATIVO) != 0;
+        }
+
+        public String nome(int linha) {
+            return texto(colunas[NOMES].getInt(linha * 4));
+        }
+
+        public String descricao(int linha) {
+            return texto(colunas[DESCRICOES].getInt(linha * 4));
+        }
+
+        private String texto(int indice) {
+            return indice < 0 ? null : dicionario[indice];
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
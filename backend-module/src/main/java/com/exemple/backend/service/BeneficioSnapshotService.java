@@ -0,0 +1,244 @@
+package com.exemple.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+import com.exemple.backend.exception.SnapshotConflitanteException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Exportação e importação da tabela BENEFICIO no formato binário colunar de
+ * BeneficioSnapshotArquivo, para restauração rápida e clonagem de ambientes.
+ *
+ * A exportação lê a tabela com cursor (fetch size) dentro de uma transação
+ * REPEATABLE_READ, de modo que contagem e linhas formam um retrato consistente.
+ * A importação valida os checksums antes de tocar no banco e insere por JDBC batch
+ * preservando ids e versões. Como não passa pelo BeneficioService, publica
+ * BeneficiosRecarregadosEvent ao final para que índices e agregados recarreguem.
+ */
+@Service
+public class BeneficioSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioSnapshotService.class);
+
+    private static final Pattern NOME_ARQUIVO = Pattern.compile("[A-Za-z0-9._-]+");
+
+    // Créditos diferidos ainda não consolidados são incorporados ao VALOR exportado
+    private static final String SQL_EXPORTACAO = "SELECT b.ID, b.NOME, b.DESCRICAO, "
+            + "b.VALOR + COALESCE((SELECT SUM(c.VALOR) FROM CREDITO_PENDENTE c WHERE c.BENEFICIO_ID = b.ID), 0), "
+            + "b.ATIVO, b.VERSION FROM BENEFICIO b ORDER BY b.ID";
+
+    private static final String SQL_INSERT = "INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION) "
+            + "OVERRIDING SYSTEM VALUE VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${beneficio.snapshot.diretorio:snapshots}")
+    private String diretorio;
+
+    @Value("${beneficio.snapshot.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    /**
+     * Exporta a tabela para o arquivo informado (nome simples, dentro do diretório de snapshots)
+     */
+    public Map<String, Object> exportar(String nomeArquivo) {
+        Path destino = resolver(nomeArquivo);
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(tamanhoLote);
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        transacao.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        long inicio = System.nanoTime();
+        long quantidade;
+        try {
+            quantidade = exportarPara(temporario, nomeArquivo, jdbcTemplate, transacao);
+        } catch (RuntimeException e) {
+            apagar(temporario);
+            throw e;
+        }
+
+        try {
+            // Só substitui um snapshot existente depois que o novo foi gravado por completo
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Map<String, Object> relatorio = relatorio("exportacao", nomeArquivo, quantidade, Files.size(destino), inicio);
+            log.info("Snapshot exportado: {}", relatorio);
+            return relatorio;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar snapshot " + nomeArquivo, e);
+        }
+    }
+
+    private long exportarPara(Path temporario, String nomeArquivo, JdbcTemplate jdbcTemplate, TransactionTemplate transacao) {
+        return transacao.execute(status -> {
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO", Long.class);
+            try (BeneficioSnapshotArquivo.Escritor escritor = new BeneficioSnapshotArquivo.Escritor(temporario, total)) {
+                jdbcTemplate.query(SQL_EXPORTACAO,
+                        rs -> {
+                            long versao = rs.getLong(6);
+                            Boolean ativo = rs.getBoolean(5);
+                            if (rs.wasNull()) {
+                                ativo = null;
+                            }
+                            escritor.adicionar(rs.getLong(1), rs.getString(2), rs.getString(3),
+                                    rs.getBigDecimal(4), ativo, versao);
+                        });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao gravar snapshot " + nomeArquivo, e);
+            }
+            return total;
+        });
+    }
+
+    private static void apagar(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Importa um snapshot. A tabela precisa estar vazia, a menos que substituir = true,
+     * caso em que todo o conteúdo atual é apagado na mesma transação da carga.
+     */
+    public Map<String, Object> importar(String nomeArquivo, boolean substituir) {
+        Path origem = resolver(nomeArquivo);
+        if (!Files.isRegularFile(origem)) {
+            throw new IllegalArgumentException("Snapshot não encontrado: " + nomeArquivo);
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        long inicio = System.nanoTime();
+        try (BeneficioSnapshotArquivo.Leitor leitor = new BeneficioSnapshotArquivo.Leitor(origem)) {
+            // O Leitor limita a quantidade a MAXIMO_LINHAS, então os índices cabem em int
+            long quantidade = leitor.getQuantidade();
+
+            transacao.executeWithoutResult(status -> {
+                Long existentes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BENEFICIO", Long.class);
+                if (existentes > 0) {
+                    if (!substituir) {
+                        throw new SnapshotConflitanteException("Tabela BENEFICIO não está vazia (" + existentes
+                                + " registros); use substituir=true para sobrescrever");
+                    }
+                    // Créditos pendentes pertencem aos benefícios substituídos
+                    jdbcTemplate.update("DELETE FROM CREDITO_PENDENTE");
+                    jdbcTemplate.update("DELETE FROM BENEFICIO");
+                }
+                // O snapshot leva só VALOR; reservas pendentes ficariam sem o valor reservado
+                Long pendentes = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM RESERVA_SALDO WHERE STATUS = 'PENDENTE'", Long.class);
+                if (pendentes > 0) {
+                    throw new SnapshotConflitanteException("Tabela RESERVA_SALDO possui " + pendentes
+                            + " reservas pendentes; capture ou libere antes de importar");
+                }
+
+                long maiorId = 0;
+                for (int linha = 0; linha < quantidade; linha += tamanhoLote) {
+                    int fim = (int) Math.min(quantidade, (long) linha + tamanhoLote);
+                    inserirLote(jdbcTemplate, leitor, linha, fim);
+                    maiorId = Math.max(maiorId, leitor.id(fim - 1));
+                }
+
+                // Inserções com id explícito não avançam a identidade (DDL: o H2 confirma a
+                // transação neste ponto, por isso é a última instrução da carga)
+                jdbcTemplate.execute("ALTER TABLE BENEFICIO ALTER COLUMN ID RESTART WITH " + (maiorId + 1));
+            });
+
+            Map<String, Object> relatorio = relatorio("importacao", nomeArquivo, quantidade, leitor.getTamanhoArquivo(), inicio);
+            log.info("Snapshot importado: {}", relatorio);
+
+            entityManagerFactory.getCache().evictAll();
+            eventPublisher.publishEvent(new BeneficiosRecarregadosEvent(quantidade));
+            return relatorio;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler snapshot " + nomeArquivo, e);
+        }
+    }
+
+    private void inserirLote(JdbcTemplate jdbcTemplate, BeneficioSnapshotArquivo.Leitor leitor, int inicio, int fim) {
+        jdbcTemplate.execute(SQL_INSERT, (PreparedStatement ps) -> {
+            for (int linha = inicio; linha < fim; linha++) {
+                definirParametros(ps, leitor, linha);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        });
+    }
+
+    private static void definirParametros(PreparedStatement ps, BeneficioSnapshotArquivo.Leitor leitor, int linha)
+            throws SQLException {
+        ps.setLong(1, leitor.id(linha));
+        ps.setString(2, leitor.nome(linha));
+        ps.setString(3, leitor.descricao(linha));
+        ps.setBigDecimal(4, leitor.valor(linha));
+        Boolean ativo = leitor.ativo(linha);
+        if (ativo == null) {
+            ps.setNull(5, java.sql.Types.BOOLEAN);
+        } else {
+            ps.setBoolean(5, ativo);
+        }
+        ps.setLong(6, leitor.versao(linha));
+    }
+
+    private Path resolver(String nomeArquivo) {
+        if (nomeArquivo == null || !NOME_ARQUIVO.matcher(nomeArquivo).matches() || nomeArquivo.startsWith(".")) {
+            throw new IllegalArgumentException("Nome de arquivo de snapshot inválido: " + nomeArquivo);
+        }
+        try {
+            Path base = Files.createDirectories(Paths.get(diretorio));
+            return base.resolve(nomeArquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Diretório de snapshots indisponível: " + diretorio, e);
+        }
+    }
+
+    private static Map<String, Object> relatorio(String operacao, String arquivo, long linhas, long bytes, long inicioNanos) {
+        long duracaoNanos = Math.max(System.nanoTime() - inicioNanos, 1);
+        double segundos = duracaoNanos / 1e9;
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("operacao", operacao);
+        relatorio.put("arquivo", arquivo);
+        relatorio.put("linhas", linhas);
+        relatorio.put("bytes", bytes);
+        relatorio.put("duracaoMs", duracaoNanos / 1_000_000);
+        relatorio.put("linhasPorSegundo", Math.round(linhas / segundos));
+        relatorio.put("mbPorSegundo", Math.round(bytes / segundos / (1024 * 1024) * 10) / 10.0);
+        return relatorio;
+    }
+}
@@ -0,0 +1,197 @@
+package com.exemple.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosInvalidadosEvent;
+import com.exemple.backend.event.BeneficiosRecarregadosEvent;
+import com.exemple.backend.dto.SaldoLoteView;
+import com.exemple.backend.repository.BeneficioRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória dos benefícios ordenado por (valor, id).
+ *
+ * Atende as consultas por faixa de valor sem varrer a tabela BENEFICIO.
+ * As duas pontas de uma transferência são atualizadas sob o mesmo write lock
+ * após o commit, então uma leitura nunca enxerga o valor já debitado da origem
+ * sem o crédito correspondente no destino. Cada entrada guarda a versão (@Version)
+ * e atualizações mais antigas que a já indexada são descartadas.
+ */
+@Component
+public class BeneficioValorIndex {
+
+    private static final Comparator<Entrada> POR_VALOR_E_ID =
+            Comparator.comparing((Entrada e) -> e.valor).thenComparing(e -> e.id);
+
+    @Autowired
+    private BeneficioRepository beneficioRepository;
+
+    private final NavigableSet<Entrada> ordenado = new ConcurrentSkipListSet<>(POR_VALOR_E_ID);
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        try (Stream<Object[]> linhas = beneficioRepository.streamIdValorAtivoEVersao()) {
+            linhas.forEach(linha -> {
+                lock.writeLock().lock();
+                try {
+                    atualizar((Long) linha[0], (BigDecimal) linha[1], (Boolean) linha[2], (Long) linha[3]);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (BeneficioAlteradoEvent.Alteracao alteracao : event.getAlteracoes()) {
+                atualizar(alteracao.getBeneficioId(), alteracao.getValorAtual(),
+                        alteracao.getAtivoAtual(), alteracao.getVersao());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Benefícios alterados por outra instância: relê valor, status e versão do banco
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void aoInvalidarBeneficios(BeneficiosInvalidadosEvent event) {
+        List<SaldoLoteView> atuais = beneficioRepository.findSaldosVersaoByIdIn(event.getIds());
+        lock.writeLock().lock();
+        try {
+            for (SaldoLoteView atual : atuais) {
+                atualizar(atual.getId(), atual.getValor(), atual.getAtivo(), atual.getVersao());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Após uma carga em massa o índice é descartado e montado de novo; durante a
+     * recarga as consultas podem devolver resultados parciais
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void aoRecarregarBeneficios(BeneficiosRecarregadosEvent event) {
+        lock.writeLock().lock();
+        try {
+            ordenado.clear();
+            porId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        carregar();
+    }
+
+    // Deve ser chamado com o write lock
+    private void atualizar(Long id, BigDecimal valor, Boolean ativo, Long versao) {
+        long novaVersao = versao == null ? 0L : versao;
+        Entrada atual = porId.get(id);
+        if (atual != null) {
+            if (atual.versao > novaVersao) {
+                return;
+            }
+            ordenado.remove(atual);
+        }
+        Entrada nova = new Entrada(id, valor, Boolean.TRUE.equals(ativo), novaVersao);
+        ordenado.add(nova);
+        porId.put(id, nova);
+    }
+
+    /**
+     * Ids dos benefícios com valor entre min e max (inclusive), em ordem de valor
+     */
+    public List<Long> buscarFaixa(BigDecimal min, BigDecimal max, boolean somenteAtivos, int pagina, int tamanho) {
+        if (min.compareTo(max) > 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return paginar(ordenado.subSet(new Entrada(Long.MIN_VALUE, min, true, 0), true,
+                    new Entrada(Long.MAX_VALUE, max, true, 0), true), somenteAtivos, pagina, tamanho);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids dos benefícios com valor estritamente maior que o informado, em ordem de valor
+     */
+    public List<Long> buscarAcimaDe(BigDecimal valor, boolean somenteAtivos, int pagina, int tamanho) {
+        lock.readLock().lock();
+        try {
+            return paginar(ordenado.tailSet(new Entrada(Long.MAX_VALUE, valor, true, 0), false),
+                    somenteAtivos, pagina, tamanho);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Valor indexado do benefício, se a versão indexada for exatamente a informada.
+     * Vazio quando o índice ainda não recebeu (ou já passou) essa versão.
+     */
+    public Optional<BigDecimal> valorNaVersao(Long id, long versao) {
+        Entrada entrada = porId.get(id);
+        return entrada != null && entrada.versao == versao ? Optional.of(entrada.valor) : Optional.empty();
+    }
+
+    private static List<Long> paginar(NavigableSet<Entrada> faixa, boolean somenteAtivos, int pagina, int tamanho) {
+        long pular = (long) pagina * tamanho;
+        List<Long> ids = new ArrayList<>(Math.min(tamanho, 256));
+        for (Entrada entrada : faixa) {
+            if (somenteAtivos && !entrada.ativo) {
+                continue;
+            }
+            if (pular > 0) {
+                pular--;
+                continue;
+            }
+            ids.add(entrada.id);
+            if (ids.size() == tamanho) {
+                break;
+            }
+        }
+        return ids;
+    }
+
+    private static class Entrada {
+        private final Long id;
+        private final BigDecimal valor;
+        private final boolean ativo;
+        private final long versao;
+
+        Entrada(Long id, BigDecimal valor, boolean ativo, long versao) {
+            this.id = id;
+            this.valor = valor;
+            this.ativo = ativo;
+            this.versao = versao;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.exemple.backend.service;
+
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import com.exemple.backend.entity.Beneficio;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Perfil de contenção por conta nas transferências: tempo de espera por lock de linha
+ * e conflitos de versão (lock otimista), em janelas deslizantes de minutos.
+ *
+ * Cada minuto tem um balde com dois resumos Space-Saving de capacidade fixa, um por
+ * métrica. Uma conta presente no resumo acumula o seu peso; com o resumo cheio, a conta
+ * nova toma o lugar da de menor valor e herda esse valor como erro. O valor informado é
+ * portanto uma estimativa por excesso, com o erro máximo ao lado, e nenhuma conta com
+ * mais de total/capacidade do peso do minuto fica de fora. A memória é capacidade vezes
+ * a quantidade de baldes, qualquer que seja o número de contas.
+ *
+ * Só esperas a partir de limiar-espera-ms entram no perfil: a aquisição sem disputa custa
+ * microssegundos e só diluiria o ranking. As consultas juntam os resumos dos baldes da
+ * janela pedida; os registros disputam apenas o monitor do resumo do minuto corrente.
+ */
+@Component
+public class ContencaoContas {
+
+    private static final long MINUTO_MS = 60_000L;
+
+    public enum Metrica {
+        // Peso em microssegundos de espera
+        ESPERA,
+        // Peso 1 por conflito
+        CONFLITO
+    }
+
+    private final Clock relogio;
+    private final boolean habilitada;
+    private final long limiarEsperaNanos;
+    private final int capacidade;
+    private final int[] janelas;
+    private final AtomicReferenceArray<Balde> baldes;
+
+    @Autowired
+    public ContencaoContas(
+            @Value("${beneficio.contencao.habilitada:true}") boolean habilitada,
+            @Value("${beneficio.contencao.limiar-espera-ms:1}") long limiarEsperaMs,
+            @Value("${beneficio.contencao.capacidade:128}") int capacidade,
+            @Value("${beneficio.contencao.janelas-minutos:1,5,15,60}") int[] janelas) {
+        this(Clock.systemUTC(), habilitada, limiarEsperaMs, capacidade, janelas);
+    }
+
+    ContencaoContas(Clock relogio, boolean habilitada, long limiarEsperaMs, int capacidade, int[] janelas) {
+        if (capacidade <= 0 || janelas.length == 0 || Arrays.stream(janelas).anyMatch(j -> j <= 0)) {
+            throw new IllegalArgumentException("Capacidade e janelas do perfil de contenção devem ser positivas");
+        }
+        this.relogio = relogio;
+        this.habilitada = habilitada;
+        this.limiarEsperaNanos = limiarEsperaMs * 1_000_000;
+        this.capacidade = capacidade;
+        this.janelas = janelas.clone();
+        Arrays.sort(this.janelas);
+        this.baldes = new AtomicReferenceArray<>(this.janelas[this.janelas.length - 1]);
+    }
+
+    /**
+     * Tempo gasto para obter o lock de linha da conta (SELECT ... FOR UPDATE ou UPDATE
+     * condicional), medido por quem chama
+     */
+    public void registrarEspera(Long beneficioId, long nanos) {
+        if (!habilitada || beneficioId == null || nanos < limiarEsperaNanos) {
+            return;
+        }
+        balde(relogio.millis()).espera.somar(beneficioId, nanos / 1_000);
+    }
+
+    /**
+     * Conflito de versão em uma transferência. A conta vem da exceção quando ela a
+     * identifica; senão o conflito é atribuído às duas contas da transferência
+     */
+    public void registrarConflito(Throwable erro, Long fromId, Long toId) {
+        if (!habilitada) {
+            return;
+        }
+        Object id = null;
+        if (erro instanceof ObjectOptimisticLockingFailureException falha) {
+            id = falha.getIdentifier();
+        } else if (erro instanceof OptimisticLockException falha && falha.getEntity() instanceof Beneficio beneficio) {
+            id = beneficio.getId();
+        }
+
+        Resumo conflitos = balde(relogio.millis()).conflitos;
+        if (id instanceof Long beneficioId) {
+            conflitos.somar(beneficioId, 1);
+        } else {
+            if (fromId != null) {
+                conflitos.somar(fromId, 1);
+            }
+            if (toId != null) {
+                conflitos.somar(toId, 1);
+            }
+        }
+    }
+
+    /**
+     * As limite contas de maior peso nos últimos janelaMinutos minutos (incluindo o
+     * corrente), da maior para a menor estimativa
+     */
+    public List<Estimativa> maisQuentes(Metrica metrica, int janelaMinutos, int limite) {
+        long epocaAtual = relogio.millis() / MINUTO_MS;
+        int janela = Math.max(1, Math.min(janelaMinutos, baldes.length()));
+
+        Map<Long, Acumulado> porConta = new HashMap<>();
+        long minimos = 0;
+        for (int i = 0; i < baldes.length(); i++) {
+            Balde balde = baldes.get(i);
+            if (balde == null || balde.epoca <= epocaAtual - janela || balde.epoca > epocaAtual) {
+                continue;
+            }
+            Resumo resumo = metrica == Metrica.ESPERA ? balde.espera : balde.conflitos;
+            minimos += resumo.acumular(porConta);
+        }
+
+        // Conta ausente de um resumo cheio pode ter tido até o mínimo dele naquele minuto
+        List<Estimativa> estimativas = new ArrayList<>(porConta.size());
+        for (Map.Entry<Long, Acumulado> entrada : porConta.entrySet()) {
+            Acumulado acumulado = entrada.getValue();
+            long ausente = minimos - acumulado.minimosPresente;
+            estimativas.add(new Estimativa(entrada.getKey(), acumulado.valor + ausente,
+                    acumulado.erro + ausente, acumulado.eventos));
+        }
+        estimativas.sort(Comparator.comparingLong(Estimativa::valor).reversed()
+                .thenComparingLong(Estimativa::beneficioId));
+        return estimativas.size() > limite ? estimativas.subList(0, limite) : estimativas;
+    }
+
+    public void limpar() {
+        for (int i = 0; i < baldes.length(); i++) {
+            baldes.set(i, null);
+        }
+    }
+
+    public int[] getJanelas() {
+        return janelas.clone();
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public long getLimiarEsperaMs() {
+        return limiarEsperaNanos / 1_000_000;
+    }
+
+    // Mesmo anel de LimiteTransferencias: o índice é a época (minuto) módulo o tamanho
+    private Balde balde(long agora) {
+        long epoca = agora / MINUTO_MS;
+        int indice = (int) Math.floorMod(epoca, (long) baldes.length());
+        while (true) {
+            Balde atual = baldes.get(indice);
+            if (atual != null && atual.epoca >= epoca) {
+                return atual;
+            }
+            Balde novo = new Balde(epoca, capacidade);
+            if (baldes.compareAndSet(indice, atual, novo)) {
+                return novo;
+            }
+        }
+    }
+
+    /**
+     * valor: estimativa por excesso do peso (microssegundos de espera ou conflitos);
+     * erro: quanto dela pode ser de outras contas; eventos: registros efetivamente
+     * atribuídos à conta (por falta)
+     */
+    public record Estimativa(long beneficioId, long valor, long erro, long eventos) {
+    }
+
+    private static final class Balde {
+
+        final long epoca;
+        final Resumo espera;
+        final Resumo conflitos;
+
+        Balde(long epoca, int capacidade) {
+            this.epoca = epoca;
+            this.espera = new Resumo(capacidade);
+            this.conflitos = new Resumo(capacidade);
+        }
+    }
+
+    /**
+     * Resumo Space-Saving ponderado de um minuto
+     */
+    private static final class Resumo {
+
+        private final int capacidade;
+        private final Map<Long, Contador> contadores;
+
+        Resumo(int capacidade) {
+            this.capacidade = capacidade;
+            this.contadores = new HashMap<>();
+        }
+
+        synchronized void somar(long id, long peso) {
+            Contador contador = contadores.get(id);
+            if (contador == null) {
+                contador = new Contador();
+                if (contadores.size() >= capacidade) {
+                    // Varredura linear: só acontece para conta nova com o resumo cheio
+                    Map.Entry<Long, Contador> menor = null;
+                    for (Map.Entry<Long, Contador> entrada : contadores.entrySet()) {
+                        if (menor == null || entrada.getValue().valor < menor.getValue().valor) {
+                            menor = entrada;
+                        }
+                    }
+                    contadores.remove(menor.getKey());
+                    contador.valor = menor.getValue().valor;
+                    contador.erro = menor.getValue().valor;
+                }
+                contadores.put(id, contador);
+            }
+            contador.valor += peso;
+            contador.eventos++;
+        }
+
+        /**
+         * Soma os contadores em destino e retorna o mínimo do resumo (0 se não estiver cheio)
+         */
+        synchronized long acumular(Map<Long, Acumulado> destino) {
+            long minimo = 0;
+            if (contadores.size() >= capacidade) {
+                minimo = Long.MAX_VALUE;
+                for (Contador contador : contadores.values()) {
+                    minimo = Math.min(minimo, contador.valor);
+                }
+            }
+            for (Map.Entry<Long, Contador> entrada : contadores.entrySet()) {
+                Acumulado acumulado = destino.computeIfAbsent(entrada.getKey(), id -> new Acumulado());
+                Contador contador = entrada.getValue();
+                acumulado.valor += contador.valor;
+                acumulado.erro += contador.erro;
+                acumulado.eventos += contador.eventos;
+                acumulado.minimosPresente += minimo;
+            }
+            return minimo;
+        }
+    }
+
+    private static final class Contador {
+        long valor;
+        long erro;
+        long eventos;
+    }
+
+    private static final class Acumulado {
+        long valor;
+        long erro;
+        long eventos;
+        long minimosPresente;
+    }
+}
@@ -0,0 +1,191 @@
+package com.exemple.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import com.exemple.backend.entity.EventoTransferencia;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Grava os eventos de transferência em arquivos JSON Lines rotativos
+ * (beneficio.outbox.destino=arquivo, opcional).
+ *
+ * Arquivos transferencias-NNNNNN.jsonl no diretório configurado, um evento por linha,
+ * trocados quando passam de tamanho-maximo-mb. Cada lote é gravado com force antes de
+ * retornar ao relay; em seguida o arquivo checkpoint registra o arquivo atual e os ids
+ * do último lote. Se o relay cair antes de remover esse lote da outbox, a reentrega
+ * é reconhecida pelo checkpoint e não é gravada de novo; se cair antes do checkpoint,
+ * o lote aparece duas vezes nos arquivos (entrega pelo menos uma vez).
+ * Além de maximo-arquivos os mais antigos são apagados; 0 mantém todos.
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.outbox.destino", havingValue = "arquivo")
+public class DestinoArquivoRotativo implements DestinoEventosTransferencia {
+
+    static final String PREFIXO = "transferencias-";
+    static final String EXTENSAO = ".jsonl";
+    static final String CHECKPOINT = "checkpoint";
+
+    private final Path diretorio;
+    private final long tamanhoMaximo;
+    private final int maximoArquivos;
+
+    private FileChannel arquivo;
+    private Path caminhoArquivo;
+    private int sequencia;
+    private Set<Long> ultimoLote = Set.of();
+    private boolean carregado;
+
+    public DestinoArquivoRotativo(
+            @Value("${beneficio.outbox.arquivo.diretorio:outbox}") String diretorio,
+            @Value("${beneficio.outbox.arquivo.tamanho-maximo-mb:64}") long tamanhoMaximoMb,
+            @Value("${beneficio.outbox.arquivo.maximo-arquivos:10}") int maximoArquivos) {
+        this(Paths.get(diretorio), tamanhoMaximoMb * 1024 * 1024, maximoArquivos);
+    }
+
+    DestinoArquivoRotativo(Path diretorio, long tamanhoMaximo, int maximoArquivos) {
+        this.diretorio = diretorio;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.maximoArquivos = maximoArquivos;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoTransferencia> lote) throws IOException {
+        if (!carregado) {
+            carregarCheckpoint();
+        }
+        StringBuilder linhas = new StringBuilder(lote.size() * 256);
+        Set<Long> ids = new HashSet<>(lote.size() * 2);
+        for (EventoTransferencia evento : lote) {
+            ids.add(evento.getId());
+            if (!ultimoLote.contains(evento.getId())) {
+                linhas.append(paraJson(evento)).append('\n');
+            }
+        }
+        if (linhas.length() == 0) {
+            return;
+        }
+
+        if (arquivo == null || arquivo.size() >= tamanhoMaximo) {
+            rotacionar();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            arquivo.write(buffer);
+        }
+        arquivo.force(false);
+
+        ultimoLote = ids;
+        gravarCheckpoint();
+    }
+
+    @PreDestroy
+    public synchronized void fechar() throws IOException {
+        if (arquivo != null) {
+            arquivo.close();
+            arquivo = null;
+        }
+    }
+
+    // Retoma o arquivo e o último lote registrados antes de reiniciar
+    private void carregarCheckpoint() throws IOException {
+        Files.createDirectories(diretorio);
+        Path checkpoint = diretorio.resolve(CHECKPOINT);
+        sequencia = arquivosExistentes().stream()
+                .mapToInt(DestinoArquivoRotativo::sequenciaDe).max().orElse(0);
+        if (Files.exists(checkpoint)) {
+            Properties propriedades = new Properties();
+            try (Reader leitor = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+                propriedades.load(leitor);
+            }
+            String lote = propriedades.getProperty("ultimoLote", "");
+            ultimoLote = lote.isEmpty() ? Set.of()
+                    : Arrays.stream(lote.split(",")).map(Long::valueOf).collect(Collectors.toSet());
+            Path atual = diretorio.resolve(propriedades.getProperty("arquivo", ""));
+            if (Files.isRegularFile(atual) && sequenciaDe(atual) == sequencia) {
+                abrir(atual);
+            }
+        }
+        carregado = true;
+    }
+
+    private void rotacionar() throws IOException {
+        fechar();
+        sequencia++;
+        abrir(diretorio.resolve(String.format("%s%06d%s", PREFIXO, sequencia, EXTENSAO)));
+
+        if (maximoArquivos > 0) {
+            List<Path> arquivos = arquivosExistentes();
+            for (int i = 0; i < arquivos.size() - maximoArquivos; i++) {
+                Files.deleteIfExists(arquivos.get(i));
+            }
+        }
+    }
+
+    private void abrir(Path caminho) throws IOException {
+        arquivo = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        caminhoArquivo = caminho;
+    }
+
+    // Grava em arquivo temporário e troca de uma vez, para nunca deixar um checkpoint pela metade
+    private void gravarCheckpoint() throws IOException {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("arquivo", caminhoArquivo.getFileName().toString());
+        propriedades.setProperty("ultimoLote", ultimoLote.stream().sorted().map(String::valueOf)
+                .collect(Collectors.joining(",")));
+        Path temporario = diretorio.resolve(CHECKPOINT + ".tmp");
+        try (Writer escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            propriedades.store(escritor, null);
+        }
+        Files.move(temporario, diretorio.resolve(CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Em ordem de sequência (o nome tem largura fixa)
+    private List<Path> arquivosExistentes() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(diretorio, PREFIXO + "*" + EXTENSAO)) {
+            stream.forEach(arquivos::add);
+        }
+        arquivos.sort(null);
+        return arquivos;
+    }
+
+    private static int sequenciaDe(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Integer.parseInt(nome.substring(PREFIXO.length(), nome.length() - EXTENSAO.length()));
+    }
+
+    static String paraJson(EventoTransferencia evento) {
+        return "{\"id\":" + evento.getId()
+                + ",\"estrategia\":\"" + evento.getEstrategia() + '"'
+                + ",\"origemId\":" + evento.getOrigemId()
+                + ",\"destinoId\":" + evento.getDestinoId()
+                + ",\"valor\":" + evento.getValor().toPlainString()
+                + ",\"saldoOrigem\":" + evento.getSaldoOrigem().toPlainString()
+                + ",\"versaoOrigem\":" + evento.getVersaoOrigem()
+                + ",\"saldoDestino\":" + (evento.getSaldoDestino() == null ? "null" : evento.getSaldoDestino().toPlainString())
+                + ",\"versaoDestino\":" + evento.getVersaoDestino()
+                + ",\"criadoEm\":\"" + evento.getCriadoEm() + "\"}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.entity.EventoTransferencia;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino dos eventos de transferência drenados da outbox (OutboxTransferenciaService).
+ *
+ * A entrega é pelo menos uma vez: o relay só remove o lote da outbox depois que
+ * publicar retorna, então um lote pode chegar de novo se o processo cair entre a
+ * publicação e a remoção. Os consumidores deduplicam pelo id do evento.
+ * Implementações: DestinoArquivoRotativo e DestinoFilaEmMemoria.
+ */
+public interface DestinoEventosTransferencia {
+
+    /**
+     * Entrega o lote inteiro, em ordem, ou lança exceção (o lote fica na outbox)
+     */
+    void publicar(List<EventoTransferencia> lote) throws IOException;
+}
@@ -0,0 +1,59 @@
+package com.exemple.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import com.exemple.backend.entity.EventoTransferencia;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega os eventos de transferência em uma fila limitada no próprio processo
+ * (beneficio.outbox.destino=fila, o padrão), para consumidores que rodam na mesma JVM.
+ *
+ * O lote entra inteiro ou não entra: com a fila sem espaço, publicar falha e os
+ * eventos continuam na outbox até os consumidores abrirem espaço. Eventos já
+ * retirados da fila se perdem se o processo cair antes de serem tratados.
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.outbox.destino", havingValue = "fila", matchIfMissing = true)
+public class DestinoFilaEmMemoria implements DestinoEventosTransferencia {
+
+    private final BlockingQueue<EventoTransferencia> fila;
+
+    public DestinoFilaEmMemoria(@Value("${beneficio.outbox.fila.capacidade:10000}") int capacidade) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoTransferencia> lote) throws IOException {
+        // Só este método insere, então o espaço verificado não diminui antes do addAll
+        if (fila.remainingCapacity() < lote.size()) {
+            throw new IOException("Fila de eventos cheia: " + fila.size() + " aguardando consumo");
+        }
+        fila.addAll(lote);
+    }
+
+    /**
+     * Próximo evento, aguardando até espera; nulo se nenhum chegar
+     */
+    public EventoTransferencia consumir(long espera, TimeUnit unidade) throws InterruptedException {
+        return fila.poll(espera, unidade);
+    }
+
+    /**
+     * Move até maximo eventos disponíveis para destino, sem aguardar
+     */
+    public int consumirDisponiveis(Collection<? super EventoTransferencia> destino, int maximo) {
+        return fila.drainTo(destino, maximo);
+    }
+
+    public int getTamanho() {
+        return fila.size();
+    }
+}
@@ -0,0 +1,101 @@
+package com.exemple.backend.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight: chamadores concorrentes da mesma chave compartilham uma única leitura.
+ *
+ * O primeiro chamador (líder) executa a leitura na própria thread; os que chegam enquanto
+ * ela está em andamento aguardam o mesmo resultado (ou a mesma exceção). A entrada sai da
+ * tabela antes de o resultado ser publicado: quem chega depois disso faz uma leitura nova,
+ * e um seguidor só recebe o resultado de uma leitura ainda em andamento quando ele chegou.
+ * A tabela guarda apenas leituras em voo; toda entrada é removida pelo próprio líder.
+ *
+ * Cancelamento: um seguidor interrompido deixa de esperar sem afetar os demais. Se o
+ * líder for interrompido, a leitura compartilhada é cancelada e os seguidores tentam de
+ * novo, um deles assumindo como líder, em vez de herdarem a interrupção de outra thread.
+ */
+public class LeituraCompartilhada<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> emVoo = new ConcurrentHashMap<>();
+    private final LongAdder leituras = new LongAdder();
+    private final LongAdder compartilhadas = new LongAdder();
+
+    public V executar(K chave, Supplier<V> leitura) {
+        while (true) {
+            CompletableFuture<V> nova = new CompletableFuture<>();
+            CompletableFuture<V> existente = emVoo.putIfAbsent(chave, nova);
+            if (existente == null) {
+                leituras.increment();
+                return liderar(chave, nova, leitura);
+            }
+            compartilhadas.increment();
+            try {
+                return existente.get();
+            } catch (CancellationException e) {
+                // Líder interrompido: tenta de novo
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Leitura interrompida", e);
+            } catch (ExecutionException e) {
+                throw relancar(e.getCause());
+            }
+        }
+    }
+
+    private V liderar(K chave, CompletableFuture<V> nova, Supplier<V> leitura) {
+        V valor;
+        try {
+            valor = leitura.get();
+        } catch (RuntimeException | Error e) {
+            emVoo.remove(chave, nova);
+            if (Thread.currentThread().isInterrupted()) {
+                nova.cancel(false);
+            } else {
+                nova.completeExceptionally(e);
+            }
+            throw e;
+        }
+        emVoo.remove(chave, nova);
+        nova.complete(valor);
+        return valor;
+    }
+
+    private static RuntimeException relancar(Throwable causa) {
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (causa instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException(causa);
+    }
+
+    // Leituras efetivamente executadas (uma por líder)
+    public long getLeituras() {
+        return leituras.sum();
+    }
+
+    // Chamadas atendidas pela leitura de outro chamador
+    public long getCompartilhadas() {
+        return compartilhadas.sum();
+    }
+
+    public int getEmVoo() {
+        return emVoo.size();
+    }
+
+    /**
+     * Fração das chamadas que não foram ao banco (0 sem nenhuma chamada)
+     */
+    public double getTaxaCoalescencia() {
+        long compartilhadasAgora = compartilhadas.sum();
+        long total = leituras.sum() + compartilhadasAgora;
+        return total == 0 ? 0.0 : (double) compartilhadasAgora / total;
+    }
+}
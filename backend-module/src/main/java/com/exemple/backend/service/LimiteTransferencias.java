@@ -0,0 +1,423 @@
+package com.exemple.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limites de saída por conta e por par origem->destino, em janelas deslizantes de uma
+ * hora e de um dia, mantidos em memória sem consultar o histórico no banco.
+ *
+ * Cada chave tem dois anéis de baldes: 60 de um minuto (janela horária) e 24 de uma hora
+ * (janela diária). O balde é trocado por CAS quando o tempo avança para além dele e soma
+ * com LongAdder, então transferências concorrentes não disputam lock. O consumo soma
+ * primeiro e confere depois: se a janela passar do limite, o valor é desfeito e a
+ * transferência recusada; concorrentes podem ser recusados por um excesso momentâneo,
+ * mas o limite nunca é ultrapassado. Consumos de transações que não confirmam são
+ * estornados após o rollback.
+ *
+ * Chaves sem uso há mais de um dia são removidas na manutenção periódica, que também
+ * grava um checkpoint dos baldes ainda vigentes, recarregado na inicialização.
+ * Reservas consomem o limite ao serem criadas, mesmo que depois sejam liberadas.
+ * Valores em centavos; limite 0 desliga a verificação correspondente.
+ */
+@Component
+public class LimiteTransferencias {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteTransferencias.class);
+
+    private static final int FORMATO_CHECKPOINT = 1;
+    private static final long MINUTO_MS = 60_000L;
+    private static final long HORA_MS = 3_600_000L;
+    private static final long DIA_MS = 86_400_000L;
+    static final int BALDES_HORA = 60;
+    static final int BALDES_DIA = 24;
+
+    private final Clock relogio;
+    private final boolean habilitado;
+    private final long contaHora;
+    private final long contaDia;
+    private final long parHora;
+    private final long parDia;
+    private final Path checkpoint;
+
+    private final ConcurrentHashMap<Long, Contadores> porConta = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Par, Contadores> porPar = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LimiteTransferencias(
+            @Value("${beneficio.limites.habilitado:true}") boolean habilitado,
+            @Value("${beneficio.limites.conta.hora:0}") BigDecimal contaHora,
+            @Value("${beneficio.limites.conta.dia:0}") BigDecimal contaDia,
+            @Value("${beneficio.limites.par.hora:0}") BigDecimal parHora,
+            @Value("${beneficio.limites.par.dia:0}") BigDecimal parDia,
+            @Value("${beneficio.limites.checkpoint:}") String checkpoint) {
+        this(Clock.systemUTC(), habilitado, contaHora, contaDia, parHora, parDia, checkpoint);
+    }
+
+    LimiteTransferencias(Clock relogio, boolean habilitado, BigDecimal contaHora, BigDecimal contaDia,
+                         BigDecimal parHora, BigDecimal parDia, String checkpoint) {
+        this.relogio = relogio;
+        this.habilitado = habilitado;
+        this.contaHora = centavos(contaHora);
+        this.contaDia = centavos(contaDia);
+        this.parHora = centavos(parHora);
+        this.parDia = centavos(parDia);
+        this.checkpoint = checkpoint == null || checkpoint.isBlank() ? null : Paths.get(checkpoint);
+    }
+
+    /**
+     * Consome o valor dos limites da origem e do par; lança OperacaoRecusadaException se algum
+     * for excedido. Dentro de uma transação, o consumo é estornado se ela não confirmar.
+     */
+    public void consumirNaTransacao(Long origemId, Long destinoId, BigDecimal valor) {
+        Consumo consumo = consumir(origemId, destinoId, valor);
+        if (consumo.baldes.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    estornar(consumo);
+                }
+            }
+        });
+    }
+
+    /**
+     * Consome o valor dos limites; quem chama é responsável por estornar se a
+     * transferência não se concretizar
+     */
+    public Consumo consumir(Long origemId, Long destinoId, BigDecimal valor) {
+        boolean porContaAtivo = contaHora > 0 || contaDia > 0;
+        boolean porParAtivo = parHora > 0 || parDia > 0;
+        if (!habilitado || (!porContaAtivo && !porParAtivo)) {
+            return Consumo.NENHUM;
+        }
+
+        long centavos = centavos(valor);
+        long agora = relogio.millis();
+        List<Balde> usados = new ArrayList<>(4);
+        String excedido = null;
+        if (porContaAtivo) {
+            excedido = somar(porConta, origemId, contaHora, contaDia, centavos, agora, usados);
+        }
+        if (excedido == null && porParAtivo) {
+            excedido = somar(porPar, new Par(origemId, destinoId), parHora, parDia, centavos, agora, usados);
+        }
+
+        Consumo consumo = new Consumo(centavos, usados);
+        if (excedido != null) {
+            estornar(consumo);
+            throw new OperacaoRecusadaException(excedido);
+        }
+        return consumo;
+    }
+
+    public void estornar(Consumo consumo) {
+        for (Balde balde : consumo.baldes) {
+            balde.soma.add(-consumo.centavos);
+        }
+    }
+
+    private <K> String somar(ConcurrentHashMap<K, Contadores> mapa, K chave, long limiteHora, long limiteDia,
+                             long centavos, long agora, List<Balde> usados) {
+        Contadores contadores;
+        Balde hora;
+        Balde dia;
+        while (true) {
+            contadores = mapa.computeIfAbsent(chave, k -> new Contadores());
+            contadores.ultimoUsoMs = agora;
+            hora = contadores.hora.balde(agora);
+            dia = contadores.dia.balde(agora);
+            hora.soma.add(centavos);
+            dia.soma.add(centavos);
+            if (mapa.get(chave) == contadores) {
+                break;
+            }
+            // Removido como ocioso entre a busca e a soma: desfaz no descartado e repete
+            hora.soma.add(-centavos);
+            dia.soma.add(-centavos);
+        }
+        usados.add(hora);
+        usados.add(dia);
+
+        long usadoHora = contadores.hora.soma(agora);
+        if (limiteHora > 0 && usadoHora > limiteHora) {
+            return String.format("Limite horário de saída %s excedido. Já utilizado: %.2f, Limite: %.2f",
+                    descrever(chave), reais(usadoHora - centavos), reais(limiteHora));
+        }
+        long usadoDia = contadores.dia.soma(agora);
+        if (limiteDia > 0 && usadoDia > limiteDia) {
+            return String.format("Limite diário de saída %s excedido. Já utilizado: %.2f, Limite: %.2f",
+                    descrever(chave), reais(usadoDia - centavos), reais(limiteDia));
+        }
+        return null;
+    }
+
+    // Só montada na recusa, fora do caminho de toda transferência
+    private static String descrever(Object chave) {
+        if (chave instanceof Par par) {
+            return "de " + par.origemId() + " para " + par.destinoId();
+        }
+        return "da conta " + chave;
+    }
+
+    @PostConstruct
+    void carregarCheckpoint() {
+        if (checkpoint == null || !Files.isRegularFile(checkpoint)) {
+            return;
+        }
+        long agora = relogio.millis();
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+            if (entrada.readInt() != FORMATO_CHECKPOINT) {
+                log.warn("Checkpoint de limites em formato desconhecido, ignorado: {}", checkpoint);
+                return;
+            }
+            entrada.readLong(); // gravado em
+            int contas = entrada.readInt();
+            for (int i = 0; i < contas; i++) {
+                long id = entrada.readLong();
+                porConta.put(id, Contadores.ler(entrada, agora));
+            }
+            int pares = entrada.readInt();
+            for (int i = 0; i < pares; i++) {
+                Par par = new Par(entrada.readLong(), entrada.readLong());
+                porPar.put(par, Contadores.ler(entrada, agora));
+            }
+            log.info("Limites de transferência restaurados: {} contas, {} pares", contas, pares);
+        } catch (IOException e) {
+            // Sem o checkpoint os limites recomeçam zerados; a transferência continua disponível
+            porConta.clear();
+            porPar.clear();
+            log.error("Falha ao ler o checkpoint de limites {}", checkpoint, e);
+        }
+    }
+
+    /**
+     * Remove as chaves sem uso há mais de um dia e grava o checkpoint
+     */
+    @Scheduled(initialDelayString = "${beneficio.limites.manutencao-ms:60000}",
+               fixedDelayString = "${beneficio.limites.manutencao-ms:60000}")
+    public void manutencao() {
+        long agora = relogio.millis();
+        removerOciosos(porConta, agora);
+        removerOciosos(porPar, agora);
+        gravarCheckpoint();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        gravarCheckpoint();
+    }
+
+    private static <K> void removerOciosos(ConcurrentHashMap<K, Contadores> mapa, long agora) {
+        for (K chave : mapa.keySet()) {
+            // Confere o último uso no momento da remoção, sob o lock da chave: quem marcou o uso
+            // antes disso mantém a entrada; quem marca depois não a encontra mais no mapa e repete
+            // a soma na nova (ver somar), então nenhum consumo fica num contador descartado
+            mapa.computeIfPresent(chave, (k, contadores) -> agora - contadores.ultimoUsoMs >= DIA_MS ? null : contadores);
+        }
+    }
+
+    void gravarCheckpoint() {
+        if (checkpoint == null || (porConta.isEmpty() && porPar.isEmpty() && !Files.exists(checkpoint))) {
+            return;
+        }
+        long agora = relogio.millis();
+        Path temporario = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try {
+            if (checkpoint.getParent() != null) {
+                Files.createDirectories(checkpoint.getParent());
+            }
+            // As contagens podem mudar durante a gravação; o checkpoint é um retrato aproximado
+            List<Map.Entry<Long, Contadores>> contas = new ArrayList<>(porConta.entrySet());
+            List<Map.Entry<Par, Contadores>> pares = new ArrayList<>(porPar.entrySet());
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                saida.writeInt(FORMATO_CHECKPOINT);
+                saida.writeLong(agora);
+                saida.writeInt(contas.size());
+                for (Map.Entry<Long, Contadores> conta : contas) {
+                    saida.writeLong(conta.getKey());
+                    conta.getValue().escrever(saida, agora);
+                }
+                saida.writeInt(pares.size());
+                for (Map.Entry<Par, Contadores> par : pares) {
+                    saida.writeLong(par.getKey().origemId());
+                    saida.writeLong(par.getKey().destinoId());
+                    par.getValue().escrever(saida, agora);
+                }
+            }
+            Files.move(temporario, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Falha ao gravar o checkpoint de limites {}", checkpoint, e);
+        }
+    }
+
+    int getContasMonitoradas() {
+        return porConta.size();
+    }
+
+    int getParesMonitorados() {
+        return porPar.size();
+    }
+
+    // Arredonda para cima: frações de centavo nunca escapam do limite
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : valor.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    private static BigDecimal reais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Baldes somados por um consumo, para o estorno
+     */
+    public static final class Consumo {
+
+        static final Consumo NENHUM = new Consumo(0, List.of());
+
+        private final long centavos;
+        private final List<Balde> baldes;
+
+        private Consumo(long centavos, List<Balde> baldes) {
+            this.centavos = centavos;
+            this.baldes = baldes;
+        }
+    }
+
+    private record Par(long origemId, long destinoId) {
+    }
+
+    private static final class Contadores {
+
+        final Janela hora = new Janela(BALDES_HORA, MINUTO_MS);
+        final Janela dia = new Janela(BALDES_DIA, HORA_MS);
+        volatile long ultimoUsoMs;
+
+        void escrever(DataOutputStream saida, long agora) throws IOException {
+            hora.escrever(saida, agora);
+            dia.escrever(saida, agora);
+        }
+
+        static Contadores ler(DataInputStream entrada, long agora) throws IOException {
+            Contadores contadores = new Contadores();
+            contadores.hora.ler(entrada, agora);
+            contadores.dia.ler(entrada, agora);
+            contadores.ultimoUsoMs = agora;
+            return contadores;
+        }
+    }
+
+    /**
+     * Anel de baldes; o índice é a época (agora / duração do balde) módulo o tamanho
+     */
+    private static final class Janela {
+
+        private final AtomicReferenceArray<Balde> baldes;
+        private final long duracaoBaldeMs;
+
+        Janela(int quantidade, long duracaoBaldeMs) {
+            this.baldes = new AtomicReferenceArray<>(quantidade);
+            this.duracaoBaldeMs = duracaoBaldeMs;
+        }
+
+        Balde balde(long agora) {
+            long epoca = agora / duracaoBaldeMs;
+            int indice = (int) Math.floorMod(epoca, (long) baldes.length());
+            while (true) {
+                Balde atual = baldes.get(indice);
+                // Balde mais novo só aparece com o relógio voltando; somar nele é conservador
+                if (atual != null && atual.epoca >= epoca) {
+                    return atual;
+                }
+                Balde novo = new Balde(epoca);
+                if (baldes.compareAndSet(indice, atual, novo)) {
+                    return novo;
+                }
+            }
+        }
+
+        long soma(long agora) {
+            long epoca = agora / duracaoBaldeMs;
+            long total = 0;
+            for (int i = 0; i < baldes.length(); i++) {
+                Balde balde = baldes.get(i);
+                if (balde != null && balde.epoca > epoca - baldes.length()) {
+                    total += balde.soma.sum();
+                }
+            }
+            return total;
+        }
+
+        void escrever(DataOutputStream saida, long agora) throws IOException {
+            long epoca = agora / duracaoBaldeMs;
+            List<Balde> vigentes = new ArrayList<>(baldes.length());
+            for (int i = 0; i < baldes.length(); i++) {
+                Balde balde = baldes.get(i);
+                if (balde != null && balde.epoca > epoca - baldes.length()) {
+                    vigentes.add(balde);
+                }
+            }
+            saida.writeInt(vigentes.size());
+            for (Balde balde : vigentes) {
+                saida.writeLong(balde.epoca);
+                saida.writeLong(balde.soma.sum());
+            }
+        }
+
+        void ler(DataInputStream entrada, long agora) throws IOException {
+            long epocaAtual = agora / duracaoBaldeMs;
+            int quantidade = entrada.readInt();
+            for (int i = 0; i < quantidade; i++) {
+                long epoca = entrada.readLong();
+                long soma = entrada.readLong();
+                // Baldes que venceram enquanto a aplicação estava parada são descartados
+                if (epoca > epocaAtual - baldes.length() && epoca <= epocaAtual) {
+                    Balde balde = new Balde(epoca);
+                    balde.soma.add(soma);
+                    baldes.set((int) Math.floorMod(epoca, (long) baldes.length()), balde);
+                }
+            }
+        }
+    }
+
+    static final class Balde {
+
+        final long epoca;
+        final LongAdder soma = new LongAdder();
+
+        Balde(long epoca) {
+            this.epoca = epoca;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.exemple.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Mapa de ids de benefício para shards por hash consistente.
+ *
+ * Cada shard ocupa nosVirtuais posições em um anel de hashes de 64 bits; o id vai para
+ * o primeiro nó virtual a partir do hash dele. Ao passar de N para N+1 shards, só
+ * cerca de 1/(N+1) dos ids muda de shard, e todos eles vão para o shard novo.
+ * A migração das linhas afetadas não é feita aqui.
+ */
+public class MapaShards {
+
+    private final int quantidade;
+    private final NavigableMap<Long, Integer> anel = new TreeMap<>();
+
+    public MapaShards(int quantidade, int nosVirtuais) {
+        if (quantidade < 1 || nosVirtuais < 1) {
+            throw new IllegalArgumentException("Quantidade de shards e de nós virtuais deve ser positiva");
+        }
+        this.quantidade = quantidade;
+        for (int shard = 0; shard < quantidade; shard++) {
+            for (int no = 0; no < nosVirtuais; no++) {
+                // Colisões (raras) ficam com o primeiro shard que ocupou a posição
+                anel.putIfAbsent(misturar(((long) (shard + 1) << 32) ^ no), shard);
+            }
+        }
+    }
+
+    public int shardDe(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID do benefício não pode ser nulo");
+        }
+        Map.Entry<Long, Integer> no = anel.ceilingEntry(misturar(id));
+        return (no != null ? no : anel.firstEntry()).getValue();
+    }
+
+    /**
+     * Ids agrupados por shard, na ordem em que aparecem em ids
+     */
+    public Map<Integer, List<Long>> agruparPorShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> porShard = new TreeMap<>();
+        for (Long id : ids) {
+            porShard.computeIfAbsent(shardDe(id), s -> new ArrayList<>()).add(id);
+        }
+        return porShard;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    // Finalizador do SplitMix64: ids sequenciais se espalham pelo anel inteiro
+    static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
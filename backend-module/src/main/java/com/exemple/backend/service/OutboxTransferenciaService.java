@@ -0,0 +1,132 @@
+package com.exemple.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.exemple.backend.entity.EventoTransferencia;
+import com.exemple.backend.repository.EventoTransferenciaRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relay da outbox de transferências: drena OUTBOX_TRANSFERENCIA em lotes ordenados
+ * por id para o DestinoEventosTransferencia configurado.
+ *
+ * Cada lote é bloqueado, publicado e removido na mesma transação; se a publicação
+ * falhar, a transação é desfeita e o lote é tentado de novo no próximo ciclo.
+ * A ordem é a dos ids dentro da outbox: uma transferência que confirme depois de
+ * outra com id maior pode ser entregue depois dela, então a ordem por benefício
+ * deve ser tirada das versões de origem e destino do evento.
+ *
+ * Métricas (GET /actuator/metrics/...):
+ *   beneficio.outbox.entregues, beneficio.outbox.falhas, beneficio.outbox.pendentes e
+ *   beneficio.outbox.atraso-segundos (idade do evento pendente mais antigo).
+ */
+@Service
+public class OutboxTransferenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxTransferenciaService.class);
+
+    private final EventoTransferenciaRepository outboxRepository;
+    private final DestinoEventosTransferencia destino;
+    private final TransactionTemplate transacao;
+    private final int tamanhoLote;
+
+    private final Counter entregues;
+    private final Counter falhas;
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong atrasoSegundos = new AtomicLong();
+
+    public OutboxTransferenciaService(
+            EventoTransferenciaRepository outboxRepository,
+            DestinoEventosTransferencia destino,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${beneficio.outbox.tamanho-lote:500}") int tamanhoLote) {
+        this.outboxRepository = outboxRepository;
+        this.destino = destino;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+
+        this.entregues = Counter.builder("beneficio.outbox.entregues")
+                .description("Eventos de transferência entregues ao destino")
+                .register(registry);
+        this.falhas = Counter.builder("beneficio.outbox.falhas")
+                .description("Lotes da outbox cuja publicação falhou")
+                .register(registry);
+        Gauge.builder("beneficio.outbox.pendentes", pendentes, AtomicLong::get)
+                .description("Eventos na outbox ao fim do último ciclo do relay")
+                .register(registry);
+        Gauge.builder("beneficio.outbox.atraso-segundos", atrasoSegundos, AtomicLong::get)
+                .description("Idade do evento pendente mais antigo ao fim do último ciclo do relay")
+                .register(registry);
+    }
+
+    /**
+     * Entrega lotes até esvaziar a outbox ou até uma publicação falhar.
+     * Retorna a quantidade de eventos entregues.
+     */
+    @Scheduled(initialDelayString = "${beneficio.outbox.relay-ms:1000}",
+               fixedDelayString = "${beneficio.outbox.relay-ms:1000}")
+    public int drenar() {
+        int total = 0;
+        try {
+            int lote;
+            do {
+                lote = transacao.execute(status -> entregarLote());
+                entregues.increment(lote);
+                total += lote;
+            } while (lote == tamanhoLote);
+        } catch (RuntimeException e) {
+            falhas.increment();
+            log.warn("Falha ao entregar eventos da outbox; nova tentativa no próximo ciclo", e);
+        }
+
+        atualizarAtraso();
+        if (total > 0) {
+            log.debug("Eventos de transferência entregues: {}", total);
+        }
+        return total;
+    }
+
+    private int entregarLote() {
+        List<EventoTransferencia> lote = outboxRepository.findLoteParaEntregar(PageRequest.of(0, tamanhoLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        try {
+            destino.publicar(lote);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxRepository.deleteByIdIn(lote.stream().map(EventoTransferencia::getId).toList());
+        return lote.size();
+    }
+
+    private void atualizarAtraso() {
+        pendentes.set(outboxRepository.count());
+        Instant maisAntigo = outboxRepository.findCriadoEmMaisAntigo();
+        atrasoSegundos.set(maisAntigo == null ? 0 : Math.max(0, Duration.between(maisAntigo, Instant.now()).getSeconds()));
+    }
+
+    public long getPendentes() {
+        return pendentes.get();
+    }
+
+    public long getAtrasoSegundos() {
+        return atrasoSegundos.get();
+    }
+}
@@ -0,0 +1,206 @@
+package com.exemple.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer circular, sem locks, das instruções SQL lentas e das esperas por lock.
+ *
+ * Substitui o log completo de SQL (org.hibernate.SQL=DEBUG / BasicBinder=TRACE) em
+ * produção: cada instrução custa apenas uma comparação com o limiar; só as que
+ * passam do limiar (e da amostragem) são registradas, com o método de serviço que
+ * as originou e o tipo de lock. Parâmetros vinculados não são guardados. Quando o
+ * buffer enche, o registro mais antigo é sobrescrito.
+ */
+@Component
+public class SqlRastreamento {
+
+    public enum Tipo {
+        CONSULTA_LENTA,
+        ESPERA_LOCK
+    }
+
+    private static final int TAMANHO_MAXIMO_SQL = 2000;
+    // H2: timeout de lock e deadlock
+    private static final Set<String> SQLSTATE_LOCK = Set.of("HYT00", "40001");
+
+    private final AtomicReferenceArray<Registro> buffer;
+    private final int mascara;
+    private final AtomicLong sequencia = new AtomicLong();
+    private final LongAdder descartadosPorAmostragem = new LongAdder();
+
+    private final long limiarNanos;
+    private final long limiarLockNanos;
+    private final long limiarMinimoNanos;
+    private final double amostragem;
+
+    public SqlRastreamento(
+            @Value("${beneficio.sql-rastreamento.capacidade:256}") int capacidade,
+            @Value("${beneficio.sql-rastreamento.limiar-ms:50}") long limiarMs,
+            @Value("${beneficio.sql-rastreamento.limiar-lock-ms:10}") long limiarLockMs,
+            @Value("${beneficio.sql-rastreamento.amostragem:1.0}") double amostragem) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade do rastreamento SQL deve ser positiva");
+        }
+        // Potência de 2: o índice do slot é sequencia & mascara
+        int tamanho = Integer.highestOneBit(capacidade - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(Math.max(tamanho, 1));
+        this.mascara = buffer.length() - 1;
+        this.limiarNanos = limiarMs * 1_000_000;
+        this.limiarLockNanos = limiarLockMs * 1_000_000;
+        this.limiarMinimoNanos = Math.min(limiarNanos, limiarLockNanos);
+        this.amostragem = amostragem;
+    }
+
+    /**
+     * Chamado após cada instrução executada pelo DataSource rastreado
+     *
+     * @param erro exceção lançada pela instrução, ou null
+     */
+    public void registrar(String sql, long duracaoNanos, SQLException erro) {
+        if (erro == null && duracaoNanos < limiarMinimoNanos) {
+            return;
+        }
+
+        String tipoLock = tipoLock(sql);
+        Tipo tipo;
+        if ((erro != null && SQLSTATE_LOCK.contains(erro.getSQLState()))
+                || (!"NENHUM".equals(tipoLock) && duracaoNanos >= limiarLockNanos)) {
+            tipo = Tipo.ESPERA_LOCK;
+        } else if (duracaoNanos >= limiarNanos) {
+            tipo = Tipo.CONSULTA_LENTA;
+        } else {
+            return;
+        }
+
+        if (amostragem < 1.0 && ThreadLocalRandom.current().nextDouble() >= amostragem) {
+            descartadosPorAmostragem.increment();
+            return;
+        }
+
+        long seq = sequencia.getAndIncrement();
+        buffer.set((int) (seq & mascara), new Registro(seq, tipo, truncar(sql), duracaoNanos, metodoChamador(),
+                tipoLock, erro == null ? null : erro.getMessage(), Thread.currentThread().getName()));
+    }
+
+    /**
+     * Registros atualmente no buffer, do mais lento para o mais rápido
+     */
+    public List<Map<String, Object>> obterRegistros() {
+        List<Registro> registros = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            Registro registro = buffer.get(i);
+            if (registro != null) {
+                registros.add(registro);
+            }
+        }
+        registros.sort(Comparator.comparingLong((Registro r) -> r.duracaoNanos).reversed());
+        return registros.stream().map(Registro::comoMapa).toList();
+    }
+
+    public Map<String, Object> obterResumo() {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("capacidade", buffer.length());
+        resumo.put("totalRegistrados", sequencia.get());
+        resumo.put("descartadosPorAmostragem", descartadosPorAmostragem.sum());
+        resumo.put("limiarMs", limiarNanos / 1_000_000);
+        resumo.put("limiarLockMs", limiarLockNanos / 1_000_000);
+        resumo.put("amostragem", amostragem);
+        return resumo;
+    }
+
+    public void limpar() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+
+    static String tipoLock(String sql) {
+        if (sql == null) {
+            return "NENHUM";
+        }
+        String normalizado = sql.toLowerCase(Locale.ROOT);
+        if (normalizado.contains(" for update")) {
+            return "PESSIMISTIC_WRITE";
+        }
+        if (normalizado.contains(" for share")) {
+            return "PESSIMISTIC_READ";
+        }
+        if (normalizado.startsWith("update") && normalizado.contains("version=?")) {
+            return "OPTIMISTIC";
+        }
+        return "NENHUM";
+    }
+
+    private static String truncar(String sql) {
+        return sql != null && sql.length() > TAMANHO_MAXIMO_SQL ? sql.substring(0, TAMANHO_MAXIMO_SQL) + "..." : sql;
+    }
+
+    // Primeiro frame da aplicação na pilha (serviço, controller ou runner), ignorando
+    // o próprio rastreamento e as subclasses geradas pelos proxies do Spring
+    private static String metodoChamador() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.exemple.backend.")
+                        && !frame.getClassName().startsWith("com.exemple.backend.config.RastreamentoDataSource")
+                        && !frame.getClassName().equals(SqlRastreamento.class.getName())
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("desconhecido"));
+    }
+
+    private static class Registro {
+        private final long sequencia;
+        private final Tipo tipo;
+        private final String sql;
+        private final long duracaoNanos;
+        private final String metodo;
+        private final String tipoLock;
+        private final String erro;
+        private final String thread;
+        private final Date timestamp = new Date();
+
+        Registro(long sequencia, Tipo tipo, String sql, long duracaoNanos, String metodo,
+                 String tipoLock, String erro, String thread) {
+            this.sequencia = sequencia;
+            this.tipo = tipo;
+            this.sql = sql;
+            this.duracaoNanos = duracaoNanos;
+            this.metodo = metodo;
+            this.tipoLock = tipoLock;
+            this.erro = erro;
+            this.thread = thread;
+        }
+
+        Map<String, Object> comoMapa() {
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("sequencia", sequencia);
+            dados.put("tipo", tipo);
+            dados.put("duracaoMs", duracaoNanos / 1_000_000.0);
+            dados.put("metodo", metodo);
+            dados.put("tipoLock", tipoLock);
+            dados.put("sql", sql);
+            if (erro != null) {
+                dados.put("erro", erro);
+            }
+            dados.put("thread", thread);
+            dados.put("timestamp", timestamp);
+            return dados;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.exemple.backend.benchmark;
+
+import com.exemple.backend.BackendApplication;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.service.BeneficioService;
+import com.exemple.backend.service.BeneficioValorIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a consulta por faixa de valor via JPQL (findBeneficiosAtivosComValorEntre)
+ * com o BeneficioValorIndex em memória.
+ *
+ * Execução:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.exemple.backend.benchmark.FaixaValorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FaixaValorBenchmark {
+
+    private static final BigDecimal MIN = new BigDecimal("1000.00");
+    private static final BigDecimal MAX = new BigDecimal("1500.00");
+    private static final int TAMANHO_PAGINA = 50;
+
+    @Param({"10000", "100000"})
+    private int quantidade;
+
+    private ConfigurableApplicationContext context;
+    private BeneficioRepository repository;
+    private BeneficioService service;
+    private BeneficioValorIndex valorIndex;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = SpringApplication.run(BackendApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        repository = context.getBean(BeneficioRepository.class);
+        service = context.getBean(BeneficioService.class);
+        valorIndex = context.getBean(BeneficioValorIndex.class);
+
+        Random random = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(new Object[] {
+                "Benchmark " + i,
+                BigDecimal.valueOf(random.nextInt(1_000_000), 2),
+                random.nextInt(10) != 0
+            });
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO BENEFICIO (NOME, VALOR, ATIVO, VERSION) VALUES (?, ?, ?, 0)", linhas);
+
+        // Inserções diretas não publicam eventos; recarrega o índice
+        valorIndex.carregar();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object jpqlPrimeiraPagina() {
+        List<?> todos = repository.findBeneficiosAtivosComValorEntre(MIN, MAX);
+        return todos.subList(0, Math.min(TAMANHO_PAGINA, todos.size()));
+    }
+
+    @Benchmark
+    public Object indicePrimeiraPagina() {
+        return service.listarAtivosComValorEntre(MIN, MAX, 0, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public Object indiceSomenteIds() {
+        return valorIndex.buscarFaixa(MIN, MAX, true, 0, TAMANHO_PAGINA);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FaixaValorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.exemple.backend.benchmark;
+
+import com.exemple.backend.BackendApplication;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.service.BeneficioService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Pilha bloqueante (Spring MVC + JPA) contra a reativa (perfil reativo: WebFlux + R2DBC)
+ * sob alta concorrência, pela API HTTP.
+ *
+ * Cada pilha sobe numa porta livre, com os mesmos dados e o mesmo tamanho de pool de
+ * conexões (10), e recebe CONCORRENCIA requisições simultâneas de um cliente não
+ * bloqueante: primeiro só consultas de saldo, depois só transferências. São impressos
+ * requisições por segundo, latências p50/p99 e a contagem por status HTTP.
+ *
+ * O driver R2DBC do H2 executa o banco embarcado na thread que assina a consulta; com um
+ * banco acessado pela rede (PostgreSQL, por exemplo) a diferença tende a ser maior.
+ *
+ * Execução:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.exemple.backend.benchmark.ReativoVersusBloqueanteBenchmark
+ */
+public class ReativoVersusBloqueanteBenchmark {
+
+    private static final int CONTAS = 100;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+    private static final int CONCORRENCIA = 1_000;
+    private static final int CONSULTAS = 50_000;
+    private static final int TRANSFERENCIAS = 20_000;
+    private static final long SEMENTE = 42L;
+
+    public static void main(String[] args) {
+        executar("bloqueante");
+        executar("reativo", "--spring.profiles.active=reativo");
+    }
+
+    private static void executar(String pilha, String... argumentosExtras) {
+        String[] argumentos = concatenar(new String[] {
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--beneficio.sql-rastreamento.habilitado=false",
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--beneficio.reativo.pool-maximo=10"
+        }, argumentosExtras);
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(BackendApplication.class, argumentos)) {
+            BeneficioService service = context.getBean(BeneficioService.class);
+            long[] ids = new long[CONTAS];
+            for (int i = 0; i < CONTAS; i++) {
+                ids[i] = service.criarBeneficio(new Beneficio("Benchmark " + i, null, SALDO_INICIAL)).getId();
+            }
+
+            String porta = context.getEnvironment().getProperty("local.server.port");
+            ConnectionProvider conexoes = ConnectionProvider.builder("benchmark-" + pilha)
+                    .maxConnections(CONCORRENCIA)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            WebClient cliente = WebClient.builder()
+                    .baseUrl("http://localhost:" + porta + "/api/v1/beneficios")
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(conexoes)))
+                    .build();
+
+            try {
+                Random random = new Random(SEMENTE);
+                IntFunction<WebClient.RequestHeadersSpec<?>> consulta =
+                        i -> cliente.get().uri("/{id}/saldo", ids[random.nextInt(CONTAS)]);
+                IntFunction<WebClient.RequestHeadersSpec<?>> transferencia = i -> {
+                    int origem = random.nextInt(CONTAS);
+                    int destino = (origem + 1 + random.nextInt(CONTAS - 1)) % CONTAS;
+                    return cliente.post().uri(uri -> uri.path("/transferir")
+                            .queryParam("fromId", ids[origem])
+                            .queryParam("toId", ids[destino])
+                            .queryParam("amount", "1.00")
+                            .build());
+                };
+
+                // Aquecimento do JIT e dos pools
+                medir(consulta, CONSULTAS / 10);
+                medir(transferencia, TRANSFERENCIAS / 10);
+
+                imprimir(pilha, "saldo", CONSULTAS, medir(consulta, CONSULTAS));
+                imprimir(pilha, "transferir", TRANSFERENCIAS, medir(transferencia, TRANSFERENCIAS));
+            } finally {
+                conexoes.dispose();
+            }
+        }
+    }
+
+    private static Resultado medir(IntFunction<WebClient.RequestHeadersSpec<?>> requisicao, int total) {
+        long[] latencias = new long[total];
+        Map<Integer, LongAdder> porStatus = new ConcurrentHashMap<>();
+        long inicio = System.nanoTime();
+
+        Flux.range(0, total)
+                .flatMap(i -> Mono.defer(() -> {
+                    long t0 = System.nanoTime();
+                    return requisicao.apply(i)
+                            .exchangeToMono(resposta -> resposta.releaseBody().thenReturn(resposta.statusCode().value()))
+                            .onErrorReturn(-1)
+                            .doOnNext(status -> {
+                                latencias[i] = System.nanoTime() - t0;
+                                porStatus.computeIfAbsent(status, k -> new LongAdder()).increment();
+                            });
+                }), CONCORRENCIA)
+                .blockLast();
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        Arrays.sort(latencias);
+        return new Resultado(segundos, latencias, porStatus);
+    }
+
+    private static void imprimir(String pilha, String operacao, int total, Resultado resultado) {
+        System.out.printf("%s %s: %d requisições, %d simultâneas, %.2fs, %.1f req/s, p50 %.1fms, p99 %.1fms%n",
+                pilha, operacao, total, CONCORRENCIA, resultado.segundos, total / resultado.segundos,
+                percentil(resultado.latencias, 0.50), percentil(resultado.latencias, 0.99));
+        new TreeMap<>(resultado.porStatus).forEach((status, quantidade) ->
+                System.out.printf("  status %s: %d%n", status == -1 ? "erro de conexão" : status, quantidade.sum()));
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.round(p * (ordenadas.length - 1)))] / 1e6;
+    }
+
+    private static String[] concatenar(String[] a, String[] b) {
+        String[] resultado = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, resultado, a.length, b.length);
+        return resultado;
+    }
+
+    private record Resultado(double segundos, long[] latencias, Map<Integer, LongAdder> porStatus) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.exemple.backend.benchmark;
+
+import com.exemple.backend.exception.BeneficioBusinessException;
+import com.exemple.backend.exception.ConflitoConcorrenciaException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.exception.SaldoInsuficienteException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de uma transferência recusada por saldo insuficiente ou benefício inativo,
+ * do lançamento até a escolha do status HTTP.
+ *
+ * legado: IllegalStateException com mensagem formatada e stack trace, embrulhada em
+ * RuntimeException pelo service e classificada por getMessage().contains(...), como
+ * antes do BeneficioErroHandler. tipado: exceções sem stack trace (pré-alocadas quando
+ * a mensagem é fixa) e status pelo tipo. A profundidade simula a pilha de proxies e
+ * filtros entre o controller e a validação.
+ *
+ * Execução:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.exemple.backend.benchmark.RejeicaoTransferenciaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejeicaoTransferenciaBenchmark {
+
+    private static final BigDecimal DISPONIVEL = new BigDecimal("70.00");
+    private static final BigDecimal SOLICITADO = new BigDecimal("100.00");
+
+    @Param({"20", "150"})
+    private int profundidade;
+
+    @Param({"saldo", "inativo"})
+    private String motivo;
+
+    @Benchmark
+    public int legado() {
+        try {
+            try {
+                descerLegado(profundidade);
+                return 200;
+            } catch (Exception e) {
+                throw new RuntimeException("Falha na transferência com locking pessimista: " + e.getMessage(), e);
+            }
+        } catch (IllegalArgumentException e) {
+            return 400;
+        } catch (IllegalStateException e) {
+            return 422;
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("concorrência") || e.getMessage().contains("conflito")) {
+                return 409;
+            }
+            // Recusas embrulhadas chegam aqui como erro interno; a mensagem é lida de qualquer forma
+            return e.getMessage().length() > 0 ? 500 : 0;
+        }
+    }
+
+    @Benchmark
+    public int tipado() {
+        try {
+            descerTipado(profundidade);
+            return 200;
+        } catch (BeneficioBusinessException e) {
+            int status = status(e);
+            // O handler sempre monta a mensagem da resposta
+            return e.getMessage().length() > 0 ? status : 0;
+        }
+    }
+
+    private void descerLegado(int nivel) {
+        if (nivel > 0) {
+            descerLegado(nivel - 1);
+            return;
+        }
+        if ("inativo".equals(motivo)) {
+            throw new IllegalStateException("Benefício de origem não está ativo");
+        }
+        throw new IllegalStateException(String.format(
+                "Saldo insuficiente. Saldo disponível: %.2f, Valor solicitado: %.2f", DISPONIVEL, SOLICITADO));
+    }
+
+    private void descerTipado(int nivel) {
+        if (nivel > 0) {
+            descerTipado(nivel - 1);
+            return;
+        }
+        if ("inativo".equals(motivo)) {
+            throw OperacaoRecusadaException.ORIGEM_INATIVA;
+        }
+        throw new SaldoInsuficienteException(DISPONIVEL, SOLICITADO);
+    }
+
+    // Mesma escolha do BeneficioErroHandler
+    private static int status(BeneficioBusinessException e) {
+        if (e instanceof DadosInvalidosException) {
+            return 400;
+        }
+        if (e instanceof ConflitoConcorrenciaException) {
+            return 409;
+        }
+        return 422;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RejeicaoTransferenciaBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.exemple.backend.benchmark;
+
+import com.exemple.backend.BackendApplication;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.service.BeneficioShardService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput de BeneficioShardService.transferir com 1, 2 e 4 shards.
+ *
+ * Mesma carga do TransferenciaThroughputBenchmark (contas, threads, valor e sementes).
+ * Cada quantidade de shards sobe um contexto próprio com bancos H2 novos; a proporção de
+ * transferências locais e em duas fases aparece junto do resultado. Os shards são bancos
+ * em memória no mesmo processo: o ganho medido vem de menos contenção por banco, não de
+ * mais máquinas.
+ *
+ * Execução:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.exemple.backend.benchmark.ShardsThroughputBenchmark
+ */
+public class ShardsThroughputBenchmark {
+
+    private static final int CONTAS = 100;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+    private static final int THREADS = 16;
+    private static final int TRANSFERENCIAS = 20_000;
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+    private static final long SEMENTE = 42L;
+
+    public static void main(String[] args) throws Exception {
+        for (int quantidade : new int[] {1, 2, 4}) {
+            try (ConfigurableApplicationContext context = SpringApplication.run(BackendApplication.class,
+                    "--spring.profiles.active=shards",
+                    "--spring.main.web-application-type=none",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.org.hibernate.SQL=WARN",
+                    "--beneficio.limites.habilitado=false",
+                    "--beneficio.limites.checkpoint=",
+                    "--beneficio.shards.quantidade=" + quantidade,
+                    "--beneficio.shards.url-padrao=jdbc:h2:mem:bench" + quantidade + "x%d",
+                    "--beneficio.shards.pool-maximo=" + (THREADS + 4),
+                    "--spring.datasource.hikari.maximum-pool-size=" + (THREADS + 4))) {
+
+                BeneficioShardService service = context.getBean(BeneficioShardService.class);
+                long[] ids = new long[CONTAS];
+                for (int i = 0; i < CONTAS; i++) {
+                    ids[i] = service.criarBeneficio(new Beneficio("Benchmark " + i, null, SALDO_INICIAL, true)).getId();
+                }
+
+                // Aquecimento do JIT e dos pools de conexões
+                executar(service, ids, TRANSFERENCIAS / 10, new LongAdder(), new ConcurrentHashMap<>());
+
+                LongAdder duasFases = new LongAdder();
+                Map<String, LongAdder> falhas = new ConcurrentHashMap<>();
+                long inicio = System.nanoTime();
+                long sucesso = executar(service, ids, TRANSFERENCIAS, duasFases, falhas);
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+
+                System.out.printf("%d shard(s): %d transferências (%d em duas fases), %d threads, %.2fs, %.1f transf/s%n",
+                        quantidade, sucesso, duasFases.sum(), THREADS, segundos, sucesso / segundos);
+                falhas.forEach((tipo, total) -> System.out.printf("  falha %s: %d%n", tipo, total.sum()));
+            }
+        }
+    }
+
+    private static long executar(BeneficioShardService service, long[] ids, int total, LongAdder duasFases,
+                                 Map<String, LongAdder> falhas) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        LongAdder sucesso = new LongAdder();
+        int porThread = total / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            long semente = SEMENTE + t;
+            executor.execute(() -> {
+                Random random = new Random(semente);
+                try {
+                    for (int i = 0; i < porThread; i++) {
+                        int origem = random.nextInt(CONTAS);
+                        int destino = (origem + 1 + random.nextInt(CONTAS - 1)) % CONTAS;
+                        try {
+                            if (service.transferir(ids[origem], ids[destino], VALOR)) {
+                                duasFases.increment();
+                            }
+                            sucesso.increment();
+                        } catch (RuntimeException e) {
+                            falhas.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                        }
+                    }
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+        fim.await(10, TimeUnit.MINUTES);
+        executor.shutdown();
+        return sucesso.sum();
+    }
+}
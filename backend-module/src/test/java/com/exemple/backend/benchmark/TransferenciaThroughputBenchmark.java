@@ -0,0 +1,114 @@
+package com.exemple.backend.benchmark;
+
+import com.exemple.backend.BackendApplication;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.service.BeneficioService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput das estratégias de transferência do BeneficioService.
+ *
+ * Usa a mesma carga de com.example.ejb.TransferenciaThroughputBenchmark (ejb-module):
+ * contas, threads, transferências, valor e sementes, para comparar o caminho Spring
+ * com o caminho EJB.
+ *
+ * Execução:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.exemple.backend.benchmark.TransferenciaThroughputBenchmark
+ */
+public class TransferenciaThroughputBenchmark {
+
+    private static final int CONTAS = 100;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+    private static final int THREADS = 16;
+    private static final int TRANSFERENCIAS = 20_000;
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+    private static final long SEMENTE = 42L;
+
+    interface Estrategia {
+        void transferir(Long fromId, Long toId, BigDecimal amount);
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = SpringApplication.run(BackendApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--spring.datasource.hikari.maximum-pool-size=" + (THREADS + 4))) {
+
+            BeneficioService service = context.getBean(BeneficioService.class);
+            BeneficioRepository repository = context.getBean(BeneficioRepository.class);
+
+            Map<String, Estrategia> estrategias = new LinkedHashMap<>();
+            estrategias.put("pessimistic", service::transferWithPessimisticLock);
+            estrategias.put("optimistic", service::transfer);
+            estrategias.put("mixed", service::transferWithMixedLock);
+
+            for (Map.Entry<String, Estrategia> estrategia : estrategias.entrySet()) {
+                long[] ids = new long[CONTAS];
+                for (int i = 0; i < CONTAS; i++) {
+                    ids[i] = repository.save(new Beneficio("Benchmark " + i, null, SALDO_INICIAL)).getId();
+                }
+
+                // Aquecimento do JIT e do pool de conexões
+                executar(estrategia.getValue(), ids, TRANSFERENCIAS / 10, new ConcurrentHashMap<>());
+
+                Map<String, LongAdder> falhas = new ConcurrentHashMap<>();
+                long inicio = System.nanoTime();
+                long sucesso = executar(estrategia.getValue(), ids, TRANSFERENCIAS, falhas);
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+
+                System.out.printf("Spring %s: %d transferências, %d threads, %.2fs, %.1f transf/s%n",
+                        estrategia.getKey(), sucesso, THREADS, segundos, sucesso / segundos);
+                falhas.forEach((tipo, quantidade) -> System.out.printf("  falha %s: %d%n", tipo, quantidade.sum()));
+            }
+        }
+    }
+
+    private static long executar(Estrategia estrategia, long[] ids, int total,
+                                 Map<String, LongAdder> falhas) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        LongAdder sucesso = new LongAdder();
+        int porThread = total / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            long semente = SEMENTE + t;
+            executor.execute(() -> {
+                Random random = new Random(semente);
+                try {
+                    for (int i = 0; i < porThread; i++) {
+                        int origem = random.nextInt(CONTAS);
+                        int destino = (origem + 1 + random.nextInt(CONTAS - 1)) % CONTAS;
+                        try {
+                            estrategia.transferir(ids[origem], ids[destino], VALOR);
+                            sucesso.increment();
+                        } catch (RuntimeException e) {
+                            falhas.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                        }
+                    }
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+        fim.await(10, TimeUnit.MINUTES);
+        executor.shutdown();
+        return sucesso.sum();
+    }
+}
@@ -0,0 +1,263 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.repository.CreditoPendenteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Estresse de concorrência das estratégias de transferência contra o H2 real.
+ *
+ * Para cada estratégia e padrão de carga, THREADS threads disparam TRANSFERENCIAS
+ * transferências entre contas novas enquanto uma thread amostra as versões. Ao final
+ * verifica-se que a soma dos saldos (incluindo créditos diferidos) se conservou, que
+ * nenhum saldo ficou negativo e que nenhuma versão lida regrediu. Transferências por
+ * segundo e o tipo das falhas vão para o log (INFO) por cenário.
+ *
+ * Marcado como estresse: fica fora do mvn test e roda com mvn -Pestresse test.
+ *
+ * Os agendamentos (consolidação, varredura de reservas, reconciliação) ficam desligados
+ * na prática; a consolidação é chamada explicitamente.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.com.exemple.backend.service.BeneficioConcorrenciaIntegrationTest=INFO",
+        "beneficio.sql-rastreamento.habilitado=false",
+        "beneficio.creditos.consolidacao-ms=3600000",
+        "beneficio.reservas.varredura-ms=3600000",
+        "beneficio.reconciliacao.intervalo-ms=3600000",
+        "beneficio.estatisticas.reconciliacao-ms=3600000",
+        "beneficio.limites.checkpoint=",
+        "beneficio.outbox.relay-ms=3600000",
+        "spring.datasource.hikari.maximum-pool-size=" + (BeneficioConcorrenciaIntegrationTest.THREADS + 4)
+})
+@Tag("estresse")
+class BeneficioConcorrenciaIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BeneficioConcorrenciaIntegrationTest.class);
+
+    static final int THREADS = 8;
+    private static final int CONTAS = 20;
+    private static final int PARES_INVERTIDOS = 2;
+    private static final int TRANSFERENCIAS = 2_000;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("10000.00");
+    private static final long SEMENTE = 42L;
+
+    interface Estrategia {
+        void transferir(Long fromId, Long toId, BigDecimal amount);
+    }
+
+    enum Padrao {
+        // Origem e destino sorteados entre todas as contas
+        ALEATORIO,
+        // Poucos pares, metade das threads em cada sentido (A->B e B->A)
+        PARES_INVERTIDOS,
+        // Toda transferência envolve a conta 0, como origem ou destino
+        CONTA_QUENTE
+    }
+
+    @Autowired
+    private BeneficioService beneficioService;
+
+    @Autowired
+    private BeneficioReservaService reservaService;
+
+    @Autowired
+    private BeneficioCreditoPendenteService creditoPendenteService;
+
+    @Autowired
+    private CreditoPendenteRepository creditoPendenteRepository;
+
+    static Stream<Arguments> cenarios() {
+        List<Arguments> cenarios = new ArrayList<>();
+        for (String estrategia : List.of("pessimistic", "optimistic", "mixed", "deferred-credit", "two-phase")) {
+            for (Padrao padrao : Padrao.values()) {
+                cenarios.add(Arguments.of(estrategia, padrao));
+            }
+        }
+        return cenarios.stream();
+    }
+
+    @ParameterizedTest(name = "{0} / {1}")
+    @MethodSource("cenarios")
+    void transferenciasConcorrentes_DevemConservarSaldoSemNegativosNemRegressaoDeVersao(String nome, Padrao padrao)
+            throws InterruptedException {
+        // Arrange
+        Estrategia estrategia = estrategia(nome);
+        List<Long> ids = new ArrayList<>(CONTAS);
+        for (int i = 0; i < CONTAS; i++) {
+            ids.add(beneficioService.criarBeneficio(
+                    new Beneficio("Estresse " + nome + " " + padrao + " " + i, null, SALDO_INICIAL)).getId());
+        }
+        BigDecimal totalInicial = SALDO_INICIAL.multiply(BigDecimal.valueOf(CONTAS));
+
+        // Act
+        Map<String, LongAdder> falhas = new ConcurrentHashMap<>();
+        Map<Long, Long> versoesLidas = new ConcurrentHashMap<>();
+        LongAdder regressoes = new LongAdder();
+        AtomicBoolean executando = new AtomicBoolean(true);
+        Thread amostrador = new Thread(() -> {
+            while (executando.get()) {
+                amostrarVersoes(ids, versoesLidas, regressoes);
+            }
+        });
+        amostrador.start();
+
+        long inicio = System.nanoTime();
+        long sucesso = executar(estrategia, padrao, ids, falhas);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        executando.set(false);
+        amostrador.join();
+
+        log.info("{} / {}: {} de {} transferências, {} threads, {}s, {} transf/s", nome, padrao, sucesso,
+                TRANSFERENCIAS, THREADS, String.format("%.2f", segundos), String.format("%.1f", sucesso / segundos));
+        falhas.forEach((tipo, quantidade) -> log.info("  falha {}: {}", tipo, quantidade.sum()));
+
+        // Assert: antes e depois da consolidação dos créditos diferidos
+        assertTrue(sucesso > 0, "Nenhuma transferência concluída; falhas: " + falhas);
+        verificarSaldos(ids, totalInicial, versoesLidas, regressoes);
+        creditoPendenteService.consolidar();
+        assertEquals(0, creditoPendenteRepository.somarPendentes().compareTo(BigDecimal.ZERO));
+        verificarSaldos(ids, totalInicial, versoesLidas, regressoes);
+    }
+
+    private Estrategia estrategia(String nome) {
+        return switch (nome) {
+            case "pessimistic" -> beneficioService::transferWithPessimisticLock;
+            case "optimistic" -> beneficioService::transfer;
+            case "mixed" -> beneficioService::transferWithMixedLock;
+            case "deferred-credit" -> beneficioService::transferWithDeferredCredit;
+            case "two-phase" -> (fromId, toId, amount) -> {
+                Long reservaId = reservaService.reservar(fromId, toId, amount, null).getId();
+                try {
+                    reservaService.capturar(reservaId);
+                } catch (RuntimeException e) {
+                    // Captura que falhou devolve o valor, como faria o cliente ou a varredura
+                    reservaService.liberar(reservaId);
+                    throw e;
+                }
+            };
+            default -> throw new IllegalArgumentException("Estratégia desconhecida: " + nome);
+        };
+    }
+
+    private long executar(Estrategia estrategia, Padrao padrao, List<Long> ids,
+                          Map<String, LongAdder> falhas) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        LongAdder sucesso = new LongAdder();
+        int porThread = TRANSFERENCIAS / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                Random random = new Random(SEMENTE + thread);
+                try {
+                    largada.await();
+                    for (int i = 0; i < porThread; i++) {
+                        int[] par = sortearPar(padrao, thread, random);
+                        BigDecimal valor = BigDecimal.valueOf(1 + random.nextInt(500), 2);
+                        try {
+                            estrategia.transferir(ids.get(par[0]), ids.get(par[1]), valor);
+                            sucesso.increment();
+                        } catch (RuntimeException e) {
+                            falhas.computeIfAbsent(tipoFalha(e), k -> new LongAdder()).increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+        largada.countDown();
+        assertTrue(fim.await(10, TimeUnit.MINUTES), "Transferências não terminaram no prazo");
+        executor.shutdown();
+        return sucesso.sum();
+    }
+
+    // Retorna {origem, destino} como índices em ids
+    private static int[] sortearPar(Padrao padrao, int thread, Random random) {
+        switch (padrao) {
+            case PARES_INVERTIDOS: {
+                int par = random.nextInt(PARES_INVERTIDOS);
+                int a = 2 * par;
+                int b = a + 1;
+                return thread % 2 == 0 ? new int[] {a, b} : new int[] {b, a};
+            }
+            case CONTA_QUENTE: {
+                int outra = 1 + random.nextInt(CONTAS - 1);
+                return random.nextBoolean() ? new int[] {0, outra} : new int[] {outra, 0};
+            }
+            default: {
+                int origem = random.nextInt(CONTAS);
+                int destino = (origem + 1 + random.nextInt(CONTAS - 1)) % CONTAS;
+                return new int[] {origem, destino};
+            }
+        }
+    }
+
+    private void amostrarVersoes(List<Long> ids, Map<Long, Long> versoesLidas, LongAdder regressoes) {
+        for (Map.Entry<Long, SaldoVersaoView> saldo : beneficioService.consultarSaldos(ids).entrySet()) {
+            Long versao = saldo.getValue().getVersao();
+            Long anterior = versoesLidas.put(saldo.getKey(), versao);
+            if (anterior != null && versao < anterior) {
+                regressoes.increment();
+            }
+        }
+    }
+
+    private void verificarSaldos(List<Long> ids, BigDecimal totalInicial,
+                                 Map<Long, Long> versoesLidas, LongAdder regressoes) {
+        amostrarVersoes(ids, versoesLidas, regressoes);
+        assertEquals(0, regressoes.sum(), "Versões lidas regrediram");
+
+        Map<Long, SaldoVersaoView> saldos = beneficioService.consultarSaldos(ids);
+        assertEquals(ids.size(), saldos.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Long, SaldoVersaoView> saldo : saldos.entrySet()) {
+            SaldoVersaoView atual = saldo.getValue();
+            assertTrue(atual.getValor().signum() >= 0, "Saldo negativo no benefício " + saldo.getKey());
+            // Reservas são sempre capturadas na mesma chamada; nada pode ficar retido
+            assertEquals(0, atual.getValorReservado().signum(), "Valor reservado no benefício " + saldo.getKey());
+            total = total.add(atual.getValor());
+        }
+        assertEquals(0, totalInicial.compareTo(total), "Soma dos saldos não se conservou: " + total);
+    }
+
+    // Classe da causa mais interna, que distingue timeout de lock, deadlock e conflito de versão
+    private static String tipoFalha(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa.getClass().getSimpleName();
+    }
+}
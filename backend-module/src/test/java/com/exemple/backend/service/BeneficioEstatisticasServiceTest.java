@@ -0,0 +1,117 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.repository.BeneficioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioEstatisticasServiceTest {
+
+    @Mock
+    private BeneficioRepository beneficioRepository;
+
+    private BeneficioEstatisticasService estatisticasService;
+
+    @BeforeEach
+    void setUp() {
+        estatisticasService = new BeneficioEstatisticasService(
+                new BigDecimal[] {new BigDecimal("100"), new BigDecimal("1000")});
+        ReflectionTestUtils.setField(estatisticasService, "beneficioRepository", beneficioRepository);
+    }
+
+    @Test
+    void reconciliar_DeveAplicarAlteracoesConfirmadasDuranteALeituraSobreOAgregadoRecalculado() {
+        // Arrange: a transferência 1 -> 2 confirma depois de a linha 1 ser lida e antes da linha 2
+        BeneficioAlteradoEvent transferencia = BeneficioAlteradoEvent.transferencia(
+                new BeneficioAlteradoEvent.Alteracao(1L, null, new BigDecimal("100.00"), new BigDecimal("50.00"), true, true, 1L),
+                new BeneficioAlteradoEvent.Alteracao(2L, null, new BigDecimal("200.00"), new BigDecimal("250.00"), true, true, 1L));
+        when(beneficioRepository.streamIdValorAtivoEVersao()).thenReturn(Stream.of(1L, 2L).map(id -> {
+            if (id == 1L) {
+                return linha(1L, "100.00", 0L);
+            }
+            estatisticasService.aoAlterarBeneficio(transferencia);
+            return linha(2L, "250.00", 1L);
+        }));
+
+        // Act
+        estatisticasService.reconciliar();
+        Map<String, Object> estatisticas = estatisticasService.obterEstatisticas();
+
+        // Assert: a origem lida antes recebe o delta; o destino lido depois não o recebe de novo
+        assertEquals(0, new BigDecimal("300.00").compareTo((BigDecimal) estatisticas.get("soma")));
+        assertEquals(2L, estatisticas.get("quantidade"));
+        assertEquals(0, new BigDecimal("50.00").compareTo((BigDecimal) estatisticas.get("minimo")));
+        assertEquals(0, new BigDecimal("250.00").compareTo((BigDecimal) estatisticas.get("maximo")));
+        assertNotNull(estatisticas.get("ultimaReconciliacao"));
+    }
+
+    @Test
+    void aoAlterarBeneficio_DeveRemoverOEstadoReconstruidoSemDescontarDuasVezes() {
+        // Arrange: a criação do id 3 já está na leitura, mas o evento chega durante a varredura
+        BeneficioAlteradoEvent criacao = new BeneficioAlteradoEvent(BeneficioAlteradoEvent.Tipo.CRIACAO,
+                List.of(new BeneficioAlteradoEvent.Alteracao(3L, "Novo", null, new BigDecimal("80.00"), null, true, 0L)));
+        when(beneficioRepository.streamIdValorAtivoEVersao()).thenReturn(Stream.of(1L, 3L).map(id -> {
+            if (id == 1L) {
+                return linha(1L, "500.00", 4L);
+            }
+            Object[] linha = linha(3L, "80.00", 0L);
+            estatisticasService.aoAlterarBeneficio(criacao);
+            return linha;
+        }));
+        estatisticasService.reconciliar();
+
+        // Act: débitos depois da reconstrução, e um evento atrasado de versão já lida
+        estatisticasService.aoAlterarBeneficio(BeneficioAlteradoEvent.transferencia(
+                new BeneficioAlteradoEvent.Alteracao(1L, null, new BigDecimal("500.00"), new BigDecimal("420.00"), true, true, 5L),
+                new BeneficioAlteradoEvent.Alteracao(3L, null, new BigDecimal("80.00"), new BigDecimal("0.00"), true, true, 1L)));
+        estatisticasService.aoAlterarBeneficio(BeneficioAlteradoEvent.transferencia(
+                new BeneficioAlteradoEvent.Alteracao(1L, null, new BigDecimal("600.00"), new BigDecimal("500.00"), true, true, 4L),
+                new BeneficioAlteradoEvent.Alteracao(3L, null, new BigDecimal("180.00"), new BigDecimal("80.00"), true, true, 0L)));
+        Map<String, Object> estatisticas = estatisticasService.obterEstatisticas();
+
+        // Assert
+        assertEquals(0, new BigDecimal("420.00").compareTo((BigDecimal) estatisticas.get("soma")));
+        assertEquals(2L, estatisticas.get("quantidade"));
+        assertEquals(2L, estatisticas.get("quantidadeAtivos"));
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) estatisticas.get("minimo")));
+        assertEquals(Map.of("< 100", 1L, "100 - 1000", 1L, ">= 1000", 0L), estatisticas.get("histograma"));
+    }
+
+    @Test
+    void reconciliar_DeveCorrigirDesvioDoAgregadoIncremental() {
+        // Arrange: um débito aplicado em memória que o banco não tem
+        when(beneficioRepository.streamIdValorAtivoEVersao())
+                .thenReturn(Stream.<Object[]>of(linha(1L, "100.00", 0L)))
+                .thenReturn(Stream.<Object[]>of(linha(1L, "100.00", 0L)));
+        estatisticasService.reconciliar();
+        estatisticasService.aoAlterarBeneficio(BeneficioAlteradoEvent.transferencia(
+                new BeneficioAlteradoEvent.Alteracao(1L, null, new BigDecimal("100.00"), new BigDecimal("10.00"), true, true, 1L),
+                new BeneficioAlteradoEvent.Alteracao(2L, null, new BigDecimal("0.00"), new BigDecimal("90.00"), true, true, 1L)));
+
+        // Act
+        estatisticasService.reconciliar();
+        Map<String, Object> estatisticas = estatisticasService.obterEstatisticas();
+
+        // Assert
+        assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) estatisticas.get("soma")));
+        assertEquals(1L, estatisticas.get("quantidade"));
+        verify(beneficioRepository, times(2)).streamIdValorAtivoEVersao();
+    }
+
+    private static Object[] linha(Long id, String valor, Long versao) {
+        return new Object[] {id, new BigDecimal(valor), true, versao};
+    }
+}
@@ -0,0 +1,197 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioEventoPublisherTest {
+
+    private final PublisherDeTeste publisher = new PublisherDeTeste(100, 2, 4, 16);
+
+    @AfterEach
+    void tearDown() {
+        publisher.encerrar();
+    }
+
+    @Test
+    void assinar_DeveRetomarAPartirDoLastEventIdDaMesmaEpoca() throws Exception {
+        // Arrange: eventos 1 a 4 publicados
+        publicar(1L, 2L, 3L, 4L);
+        String epoca = (String) ReflectionTestUtils.getField(publisher, "epoca");
+        EmissorGravado emissor = new EmissorGravado();
+
+        // Act
+        publisher.assinar(emissor, null, epoca + "-2");
+
+        // Assert
+        String terceiro = emissor.proximo();
+        String quarto = emissor.proximo();
+        assertTrue(terceiro.contains("id:" + epoca + "-3"), terceiro);
+        assertTrue(terceiro.contains("event:saldo"), terceiro);
+        assertTrue(quarto.contains("id:" + epoca + "-4"), quarto);
+        assertNull(emissor.enviados.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void assinar_DeveMandarRecarregarQuandoOIdForDeOutraEpocaOuAFrenteDaSequencia() throws Exception {
+        // Arrange
+        publicar(1L, 2L);
+        String epoca = (String) ReflectionTestUtils.getField(publisher, "epoca");
+        EmissorGravado aFrente = new EmissorGravado();
+        EmissorGravado outraEpoca = new EmissorGravado();
+        EmissorGravado semEpoca = new EmissorGravado();
+
+        // Act: após um reinício a sequência recomeça e o id antigo pode estar à frente dela
+        publisher.assinar(aFrente, null, epoca + "-50");
+        publisher.assinar(outraEpoca, null, "epocaanterior-1");
+        publisher.assinar(semEpoca, null, "1");
+
+        // Assert: nenhum evento reenviado, só o aviso para recarregar o estado
+        for (EmissorGravado emissor : List.of(aFrente, outraEpoca, semEpoca)) {
+            assertTrue(emissor.proximo().contains("event:recarregar"));
+            assertNull(emissor.enviados.poll(200, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void aoAlterarBeneficio_NaoDeveAtrasarOutrosAssinantesEEncerrarOClienteSaturado() throws Exception {
+        // Arrange: um cliente com o envio bloqueado e outro normal
+        EmissorGravado lento = new EmissorGravado();
+        lento.bloqueio = new CountDownLatch(1);
+        EmissorGravado rapido = new EmissorGravado();
+        publisher.assinar(lento, null, null);
+        publisher.assinar(rapido, null, null);
+
+        try {
+            // Act
+            publicar(1L);
+            assertTrue(lento.entrou.await(5, TimeUnit.SECONDS));
+            assertNotNull(rapido.proximo());
+            // Buffer de 2: o 4º descarta o mais antigo e pede recarga; o 5º encerra a conexão
+            for (long id = 2; id <= 5; id++) {
+                publicar(id);
+                assertTrue(rapido.proximo().contains("beneficioId=" + id));
+            }
+
+            // Assert
+            assertEquals(1, publisher.getQuantidadeAssinantes());
+            publicar(6L);
+            assertNotNull(rapido.proximo());
+        } finally {
+            lento.bloqueio.countDown();
+        }
+    }
+
+    @Test
+    void assinar_DeveEncerrarOAssinanteQuandoPoolEFilaDeEnvioEstaoTomados() throws Exception {
+        // Arrange: uma thread de envio, presa num cliente lento, e uma vaga na fila
+        PublisherDeTeste limitado = new PublisherDeTeste(100, 2, 1, 1);
+        EmissorGravado lento = new EmissorGravado();
+        lento.bloqueio = new CountDownLatch(1);
+        EmissorGravado naFila = new EmissorGravado();
+        EmissorGravado recusado = new EmissorGravado();
+
+        try {
+            limitado.assinar(lento, null, null);
+            publicar(limitado, 1L);
+            assertTrue(lento.entrou.await(5, TimeUnit.SECONDS));
+
+            // Act
+            limitado.assinar(naFila, null, null);
+            limitado.assinar(recusado, null, null);
+
+            // Assert: a recusa não cria thread nova; o cliente é encerrado e reconecta
+            assertEquals(2, limitado.getQuantidadeAssinantes());
+            assertNotNull(recusado.erro);
+            assertNull(naFila.erro);
+        } finally {
+            lento.bloqueio.countDown();
+            limitado.encerrar();
+        }
+    }
+
+    private void publicar(Long... ids) {
+        publicar(publisher, ids);
+    }
+
+    private static void publicar(BeneficioEventoPublisher publisher, Long... ids) {
+        for (Long id : ids) {
+            publisher.aoAlterarBeneficio(new BeneficioAlteradoEvent(BeneficioAlteradoEvent.Tipo.TRANSFERENCIA,
+                    List.of(new BeneficioAlteradoEvent.Alteracao(id, null, BigDecimal.ONE, BigDecimal.TEN, true, true, 1L))));
+        }
+    }
+
+    private static final class PublisherDeTeste extends BeneficioEventoPublisher {
+
+        private EmissorGravado proximo;
+
+        PublisherDeTeste(int capacidadeHistorico, int capacidadeBuffer, int threadsEnvio, int filaEnvio) {
+            super(capacidadeHistorico, capacidadeBuffer, 60_000L, threadsEnvio, filaEnvio);
+        }
+
+        void assinar(EmissorGravado emissor, List<Long> filtro, String ultimoEventoId) {
+            proximo = emissor;
+            assinar(filtro, ultimoEventoId);
+        }
+
+        @Override
+        SseEmitter criarEmitter() {
+            return proximo;
+        }
+    }
+
+    /**
+     * Grava o texto de cada evento enviado; com bloqueio, o envio espera como em um cliente lento
+     */
+    private static final class EmissorGravado extends SseEmitter {
+
+        private final BlockingQueue<String> enviados = new LinkedBlockingQueue<>();
+        private final CountDownLatch entrou = new CountDownLatch(1);
+        private volatile CountDownLatch bloqueio;
+        private volatile Throwable erro;
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            erro = ex;
+            super.completeWithError(ex);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entrou.countDown();
+            CountDownLatch espera = bloqueio;
+            if (espera != null) {
+                try {
+                    espera.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder texto = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType dado : builder.build()) {
+                texto.append(dado.getData());
+            }
+            enviados.add(texto.toString());
+        }
+
+        String proximo() throws InterruptedException {
+            String texto = enviados.poll(5, TimeUnit.SECONDS);
+            assertNotNull(texto, "Nenhum evento enviado");
+            return texto;
+        }
+    }
+}
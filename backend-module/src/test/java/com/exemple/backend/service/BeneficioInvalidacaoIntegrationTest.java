@@ -0,0 +1,174 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.BackendApplication;
+import com.exemple.backend.entity.Beneficio;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas instâncias da aplicação (dois contextos Spring na mesma JVM) sobre o mesmo banco,
+ * servido por um H2 em modo TCP, cada uma com o seu cache de segundo nível.
+ *
+ * O acompanhamento agendado fica desligado na prática; acompanhar() é chamado
+ * explicitamente para que cada passo seja determinístico.
+ */
+class BeneficioInvalidacaoIntegrationTest {
+
+    @TempDir
+    static Path diretorio;
+
+    private static Server servidor;
+    private static ConfigurableApplicationContext instanciaA;
+    private static ConfigurableApplicationContext instanciaB;
+
+    @BeforeAll
+    static void iniciar() throws Exception {
+        int porta;
+        try (ServerSocket livre = new ServerSocket(0)) {
+            porta = livre.getLocalPort();
+        }
+        servidor = Server.createTcpServer("-tcpPort", String.valueOf(porta), "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + porta + "/mem:invalidacao;DB_CLOSE_DELAY=-1";
+
+        // A primeira cria as tabelas; a segunda só se conecta
+        instanciaA = iniciarInstancia("a", url, "create");
+        instanciaB = iniciarInstancia("b", url, "none");
+    }
+
+    @AfterAll
+    static void encerrar() {
+        if (instanciaB != null) {
+            instanciaB.close();
+        }
+        if (instanciaA != null) {
+            instanciaA.close();
+        }
+        if (servidor != null) {
+            servidor.stop();
+        }
+    }
+
+    @Test
+    void acompanhar_DeveInvalidarNaOutraInstanciaOQueUmaInstanciaAlterou() {
+        // Arrange: benefícios criados em A e lidos (colocados no cache L2) em B
+        BeneficioService servicoA = instanciaA.getBean(BeneficioService.class);
+        BeneficioService servicoB = instanciaB.getBean(BeneficioService.class);
+        EntityManagerFactory emfB = instanciaB.getBean(EntityManagerFactory.class);
+        BeneficioAlteracaoContador contadorB = instanciaB.getBean(BeneficioAlteracaoContador.class);
+
+        Long origem = servicoA.criarBeneficio(new Beneficio("Origem", "Instância A", new BigDecimal("1000.00"))).getId();
+        Long destino = servicoA.criarBeneficio(new Beneficio("Destino", "Instância A", new BigDecimal("1000.00"))).getId();
+        invalidacao(instanciaB).acompanhar();
+
+        assertEquals(new BigDecimal("1000.00"), servicoB.buscarPorId(origem).orElseThrow().getValor());
+        assertTrue(emfB.getCache().contains(Beneficio.class, origem));
+        String etagAntes = contadorB.getEtag();
+
+        // Act
+        servicoA.transferWithPessimisticLock(origem, destino, new BigDecimal("250.00"));
+        int aplicadasEmA = invalidacao(instanciaA).acompanhar();
+        int aplicadasEmB = invalidacao(instanciaB).acompanhar();
+
+        // Assert: a própria instância ignora os seus registros; a outra relê do banco
+        assertEquals(0, aplicadasEmA);
+        assertEquals(2, aplicadasEmB);
+        assertFalse(emfB.getCache().contains(Beneficio.class, origem));
+        Beneficio relido = servicoB.buscarPorId(origem).orElseThrow();
+        assertEquals(new BigDecimal("750.00"), relido.getValor());
+        assertEquals(new BigDecimal("1250.00"), servicoB.buscarPorId(destino).orElseThrow().getValor());
+        assertNotEquals(etagAntes, contadorB.getEtag());
+        assertTrue(instanciaB.getBean(MeterRegistry.class).get("beneficio.invalidacao.atraso").timer().count() >= 2);
+    }
+
+    @Test
+    void acompanhar_DeveAplicarIdPuladoQuandoATransacaoConfirmarDepois() throws Exception {
+        // Arrange: uma transação recebe o id seguinte e fica aberta; outra recebe o próximo e confirma
+        BeneficioInvalidacaoService invalidacaoB = invalidacao(instanciaB);
+        invalidacaoB.acompanhar();
+        DataSource dataSource = instanciaA.getBean(DataSource.class);
+
+        try (Connection pendente = dataSource.getConnection(); Connection confirmada = dataSource.getConnection()) {
+            pendente.setAutoCommit(false);
+            inserirRegistro(pendente, 1L);
+            inserirRegistro(confirmada, 2L);
+
+            // Act
+            int primeiraLeitura = invalidacaoB.acompanhar();
+            int lacunas = invalidacaoB.getLacunas();
+            pendente.commit();
+            int segundaLeitura = invalidacaoB.acompanhar();
+
+            // Assert
+            assertEquals(1, primeiraLeitura);
+            assertEquals(1, lacunas);
+            assertEquals(1, segundaLeitura);
+            assertEquals(0, invalidacaoB.getLacunas());
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarInstancia(String nome, String url, String ddl) throws Exception {
+        // Um arquivo de configuração por instância: o provedor JCache compartilha o
+        // CacheManager entre contextos da mesma JVM que usem a mesma URI
+        Path ehcache = diretorio.resolve("ehcache-" + nome + ".xml");
+        try (InputStream original = BeneficioInvalidacaoIntegrationTest.class.getResourceAsStream("/ehcache.xml")) {
+            Files.copy(original, ehcache);
+        }
+
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.jpa.hibernate.ddl-auto=" + ddl,
+                        "spring.jpa.properties.hibernate.javax.cache.uri=" + ehcache.toUri(),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "beneficio.sql-rastreamento.habilitado=false",
+                        "beneficio.creditos.consolidacao-ms=3600000",
+                        "beneficio.reservas.varredura-ms=3600000",
+                        "beneficio.reconciliacao.intervalo-ms=3600000",
+                        "beneficio.estatisticas.reconciliacao-ms=3600000",
+                        "beneficio.limites.checkpoint=",
+                        "beneficio.outbox.destino=fila",
+                        "beneficio.outbox.relay-ms=3600000",
+                        "beneficio.invalidacao.instancia=" + nome,
+                        "beneficio.invalidacao.poll-ms=3600000",
+                        "beneficio.invalidacao.limpeza-ms=3600000")
+                .run();
+    }
+
+    private static BeneficioInvalidacaoService invalidacao(ConfigurableApplicationContext instancia) {
+        return instancia.getBean(BeneficioInvalidacaoService.class);
+    }
+
+    private static void inserirRegistro(Connection conexao, long beneficioId) throws SQLException {
+        try (PreparedStatement insert = conexao.prepareStatement(
+                "INSERT INTO INVALIDACAO_BENEFICIO (BENEFICIO_ID, VERSAO, INSTANCIA, CRIADO_EM) VALUES (?, 1, 'externa', ?)")) {
+            insert.setLong(1, beneficioId);
+            insert.setTimestamp(2, Timestamp.from(Instant.now()));
+            insert.executeUpdate();
+        }
+    }
+}
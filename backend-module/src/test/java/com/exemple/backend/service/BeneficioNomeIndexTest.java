@@ -0,0 +1,81 @@
+package com.exemple.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioNomeIndexTest {
+
+    private BeneficioNomeIndex nomeIndex;
+
+    @BeforeEach
+    void setUp() {
+        nomeIndex = new BeneficioNomeIndex();
+        nomeIndex.indexar(1L, "Vale Alimentação");
+        nomeIndex.indexar(2L, "Vale Refeição");
+        nomeIndex.indexar(3L, "Auxílio  Transporte");
+        nomeIndex.indexar(4L, "VALE ALIMENTACAO");
+        nomeIndex.indexar(5L, "Plano de Saúde");
+    }
+
+    @Test
+    void normalizar_DeveRemoverAcentosCaixaEEspacosRepetidos() {
+        assertEquals("auxilio transporte", BeneficioNomeIndex.normalizar("  Auxílio \t TRANSPORTE "));
+        assertEquals("joao", BeneficioNomeIndex.normalizar("João"));
+        assertEquals("", BeneficioNomeIndex.normalizar(null));
+    }
+
+    @Test
+    void buscar_DeveEncontrarTrechoSemDistinguirAcentosNemCaixa() {
+        // Act
+        List<Long> ids = nomeIndex.buscar("ALIMENTAÇÃO", false, 10);
+
+        // Assert: empate de relevância decidido pelo tamanho do nome e depois pelo id
+        assertEquals(List.of(1L, 4L), ids);
+        assertEquals(List.of(3L), nomeIndex.buscar("transporte", false, 10));
+    }
+
+    @Test
+    void buscar_ComPrefixoDeveIgnorarOcorrenciasNoMeioDoNome() {
+        // Act
+        List<Long> prefixo = nomeIndex.buscar("vale", true, 10);
+        List<Long> contem = nomeIndex.buscar("saude", true, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L, 4L), prefixo);
+        assertTrue(contem.isEmpty());
+        assertEquals(List.of(5L), nomeIndex.buscar("saude", false, 10));
+    }
+
+    @Test
+    void buscar_DeveRespeitarOLimite() {
+        assertEquals(List.of(2L), nomeIndex.buscar("va", true, 1));
+        assertTrue(nomeIndex.buscar("vale", false, 0).isEmpty());
+    }
+
+    @Test
+    void buscarExato_DeveRetornarTodosOsHomonimosNormalizados() {
+        // Act
+        List<Long> ids = nomeIndex.buscarExato("vale alimentação", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 4L), ids);
+        assertEquals(List.of(1L), nomeIndex.buscarExato("Vale Alimentacao", 1));
+        assertTrue(nomeIndex.buscarExato("vale", 10).isEmpty());
+    }
+
+    @Test
+    void indexar_DeveReindexarONomeAtualizado() {
+        // Act
+        nomeIndex.indexar(2L, "Cesta Básica");
+
+        // Assert: o nome antigo deixa de ser encontrado
+        assertEquals(List.of(1L, 4L), nomeIndex.buscar("vale", true, 10));
+        assertEquals(List.of(2L), nomeIndex.buscar("basica", false, 10));
+        assertEquals(List.of(2L), nomeIndex.buscarExato("cesta basica", 10));
+        assertTrue(nomeIndex.buscar("refeicao", false, 10).isEmpty());
+    }
+}
@@ -0,0 +1,153 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.event.BeneficiosInvalidadosEvent;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.repository.CreditoPendenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioReconciliacaoServiceTest {
+
+    @Mock
+    private BeneficioRepository beneficioRepository;
+
+    @Mock
+    private CreditoPendenteRepository creditoPendenteRepository;
+
+    @Mock
+    private BeneficioValorIndex valorIndex;
+
+    @Mock
+    private BeneficioAlteracaoContador alteracaoContador;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BeneficioReconciliacaoService reconciliacaoService;
+
+    @BeforeEach
+    void setUp() {
+        // Faixas de 10 ids, sem pausa
+        reconciliacaoService = new BeneficioReconciliacaoService(10, 2, 0, 10);
+        ReflectionTestUtils.setField(reconciliacaoService, "beneficioRepository", beneficioRepository);
+        ReflectionTestUtils.setField(reconciliacaoService, "creditoPendenteRepository", creditoPendenteRepository);
+        ReflectionTestUtils.setField(reconciliacaoService, "valorIndex", valorIndex);
+        ReflectionTestUtils.setField(reconciliacaoService, "alteracaoContador", alteracaoContador);
+        ReflectionTestUtils.setField(reconciliacaoService, "transactionManager", transactionManager);
+        reconciliacaoService.iniciar();
+
+        lenient().when(valorIndex.valorNaVersao(anyLong(), anyLong())).thenReturn(Optional.empty());
+        lenient().when(creditoPendenteRepository.somarPendentes()).thenReturn(BigDecimal.ZERO);
+    }
+
+    @Test
+    void executar_DeveDefinirTotalEsperadoERelerApenasFaixasAlteradas() {
+        // Arrange: ids 1..25 em três faixas, 100.00 cada
+        when(beneficioRepository.findMaxId()).thenReturn(Optional.of(25L));
+        when(beneficioRepository.findIdValorAtivoEVersaoPorFaixaDeId(anyLong(), anyLong()))
+                .thenAnswer(inv -> linhas(inv.getArgument(0), inv.getArgument(1), 25L, new BigDecimal("100.00")));
+
+        // Act
+        Map<String, Object> primeira = reconciliacaoService.executar(true).orElseThrow();
+
+        // Transferência confirmada entre ids 12 e 13 marca só a faixa 1
+        Beneficio origem = beneficio(12L, "90.00");
+        Beneficio destino = beneficio(13L, "110.00");
+        reconciliacaoService.aoAlterarBeneficio(BeneficioAlteradoEvent.transferencia(
+                BeneficioAlteradoEvent.Alteracao.saldo(origem, new BigDecimal("100.00")),
+                BeneficioAlteradoEvent.Alteracao.saldo(destino, new BigDecimal("100.00"))));
+        Map<String, Object> segunda = reconciliacaoService.executar(false).orElseThrow();
+
+        // Assert
+        assertEquals("OK", primeira.get("situacao"));
+        assertEquals(0, new BigDecimal("2500.00").compareTo((BigDecimal) primeira.get("totalEsperado")));
+        assertEquals(3, primeira.get("faixasLidas"));
+        assertEquals("OK", segunda.get("situacao"));
+        assertEquals(1, segunda.get("faixasLidas"));
+        verify(beneficioRepository, times(2)).findIdValorAtivoEVersaoPorFaixaDeId(10L, 19L);
+    }
+
+    @Test
+    void executar_DeveReportarSaldoNegativoESomaDivergente() {
+        // Arrange: primeira leitura define a base
+        when(beneficioRepository.findMaxId()).thenReturn(Optional.of(5L));
+        when(beneficioRepository.findIdValorAtivoEVersaoPorFaixaDeId(0L, 9L))
+                .thenReturn(linhas(0L, 9L, 5L, new BigDecimal("100.00")));
+        reconciliacaoService.executar(true);
+
+        // Saldo do id 3 alterado fora da aplicação
+        List<Object[]> alteradas = linhas(0L, 9L, 5L, new BigDecimal("100.00"));
+        alteradas.get(2)[1] = new BigDecimal("-50.00");
+        when(beneficioRepository.findIdValorAtivoEVersaoPorFaixaDeId(0L, 9L)).thenReturn(alteradas);
+
+        // Act
+        Map<String, Object> relatorio = reconciliacaoService.executar(true).orElseThrow();
+
+        // Assert
+        assertEquals("DIVERGENTE", relatorio.get("situacao"));
+        assertEquals(0, new BigDecimal("350.00").compareTo((BigDecimal) relatorio.get("totalLido")));
+        List<?> contas = (List<?>) relatorio.get("contasInvalidas");
+        assertEquals(1, contas.size());
+        assertEquals(3L, ((Map<?, ?>) contas.get(0)).get("beneficioId"));
+    }
+
+    @Test
+    void aoInvalidarBeneficios_DeveRelerFaixasAlteradasPorOutraInstanciaERedefinirABase() {
+        // Arrange: ids 1..25, 100.00 cada, base definida
+        when(beneficioRepository.findMaxId()).thenReturn(Optional.of(25L));
+        when(beneficioRepository.findIdValorAtivoEVersaoPorFaixaDeId(anyLong(), anyLong()))
+                .thenAnswer(inv -> linhas(inv.getArgument(0), inv.getArgument(1), 25L, new BigDecimal("100.00")));
+        reconciliacaoService.executar(true);
+
+        // Outra instância criou o id 26 com 100.00: nenhum BeneficioAlteradoEvent local
+        when(beneficioRepository.findMaxId()).thenReturn(Optional.of(26L));
+        when(beneficioRepository.findIdValorAtivoEVersaoPorFaixaDeId(anyLong(), anyLong()))
+                .thenAnswer(inv -> linhas(inv.getArgument(0), inv.getArgument(1), 26L, new BigDecimal("100.00")));
+
+        // Act
+        reconciliacaoService.aoInvalidarBeneficios(new BeneficiosInvalidadosEvent(Set.of(26L)));
+        Map<String, Object> relatorio = reconciliacaoService.executar(false).orElseThrow();
+
+        // Assert: só a faixa 2 é relida e a leitura consistente vira a nova base
+        assertEquals("OK", relatorio.get("situacao"));
+        assertEquals(1, relatorio.get("faixasLidas"));
+        assertEquals(0, new BigDecimal("2600.00").compareTo((BigDecimal) relatorio.get("totalEsperado")));
+        verify(beneficioRepository, times(2)).findIdValorAtivoEVersaoPorFaixaDeId(20L, 29L);
+    }
+
+    private static List<Object[]> linhas(long idInicial, long idFinal, long maiorId, BigDecimal valor) {
+        List<Object[]> linhas = new ArrayList<>();
+        for (long id = Math.max(idInicial, 1); id <= Math.min(idFinal, maiorId); id++) {
+            linhas.add(new Object[] {id, valor, true, 0L});
+        }
+        return linhas;
+    }
+
+    private static Beneficio beneficio(Long id, String valor) {
+        Beneficio beneficio = new Beneficio();
+        beneficio.setId(id);
+        beneficio.setValor(new BigDecimal(valor));
+        beneficio.setAtivo(true);
+        beneficio.setVersion(1L);
+        return beneficio;
+    }
+}
@@ -0,0 +1,167 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.entity.EventoTransferencia;
+import com.exemple.backend.entity.ReservaSaldo;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.exception.SaldoInsuficienteException;
+import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.repository.EventoTransferenciaRepository;
+import com.exemple.backend.repository.ReservaSaldoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioReservaServiceTest {
+
+    @Mock
+    private BeneficioRepository beneficioRepository;
+
+    @Mock
+    private ReservaSaldoRepository reservaRepository;
+
+    @Mock
+    private EventoTransferenciaRepository outboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LimiteTransferencias limiteTransferencias;
+
+    @InjectMocks
+    private BeneficioReservaService reservaService;
+
+    private final BigDecimal VALOR = new BigDecimal("100.00");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reservaService, "expiracaoPadraoSegundos", 60L);
+        ReflectionTestUtils.setField(reservaService, "expiracaoMaximaSegundos", 900L);
+    }
+
+    @Test
+    void reservar_DeveExplicarSaldoDisponivelInsuficienteQuandoAtualizacaoNaoAfetaLinha() {
+        // Arrange: saldo 150, já reservado 80 -> disponível 70
+        when(beneficioRepository.findSaldoVersaoById(2L)).thenReturn(Optional.of(saldo("300.00", "0.00", 1L, true)));
+        when(beneficioRepository.reservarSaldo(1L, VALOR)).thenReturn(0);
+        when(beneficioRepository.findSaldoVersaoById(1L)).thenReturn(Optional.of(saldo("150.00", "80.00", 3L, true)));
+
+        // Act
+        SaldoInsuficienteException erro = assertThrows(SaldoInsuficienteException.class,
+                () -> reservaService.reservar(1L, 2L, VALOR, null));
+
+        // Assert
+        assertTrue(erro.getMessage().contains("Saldo disponível: 70"));
+        verify(reservaRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void capturar_DeveAtualizarEmOrdemDeIdEPublicarTransferencia() {
+        // Arrange: origem 7, destino 3 -> destino é atualizado primeiro
+        ReservaSaldo reserva = new ReservaSaldo(7L, 3L, VALOR, Instant.now(), Instant.now().plusSeconds(60));
+        reserva.setId(10L);
+        reserva.setStatus(ReservaSaldo.Status.CAPTURADA);
+        when(reservaRepository.marcarCapturada(eq(10L), any())).thenReturn(1);
+        when(reservaRepository.findById(10L)).thenReturn(Optional.of(reserva));
+        when(beneficioRepository.creditarSaldo(3L, VALOR)).thenReturn(1);
+        when(beneficioRepository.debitarSaldoReservado(7L, VALOR)).thenReturn(1);
+        when(beneficioRepository.findSaldoVersaoById(7L)).thenReturn(Optional.of(saldo("400.00", "0.00", 5L, true)));
+        when(beneficioRepository.findSaldoVersaoById(3L)).thenReturn(Optional.of(saldo("200.00", "0.00", 2L, true)));
+
+        // Act
+        reservaService.capturar(10L);
+
+        // Assert
+        InOrder ordem = inOrder(beneficioRepository);
+        ordem.verify(beneficioRepository).creditarSaldo(3L, VALOR);
+        ordem.verify(beneficioRepository).debitarSaldoReservado(7L, VALOR);
+
+        ArgumentCaptor<BeneficioAlteradoEvent> evento = ArgumentCaptor.forClass(BeneficioAlteradoEvent.class);
+        verify(eventPublisher).publishEvent(evento.capture());
+        assertEquals(BeneficioAlteradoEvent.Tipo.TRANSFERENCIA, evento.getValue().getTipo());
+        BeneficioAlteradoEvent.Alteracao origem = evento.getValue().getAlteracoes().get(0);
+        assertEquals(new BigDecimal("500.00"), origem.getValorAnterior());
+        assertEquals(5L, origem.getVersao());
+
+        // Evento na outbox com os saldos após a captura
+        ArgumentCaptor<EventoTransferencia> outbox = ArgumentCaptor.forClass(EventoTransferencia.class);
+        verify(outboxRepository).save(outbox.capture());
+        assertEquals("captura-reserva", outbox.getValue().getEstrategia());
+        assertEquals(7L, outbox.getValue().getOrigemId());
+        assertEquals(new BigDecimal("400.00"), outbox.getValue().getSaldoOrigem());
+        assertEquals(2L, outbox.getValue().getVersaoDestino());
+    }
+
+    @Test
+    void liberar_DeveFalharQuandoReservaJaFoiCapturada() {
+        // Arrange
+        ReservaSaldo reserva = new ReservaSaldo(1L, 2L, VALOR, Instant.now(), Instant.now().plusSeconds(60));
+        reserva.setStatus(ReservaSaldo.Status.CAPTURADA);
+        when(reservaRepository.marcarLiberada(eq(10L), any())).thenReturn(0);
+        when(reservaRepository.findById(10L)).thenReturn(Optional.of(reserva));
+
+        // Act
+        OperacaoRecusadaException erro = assertThrows(OperacaoRecusadaException.class, () -> reservaService.liberar(10L));
+
+        // Assert
+        assertTrue(erro.getMessage().contains("CAPTURADA"));
+        verify(beneficioRepository, never()).liberarSaldoReservado(any(), any());
+    }
+
+    @Test
+    void liberar_DeveSinalizarInconsistenciaQuandoOSaldoReservadoNaoComportaAReserva() {
+        // Arrange: reserva pendente, mas VALOR_RESERVADO da origem menor que o valor dela
+        ReservaSaldo reserva = new ReservaSaldo(1L, 2L, VALOR, Instant.now(), Instant.now().plusSeconds(60));
+        when(reservaRepository.marcarLiberada(eq(10L), any())).thenReturn(1);
+        when(reservaRepository.findById(10L)).thenReturn(Optional.of(reserva));
+        when(beneficioRepository.liberarSaldoReservado(1L, VALOR)).thenReturn(0);
+
+        // Act & Assert: invariante violada, distinta das recusas de negócio
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () -> reservaService.liberar(10L));
+        assertTrue(erro.getMessage().contains("inconsistente"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static SaldoVersaoView saldo(String valor, String reservado, Long versao, Boolean ativo) {
+        return new SaldoVersaoView() {
+            @Override
+            public BigDecimal getValor() {
+                return new BigDecimal(valor);
+            }
+
+            @Override
+            public Long getVersao() {
+                return versao;
+            }
+
+            @Override
+            public Boolean getAtivo() {
+                return ativo;
+            }
+
+            @Override
+            public BigDecimal getValorReservado() {
+                return new BigDecimal(reservado);
+            }
+        };
+    }
+}
@@ -1,21 +1,43 @@
 package com.exemple.backend.service;
 
+import com.exemple.backend.dto.SaldoLoteView;
+import com.exemple.backend.dto.SaldoVersaoView;
+import com.exemple.backend.dto.CreditoPendenteResumoView;
 import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.entity.CreditoPendente;
+import com.exemple.backend.entity.EventoTransferencia;
+import com.exemple.backend.event.BeneficioAlteradoEvent;
+import com.exemple.backend.exception.ConflitoConcorrenciaException;
+import com.exemple.backend.exception.DadosInvalidosException;
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import com.exemple.backend.exception.SaldoInsuficienteException;
 import com.exemple.backend.repository.BeneficioRepository;
+import com.exemple.backend.repository.CreditoPendenteRepository;
+import com.exemple.backend.repository.EventoTransferenciaRepository;
 import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -25,6 +47,27 @@ class BeneficioServiceTest {
     @Mock
     private BeneficioRepository beneficioRepository;
 
+    @Mock
+    private CreditoPendenteRepository creditoPendenteRepository;
+
+    @Mock
+    private EventoTransferenciaRepository outboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LimiteTransferencias limiteTransferencias;
+
+    @Mock
+    private ContencaoContas contencaoContas;
+
+    @Mock
+    private BeneficioNomeIndex nomeIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private BeneficioService beneficioService;
 
@@ -69,6 +112,54 @@ class BeneficioServiceTest {
         verify(beneficioRepository, times(1)).findById(ID_ORIGEM);
         verify(beneficioRepository, times(1)).findById(ID_DESTINO);
         verify(beneficioRepository, times(2)).save(any(Beneficio.class));
+
+        // Evento gravado na outbox com os saldos já transferidos
+        ArgumentCaptor<EventoTransferencia> evento = ArgumentCaptor.forClass(EventoTransferencia.class);
+        verify(outboxRepository).save(evento.capture());
+        assertEquals("optimistic", evento.getValue().getEstrategia());
+        assertEquals(new BigDecimal("400.00"), evento.getValue().getSaldoOrigem());
+        assertEquals(new BigDecimal("300.00"), evento.getValue().getSaldoDestino());
+    }
+
+    @Test
+    void transfer_DeveRepetirEmNovaTransacaoELancarConflitoConcorrenciaAposAsTentativas() {
+        // Arrange: toda tentativa esbarra em conflito de versão no flush
+        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findById(ID_DESTINO)).thenReturn(Optional.of(beneficioDestino));
+        when(beneficioRepository.save(any(Beneficio.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new ObjectOptimisticLockingFailureException(Beneficio.class, ID_DESTINO)).when(beneficioRepository).flush();
+
+        // Act
+        ConflitoConcorrenciaException erro = assertThrows(ConflitoConcorrenciaException.class,
+            () -> beneficioService.transfer(ID_ORIGEM, ID_DESTINO, VALOR_TRANSFERENCIA));
+
+        // Assert: uma transação por tentativa, cada uma desfeita
+        assertInstanceOf(OptimisticLockingFailureException.class, erro.getCause());
+        verify(transactionManager, times(BeneficioService.MAX_TENTATIVAS_OTIMISTA)).getTransaction(any());
+        verify(transactionManager, times(BeneficioService.MAX_TENTATIVAS_OTIMISTA)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(contencaoContas, times(BeneficioService.MAX_TENTATIVAS_OTIMISTA))
+            .registrarConflito(any(), eq(ID_ORIGEM), eq(ID_DESTINO));
+        verify(limiteTransferencias, times(BeneficioService.MAX_TENTATIVAS_OTIMISTA))
+            .consumirNaTransacao(ID_ORIGEM, ID_DESTINO, VALOR_TRANSFERENCIA);
+    }
+
+    @Test
+    void transferWithMixedLock_DeveRegistrarConflitoDeVersaoNoPerfilDeContencaoELancar409() {
+        // Arrange: o flush do repositório traduz o conflito de versão do destino
+        when(beneficioRepository.findByIdWithPessimisticLock(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findById(ID_DESTINO)).thenReturn(Optional.of(beneficioDestino));
+        when(beneficioRepository.save(any(Beneficio.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ObjectOptimisticLockingFailureException conflito = new ObjectOptimisticLockingFailureException(Beneficio.class, ID_DESTINO);
+        doThrow(conflito).when(beneficioRepository).flush();
+
+        // Act
+        ConflitoConcorrenciaException erro = assertThrows(ConflitoConcorrenciaException.class,
+            () -> beneficioService.transferWithMixedLock(ID_ORIGEM, ID_DESTINO, VALOR_TRANSFERENCIA));
+
+        // Assert
+        assertSame(conflito, erro.getCause());
+        verify(contencaoContas).registrarConflito(conflito, ID_ORIGEM, ID_DESTINO);
     }
 
     @Test
@@ -84,6 +175,21 @@ class BeneficioServiceTest {
         assertTrue(exception.getMessage().contains("Benefício de origem não encontrado"));
     }
 
+    @Test
+    void transferWithPessimisticLock_DeveRecusarSemLockQuandoLimiteDeSaidaExcedido() {
+        // Arrange
+        doThrow(new OperacaoRecusadaException("Limite diário de saída da conta 1 excedido"))
+                .when(limiteTransferencias).consumirNaTransacao(ID_ORIGEM, ID_DESTINO, VALOR_TRANSFERENCIA);
+
+        // Act
+        OperacaoRecusadaException exception = assertThrows(OperacaoRecusadaException.class,
+            () -> beneficioService.transferWithPessimisticLock(ID_ORIGEM, ID_DESTINO, VALOR_TRANSFERENCIA));
+
+        // Assert: erro de negócio (422), não embrulhado como falha interna
+        assertTrue(exception.getMessage().contains("Limite diário"));
+        verifyNoInteractions(beneficioRepository);
+    }
+
     // Testes para transferência com Pessimistic Locking
     @Test
     void transferWithPessimisticLock_DeveRealizarTransferenciaComSucesso() {
@@ -98,6 +204,24 @@ class BeneficioServiceTest {
         // Assert
         assertEquals(new BigDecimal("400.00"), beneficioOrigem.getValor());
         assertEquals(new BigDecimal("300.00"), beneficioDestino.getValor());
+        verify(contencaoContas).registrarEspera(eq(ID_ORIGEM), anyLong());
+        verify(contencaoContas).registrarEspera(eq(ID_DESTINO), anyLong());
+    }
+
+    @Test
+    void transferWithPessimisticLock_DeveLancarSaldoInsuficienteSemEmbrulhoNemStackTrace() {
+        // Arrange
+        when(beneficioRepository.findByIdWithPessimisticLock(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findByIdWithPessimisticLock(ID_DESTINO)).thenReturn(Optional.of(beneficioDestino));
+
+        // Act
+        SaldoInsuficienteException exception = assertThrows(SaldoInsuficienteException.class,
+            () -> beneficioService.transferWithPessimisticLock(ID_ORIGEM, ID_DESTINO, new BigDecimal("600.00")));
+
+        // Assert: rejeição tipada (422), não RuntimeException de falha interna
+        assertEquals(0, exception.getStackTrace().length);
+        assertTrue(exception.getMessage().contains("Saldo insuficiente"));
+        verify(beneficioRepository, never()).save(any(Beneficio.class));
     }
 
     // Testes para transferência com Mixed Locking
@@ -122,20 +246,20 @@ class BeneficioServiceTest {
     @Test
     void validarParametrosTransferencia_DeveLancarExcecaoParaParametrosNulos() {
         // Act & Assert
-        assertThrows(IllegalArgumentException.class,
+        assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(null, ID_DESTINO, VALOR_TRANSFERENCIA));
         
-        assertThrows(IllegalArgumentException.class,
+        assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(ID_ORIGEM, null, VALOR_TRANSFERENCIA));
             
-        assertThrows(IllegalArgumentException.class,
+        assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(ID_ORIGEM, ID_DESTINO, null));
     }
 
     @Test
     void validarParametrosTransferencia_DeveLancarExcecaoParaMesmoBeneficio() {
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        DadosInvalidosException exception = assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(ID_ORIGEM, ID_ORIGEM, VALOR_TRANSFERENCIA));
 
         assertTrue(exception.getMessage().contains("mesmo benefício"));
@@ -144,10 +268,10 @@ class BeneficioServiceTest {
     @Test
     void validarParametrosTransferencia_DeveLancarExcecaoParaValorZeroOuNegativo() {
         // Act & Assert
-        assertThrows(IllegalArgumentException.class,
+        assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(ID_ORIGEM, ID_DESTINO, BigDecimal.ZERO));
             
-        assertThrows(IllegalArgumentException.class,
+        assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(ID_ORIGEM, ID_DESTINO, new BigDecimal("-100.00")));
     }
 
@@ -157,7 +281,7 @@ class BeneficioServiceTest {
         BigDecimal valorAcimaLimite = new BigDecimal("1000001.00");
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        DadosInvalidosException exception = assertThrows(DadosInvalidosException.class,
             () -> beneficioService.transfer(ID_ORIGEM, ID_DESTINO, valorAcimaLimite));
 
         assertTrue(exception.getMessage().contains("limite permitido"));
@@ -167,7 +291,7 @@ class BeneficioServiceTest {
     @Test
     void consultarSaldo_DeveRetornarSaldoCorretamente() {
         // Arrange
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         BigDecimal saldo = beneficioService.consultarSaldo(ID_ORIGEM);
@@ -179,7 +303,7 @@ class BeneficioServiceTest {
     @Test
     void isTransferenciaPossivel_DeveRetornarTrueParaTransferenciaValida() {
         // Arrange
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         boolean resultado = beneficioService.isTransferenciaPossivel(ID_ORIGEM, VALOR_TRANSFERENCIA);
@@ -192,7 +316,7 @@ class BeneficioServiceTest {
     void isTransferenciaPossivel_DeveRetornarFalseParaSaldoInsuficiente() {
         // Arrange
         beneficioOrigem.setValor(new BigDecimal("50.00"));
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         boolean resultado = beneficioService.isTransferenciaPossivel(ID_ORIGEM, VALOR_TRANSFERENCIA);
@@ -205,7 +329,7 @@ class BeneficioServiceTest {
     void isTransferenciaPossivel_DeveRetornarFalseParaBeneficioInativo() {
         // Arrange
         beneficioOrigem.setAtivo(false);
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         boolean resultado = beneficioService.isTransferenciaPossivel(ID_ORIGEM, VALOR_TRANSFERENCIA);
@@ -218,7 +342,7 @@ class BeneficioServiceTest {
     void verificarConflitoVersao_DeveRetornarTrueQuandoVersaoDiferente() {
         // Arrange
         Long versaoAtual = 2L; // Diferente da versão do benefício (1L)
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         boolean resultado = beneficioService.verificarConflitoVersao(ID_ORIGEM, versaoAtual);
@@ -231,7 +355,7 @@ class BeneficioServiceTest {
     void verificarConflitoVersao_DeveRetornarFalseQuandoVersaoIgual() {
         // Arrange
         Long versaoAtual = 1L; // Igual à versão do benefício
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         boolean resultado = beneficioService.verificarConflitoVersao(ID_ORIGEM, versaoAtual);
@@ -243,7 +367,7 @@ class BeneficioServiceTest {
     @Test
     void obterVersaoAtual_DeveRetornarVersaoCorreta() {
         // Arrange
-        when(beneficioRepository.findById(ID_ORIGEM)).thenReturn(Optional.of(beneficioOrigem));
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
 
         // Act
         Long versao = beneficioService.obterVersaoAtual(ID_ORIGEM);
@@ -298,4 +422,169 @@ class BeneficioServiceTest {
         // Assert
         assertTrue(resultado.isEmpty());
     }
+
+    @Test
+    void consultarSaldos_DeveDividirEmBlocosEOmitirInexistentes() {
+        // Arrange: 600 ids distintos (dois blocos) + repetição; só os ids 1 e 2 existem
+        List<Long> ids = new ArrayList<>();
+        for (long id = 600; id >= 1; id--) {
+            ids.add(id);
+        }
+        ids.add(ID_ORIGEM);
+        when(beneficioRepository.findSaldosVersaoByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> bloco = inv.getArgument(0);
+            List<SaldoLoteView> encontrados = new ArrayList<>();
+            if (bloco.contains(ID_ORIGEM)) {
+                encontrados.add(saldoLote(beneficioOrigem));
+            }
+            if (bloco.contains(ID_DESTINO)) {
+                encontrados.add(saldoLote(beneficioDestino));
+            }
+            return encontrados;
+        });
+
+        // Act
+        Map<Long, SaldoVersaoView> saldos = beneficioService.consultarSaldos(ids);
+
+        // Assert: ordem dos ids informados (600..1) preservada
+        assertEquals(List.of(ID_DESTINO, ID_ORIGEM), new ArrayList<>(saldos.keySet()));
+        assertEquals(SALDO_INICIAL_ORIGEM, saldos.get(ID_ORIGEM).getValor());
+        verify(beneficioRepository, times(2)).findSaldosVersaoByIdIn(anyCollection());
+    }
+
+    @Test
+    void consultarSaldos_DeveRejeitarIdNulo() {
+        assertThrows(IllegalArgumentException.class,
+            () -> beneficioService.consultarSaldos(Arrays.asList(1L, null)));
+    }
+
+    @Test
+    void transferWithDeferredCredit_DeveDebitarOrigemEGravarCreditoSemAtualizarDestino() {
+        // Arrange
+        when(beneficioRepository.findSaldoVersaoById(ID_DESTINO)).thenReturn(Optional.of(saldoVersao(beneficioDestino)));
+        when(beneficioRepository.debitarSaldoDisponivel(ID_ORIGEM, VALOR_TRANSFERENCIA)).thenReturn(1);
+        beneficioOrigem.setValor(new BigDecimal("400.00"));
+        beneficioOrigem.setVersion(2L);
+        when(beneficioRepository.findSaldoVersaoById(ID_ORIGEM)).thenReturn(Optional.of(saldoVersao(beneficioOrigem)));
+
+        // Act
+        beneficioService.transferWithDeferredCredit(ID_ORIGEM, ID_DESTINO, VALOR_TRANSFERENCIA);
+
+        // Assert: crédito gravado como pendente, destino nunca atualizado
+        ArgumentCaptor<CreditoPendente> credito = ArgumentCaptor.forClass(CreditoPendente.class);
+        verify(creditoPendenteRepository).save(credito.capture());
+        assertEquals(ID_DESTINO, credito.getValue().getBeneficioId());
+        assertEquals(VALOR_TRANSFERENCIA, credito.getValue().getValor());
+        verify(beneficioRepository, never()).save(any(Beneficio.class));
+
+        ArgumentCaptor<BeneficioAlteradoEvent> evento = ArgumentCaptor.forClass(BeneficioAlteradoEvent.class);
+        verify(eventPublisher).publishEvent(evento.capture());
+        assertEquals(BeneficioAlteradoEvent.Tipo.TRANSFERENCIA_CREDITO_DIFERIDO, evento.getValue().getTipo());
+        assertEquals(SALDO_INICIAL_ORIGEM, evento.getValue().getAlteracoes().get(0).getValorAnterior());
+        assertEquals(VALOR_TRANSFERENCIA, evento.getValue().getCreditoPendenteDelta());
+
+        ArgumentCaptor<EventoTransferencia> outbox = ArgumentCaptor.forClass(EventoTransferencia.class);
+        verify(outboxRepository).save(outbox.capture());
+        assertEquals("credito-diferido", outbox.getValue().getEstrategia());
+        assertNull(outbox.getValue().getSaldoDestino());
+    }
+
+    @Test
+    void consultarSaldoEVersao_DeveSomarCreditosPendentes() {
+        // Arrange
+        when(beneficioRepository.findSaldoVersaoById(ID_DESTINO)).thenReturn(Optional.of(saldoVersao(beneficioDestino)));
+        CreditoPendenteResumoView creditos = mock(CreditoPendenteResumoView.class);
+        when(creditos.getTotal()).thenReturn(new BigDecimal("30.00"));
+        when(creditos.getUltimoId()).thenReturn(9L);
+        when(creditoPendenteRepository.findResumoByBeneficioId(ID_DESTINO)).thenReturn(Optional.of(creditos));
+
+        // Act
+        SaldoVersaoView saldo = beneficioService.consultarSaldoEVersao(ID_DESTINO);
+
+        // Assert
+        assertEquals(new BigDecimal("230.00"), saldo.getValor());
+        assertEquals(new BigDecimal("30.00"), saldo.getCreditoPendente());
+        assertEquals(9L, saldo.getUltimoCreditoPendente());
+        assertEquals(1L, saldo.getVersao());
+    }
+
+    @Test
+    void buscarPorNomeExato_DeveConsultarOBancoQuandoOIndiceNaoTemONome() {
+        // Arrange: benefício criado por outra instância, ainda não indexado aqui
+        when(nomeIndex.buscarExato("Vale Cultura", 10)).thenReturn(List.of());
+        when(beneficioRepository.findByNome("Vale Cultura")).thenReturn(List.of(beneficioDestino, beneficioOrigem));
+
+        // Act
+        List<Beneficio> encontrados = beneficioService.buscarPorNomeExato(" Vale Cultura ", 10);
+
+        // Assert
+        assertEquals(List.of(beneficioOrigem, beneficioDestino), encontrados);
+    }
+
+    @Test
+    void buscarPorNomeExato_NaoDeveConsultarOBancoQuandoOIndiceEncontra() {
+        // Arrange
+        when(nomeIndex.buscarExato("Origem", 10)).thenReturn(List.of(ID_ORIGEM));
+        when(beneficioRepository.findAllById(List.of(ID_ORIGEM))).thenReturn(List.of(beneficioOrigem));
+
+        // Act
+        List<Beneficio> encontrados = beneficioService.buscarPorNomeExato("Origem", 10);
+
+        // Assert
+        assertEquals(List.of(beneficioOrigem), encontrados);
+        verify(beneficioRepository, never()).findByNome(any());
+    }
+
+    private static SaldoLoteView saldoLote(Beneficio beneficio) {
+        return new SaldoLoteView() {
+            @Override
+            public Long getId() {
+                return beneficio.getId();
+            }
+
+            @Override
+            public BigDecimal getValor() {
+                return beneficio.getValor();
+            }
+
+            @Override
+            public Long getVersao() {
+                return beneficio.getVersion();
+            }
+
+            @Override
+            public Boolean getAtivo() {
+                return beneficio.getAtivo();
+            }
+
+            @Override
+            public BigDecimal getValorReservado() {
+                return beneficio.getValorReservado();
+            }
+        };
+    }
+
+    private static SaldoVersaoView saldoVersao(Beneficio beneficio) {
+        return new SaldoVersaoView() {
+            @Override
+            public BigDecimal getValor() {
+                return beneficio.getValor();
+            }
+
+            @Override
+            public Long getVersao() {
+                return beneficio.getVersion();
+            }
+
+            @Override
+            public Boolean getAtivo() {
+                return beneficio.getAtivo();
+            }
+
+            @Override
+            public BigDecimal getValorReservado() {
+                return beneficio.getValorReservado();
+            }
+        };
+    }
 }
@@ -0,0 +1,189 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.entity.Beneficio;
+import com.exemple.backend.exception.SaldoInsuficienteException;
+import com.exemple.backend.repository.BeneficioShardRepository;
+import com.exemple.backend.repository.CoordenadorShardsRepository;
+import com.exemple.backend.repository.CoordenadorShardsRepository.Estado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transferências entre shards sobre bancos H2 em memória, sem contexto Spring.
+ * As falhas no meio do protocolo são simuladas chamando os repositórios direto.
+ */
+class BeneficioShardServiceTest {
+
+    private BeneficioShardRepository shards;
+    private CoordenadorShardsRepository coordenador;
+    private MapaShards mapa;
+    private BeneficioShardService service;
+
+    @BeforeEach
+    void setUp() {
+        String prefixo = "shardteste" + UUID.randomUUID().toString().replace("-", "");
+        List<DriverManagerDataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            dataSources.add(dataSource(prefixo + shard));
+        }
+        shards = new BeneficioShardRepository(dataSources);
+        shards.criarSchema();
+        coordenador = new CoordenadorShardsRepository(new JdbcTemplate(dataSource(prefixo + "principal")));
+        coordenador.criarSchema();
+        mapa = new MapaShards(3, 64);
+        service = criarService(Clock.systemUTC());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    void transferir_NoMesmoShardDeveSerLocalEConservarOSaldo() {
+        // Arrange
+        Long[] par = parNoShard(true);
+
+        // Act
+        boolean duasFases = service.transferir(par[0], par[1], new BigDecimal("300.00"));
+
+        // Assert
+        assertFalse(duasFases);
+        assertSaldo(par[0], "700.00", "0.00");
+        assertSaldo(par[1], "1300.00", "0.00");
+    }
+
+    @Test
+    void transferir_EntreShardsDeveConfirmarEConcluirNoLog() {
+        // Arrange
+        Long[] par = parNoShard(false);
+
+        // Act
+        boolean duasFases = service.transferir(par[0], par[1], new BigDecimal("250.00"));
+
+        // Assert
+        assertTrue(duasFases);
+        assertSaldo(par[0], "750.00", "0.00");
+        assertSaldo(par[1], "1250.00", "0.00");
+        assertEquals(1L, coordenador.contarPorEstado().get(Estado.CONCLUIDA));
+    }
+
+    @Test
+    void transferir_EntreShardsSemSaldoDeveAbortarEDevolverAReserva() {
+        // Arrange
+        Long[] par = parNoShard(false);
+
+        // Act & Assert
+        assertThrows(SaldoInsuficienteException.class,
+                () -> service.transferir(par[0], par[1], new BigDecimal("1000.01")));
+        assertSaldo(par[0], "1000.00", "0.00");
+        assertSaldo(par[1], "1000.00", "0.00");
+    }
+
+    @Test
+    void recuperar_DeveConcluirTransacaoConfirmadaInterrompida() {
+        // Arrange: o coordenador decidiu e caiu antes de aplicar nos participantes
+        Long[] par = parNoShard(false);
+        BigDecimal valor = new BigDecimal("400.00");
+        Instant agora = Instant.now();
+        coordenador.registrar("xid-confirmada", par[0], par[1], valor, agora);
+        assertTrue(shards.prepararDebito(mapa.shardDe(par[0]), "xid-confirmada", par[0], valor, agora));
+        assertTrue(shards.prepararCredito(mapa.shardDe(par[1]), "xid-confirmada", par[1], valor, agora));
+        assertTrue(coordenador.mudarEstado("xid-confirmada", Estado.INICIADA, Estado.CONFIRMADA, agora));
+        assertSaldo(par[0], "1000.00", "400.00");
+
+        // Act: outra instância, um minuto depois; a segunda passada não repete o efeito
+        BeneficioShardService recuperador = criarService(Clock.offset(Clock.systemUTC(), Duration.ofMinutes(1)));
+        int recuperadas = recuperador.recuperar();
+        recuperador.recuperar();
+        recuperador.encerrar();
+
+        // Assert
+        assertEquals(1, recuperadas);
+        assertSaldo(par[0], "600.00", "0.00");
+        assertSaldo(par[1], "1400.00", "0.00");
+        assertEquals(1L, coordenador.contarPorEstado().get(Estado.CONCLUIDA));
+    }
+
+    @Test
+    void recuperar_DeveAbortarTransacaoIniciadaEBloquearPreparacaoAtrasada() {
+        // Arrange: só a origem chegou a preparar
+        Long[] par = parNoShard(false);
+        BigDecimal valor = new BigDecimal("400.00");
+        Instant agora = Instant.now();
+        coordenador.registrar("xid-iniciada", par[0], par[1], valor, agora);
+        assertTrue(shards.prepararDebito(mapa.shardDe(par[0]), "xid-iniciada", par[0], valor, agora));
+
+        // Act
+        BeneficioShardService recuperador = criarService(Clock.offset(Clock.systemUTC(), Duration.ofMinutes(1)));
+        recuperador.recuperar();
+        recuperador.encerrar();
+
+        // Assert: reserva devolvida, decisão irrevogável e o destino não prepara mais
+        assertSaldo(par[0], "1000.00", "0.00");
+        assertFalse(coordenador.mudarEstado("xid-iniciada", Estado.INICIADA, Estado.CONFIRMADA, agora));
+        assertFalse(shards.prepararCredito(mapa.shardDe(par[1]), "xid-iniciada", par[1], valor, agora));
+        assertSaldo(par[1], "1000.00", "0.00");
+    }
+
+    @Test
+    void consultarSaldos_DeveReunirOsShardsNaOrdemPedida() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(0, criar("1000.00").getId());
+        }
+
+        // Act
+        List<Long> retornados = new ArrayList<>(service.consultarSaldos(ids).keySet());
+
+        // Assert
+        assertEquals(ids, retornados);
+        assertEquals(12, service.listarTodos().size());
+    }
+
+    private BeneficioShardService criarService(Clock relogio) {
+        LimiteTransferencias limites = new LimiteTransferencias(relogio, false,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null);
+        return new BeneficioShardService(mapa, shards, coordenador, limites, relogio,
+                Duration.ofSeconds(10), Duration.ofDays(1));
+    }
+
+    // Cria benefícios até achar um par no mesmo shard (ou em shards diferentes)
+    private Long[] parNoShard(boolean mesmoShard) {
+        Beneficio primeiro = criar("1000.00");
+        while (true) {
+            Beneficio segundo = criar("1000.00");
+            if ((mapa.shardDe(primeiro.getId()) == mapa.shardDe(segundo.getId())) == mesmoShard) {
+                return new Long[] {primeiro.getId(), segundo.getId()};
+            }
+        }
+    }
+
+    private Beneficio criar(String valor) {
+        return service.criarBeneficio(new Beneficio("Benefício", null, new BigDecimal(valor), true));
+    }
+
+    private void assertSaldo(Long id, String valor, String reservado) {
+        Beneficio beneficio = service.buscarPorId(id).orElseThrow();
+        assertEquals(0, new BigDecimal(valor).compareTo(beneficio.getValor()), "Valor de " + id);
+        assertEquals(0, new BigDecimal(reservado).compareTo(beneficio.getValorReservado()), "Reservado de " + id);
+    }
+
+    private static DriverManagerDataSource dataSource(String nome) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,111 @@
+package com.exemple.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioSnapshotArquivoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void escreverELer_DevePreservarTodasAsColunas() throws Exception {
+        // Arrange
+        Path arquivo = diretorio.resolve("beneficios.snap");
+
+        // Act
+        try (BeneficioSnapshotArquivo.Escritor escritor = new BeneficioSnapshotArquivo.Escritor(arquivo, 3)) {
+            escritor.adicionar(1L, "Vale Alimentação", "Benefício para alimentação", new BigDecimal("500.00"), true, 3L);
+            escritor.adicionar(2L, "Vale Alimentação", null, new BigDecimal("0.5"), false, 0L);
+            escritor.adicionar(7L, "Seguro de Vida", "Seguro", new BigDecimal("150"), null, 12L);
+        }
+
+        // Assert
+        try (BeneficioSnapshotArquivo.Leitor leitor = new BeneficioSnapshotArquivo.Leitor(arquivo)) {
+            assertEquals(3, leitor.getQuantidade());
+            assertEquals(7L, leitor.id(2));
+            assertEquals("Vale Alimentação", leitor.nome(1));
+            assertNull(leitor.descricao(1));
+            assertEquals(new BigDecimal("0.50"), leitor.valor(1));
+            assertEquals(new BigDecimal("500.00"), leitor.valor(0));
+            assertTrue(leitor.ativo(0));
+            assertFalse(leitor.ativo(1));
+            assertNull(leitor.ativo(2));
+            assertEquals(12L, leitor.versao(2));
+        }
+    }
+
+    @Test
+    void ler_DeveRejeitarArquivoCorrompido() throws Exception {
+        // Arrange
+        Path arquivo = diretorio.resolve("corrompido.snap");
+        try (BeneficioSnapshotArquivo.Escritor escritor = new BeneficioSnapshotArquivo.Escritor(arquivo, 1)) {
+            escritor.adicionar(1L, "Plano de Saúde", null, new BigDecimal("1200.00"), true, 0L);
+        }
+        // Altera um byte da coluna de valores
+        try (RandomAccessFile raf = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            raf.seek(BeneficioSnapshotArquivo.TAMANHO_CABECALHO + 8 + 7);
+            raf.write(0x7F);
+        }
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> new BeneficioSnapshotArquivo.Leitor(arquivo));
+        assertTrue(exception.getMessage().contains("VALORES"));
+    }
+
+    @Test
+    void fechar_DeveFalharQuandoFaltamLinhas() {
+        Path arquivo = diretorio.resolve("incompleto.snap");
+
+        assertThrows(IllegalStateException.class, () -> {
+            try (BeneficioSnapshotArquivo.Escritor escritor = new BeneficioSnapshotArquivo.Escritor(arquivo, 2)) {
+                escritor.adicionar(1L, "Único", null, BigDecimal.ONE, true, 0L);
+            }
+        });
+    }
+
+    @Test
+    void escritor_DeveRecusarQuantidadeAcimaDoLimiteDeUmaRegiaoMapeada() {
+        Path arquivo = diretorio.resolve("grande.snap");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> new BeneficioSnapshotArquivo.Escritor(arquivo, BeneficioSnapshotArquivo.MAXIMO_LINHAS + 1));
+        assertTrue(exception.getMessage().contains(String.valueOf(BeneficioSnapshotArquivo.MAXIMO_LINHAS)));
+        assertFalse(Files.exists(arquivo));
+    }
+
+    @Test
+    void ler_DeveRecusarCabecalhoComQuantidadeAcimaDoLimite() throws Exception {
+        // Arrange: cabeçalho com checksum válido declarando linhas demais
+        Path arquivo = diretorio.resolve("cabecalho.snap");
+        ByteBuffer cabecalho = ByteBuffer.allocate(BeneficioSnapshotArquivo.TAMANHO_CABECALHO);
+        cabecalho.putLong(BeneficioSnapshotArquivo.MAGIC);
+        cabecalho.putInt(BeneficioSnapshotArquivo.VERSAO_FORMATO);
+        cabecalho.putLong(BeneficioSnapshotArquivo.MAXIMO_LINHAS + 1);
+        cabecalho.putInt(7);
+        for (int secao = 0; secao < 7; secao++) {
+            cabecalho.putLong(BeneficioSnapshotArquivo.TAMANHO_CABECALHO);
+            cabecalho.putLong(0);
+            cabecalho.putInt(0);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(cabecalho.duplicate().flip());
+        cabecalho.putInt((int) crc.getValue());
+        Files.write(arquivo, cabecalho.array());
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> new BeneficioSnapshotArquivo.Leitor(arquivo));
+        assertTrue(exception.getMessage().contains("excede o limite"));
+    }
+}
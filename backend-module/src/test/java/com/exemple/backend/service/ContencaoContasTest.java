@@ -0,0 +1,98 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.entity.Beneficio;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContencaoContasTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void maisQuentes_DeveEncontrarContasQuentesEntreMuitoMaisContasQueACapacidade() {
+        // Arrange: 10.000 contas frias com uma espera de 1 ms e 3 quentes com 200 esperas de 20 ms
+        ContencaoContas contencao = new ContencaoContas(new RelogioAjustavel(), true, 1, 16, new int[] {1});
+        Set<Long> quentes = Set.of(1_000_001L, 1_000_002L, 1_000_003L);
+        for (long fria = 1; fria <= 10_000; fria++) {
+            contencao.registrarEspera(fria, MS);
+            if (fria % 50 == 0) {
+                quentes.forEach(quente -> contencao.registrarEspera(quente, 20 * MS));
+            }
+        }
+        // Abaixo do limiar: não entra no perfil
+        contencao.registrarEspera(1_000_001L, MS / 2);
+
+        // Act
+        List<ContencaoContas.Estimativa> top = contencao.maisQuentes(ContencaoContas.Metrica.ESPERA, 1, 3);
+
+        // Assert: a estimativa cobre o valor real (200 x 20 ms) e o erro delimita o excesso
+        assertEquals(quentes, top.stream().map(ContencaoContas.Estimativa::beneficioId).collect(Collectors.toSet()));
+        for (ContencaoContas.Estimativa estimativa : top) {
+            assertTrue(estimativa.valor() >= 4_000_000L);
+            assertTrue(estimativa.valor() - estimativa.erro() <= 4_000_000L);
+        }
+        assertTrue(contencao.maisQuentes(ContencaoContas.Metrica.ESPERA, 1, Integer.MAX_VALUE).size() <= 16);
+    }
+
+    @Test
+    void maisQuentes_DeveConsiderarApenasOsMinutosDaJanela() {
+        // Arrange
+        RelogioAjustavel relogio = new RelogioAjustavel();
+        ContencaoContas contencao = new ContencaoContas(relogio, true, 1, 16, new int[] {1, 5});
+        // Conflito identificado pela exceção; sem identificação, vai para origem e destino
+        contencao.registrarConflito(new ObjectOptimisticLockingFailureException(Beneficio.class, 7L), 1L, 2L);
+        contencao.registrarConflito(new IllegalStateException(), 1L, 2L);
+        relogio.avancar(Duration.ofMinutes(3));
+        contencao.registrarConflito(new ObjectOptimisticLockingFailureException(Beneficio.class, 7L), 1L, 7L);
+        contencao.registrarConflito(new ObjectOptimisticLockingFailureException(Beneficio.class, 8L), 8L, 9L);
+
+        // Act
+        List<ContencaoContas.Estimativa> ultimoMinuto = contencao.maisQuentes(ContencaoContas.Metrica.CONFLITO, 1, 10);
+        List<ContencaoContas.Estimativa> cincoMinutos = contencao.maisQuentes(ContencaoContas.Metrica.CONFLITO, 5, 10);
+        relogio.avancar(Duration.ofMinutes(5));
+        List<ContencaoContas.Estimativa> expirado = contencao.maisQuentes(ContencaoContas.Metrica.CONFLITO, 5, 10);
+
+        // Assert
+        assertEquals(List.of(new ContencaoContas.Estimativa(7L, 1, 0, 1), new ContencaoContas.Estimativa(8L, 1, 0, 1)),
+                ultimoMinuto);
+        assertEquals(List.of(7L, 1L, 2L, 8L),
+                cincoMinutos.stream().map(ContencaoContas.Estimativa::beneficioId).toList());
+        assertEquals(2, cincoMinutos.get(0).valor());
+        assertTrue(expirado.isEmpty());
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+
+        private Instant agora = Instant.parse("2025-01-10T10:00:00Z");
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
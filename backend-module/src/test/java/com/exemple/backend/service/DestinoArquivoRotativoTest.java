@@ -0,0 +1,72 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.entity.EventoTransferencia;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinoArquivoRotativoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void publicar_AposReinicioNaoDeveGravarDeNovoOUltimoLoteEntregue() throws Exception {
+        // Arrange: lote gravado, mas o relay caiu antes de removê-lo da outbox
+        DestinoArquivoRotativo antes = new DestinoArquivoRotativo(diretorio, 1024 * 1024, 0);
+        antes.publicar(eventos(1, 3));
+        antes.fechar();
+
+        // Act: nova instância recebe o mesmo lote de novo, com um evento novo
+        DestinoArquivoRotativo depois = new DestinoArquivoRotativo(diretorio, 1024 * 1024, 0);
+        List<EventoTransferencia> reentrega = eventos(1, 3);
+        reentrega.addAll(eventos(4, 4));
+        depois.publicar(reentrega);
+        depois.fechar();
+
+        // Assert: cada evento uma vez, no mesmo arquivo
+        List<String> linhas = Files.readAllLines(diretorio.resolve("transferencias-000001.jsonl"));
+        assertEquals(4, linhas.size());
+        assertTrue(linhas.get(0).startsWith("{\"id\":1,\"estrategia\":\"pessimistic\""));
+        assertTrue(linhas.get(3).contains("\"id\":4,"));
+    }
+
+    @Test
+    void publicar_DeveRotacionarEApagarArquivosAlemDoMaximo() throws Exception {
+        // Arrange: arquivos de no máximo ~1 lote, mantendo os 2 mais recentes
+        DestinoArquivoRotativo destino = new DestinoArquivoRotativo(diretorio, 200, 2);
+
+        // Act
+        for (int lote = 0; lote < 4; lote++) {
+            destino.publicar(eventos(lote * 2 + 1, lote * 2 + 2));
+        }
+        destino.fechar();
+
+        // Assert
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertEquals(List.of("checkpoint", "transferencias-000003.jsonl", "transferencias-000004.jsonl"),
+                    arquivos.map(a -> a.getFileName().toString()).sorted().toList());
+        }
+        assertTrue(Files.readString(diretorio.resolve("transferencias-000004.jsonl")).contains("\"id\":8,"));
+    }
+
+    private static List<EventoTransferencia> eventos(long primeiro, long ultimo) {
+        List<EventoTransferencia> eventos = new ArrayList<>();
+        for (long id = primeiro; id <= ultimo; id++) {
+            EventoTransferencia evento = new EventoTransferencia("pessimistic", 1L, 2L, new BigDecimal("10.00"),
+                    new BigDecimal("90.00"), id, new BigDecimal("110.00"), id, Instant.parse("2024-01-01T00:00:00Z"));
+            evento.setId(id);
+            eventos.add(evento);
+        }
+        return eventos;
+    }
+}
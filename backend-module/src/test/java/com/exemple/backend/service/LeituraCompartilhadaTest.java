@@ -0,0 +1,85 @@
+package com.exemple.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeituraCompartilhadaTest {
+
+    private static final int CHAMADORES = 8;
+
+    @Test
+    void executar_DeveCompartilharLeituraEmVooEntreChamadoresDaMesmaChave() throws Exception {
+        // Arrange: a leitura do líder só termina depois que todos os chamadores chegaram
+        LeituraCompartilhada<Long, String> leitura = new LeituraCompartilhada<>();
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liderLendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADORES);
+
+        // Act
+        List<Future<String>> resultados = new ArrayList<>();
+        resultados.add(executor.submit(() -> leitura.executar(1L, () -> {
+            execucoes.incrementAndGet();
+            liderLendo.countDown();
+            aguardar(liberar);
+            return "saldo";
+        })));
+        assertTrue(liderLendo.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CHAMADORES; i++) {
+            resultados.add(executor.submit(() -> leitura.executar(1L, () -> {
+                execucoes.incrementAndGet();
+                return "outra leitura";
+            })));
+        }
+        while (leitura.getCompartilhadas() < CHAMADORES - 1) {
+            Thread.onSpinWait();
+        }
+        liberar.countDown();
+
+        // Assert
+        for (Future<String> resultado : resultados) {
+            assertEquals("saldo", resultado.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, execucoes.get());
+        assertEquals(1, leitura.getLeituras());
+        assertEquals(0, leitura.getEmVoo());
+        assertEquals((double) (CHAMADORES - 1) / CHAMADORES, leitura.getTaxaCoalescencia(), 1e-9);
+    }
+
+    @Test
+    void executar_DeveRemoverEntradaERelancarExcecaoDaLeitura() {
+        // Arrange
+        LeituraCompartilhada<Long, String> leitura = new LeituraCompartilhada<>();
+
+        // Act
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> leitura.executar(9L, () -> {
+                    throw new IllegalArgumentException("Benefício não encontrado: 9");
+                }));
+
+        // Assert: a próxima chamada faz uma leitura nova
+        assertEquals("Benefício não encontrado: 9", erro.getMessage());
+        assertEquals(0, leitura.getEmVoo());
+        assertEquals("saldo", leitura.executar(9L, () -> "saldo"));
+        assertEquals(2, leitura.getLeituras());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.exemple.backend.service;
+
+import com.exemple.backend.exception.OperacaoRecusadaException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteTransferenciasTest {
+
+    @Test
+    void consumir_DeveRecusarAcimaDoLimiteHorarioELiberarQuandoAJanelaDesliza() {
+        // Arrange: 1000/hora por conta, sem limite diário nem por par
+        RelogioAjustavel relogio = new RelogioAjustavel();
+        LimiteTransferencias limites = new LimiteTransferencias(relogio, true,
+                new BigDecimal("1000"), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null);
+        limites.consumir(1L, 2L, new BigDecimal("600.00"));
+        relogio.avancar(Duration.ofMinutes(30));
+        limites.consumir(1L, 3L, new BigDecimal("400.00"));
+
+        // Act & Assert: a janela está cheia; o valor recusado não conta
+        OperacaoRecusadaException erro = assertThrows(OperacaoRecusadaException.class,
+                () -> limites.consumir(1L, 2L, new BigDecimal("0.01")));
+        assertTrue(erro.getMessage().contains("Limite horário de saída da conta 1"));
+        assertThrows(OperacaoRecusadaException.class, () -> limites.consumir(1L, 2L, new BigDecimal("0.01")));
+
+        // Os 600 saem da janela uma hora depois de consumidos
+        relogio.avancar(Duration.ofMinutes(31));
+        assertDoesNotThrow(() -> limites.consumir(1L, 2L, new BigDecimal("600.00")));
+    }
+
+    @Test
+    void estornar_DeveDevolverOValorAoLimiteDoParEDaConta() {
+        // Arrange
+        RelogioAjustavel relogio = new RelogioAjustavel();
+        LimiteTransferencias limites = new LimiteTransferencias(relogio, true,
+                BigDecimal.ZERO, new BigDecimal("5000"), BigDecimal.ZERO, new BigDecimal("500"), null);
+        LimiteTransferencias.Consumo consumo = limites.consumir(1L, 2L, new BigDecimal("500.00"));
+        assertThrows(OperacaoRecusadaException.class, () -> limites.consumir(1L, 2L, new BigDecimal("1.00")));
+
+        // Act
+        limites.estornar(consumo);
+
+        // Assert
+        assertDoesNotThrow(() -> limites.consumir(1L, 2L, new BigDecimal("500.00")));
+    }
+
+    @Test
+    void manutencao_DeveRemoverSoAsChavesSemUsoHaUmDia() {
+        // Arrange: a conta 1 volta a transferir depois de um dia; a conta 3 fica ociosa
+        RelogioAjustavel relogio = new RelogioAjustavel();
+        LimiteTransferencias limites = new LimiteTransferencias(relogio, true,
+                BigDecimal.ZERO, new BigDecimal("1000"), BigDecimal.ZERO, BigDecimal.ZERO, null);
+        limites.consumir(3L, 4L, new BigDecimal("100.00"));
+        relogio.avancar(Duration.ofHours(24));
+        limites.consumir(1L, 2L, new BigDecimal("900.00"));
+
+        // Act
+        limites.manutencao();
+
+        // Assert: o consumo da conta em uso continua contando
+        assertEquals(1, limites.getContasMonitoradas());
+        assertThrows(OperacaoRecusadaException.class, () -> limites.consumir(1L, 2L, new BigDecimal("100.01")));
+    }
+
+    @Test
+    void checkpoint_DeveRestaurarContadoresVigentesAposReinicio(@TempDir Path diretorio) {
+        // Arrange
+        RelogioAjustavel relogio = new RelogioAjustavel();
+        String arquivo = diretorio.resolve("contadores.bin").toString();
+        LimiteTransferencias antes = new LimiteTransferencias(relogio, true,
+                BigDecimal.ZERO, new BigDecimal("1000"), BigDecimal.ZERO, BigDecimal.ZERO, arquivo);
+        antes.consumir(7L, 8L, new BigDecimal("900.00"));
+        antes.gravarCheckpoint();
+
+        // Act
+        relogio.avancar(Duration.ofHours(2));
+        LimiteTransferencias depois = new LimiteTransferencias(relogio, true,
+                BigDecimal.ZERO, new BigDecimal("1000"), BigDecimal.ZERO, BigDecimal.ZERO, arquivo);
+        depois.carregarCheckpoint();
+
+        // Assert
+        assertEquals(1, depois.getContasMonitoradas());
+        assertThrows(OperacaoRecusadaException.class, () -> depois.consumir(7L, 8L, new BigDecimal("100.01")));
+        assertDoesNotThrow(() -> depois.consumir(7L, 8L, new BigDecimal("100.00")));
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+
+        private Instant agora = Instant.parse("2025-01-10T10:00:00Z");
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.exemple.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaShardsTest {
+
+    @Test
+    void shardDe_DeveDistribuirIdsSequenciaisDeFormaEquilibrada() {
+        // Arrange
+        MapaShards mapa = new MapaShards(4, 160);
+        int[] contagem = new int[4];
+
+        // Act
+        for (long id = 1; id <= 100_000; id++) {
+            contagem[mapa.shardDe(id)]++;
+        }
+
+        // Assert: cada shard fica a menos de 30% da média
+        for (int shard = 0; shard < 4; shard++) {
+            assertTrue(Math.abs(contagem[shard] - 25_000) < 7_500, "Shard " + shard + ": " + contagem[shard]);
+        }
+    }
+
+    @Test
+    void shardDe_AoAcrescentarShardDeveMoverPoucosIdsESoParaONovo() {
+        // Arrange
+        MapaShards quatro = new MapaShards(4, 160);
+        MapaShards cinco = new MapaShards(5, 160);
+        int movidos = 0;
+
+        // Act & Assert
+        for (long id = 1; id <= 100_000; id++) {
+            int antes = quatro.shardDe(id);
+            int depois = cinco.shardDe(id);
+            if (antes != depois) {
+                assertEquals(4, depois, "ID " + id + " mudou entre shards antigos");
+                movidos++;
+            }
+        }
+        assertTrue(movidos > 10_000 && movidos < 30_000, "IDs movidos: " + movidos);
+    }
+}
@@ -0,0 +1,87 @@
+package com.exemple.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlRastreamentoTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void registrar_DeveIgnorarInstrucoesAbaixoDoLimiar() {
+        // Arrange
+        SqlRastreamento rastreamento = new SqlRastreamento(8, 50, 10, 1.0);
+
+        // Act
+        rastreamento.registrar("select b.id from beneficio b", 5 * MS, null);
+        rastreamento.registrar("select b.id from beneficio b for update", 5 * MS, null);
+
+        // Assert
+        assertTrue(rastreamento.obterRegistros().isEmpty());
+    }
+
+    @Test
+    void registrar_DeveClassificarConsultaLentaEEsperaPorLock() {
+        // Arrange
+        SqlRastreamento rastreamento = new SqlRastreamento(8, 50, 10, 1.0);
+
+        // Act
+        rastreamento.registrar("select b.id from beneficio b", 80 * MS, null);
+        rastreamento.registrar("select b.id from beneficio b where b.id=? for update", 20 * MS, null);
+        rastreamento.registrar("update beneficio set valor=? where id=?", 1 * MS,
+                new SQLException("Timeout trying to lock table", "HYT00"));
+
+        // Assert: ordenados do mais lento para o mais rápido
+        List<Map<String, Object>> registros = rastreamento.obterRegistros();
+        assertEquals(3, registros.size());
+        assertEquals(SqlRastreamento.Tipo.CONSULTA_LENTA, registros.get(0).get("tipo"));
+        assertEquals(SqlRastreamento.Tipo.ESPERA_LOCK, registros.get(1).get("tipo"));
+        assertEquals("PESSIMISTIC_WRITE", registros.get(1).get("tipoLock"));
+        assertEquals(SqlRastreamento.Tipo.ESPERA_LOCK, registros.get(2).get("tipo"));
+        assertEquals("SqlRastreamentoTest.registrar_DeveClassificarConsultaLentaEEsperaPorLock",
+                registros.get(0).get("metodo"));
+    }
+
+    @Test
+    void registrar_DeveSobrescreverOsMaisAntigosQuandoOBufferEnche() {
+        // Arrange: capacidade arredondada para 4
+        SqlRastreamento rastreamento = new SqlRastreamento(3, 50, 10, 1.0);
+
+        // Act
+        for (int i = 1; i <= 6; i++) {
+            rastreamento.registrar("select " + i, (100 + i) * MS, null);
+        }
+
+        // Assert
+        List<Map<String, Object>> registros = rastreamento.obterRegistros();
+        assertEquals(4, registros.size());
+        assertEquals("select 6", registros.get(0).get("sql"));
+        assertEquals("select 3", registros.get(3).get("sql"));
+        assertEquals(6L, rastreamento.obterResumo().get("totalRegistrados"));
+    }
+
+    @Test
+    void registrar_ComAmostragemZeroNaoDeveGuardarNada() {
+        // Arrange
+        SqlRastreamento rastreamento = new SqlRastreamento(8, 50, 10, 0.0);
+
+        // Act
+        rastreamento.registrar("select 1", 100 * MS, null);
+
+        // Assert
+        assertTrue(rastreamento.obterRegistros().isEmpty());
+        assertEquals(1L, rastreamento.obterResumo().get("descartadosPorAmostragem"));
+    }
+
+    @Test
+    void tipoLock_DeveIdentificarVersaoOtimista() {
+        assertEquals("OPTIMISTIC",
+                SqlRastreamento.tipoLock("update beneficio set valor=?,version=? where id=? and version=?"));
+        assertEquals("NENHUM", SqlRastreamento.tipoLock("select 1"));
+    }
+}
@@ -43,7 +43,7 @@ export class SaldoDisplayComponent {
       this.carregando = true;
       const beneficioId = this.consultaForm.get('beneficioId')?.value;
 
-      this.beneficioService.consultarSaldo(beneficioId).subscribe({
+      this.beneficioService.consultarSaldoVersao(beneficioId).subscribe({
         next: (result) => {
           this.resultadoConsulta = result;
           this.carregando = false;
@@ -52,6 +52,7 @@ export class SaldoDisplayComponent {
             this.historicoConsultas.unshift({
               beneficioId: result.beneficioId,
               saldo: result.saldo,
+              versao: result.versao,
               timestamp: new Date(result.timestamp)
             });
             
@@ -1,14 +1,18 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable } from 'rxjs';
 import { map } from 'rxjs/operators';
 import { 
   Beneficio, 
   ResponseEntity,
   TransferenciaResponse, 
+  ReservaResponse,
   SaldoResponse, 
+  SaldoVersaoResponse, 
+  SaldosResponse,
   VersaoResponse, 
-  ConflitoResponse 
+  ConflitoResponse,
+  EventoSaldo
 } from '../interfaces/beneficio.interface';
 
 @Injectable({
@@ -81,6 +85,41 @@ export class BeneficioService {
     return this.http.post<TransferenciaResponse>(`${this.apiUrl}/transferir/mixed`, null, { params });
   }
 
+  /**
+   * Transferência com CRÉDITO DIFERIDO (sem lock no destino)
+   */
+  transferirCreditoDiferido(fromId: number, toId: number, amount: number): Observable<TransferenciaResponse> {
+    const params = new HttpParams()
+      .set('fromId', fromId.toString())
+      .set('toId', toId.toString())
+      .set('amount', amount.toString());
+    
+    return this.http.post<TransferenciaResponse>(`${this.apiUrl}/transferir/credito-diferido`, null, { params });
+  }
+
+  /**
+   * Reserva o valor na origem (primeira fase); concluir com capturarReserva ou liberarReserva
+   */
+  reservar(fromId: number, toId: number, amount: number, expiracaoSegundos?: number): Observable<ReservaResponse> {
+    let params = new HttpParams()
+      .set('fromId', fromId.toString())
+      .set('toId', toId.toString())
+      .set('amount', amount.toString());
+    if (expiracaoSegundos !== undefined) {
+      params = params.set('expiracaoSegundos', expiracaoSegundos.toString());
+    }
+
+    return this.http.post<ReservaResponse>(`${this.apiUrl}/reservas`, null, { params });
+  }
+
+  capturarReserva(reservaId: number): Observable<ReservaResponse> {
+    return this.http.post<ReservaResponse>(`${this.apiUrl}/reservas/${reservaId}/capturar`, null);
+  }
+
+  liberarReserva(reservaId: number): Observable<ReservaResponse> {
+    return this.http.post<ReservaResponse>(`${this.apiUrl}/reservas/${reservaId}/liberar`, null);
+  }
+
   /**
    * Consultar saldo de um benefício
    */
@@ -88,6 +127,25 @@ export class BeneficioService {
     return this.http.get<SaldoResponse>(`${this.apiUrl}/${beneficioId}/saldo`);
   }
 
+  /**
+   * Consultar saldo e versão em uma única chamada
+   */
+  consultarSaldoVersao(beneficioId: number): Observable<SaldoVersaoResponse> {
+    return this.http.get<SaldoVersaoResponse>(`${this.apiUrl}/${beneficioId}/saldo-versao`);
+  }
+
+  /**
+   * Consultar saldo, versão e status de vários benefícios em uma única requisição
+   * (listas grandes vão no corpo de um POST para não estourar o tamanho da URL)
+   */
+  consultarSaldos(beneficioIds: number[]): Observable<SaldosResponse> {
+    if (beneficioIds.length > 200) {
+      return this.http.post<SaldosResponse>(`${this.apiUrl}/saldos`, beneficioIds);
+    }
+    const params = new HttpParams().set('ids', beneficioIds.join(','));
+    return this.http.get<SaldosResponse>(`${this.apiUrl}/saldos`, { params });
+  }
+
   /**
    * Obter versão atual de um benefício
    */
@@ -117,6 +175,30 @@ export class BeneficioService {
     return this.http.get(`${this.apiUrl}/verificar-transferencia`, { params });
   }
 
+  /**
+   * Stream SSE de alterações de saldo (substitui o polling de listagem, saldo e versão).
+   * O EventSource reconecta sozinho e reenvia o Last-Event-ID; o evento 'recarregar'
+   * indica que eventos foram perdidos e a lista deve ser buscada de novo.
+   */
+  eventosSaldo(ids: number[] = [], aoRecarregar?: () => void): Observable<EventoSaldo> {
+    if (typeof EventSource === 'undefined') {
+      return EMPTY; // Renderização no servidor (SSR)
+    }
+
+    const filtro = ids.length > 0 ? `?ids=${ids.join(',')}` : '';
+
+    return new Observable<EventoSaldo>(subscriber => {
+      const source = new EventSource(`${this.apiUrl}/eventos${filtro}`);
+
+      source.addEventListener('saldo', (event: MessageEvent) => {
+        subscriber.next(JSON.parse(event.data) as EventoSaldo);
+      });
+      source.addEventListener('recarregar', () => aoRecarregar?.());
+
+      return () => source.close();
+    });
+  }
+
   /**
    * Método auxiliar para debug - mostra a estrutura completa da resposta
    */
@@ -3,6 +3,71 @@ CREATE TABLE BENEFICIO (
   NOME VARCHAR(100) NOT NULL,
   DESCRICAO VARCHAR(255),
   VALOR DECIMAL(15,2) NOT NULL,
+  VALOR_RESERVADO DECIMAL(15,2) DEFAULT 0 NOT NULL,
   ATIVO BOOLEAN DEFAULT TRUE,
   VERSION BIGINT DEFAULT 0
 );
+
+CREATE INDEX IDX_BENEFICIO_NOME ON BENEFICIO (NOME);
+
+CREATE TABLE RESERVA_SALDO (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ORIGEM_ID BIGINT NOT NULL,
+  DESTINO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  STATUS VARCHAR(10) NOT NULL,
+  CRIADA_EM TIMESTAMP WITH TIME ZONE NOT NULL,
+  EXPIRA_EM TIMESTAMP WITH TIME ZONE NOT NULL,
+  FINALIZADA_EM TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IDX_RESERVA_STATUS_EXPIRA ON RESERVA_SALDO (STATUS, EXPIRA_EM);
+
+CREATE TABLE CREDITO_PENDENTE (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  ORIGEM_ID BIGINT NOT NULL,
+  CRIADO_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IDX_CREDITO_PENDENTE_BENEFICIO ON CREDITO_PENDENTE (BENEFICIO_ID);
+
+CREATE TABLE OUTBOX_TRANSFERENCIA (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ESTRATEGIA VARCHAR(20) NOT NULL,
+  ORIGEM_ID BIGINT NOT NULL,
+  DESTINO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  SALDO_ORIGEM DECIMAL(15,2) NOT NULL,
+  VERSAO_ORIGEM BIGINT NOT NULL,
+  SALDO_DESTINO DECIMAL(15,2),
+  VERSAO_DESTINO BIGINT,
+  CRIADO_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Log de invalidação lido por todas as instâncias da aplicação (cache L2 e índices em memória)
+CREATE TABLE INVALIDACAO_BENEFICIO (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL,
+  VERSAO BIGINT,
+  INSTANCIA VARCHAR(64) NOT NULL,
+  CRIADO_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IDX_INVALIDACAO_CRIADO_EM ON INVALIDACAO_BENEFICIO (CRIADO_EM);
+
+-- Perfil shards: log de recuperação das transferências entre shards e ids globais
+CREATE TABLE TRANSACAO_DISTRIBUIDA (
+  XID VARCHAR(36) PRIMARY KEY,
+  ORIGEM_ID BIGINT NOT NULL,
+  DESTINO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  ESTADO VARCHAR(12) NOT NULL,
+  CRIADA_EM TIMESTAMP WITH TIME ZONE NOT NULL,
+  ATUALIZADA_EM TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IDX_TRANSACAO_DISTRIBUIDA_ESTADO ON TRANSACAO_DISTRIBUIDA (ESTADO, CRIADA_EM);
+
+CREATE SEQUENCE SEQ_BENEFICIO_SHARD START WITH 1;
@@ -0,0 +1,114 @@
+package com.example.ejb;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Entidade do módulo EJB. Mapeia a mesma tabela BENEFICIO (db/schema.sql)
+ * usada pelo backend Spring, com as mesmas colunas e o mesmo @Version.
+ */
+@Entity
+@Table(name = "BENEFICIO")
+public class Beneficio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "NOME", nullable = false, length = 100)
+    private String nome;
+
+    @Column(name = "DESCRICAO", length = 255)
+    private String descricao;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    // Parte do VALOR presa em reservas pendentes do backend; não pode ser transferida
+    @Column(name = "VALOR_RESERVADO", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valorReservado = BigDecimal.ZERO;
+
+    @Column(name = "ATIVO")
+    private Boolean ativo = true;
+
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
+    // Construtores
+    public Beneficio() {
+    }
+
+    public Beneficio(String nome, String descricao, BigDecimal valor, Boolean ativo) {
+        this.nome = nome;
+        this.descricao = descricao;
+        this.valor = valor;
+        this.ativo = ativo;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public BigDecimal getValorReservado() {
+        return valorReservado;
+    }
+
+    public void setValorReservado(BigDecimal valorReservado) {
+        this.valorReservado = valorReservado;
+    }
+
+    // Saldo que pode ser transferido
+    public BigDecimal getValorDisponivel() {
+        if (valor == null || valorReservado == null) {
+            return valor;
+        }
+        return valor.subtract(valorReservado);
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
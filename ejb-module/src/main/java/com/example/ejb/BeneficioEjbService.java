@@ -1,97 +1,230 @@
 package com.example.ejb;
 
+import jakarta.annotation.Resource;
+import jakarta.ejb.Asynchronous;
+import jakarta.ejb.EJBException;
+import jakarta.ejb.SessionContext;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.PersistenceException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 @Stateless
 public class BeneficioEjbService {
 
-    @PersistenceContext
+    private static final BigDecimal LIMITE_POR_TRANSFERENCIA = new BigDecimal("1000000");
+
+    public static final int TAMANHO_LOTE_PADRAO = 500;
+    public static final int INTERVALO_FLUSH_PADRAO = 50;
+
+    @PersistenceContext(unitName = "beneficioPU")
     private EntityManager em;
 
+    @Resource
+    private SessionContext sessionContext;
+
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
-        // Validações iniciais
+        validarParametros(fromId, toId, amount);
+
+        try {
+            aplicarTransferencia(fromId, toId, amount);
+            
+            // Flush explícito para garantir persistência
+            em.flush();
+            
+        } catch (PersistenceException e) {
+            throw new RuntimeException("Erro na persistência durante transferência", e);
+        }
+    }
+
+    /**
+     * Processa um lote de transferências de forma assíncrona.
+     *
+     * Os itens são divididos em blocos de tamanhoLote, cada um na sua própria
+     * transação; dentro do bloco o EntityManager recebe flush e clear a cada
+     * intervaloFlush itens, mantendo o contexto de persistência pequeno. Um item
+     * rejeitado pelas regras de negócio é marcado como falha sem afetar os demais.
+     * Se o bloco falhar no banco (deadlock, timeout de lock), ele é desfeito e os
+     * itens são reprocessados um a um.
+     */
+    @Asynchronous
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Future<ResultadoLote> transferirEmLote(List<ItemTransferencia> itens, int tamanhoLote, int intervaloFlush) {
+        return CompletableFuture.completedFuture(processar(itens.iterator(), tamanhoLote, intervaloFlush));
+    }
+
+    /**
+     * Variante de transferirEmLote para entradas grandes: o stream é consumido
+     * bloco a bloco, sem materializar todos os itens em memória.
+     */
+    @Asynchronous
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public Future<ResultadoLote> transferirEmLote(Stream<ItemTransferencia> itens, int tamanhoLote, int intervaloFlush) {
+        try (itens) {
+            return CompletableFuture.completedFuture(processar(itens.iterator(), tamanhoLote, intervaloFlush));
+        }
+    }
+
+    /**
+     * Aplica um bloco de transferências em uma transação nova. Uso interno de
+     * transferirEmLote; é público apenas para ser chamado pelo proxy do EJB.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public List<ResultadoLote.ResultadoItem> processarBloco(List<ItemTransferencia> bloco, int indiceInicial,
+                                                             int intervaloFlush) {
+        List<ResultadoLote.ResultadoItem> resultados = new ArrayList<>(bloco.size());
+        int pendentesFlush = 0;
+        for (int i = 0; i < bloco.size(); i++) {
+            ItemTransferencia item = bloco.get(i);
+            int indice = indiceInicial + i;
+            try {
+                validarParametros(item.getFromId(), item.getToId(), item.getAmount());
+                // As regras são verificadas antes de alterar as entidades: uma rejeição
+                // não deixa nada pendente na transação do bloco
+                aplicarTransferencia(item.getFromId(), item.getToId(), item.getAmount());
+                resultados.add(ResultadoLote.ResultadoItem.sucesso(indice));
+            } catch (TransferenciaInvalidaException | TransferenciaRecusadaException e) {
+                resultados.add(ResultadoLote.ResultadoItem.falha(indice, e.getMessage()));
+                continue;
+            }
+            if (++pendentesFlush >= intervaloFlush) {
+                // Os locks pessimistas continuam válidos até o commit; clear só libera
+                // as entidades já gravadas do contexto de persistência
+                em.flush();
+                em.clear();
+                pendentesFlush = 0;
+            }
+        }
+        em.flush();
+        return resultados;
+    }
+
+    private ResultadoLote processar(Iterator<ItemTransferencia> itens, int tamanhoLote, int intervaloFlush) {
+        if (tamanhoLote <= 0 || intervaloFlush <= 0) {
+            throw new TransferenciaInvalidaException("Tamanho do lote e intervalo de flush devem ser positivos");
+        }
+
+        BeneficioEjbService proxy = sessionContext.getBusinessObject(BeneficioEjbService.class);
+        List<ResultadoLote.ResultadoItem> resultados = new ArrayList<>();
+        int transacoes = 0;
+        long inicio = System.nanoTime();
+
+        while (itens.hasNext()) {
+            List<ItemTransferencia> bloco = new ArrayList<>(tamanhoLote);
+            while (itens.hasNext() && bloco.size() < tamanhoLote) {
+                bloco.add(itens.next());
+            }
+            int indiceInicial = resultados.size();
+            transacoes++;
+            try {
+                resultados.addAll(proxy.processarBloco(bloco, indiceInicial, intervaloFlush));
+            } catch (EJBException | PersistenceException e) {
+                // Bloco desfeito: reprocessa item a item para isolar a falha
+                for (int i = 0; i < bloco.size(); i++) {
+                    transacoes++;
+                    resultados.add(processarIsolado(proxy, bloco.get(i), indiceInicial + i));
+                }
+            }
+        }
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        return new ResultadoLote(resultados, transacoes, duracaoMs);
+    }
+
+    private static ResultadoLote.ResultadoItem processarIsolado(BeneficioEjbService proxy, ItemTransferencia item,
+                                                                int indice) {
+        try {
+            proxy.transfer(item.getFromId(), item.getToId(), item.getAmount());
+            return ResultadoLote.ResultadoItem.sucesso(indice);
+        } catch (RuntimeException e) {
+            Throwable causa = e instanceof EJBException && e.getCause() != null ? e.getCause() : e;
+            return ResultadoLote.ResultadoItem.falha(indice, causa.getMessage());
+        }
+    }
+
+    private static void validarParametros(Long fromId, Long toId, BigDecimal amount) {
+        // Validações iniciais (mesmas regras do BeneficioService do backend)
         if (fromId == null || toId == null || amount == null) {
-            throw new IllegalArgumentException("Parâmetros não podem ser nulos");
+            throw new TransferenciaInvalidaException("Parâmetros não podem ser nulos");
         }
         
         if (fromId.equals(toId)) {
-            throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
+            throw new TransferenciaInvalidaException("Não é possível transferir para o mesmo benefício");
         }
         
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Valor da transferência deve ser positivo");
+            throw new TransferenciaInvalidaException("Valor da transferência deve ser positivo");
+        }
+        
+        if (amount.compareTo(LIMITE_POR_TRANSFERENCIA) > 0) {
+            throw new TransferenciaInvalidaException("Valor da transferência excede o limite permitido de 1.000.000");
         }
+    }
 
-        try {
-            // Busca com PESSIMISTIC_WRITE para evitar concorrência
-            Beneficio from = em.find(Beneficio.class, fromId, LockModeType.PESSIMISTIC_WRITE);
-            Beneficio to = em.find(Beneficio.class, toId, LockModeType.PESSIMISTIC_WRITE);
-            
-            // Valida se os benefícios existem
-            if (from == null) {
-                throw new IllegalArgumentException("Benefício de origem não encontrado: " + fromId);
-            }
-            if (to == null) {
-                throw new IllegalArgumentException("Benefício de destino não encontrado: " + toId);
-            }
-            
-            // Valida se o benefício de origem está ativo
-            if (!from.getAtivo()) {
-                throw new IllegalStateException("Benefício de origem não está ativo");
-            }
-            
-            // Valida se o benefício de destino está ativo
-            if (!to.getAtivo()) {
-                throw new IllegalStateException("Benefício de destino não está ativo");
-            }
-            
-            // Valida saldo suficiente
-            if (from.getValor().compareTo(amount) < 0) {
-                throw new IllegalStateException(
-                    String.format("Saldo insuficiente. Saldo atual: %.2f, Valor solicitado: %.2f", 
-                                from.getValor(), amount)
-                );
-            }
-            
-            // Valida limites de valor
-            if (amount.compareTo(new BigDecimal("1000000")) > 0) {
-                throw new IllegalArgumentException("Valor da transferência excede o limite permitido");
-            }
-            
-            // Executa a transferência
-            from.setValor(from.getValor().subtract(amount));
-            to.setValor(to.getValor().add(amount));
-            
-            // Atualiza versões para optimistic locking
-            from.setVersion(from.getVersion() + 1);
-            to.setVersion(to.getVersion() + 1);
-            
-            // Merge é opcional com PESSIMISTIC_WRITE, mas explícito para clareza
-            em.merge(from);
-            em.merge(to);
-            
-            // Flush explícito para garantir persistência
-            em.flush();
-            
-        } catch (PersistenceException e) {
-            throw new RuntimeException("Erro na persistência durante transferência", e);
+    private void aplicarTransferencia(Long fromId, Long toId, BigDecimal amount) {
+        // PESSIMISTIC_WRITE sempre na ordem crescente de id: transferências A->B e B->A
+        // concorrentes esperam uma pela outra em vez de entrar em deadlock
+        Beneficio from;
+        Beneficio to;
+        if (fromId < toId) {
+            from = em.find(Beneficio.class, fromId, LockModeType.PESSIMISTIC_WRITE);
+            to = em.find(Beneficio.class, toId, LockModeType.PESSIMISTIC_WRITE);
+        } else {
+            to = em.find(Beneficio.class, toId, LockModeType.PESSIMISTIC_WRITE);
+            from = em.find(Beneficio.class, fromId, LockModeType.PESSIMISTIC_WRITE);
+        }
+        
+        // Valida se os benefícios existem
+        if (from == null) {
+            throw new TransferenciaInvalidaException("Benefício de origem não encontrado: " + fromId);
         }
+        if (to == null) {
+            throw new TransferenciaInvalidaException("Benefício de destino não encontrado: " + toId);
+        }
+        
+        // Valida se o benefício de origem está ativo
+        if (!from.getAtivo()) {
+            throw new TransferenciaRecusadaException("Benefício de origem não está ativo");
+        }
+        
+        // Valida se o benefício de destino está ativo
+        if (!to.getAtivo()) {
+            throw new TransferenciaRecusadaException("Benefício de destino não está ativo");
+        }
+        
+        // Valida saldo disponível: o valor reservado pelo backend será debitado na captura
+        if (from.getValorDisponivel().compareTo(amount) < 0) {
+            throw new TransferenciaRecusadaException(
+                String.format("Saldo insuficiente. Saldo disponível: %.2f, Valor solicitado: %.2f", 
+                            from.getValorDisponivel(), amount)
+            );
+        }
+        
+        // Executa a transferência; as entidades estão gerenciadas e o @Version
+        // é incrementado pelo provedor JPA no flush
+        from.setValor(from.getValor().subtract(amount));
+        to.setValor(to.getValor().add(amount));
     }
     
     // Método para consulta segura
     public BigDecimal consultarSaldo(Long beneficioId) {
         if (beneficioId == null) {
-            throw new IllegalArgumentException("ID do benefício não pode ser nulo");
+            throw new TransferenciaInvalidaException("ID do benefício não pode ser nulo");
         }
         
         Beneficio beneficio = em.find(Beneficio.class, beneficioId);
         if (beneficio == null) {
-            throw new IllegalArgumentException("Benefício não encontrado: " + beneficioId);
+            throw new TransferenciaInvalidaException("Benefício não encontrado: " + beneficioId);
         }
         
         return beneficio.getValor();
@@ -106,7 +239,7 @@ public class BeneficioEjbService {
         Beneficio from = em.find(Beneficio.class, fromId);
         return from != null && 
                from.getAtivo() && 
-               from.getValor().compareTo(amount) >= 0 &&
+               from.getValorDisponivel().compareTo(amount) >= 0 &&
                amount.compareTo(BigDecimal.ZERO) > 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.example.ejb;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Uma transferência dentro de um lote (BeneficioEjbService.transferirEmLote)
+ */
+public class ItemTransferencia implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long fromId;
+    private final Long toId;
+    private final BigDecimal amount;
+
+    public ItemTransferencia(Long fromId, Long toId, BigDecimal amount) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.amount = amount;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
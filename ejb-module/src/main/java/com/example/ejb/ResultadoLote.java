@@ -0,0 +1,98 @@
+package com.example.ejb;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Resultado de BeneficioEjbService.transferirEmLote: situação de cada item
+ * (na ordem de entrada) e estatísticas de throughput da execução.
+ */
+public class ResultadoLote implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<ResultadoItem> itens;
+    private final long sucessos;
+    private final long falhas;
+    private final int transacoes;
+    private final long duracaoMs;
+
+    public ResultadoLote(List<ResultadoItem> itens, int transacoes, long duracaoMs) {
+        this.itens = List.copyOf(itens);
+        this.sucessos = itens.stream().filter(ResultadoItem::isSucesso).count();
+        this.falhas = itens.size() - sucessos;
+        this.transacoes = transacoes;
+        this.duracaoMs = duracaoMs;
+    }
+
+    public List<ResultadoItem> getItens() {
+        return itens;
+    }
+
+    public long getSucessos() {
+        return sucessos;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    public int getTransacoes() {
+        return transacoes;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public double getTransferenciasPorSegundo() {
+        return duracaoMs == 0 ? sucessos * 1000.0 : sucessos * 1000.0 / duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{" +
+                "itens=" + itens.size() +
+                ", sucessos=" + sucessos +
+                ", falhas=" + falhas +
+                ", transacoes=" + transacoes +
+                ", duracaoMs=" + duracaoMs +
+                ", transferenciasPorSegundo=" + String.format("%.1f", getTransferenciasPorSegundo()) +
+                '}';
+    }
+
+    public static class ResultadoItem implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int indice;
+        private final boolean sucesso;
+        private final String mensagem;
+
+        public ResultadoItem(int indice, boolean sucesso, String mensagem) {
+            this.indice = indice;
+            this.sucesso = sucesso;
+            this.mensagem = mensagem;
+        }
+
+        public static ResultadoItem sucesso(int indice) {
+            return new ResultadoItem(indice, true, null);
+        }
+
+        public static ResultadoItem falha(int indice, String mensagem) {
+            return new ResultadoItem(indice, false, mensagem);
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public boolean isSucesso() {
+            return sucesso;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+    }
+}
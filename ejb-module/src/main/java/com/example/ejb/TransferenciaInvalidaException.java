@@ -0,0 +1,18 @@
+package com.example.ejb;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Parâmetros de transferência ou de consulta inválidos (nulos, mesmo benefício,
+ * valor fora da faixa, benefício inexistente). Exceção de aplicação: chega ao
+ * cliente sem EJBException e desfaz a transação.
+ */
+@ApplicationException(rollback = true)
+public class TransferenciaInvalidaException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TransferenciaInvalidaException(String message) {
+        super(message);
+    }
+}
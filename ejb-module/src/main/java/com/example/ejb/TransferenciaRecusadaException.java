@@ -0,0 +1,18 @@
+package com.example.ejb;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Transferência recusada pelas regras de negócio (benefício inativo, saldo
+ * disponível insuficiente). Exceção de aplicação: chega ao cliente sem
+ * EJBException e desfaz a transação.
+ */
+@ApplicationException(rollback = true)
+public class TransferenciaRecusadaException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TransferenciaRecusadaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.ejb;
+
+import jakarta.ejb.EJB;
+import jakarta.ejb.embeddable.EJBContainer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.NamingException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioEjbServiceTest {
+
+    private static EJBContainer container;
+
+    @EJB
+    private BeneficioEjbService beneficioEjbService;
+
+    @EJB
+    private BeneficioTestFixture fixture;
+
+    @BeforeAll
+    static void iniciarContainer() {
+        container = EJBContainer.createEJBContainer(ContainerEmbarcado.propriedades("ejb-test"));
+    }
+
+    @AfterAll
+    static void encerrarContainer() {
+        if (container != null) {
+            container.close();
+        }
+    }
+
+    @BeforeEach
+    void injetar() throws NamingException {
+        container.getContext().bind("inject", this);
+    }
+
+    @Test
+    void transfer_DeveRealizarTransferenciaComSucesso() {
+        // Arrange
+        Long origem = fixture.criar("Origem", new BigDecimal("500.00"), true);
+        Long destino = fixture.criar("Destino", new BigDecimal("200.00"), true);
+
+        // Act
+        beneficioEjbService.transfer(origem, destino, new BigDecimal("100.00"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("400.00").compareTo(fixture.buscar(origem).getValor()));
+        assertEquals(0, new BigDecimal("300.00").compareTo(fixture.buscar(destino).getValor()));
+        assertEquals(1L, fixture.buscar(origem).getVersion());
+    }
+
+    @Test
+    void transfer_DeveLancarExcecaoParaSaldoInsuficienteSemAlterarSaldos() {
+        // Arrange
+        Long origem = fixture.criar("Origem", new BigDecimal("50.00"), true);
+        Long destino = fixture.criar("Destino", new BigDecimal("200.00"), true);
+
+        // Act & Assert
+        TransferenciaRecusadaException exception = assertThrows(TransferenciaRecusadaException.class,
+            () -> beneficioEjbService.transfer(origem, destino, new BigDecimal("100.00")));
+
+        assertTrue(exception.getMessage().contains("Saldo insuficiente"));
+        assertEquals(0, new BigDecimal("50.00").compareTo(fixture.buscar(origem).getValor()));
+        assertEquals(0, new BigDecimal("200.00").compareTo(fixture.buscar(destino).getValor()));
+    }
+
+    @Test
+    void transfer_NaoDeveGastarOValorReservado() {
+        // Arrange: 500 de saldo, 450 presos em uma reserva pendente
+        Long origem = fixture.criar("Origem reservada", new BigDecimal("500.00"), true);
+        Long destino = fixture.criar("Destino", new BigDecimal("0.00"), true);
+        fixture.reservar(origem, new BigDecimal("450.00"));
+
+        // Act & Assert
+        assertFalse(beneficioEjbService.isTransferenciaPossivel(origem, new BigDecimal("100.00")));
+        TransferenciaRecusadaException exception = assertThrows(TransferenciaRecusadaException.class,
+            () -> beneficioEjbService.transfer(origem, destino, new BigDecimal("100.00")));
+        assertTrue(exception.getMessage().contains("Saldo insuficiente"));
+
+        beneficioEjbService.transfer(origem, destino, new BigDecimal("50.00"));
+        assertEquals(0, new BigDecimal("450.00").compareTo(fixture.buscar(origem).getValor()));
+    }
+
+    @Test
+    void transfer_DeveLancarExcecaoParaBeneficioInativo() {
+        // Arrange
+        Long origem = fixture.criar("Origem", new BigDecimal("500.00"), true);
+        Long destino = fixture.criar("Destino inativo", new BigDecimal("200.00"), false);
+
+        // Act & Assert
+        TransferenciaRecusadaException exception = assertThrows(TransferenciaRecusadaException.class,
+            () -> beneficioEjbService.transfer(origem, destino, new BigDecimal("100.00")));
+
+        assertTrue(exception.getMessage().contains("destino não está ativo"));
+    }
+
+    @Test
+    void transfer_DeveValidarParametros() {
+        assertThrows(TransferenciaInvalidaException.class,
+            () -> beneficioEjbService.transfer(null, 2L, BigDecimal.TEN));
+        assertThrows(TransferenciaInvalidaException.class,
+            () -> beneficioEjbService.transfer(1L, 1L, BigDecimal.TEN));
+        assertThrows(TransferenciaInvalidaException.class,
+            () -> beneficioEjbService.transfer(1L, 2L, BigDecimal.ZERO));
+        assertThrows(TransferenciaInvalidaException.class,
+            () -> beneficioEjbService.transfer(1L, 2L, new BigDecimal("1000001.00")));
+    }
+
+    @Test
+    void transferirEmLote_DeveProcessarBlocosEMarcarFalhasPorItem() throws Exception {
+        // Arrange
+        Long origem = fixture.criar("Origem lote", new BigDecimal("100.00"), true);
+        Long destino = fixture.criar("Destino lote", new BigDecimal("0.00"), true);
+        List<ItemTransferencia> itens = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            itens.add(new ItemTransferencia(origem, destino, new BigDecimal("10.00")));
+        }
+        itens.add(5, new ItemTransferencia(origem, origem, new BigDecimal("10.00")));
+
+        // Act: blocos de 4 com flush a cada 2 itens
+        ResultadoLote resultado = beneficioEjbService.transferirEmLote(itens, 4, 2).get(60, TimeUnit.SECONDS);
+
+        // Assert: 10 transferências cabem no saldo; o item inválido e as 2 últimas falham
+        assertEquals(13, resultado.getItens().size());
+        assertEquals(10, resultado.getSucessos());
+        assertEquals(3, resultado.getFalhas());
+        assertEquals(4, resultado.getTransacoes());
+        assertFalse(resultado.getItens().get(5).isSucesso());
+        assertTrue(resultado.getItens().get(12).getMensagem().contains("Saldo insuficiente"));
+        assertEquals(0, BigDecimal.ZERO.compareTo(fixture.buscar(origem).getValor()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(fixture.buscar(destino).getValor()));
+    }
+
+    @Test
+    void transfer_ConcorrentesEmSentidosOpostosNaoEntramEmDeadlock() throws Exception {
+        // Arrange
+        Long a = fixture.criar("Conta A", new BigDecimal("10000.00"), true);
+        Long b = fixture.criar("Conta B", new BigDecimal("10000.00"), true);
+        int transferenciasPorSentido = 100;
+
+        // Act: A->B e B->A ao mesmo tempo; sem lock ordenado isso gera deadlock
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> futuros = new ArrayList<>();
+        futuros.add(executor.submit(() -> {
+            for (int i = 0; i < transferenciasPorSentido; i++) {
+                beneficioEjbService.transfer(a, b, new BigDecimal("1.00"));
+            }
+        }));
+        futuros.add(executor.submit(() -> {
+            for (int i = 0; i < transferenciasPorSentido; i++) {
+                beneficioEjbService.transfer(b, a, new BigDecimal("2.00"));
+            }
+        }));
+        for (Future<?> futuro : futuros) {
+            futuro.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert: saldo total conservado e diferença líquida aplicada
+        BigDecimal saldoA = fixture.buscar(a).getValor();
+        BigDecimal saldoB = fixture.buscar(b).getValor();
+        assertEquals(0, new BigDecimal("20000.00").compareTo(saldoA.add(saldoB)));
+        assertEquals(0, new BigDecimal("10100.00").compareTo(saldoA));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ejb;
+
+import jakarta.ejb.Stateless;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+
+/**
+ * EJB auxiliar dos testes para preparar e consultar dados no mesmo persistence unit
+ */
+@Stateless
+public class BeneficioTestFixture {
+
+    @PersistenceContext(unitName = "beneficioPU")
+    private EntityManager em;
+
+    public Long criar(String nome, BigDecimal valor, boolean ativo) {
+        Beneficio beneficio = new Beneficio(nome, "Criado pelo teste", valor, ativo);
+        em.persist(beneficio);
+        em.flush();
+        return beneficio.getId();
+    }
+
+    // Simula uma reserva pendente feita pelo backend na mesma tabela
+    public void reservar(Long id, BigDecimal valor) {
+        Beneficio beneficio = em.find(Beneficio.class, id);
+        beneficio.setValorReservado(beneficio.getValorReservado().add(valor));
+    }
+
+    public Beneficio buscar(Long id) {
+        return em.find(Beneficio.class, id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ejb;
+
+import java.util.Properties;
+
+/**
+ * Configuração do container EJB embarcado (OpenEJB) com H2 em memória,
+ * compartilhada pelos testes e pelo benchmark do módulo.
+ */
+final class ContainerEmbarcado {
+
+    private ContainerEmbarcado() {
+    }
+
+    static Properties propriedades(String nomeBanco) {
+        Properties propriedades = new Properties();
+        propriedades.put("beneficioDS", "new://Resource?type=DataSource");
+        propriedades.put("beneficioDS.JdbcDriver", "org.h2.Driver");
+        propriedades.put("beneficioDS.JdbcUrl", "jdbc:h2:mem:" + nomeBanco + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        propriedades.put("beneficioDS.UserName", "sa");
+        propriedades.put("beneficioDS.Password", "");
+        propriedades.put("beneficioDS.JtaManaged", "true");
+        propriedades.put("beneficioDS.MaxActive", "64");
+        // Cria a tabela BENEFICIO a partir da entidade
+        propriedades.put("beneficioPU.openjpa.jdbc.SynchronizeMappings", "buildSchema(ForeignKeys=true)");
+        propriedades.put("beneficioPU.openjpa.Log", "DefaultLevel=WARN");
+        return propriedades;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ejb;
+
+import jakarta.ejb.EJB;
+import jakarta.ejb.embeddable.EJBContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput de BeneficioEjbService.transfer no container embarcado.
+ *
+ * Usa a mesma carga de com.exemple.backend.benchmark.TransferenciaThroughputBenchmark
+ * (contas, threads, transferências, valor e sementes), permitindo comparar o caminho
+ * EJB com o Spring.
+ *
+ * Execução:
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.ejb.TransferenciaThroughputBenchmark
+ */
+public class TransferenciaThroughputBenchmark {
+
+    private static final int CONTAS = 100;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+    private static final int THREADS = 16;
+    private static final int TRANSFERENCIAS = 20_000;
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+    private static final long SEMENTE = 42L;
+
+    public static void main(String[] args) throws Exception {
+        try (EJBContainer container = EJBContainer.createEJBContainer(ContainerEmbarcado.propriedades("ejb-benchmark"))) {
+            Alvos alvos = new Alvos();
+            container.getContext().bind("inject", alvos);
+            BeneficioEjbService service = alvos.service;
+            BeneficioTestFixture fixture = alvos.fixture;
+
+            long[] ids = new long[CONTAS];
+            for (int i = 0; i < CONTAS; i++) {
+                ids[i] = fixture.criar("Benchmark " + i, SALDO_INICIAL, true);
+            }
+
+            // Aquecimento do JIT e do pool de conexões
+            executar(service, ids, TRANSFERENCIAS / 10);
+
+            Map<String, LongAdder> falhas = new ConcurrentHashMap<>();
+            long inicio = System.nanoTime();
+            long sucesso = executar(service, ids, TRANSFERENCIAS, falhas);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            System.out.printf("EJB transfer: %d transferências, %d threads, %.2fs, %.1f transf/s%n",
+                    sucesso, THREADS, segundos, sucesso / segundos);
+            falhas.forEach((tipo, quantidade) -> System.out.printf("  falha %s: %d%n", tipo, quantidade.sum()));
+
+            // Mesma quantidade de transferências via transferirEmLote (uma chamada, blocos transacionais)
+            Random random = new Random(SEMENTE);
+            List<ItemTransferencia> itens = new ArrayList<>(TRANSFERENCIAS);
+            for (int i = 0; i < TRANSFERENCIAS; i++) {
+                int origem = random.nextInt(CONTAS);
+                int destino = (origem + 1 + random.nextInt(CONTAS - 1)) % CONTAS;
+                itens.add(new ItemTransferencia(ids[origem], ids[destino], VALOR));
+            }
+            ResultadoLote lote = service.transferirEmLote(itens, BeneficioEjbService.TAMANHO_LOTE_PADRAO,
+                    BeneficioEjbService.INTERVALO_FLUSH_PADRAO).get(10, TimeUnit.MINUTES);
+            System.out.println("EJB transferirEmLote: " + lote);
+        }
+    }
+
+    private static long executar(BeneficioEjbService service, long[] ids, int total) throws InterruptedException {
+        return executar(service, ids, total, new ConcurrentHashMap<>());
+    }
+
+    private static long executar(BeneficioEjbService service, long[] ids, int total,
+                                 Map<String, LongAdder> falhas) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch fim = new CountDownLatch(THREADS);
+        LongAdder sucesso = new LongAdder();
+        int porThread = total / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            long semente = SEMENTE + t;
+            executor.execute(() -> {
+                Random random = new Random(semente);
+                try {
+                    for (int i = 0; i < porThread; i++) {
+                        int origem = random.nextInt(CONTAS);
+                        int destino = (origem + 1 + random.nextInt(CONTAS - 1)) % CONTAS;
+                        try {
+                            service.transfer(ids[origem], ids[destino], VALOR);
+                            sucesso.increment();
+                        } catch (RuntimeException e) {
+                            falhas.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                        }
+                    }
+                } finally {
+                    fim.countDown();
+                }
+            });
+        }
+        fim.await(10, TimeUnit.MINUTES);
+        executor.shutdown();
+        return sucesso.sum();
+    }
+
+    // Recebe os EJBs por injeção do container embarcado
+    public static class Alvos {
+        @EJB
+        private BeneficioEjbService service;
+
+        @EJB
+        private BeneficioTestFixture fixture;
+    }
+}
@@ -1,8 +1,9 @@
-import { Component, OnInit, ChangeDetectionStrategy, ChangeDetectorRef } from '@angular/core';
+import { Component, OnInit, OnDestroy, ChangeDetectionStrategy, ChangeDetectorRef } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { MatTableModule } from '@angular/material/table';
 import { MatButtonModule } from '@angular/material/button';
 import { MatProgressSpinnerModule } from '@angular/material/progress-spinner';
+import { Subscription } from 'rxjs';
 import { BeneficioService } from '../../services/beneficio.service';
 import { Beneficio } from '../../interfaces/beneficio.interface';
 
@@ -19,11 +20,12 @@ import { Beneficio } from '../../interfaces/beneficio.interface';
   styleUrls: ['./beneficio-list.component.css'],
   changeDetection: ChangeDetectionStrategy.OnPush
 })
-export class BeneficioListComponent implements OnInit {
+export class BeneficioListComponent implements OnInit, OnDestroy {
   beneficios: Beneficio[] = [];
   carregando = false;
   erro = '';
   displayedColumns: string[] = ['id', 'nome', 'descricao', 'saldo', 'status', 'versao'];
+  private eventosSubscription?: Subscription;
 
   constructor(
     private beneficioService: BeneficioService,
@@ -32,6 +34,25 @@ export class BeneficioListComponent implements OnInit {
 
   ngOnInit() {
     this.carregarBeneficios();
+
+    // Atualiza saldo e versão pelo stream SSE em vez de recarregar a lista
+    this.eventosSubscription = this.beneficioService
+      .eventosSaldo([], () => this.carregarBeneficios())
+      .subscribe(evento => {
+        const indice = this.beneficios.findIndex(b => b.id === evento.beneficioId);
+        if (indice < 0) {
+          this.carregarBeneficios();
+          return;
+        }
+        const beneficios = [...this.beneficios];
+        beneficios[indice] = { ...beneficios[indice], valor: evento.saldo, version: evento.versao };
+        this.beneficios = beneficios;
+        this.cdr.markForCheck();
+      });
+  }
+
+  ngOnDestroy() {
+    this.eventosSubscription?.unsubscribe();
   }
 
   carregarBeneficios() {
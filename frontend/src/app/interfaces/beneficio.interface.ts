@@ -3,6 +3,7 @@ export interface Beneficio {
   nome: string;
   descricao: string;
   valor: number;
+  valorReservado?: number;
   ativo: boolean;
   version?: number;
 }
@@ -31,6 +32,20 @@ export interface TransferenciaResponse {
   timestamp: string;
 }
 
+// Reserva de saldo (transferência em duas fases)
+export interface ReservaResponse {
+  success: boolean;
+  message: string;
+  reservaId: number;
+  fromId: number;
+  toId: number;
+  amount: number;
+  status: 'PENDENTE' | 'CAPTURADA' | 'LIBERADA' | 'EXPIRADA';
+  expiraEm: string;
+  finalizadaEm?: string;
+  timestamp: string;
+}
+
 export interface SaldoResponse {
   success: boolean;
   beneficioId: number;
@@ -38,6 +53,24 @@ export interface SaldoResponse {
   timestamp: string;
 }
 
+export interface SaldoVersaoResponse {
+  success: boolean;
+  beneficioId: number;
+  saldo: number;
+  versao: number;
+  ativo: boolean;
+  // Créditos diferidos já incluídos em saldo, ainda não consolidados
+  creditoPendente: number;
+  timestamp: string;
+}
+
+export interface SaldosResponse {
+  success: boolean;
+  saldos: { [beneficioId: string]: { saldo: number; versao: number; ativo: boolean } };
+  ausentes: number[];
+  timestamp: string;
+}
+
 export interface VersaoResponse {
   success: boolean;
   beneficioId: number;
@@ -51,4 +84,12 @@ export interface ConflitoResponse {
   versaoInformada: number;
   temConflito: boolean;
   timestamp: string;
-}
\ No newline at end of file
+}
+
+// Evento do stream SSE /eventos
+export interface EventoSaldo {
+  beneficioId: number;
+  saldo: number;
+  versao: number;
+  timestamp: string;
+}